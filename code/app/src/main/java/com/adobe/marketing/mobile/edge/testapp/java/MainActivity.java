@@ -214,7 +214,7 @@ public class MainActivity extends AppCompatActivity implements AdapterView.OnIte
 		xdmData.setEventType("commerce.purchases");
 		xdmData.setCommerce(commerce);
 
-		ExperienceEvent event = new ExperienceEvent.Builder().setXdmSchema(xdmData).setData(eventData).build();
+		ExperienceEvent event = new ExperienceEvent.Builder().adoptXdmSchema(xdmData).setData(eventData).build();
 		Edge.sendEvent(
 			event,
 			handles -> {
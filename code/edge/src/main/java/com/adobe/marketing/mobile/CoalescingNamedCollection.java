@@ -0,0 +1,384 @@
+/*
+  Copyright 2023 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile;
+
+import static com.adobe.marketing.mobile.EdgeConstants.LOG_TAG;
+
+import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.services.NamedCollection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link NamedCollection} which defers and coalesces the writes to another {@code NamedCollection}.
+ * <p>
+ * Writes are kept in memory and reads return the latest written values. Writes which do not change the pending value,
+ * or the value last written by this collection, are skipped, and repeated writes to the same key only write the last
+ * value. The pending writes are flushed to the
+ * underlying collection at most {@code flushDelayMillis} after the first pending write, or when {@link #flush()}
+ * is called, so the writes made shortly before the application is terminated may be lost.
+ * <p>
+ * The writes to the write-through keys, which should not be lost, are applied immediately, after flushing the
+ * pending writes so the writes are persisted in order.
+ */
+class CoalescingNamedCollection implements NamedCollection {
+
+	private static final String LOG_SOURCE = "CoalescingNamedCollection";
+	// pending value of a removed key
+	private static final Object REMOVED = new Object();
+
+	private final NamedCollection namedCollection;
+	private final long flushDelayMillis;
+	private final Set<String> writeThroughKeys;
+	private final Object mutex = new Object();
+
+	// key to pending value, or REMOVED, in write order
+	private final Map<String, Object> pendingWrites = new LinkedHashMap<>();
+	// key to value last written to the underlying collection, or REMOVED, used to skip the no-op writes without
+	// reading the underlying collection
+	private final Map<String, Object> writtenValues = new HashMap<>();
+	// true if all keys are removed before applying the pending writes
+	private boolean pendingRemoveAll = false;
+	private boolean flushScheduled = false;
+	private boolean closed = false;
+	private ScheduledExecutorService executor;
+
+	/**
+	 * Creates a new coalescing collection.
+	 *
+	 * @param namedCollection the underlying {@link NamedCollection}, should not be null
+	 * @param flushDelayMillis the maximum time in milliseconds a write is kept pending
+	 */
+	CoalescingNamedCollection(final NamedCollection namedCollection, final long flushDelayMillis) {
+		this(namedCollection, flushDelayMillis, Collections.emptySet());
+	}
+
+	/**
+	 * Creates a new coalescing collection which applies the writes to the provided keys immediately.
+	 *
+	 * @param namedCollection the underlying {@link NamedCollection}, should not be null
+	 * @param flushDelayMillis the maximum time in milliseconds a write is kept pending
+	 * @param writeThroughKeys the keys whose writes are not deferred, should not be null
+	 */
+	CoalescingNamedCollection(
+		final NamedCollection namedCollection,
+		final long flushDelayMillis,
+		final Set<String> writeThroughKeys
+	) {
+		this.namedCollection = namedCollection;
+		this.flushDelayMillis = flushDelayMillis;
+		this.writeThroughKeys = writeThroughKeys;
+	}
+
+	@Override
+	public void setInt(final String key, final int value) {
+		write(key, value);
+	}
+
+	@Override
+	public int getInt(final String key, final int fallback) {
+		synchronized (mutex) {
+			final Object value = read(key);
+
+			if (value == null) {
+				return namedCollection.getInt(key, fallback);
+			}
+
+			return value instanceof Integer ? (Integer) value : fallback;
+		}
+	}
+
+	@Override
+	public void setString(final String key, final String value) {
+		write(key, value);
+	}
+
+	@Override
+	public String getString(final String key, final String fallback) {
+		synchronized (mutex) {
+			final Object value = read(key);
+
+			if (value == null) {
+				return namedCollection.getString(key, fallback);
+			}
+
+			return value instanceof String ? (String) value : fallback;
+		}
+	}
+
+	@Override
+	public void setDouble(final String key, final double value) {
+		write(key, value);
+	}
+
+	@Override
+	public double getDouble(final String key, final double fallback) {
+		synchronized (mutex) {
+			final Object value = read(key);
+
+			if (value == null) {
+				return namedCollection.getDouble(key, fallback);
+			}
+
+			return value instanceof Double ? (Double) value : fallback;
+		}
+	}
+
+	@Override
+	public void setLong(final String key, final long value) {
+		write(key, value);
+	}
+
+	@Override
+	public long getLong(final String key, final long fallback) {
+		synchronized (mutex) {
+			final Object value = read(key);
+
+			if (value == null) {
+				return namedCollection.getLong(key, fallback);
+			}
+
+			return value instanceof Long ? (Long) value : fallback;
+		}
+	}
+
+	@Override
+	public void setFloat(final String key, final float value) {
+		write(key, value);
+	}
+
+	@Override
+	public float getFloat(final String key, final float fallback) {
+		synchronized (mutex) {
+			final Object value = read(key);
+
+			if (value == null) {
+				return namedCollection.getFloat(key, fallback);
+			}
+
+			return value instanceof Float ? (Float) value : fallback;
+		}
+	}
+
+	@Override
+	public void setBoolean(final String key, final boolean value) {
+		write(key, value);
+	}
+
+	@Override
+	public boolean getBoolean(final String key, final boolean fallback) {
+		synchronized (mutex) {
+			final Object value = read(key);
+
+			if (value == null) {
+				return namedCollection.getBoolean(key, fallback);
+			}
+
+			return value instanceof Boolean ? (Boolean) value : fallback;
+		}
+	}
+
+	@Override
+	public void setMap(final String key, final Map<String, String> value) {
+		write(key, value != null ? new HashMap<>(value) : null);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public Map<String, String> getMap(final String key) {
+		synchronized (mutex) {
+			final Object value = read(key);
+
+			if (value instanceof Map) {
+				return new HashMap<>((Map<String, String>) value);
+			}
+
+			return value == null ? namedCollection.getMap(key) : null;
+		}
+	}
+
+	@Override
+	public boolean contains(final String key) {
+		synchronized (mutex) {
+			final Object value = read(key);
+			return value == null ? namedCollection.contains(key) : value != REMOVED;
+		}
+	}
+
+	@Override
+	public void remove(final String key) {
+		write(key, REMOVED);
+	}
+
+	@Override
+	public void removeAll() {
+		synchronized (mutex) {
+			pendingWrites.clear();
+
+			if (closed) {
+				namedCollection.removeAll();
+				writtenValues.clear();
+				return;
+			}
+
+			pendingRemoveAll = true;
+			scheduleFlush();
+		}
+	}
+
+	/**
+	 * Writes all the pending changes to the underlying collection.
+	 */
+	void flush() {
+		synchronized (mutex) {
+			if (pendingRemoveAll) {
+				namedCollection.removeAll();
+				writtenValues.clear();
+				pendingRemoveAll = false;
+			}
+
+			for (final Map.Entry<String, Object> pendingWrite : pendingWrites.entrySet()) {
+				apply(pendingWrite.getKey(), pendingWrite.getValue());
+			}
+
+			pendingWrites.clear();
+		}
+	}
+
+	/**
+	 * Flushes the pending changes and stops the background flushes. Further writes are applied to the underlying
+	 * collection immediately.
+	 */
+	void close() {
+		synchronized (mutex) {
+			flush();
+			closed = true;
+
+			if (executor != null) {
+				executor.shutdown();
+				executor = null;
+			}
+		}
+	}
+
+	/**
+	 * @return the pending value for {@code key}, {@link #REMOVED} if it was removed, or null if it has no pending value
+	 */
+	private Object read(final String key) {
+		final Object value = pendingWrites.get(key);
+
+		if (value == null && pendingRemoveAll) {
+			return REMOVED;
+		}
+
+		return value;
+	}
+
+	private void write(final String key, final Object value) {
+		if (key == null) {
+			return;
+		}
+
+		final Object newValue = value != null ? value : REMOVED;
+
+		synchronized (mutex) {
+			if (Objects.equals(newValue, currentValue(key))) {
+				// no-op write
+				return;
+			}
+
+			if (closed) {
+				apply(key, newValue);
+				return;
+			}
+
+			if (writeThroughKeys.contains(key)) {
+				pendingWrites.remove(key);
+				flush();
+				apply(key, newValue);
+				return;
+			}
+
+			pendingWrites.remove(key);
+			pendingWrites.put(key, newValue);
+			scheduleFlush();
+		}
+	}
+
+	/**
+	 * @return the pending value for {@code key}, or the value last written by this collection, or null if unknown
+	 */
+	private Object currentValue(final String key) {
+		final Object pendingValue = read(key);
+		return pendingValue != null ? pendingValue : writtenValues.get(key);
+	}
+
+	private void apply(final String key, final Object value) {
+		writtenValues.put(key, value);
+
+		if (value == REMOVED) {
+			namedCollection.remove(key);
+		} else if (value instanceof String) {
+			namedCollection.setString(key, (String) value);
+		} else if (value instanceof Integer) {
+			namedCollection.setInt(key, (Integer) value);
+		} else if (value instanceof Long) {
+			namedCollection.setLong(key, (Long) value);
+		} else if (value instanceof Double) {
+			namedCollection.setDouble(key, (Double) value);
+		} else if (value instanceof Float) {
+			namedCollection.setFloat(key, (Float) value);
+		} else if (value instanceof Boolean) {
+			namedCollection.setBoolean(key, (Boolean) value);
+		} else if (value instanceof Map) {
+			@SuppressWarnings("unchecked")
+			final Map<String, String> map = (Map<String, String>) value;
+			namedCollection.setMap(key, map);
+		}
+	}
+
+	private void scheduleFlush() {
+		if (flushScheduled || closed) {
+			return;
+		}
+
+		if (executor == null) {
+			executor =
+				Executors.newSingleThreadScheduledExecutor(runnable -> {
+					final Thread thread = new Thread(runnable, LOG_SOURCE);
+					thread.setDaemon(true);
+					return thread;
+				});
+		}
+
+		flushScheduled = true;
+		executor.schedule(
+			() -> {
+				synchronized (mutex) {
+					flushScheduled = false;
+					flush();
+				}
+
+				Log.trace(LOG_TAG, LOG_SOURCE, "Flushed pending data store writes.");
+			},
+			flushDelayMillis,
+			TimeUnit.MILLISECONDS
+		);
+	}
+}
@@ -16,26 +16,104 @@ import static com.adobe.marketing.mobile.EdgeConstants.LOG_TAG;
 import com.adobe.marketing.mobile.services.Log;
 import com.adobe.marketing.mobile.util.StringUtils;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Use this class to register {@link EdgeCallback}s for a specific event id
  * and get notified once a response is received from the Adobe Experience Edge
+ * <p>
+ * The time to live of a callback starts when the request of its event is sent, see {@link #startExpiry(List)}, so
+ * the callbacks of the events queued while offline or while the requests are paused do not expire early. Callbacks
+ * which are not completed by a response within their time to live are completed with the event handles received so
+ * far, if any. The callbacks of dropped events are completed by the Edge extension when the event is dropped; as a
+ * backstop, every callback is also completed once its maximum time to live since registration elapsed. The expiry
+ * is tracked with a timer wheel which only ticks while callbacks are registered.
+ * <p>
+ * The callbacks are invoked on the callback executor, so slow callbacks do not delay the processing of the
+ * Edge requests. By default, they are invoked in order on a background thread.
  */
 class CompletionCallbacksManager {
 
 	private static final String LOG_SOURCE = "CompletionCallbacksManager";
+	// duration of a timer wheel tick and number of slots in the timer wheel
+	private static final long TICK_MILLIS = 1000L;
+	private static final int WHEEL_SLOTS = 64;
 
-	private final ConcurrentMap<String, EdgeCallback> completionCallbacks;
+	private final long callbackTtlMillis;
+	private final long callbackMaxTtlMillis;
+	private final int maxCallbacks;
 
-	// edge response handles for a event request id (key)
-	private final ConcurrentMap<String, List<EdgeEventHandle>> edgeEventHandles;
+	// pending callbacks and their edge response handles for a event request id (key)
+	private final ConcurrentMap<String, PendingCallback> completionCallbacks;
+
+	// timer wheel of the pending callbacks, by expiry tick modulo WHEEL_SLOTS; guarded by wheelMutex
+	private final List<Set<PendingCallback>> wheel;
+	private final Object wheelMutex = new Object();
+	// last processed timer wheel tick
+	private long currentTick;
+	private ScheduledExecutorService timer;
+	private ScheduledFuture<?> timerTask;
+
+	private final AtomicLong evictedCallbacks = new AtomicLong();
+	// registration order of the callbacks, used to evict the oldest callback when the registry is full
+	private final AtomicLong registrations = new AtomicLong();
+
+	// executor used when no callback executor is set by the app, created on first use
+	private Executor defaultCallbackExecutor;
+	private volatile Executor callbackExecutor;
 
 	private CompletionCallbacksManager() {
+		this(EdgeConstants.Defaults.COMPLETION_CALLBACK_TTL_MILLIS, EdgeConstants.Defaults.COMPLETION_CALLBACKS_MAX);
+	}
+
+	/**
+	 * Creates a {@code CompletionCallbacksManager} with the provided limits and the default maximum time to live.
+	 *
+	 * @param callbackTtlMillis the time in milliseconds after the request is sent after which a registered callback
+	 *                          is completed
+	 * @param maxCallbacks the maximum number of registered callbacks; when exceeded, the oldest callback is completed
+	 */
+	CompletionCallbacksManager(final long callbackTtlMillis, final int maxCallbacks) {
+		this(callbackTtlMillis, EdgeConstants.Defaults.COMPLETION_CALLBACK_MAX_TTL_MILLIS, maxCallbacks);
+	}
+
+	/**
+	 * Creates a {@code CompletionCallbacksManager} with the provided limits.
+	 *
+	 * @param callbackTtlMillis the time in milliseconds after the request is sent after which a registered callback
+	 *                          is completed
+	 * @param callbackMaxTtlMillis the time in milliseconds after the registration after which a callback is completed,
+	 *                             even if its request was not sent
+	 * @param maxCallbacks the maximum number of registered callbacks; when exceeded, the oldest callback is completed
+	 */
+	CompletionCallbacksManager(final long callbackTtlMillis, final long callbackMaxTtlMillis, final int maxCallbacks) {
+		this.callbackTtlMillis = callbackTtlMillis;
+		this.callbackMaxTtlMillis = callbackMaxTtlMillis;
+		this.maxCallbacks = maxCallbacks;
 		completionCallbacks = new ConcurrentHashMap<>();
-		edgeEventHandles = new ConcurrentHashMap<>();
+		wheel = new ArrayList<>(WHEEL_SLOTS);
+
+		for (int i = 0; i < WHEEL_SLOTS; i++) {
+			wheel.add(Collections.newSetFromMap(new IdentityHashMap<>()));
+		}
+
+		currentTick = System.currentTimeMillis() / TICK_MILLIS;
 	}
 
 	/**
@@ -73,7 +151,57 @@ class CompletionCallbacksManager {
 		}
 
 		Log.trace(LOG_TAG, LOG_SOURCE, "Registering callback for Edge response with unique id " + requestEventId);
-		completionCallbacks.put(requestEventId, callback);
+		final PendingCallback pendingCallback = new PendingCallback(
+			requestEventId,
+			callback,
+			registrations.incrementAndGet(),
+			System.currentTimeMillis() + callbackMaxTtlMillis
+		);
+
+		synchronized (wheelMutex) {
+			final PendingCallback replacedCallback = completionCallbacks.put(requestEventId, pendingCallback);
+
+			if (replacedCallback != null) {
+				removeFromWheel(replacedCallback);
+			}
+
+			addToWheel(pendingCallback);
+		}
+
+		if (completionCallbacks.size() > maxCallbacks) {
+			evictOldestCallback();
+		}
+	}
+
+	/**
+	 * Starts the time to live of the callbacks registered for the provided request event ids, called when their
+	 * request is sent. If the request is sent again, for example when it is retried, the time to live restarts.
+	 * The callbacks never expire later than their maximum time to live since registration.
+	 *
+	 * @param requestEventIds the unique identifiers of the events sent in the request
+	 */
+	void startExpiry(final List<String> requestEventIds) {
+		if (requestEventIds == null || requestEventIds.isEmpty()) {
+			return;
+		}
+
+		final long expiryMillis = System.currentTimeMillis() + callbackTtlMillis;
+
+		synchronized (wheelMutex) {
+			for (final String requestEventId : requestEventIds) {
+				final PendingCallback pendingCallback = requestEventId != null
+					? completionCallbacks.get(requestEventId)
+					: null;
+
+				if (pendingCallback == null) {
+					continue;
+				}
+
+				removeFromWheel(pendingCallback);
+				pendingCallback.expiryMillis = Math.min(expiryMillis, pendingCallback.maxExpiryMillis);
+				addToWheel(pendingCallback);
+			}
+		}
 	}
 
 	/**
@@ -87,33 +215,25 @@ class CompletionCallbacksManager {
 			return;
 		}
 
-		EdgeCallback callback = completionCallbacks.remove(requestEventId);
+		final PendingCallback pendingCallback = completionCallbacks.remove(requestEventId);
 
-		if (callback != null) {
-			final List<EdgeEventHandle> handles = edgeEventHandles.get(requestEventId);
-			try {
-				callback.onComplete(handles != null ? handles : new ArrayList<>());
-			} catch (Exception ex) {
-				Log.warning(
-					LOG_TAG,
-					LOG_SOURCE,
-					"Exception thrown when invoking completion callback for request event id %s: %s",
-					requestEventId,
-					android.util.Log.getStackTraceString(ex)
-				);
+		if (pendingCallback != null) {
+			synchronized (wheelMutex) {
+				removeFromWheel(pendingCallback);
 			}
+
+			complete(pendingCallback);
 			Log.trace(
 				LOG_TAG,
 				LOG_SOURCE,
 				"Removing callback for Edge response with request event id " + requestEventId
 			);
 		}
-
-		edgeEventHandles.remove(requestEventId);
 	}
 
 	/**
-	 * Updates the list of {@link EdgeEventHandle}(s) for current {@code requestEventId}.
+	 * Updates the list of {@link EdgeEventHandle}(s) for current {@code requestEventId}. The event handles are
+	 * only kept while a completion callback is registered for {@code requestEventId}.
 	 *
 	 * @param requestEventId the request event identifier associated with this event handle
 	 * @param eventHandle newly received event handle
@@ -123,7 +243,287 @@ class CompletionCallbacksManager {
 			return;
 		}
 
-		edgeEventHandles.putIfAbsent(requestEventId, new ArrayList<>());
-		edgeEventHandles.get(requestEventId).add(eventHandle);
+		final PendingCallback pendingCallback = completionCallbacks.get(requestEventId);
+
+		if (pendingCallback != null) {
+			pendingCallback.handles.add(eventHandle);
+		}
+	}
+
+	/**
+	 * Sets the {@link Executor} used to invoke the completion callbacks.
+	 *
+	 * @param executor the executor used to invoke the callbacks, or null to use the default executor, which invokes
+	 *                 the callbacks in order on a background thread; the callbacks rejected by the executor are
+	 *                 invoked on the default executor
+	 */
+	void setCallbackExecutor(final Executor executor) {
+		callbackExecutor = executor;
+	}
+
+	/**
+	 * @return the number of completion callbacks currently registered
+	 */
+	int getLiveCallbacksCount() {
+		return completionCallbacks.size();
+	}
+
+	/**
+	 * @return the number of completion callbacks completed because they expired or the registry was full
+	 */
+	long getEvictedCallbacksCount() {
+		return evictedCallbacks.get();
+	}
+
+	/**
+	 * Advances the timer wheel up to {@code nowMillis} and completes the callbacks which expired.
+	 *
+	 * @param nowMillis the current time in milliseconds
+	 */
+	void expireCallbacks(final long nowMillis) {
+		final List<PendingCallback> expiredCallbacks = new ArrayList<>();
+
+		synchronized (wheelMutex) {
+			final long nowTick = nowMillis / TICK_MILLIS;
+			final long ticks = Math.min(nowTick - currentTick, WHEEL_SLOTS);
+
+			for (long tick = nowTick - ticks + 1; tick <= nowTick; tick++) {
+				final Iterator<PendingCallback> iterator = wheel.get((int) (tick % WHEEL_SLOTS)).iterator();
+
+				while (iterator.hasNext()) {
+					final PendingCallback pendingCallback = iterator.next();
+
+					if (pendingCallback.expiryMillis > nowMillis) {
+						// expires in a later turn of the wheel
+						continue;
+					}
+
+					iterator.remove();
+
+					if (completionCallbacks.remove(pendingCallback.requestEventId, pendingCallback)) {
+						expiredCallbacks.add(pendingCallback);
+					}
+				}
+			}
+
+			currentTick = Math.max(currentTick, nowTick);
+
+			if (timerTask != null && isWheelEmpty()) {
+				timerTask.cancel(false);
+				timerTask = null;
+			}
+		}
+
+		for (final PendingCallback pendingCallback : expiredCallbacks) {
+			evictedCallbacks.incrementAndGet();
+			Log.debug(
+				LOG_TAG,
+				LOG_SOURCE,
+				"No response received in time for request event id (%s), completing its callback.",
+				pendingCallback.requestEventId
+			);
+			complete(pendingCallback);
+		}
+	}
+
+	/**
+	 * Completes the registered callback which was registered first.
+	 */
+	private void evictOldestCallback() {
+		PendingCallback oldestCallback = null;
+
+		for (final PendingCallback pendingCallback : completionCallbacks.values()) {
+			if (oldestCallback == null || pendingCallback.registration < oldestCallback.registration) {
+				oldestCallback = pendingCallback;
+			}
+		}
+
+		if (oldestCallback == null || !completionCallbacks.remove(oldestCallback.requestEventId, oldestCallback)) {
+			return;
+		}
+
+		synchronized (wheelMutex) {
+			removeFromWheel(oldestCallback);
+		}
+
+		evictedCallbacks.incrementAndGet();
+		Log.debug(
+			LOG_TAG,
+			LOG_SOURCE,
+			"Too many registered callbacks, completing the callback for request event id (%s).",
+			oldestCallback.requestEventId
+		);
+		complete(oldestCallback);
+	}
+
+	private void complete(final PendingCallback pendingCallback) {
+		final List<EdgeEventHandle> handles = new ArrayList<>(pendingCallback.handles);
+		final Runnable invocation = () -> invokeCallback(pendingCallback, handles);
+		final Executor executor = callbackExecutor;
+
+		if (executor != null) {
+			try {
+				executor.execute(invocation);
+				return;
+			} catch (RuntimeException e) {
+				Log.warning(
+					LOG_TAG,
+					LOG_SOURCE,
+					"Callback executor rejected completion callback for request event id %s, using the default executor: %s",
+					pendingCallback.requestEventId,
+					e.getLocalizedMessage()
+				);
+			}
+		}
+
+		try {
+			getDefaultCallbackExecutor().execute(invocation);
+		} catch (RuntimeException e) {
+			Log.warning(
+				LOG_TAG,
+				LOG_SOURCE,
+				"Failed to schedule completion callback for request event id %s, invoking it now: %s",
+				pendingCallback.requestEventId,
+				e.getLocalizedMessage()
+			);
+			invocation.run();
+		}
+	}
+
+	private void invokeCallback(final PendingCallback pendingCallback, final List<EdgeEventHandle> handles) {
+		final long startNanos = System.nanoTime();
+
+		try {
+			pendingCallback.callback.onComplete(handles);
+		} catch (Exception ex) {
+			Log.warning(
+				LOG_TAG,
+				LOG_SOURCE,
+				"Exception thrown when invoking completion callback for request event id %s: %s",
+				pendingCallback.requestEventId,
+				android.util.Log.getStackTraceString(ex)
+			);
+		}
+
+		final long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+		if (durationMillis >= EdgeConstants.Defaults.COMPLETION_CALLBACK_SLOW_MILLIS) {
+			Log.warning(
+				LOG_TAG,
+				LOG_SOURCE,
+				"Completion callback for request event id %s took %d ms, move long running work off the callback.",
+				pendingCallback.requestEventId,
+				durationMillis
+			);
+		}
+	}
+
+	private Executor getDefaultCallbackExecutor() {
+		synchronized (this) {
+			if (defaultCallbackExecutor == null) {
+				// a single thread keeps the callbacks in order; when the queue is full, the caller runs the callback
+				final ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(
+					1,
+					1,
+					60,
+					TimeUnit.SECONDS,
+					new LinkedBlockingQueue<>(EdgeConstants.Defaults.COMPLETION_CALLBACK_QUEUE_CAPACITY),
+					runnable -> {
+						final Thread thread = new Thread(runnable, "EdgeCompletionCallbacks");
+						thread.setDaemon(true);
+						return thread;
+					},
+					new ThreadPoolExecutor.CallerRunsPolicy()
+				);
+				threadPoolExecutor.allowCoreThreadTimeOut(true);
+				defaultCallbackExecutor = threadPoolExecutor;
+			}
+
+			return defaultCallbackExecutor;
+		}
+	}
+
+	/**
+	 * Removes the {@code pendingCallback} from the timer wheel. Called with the {@code wheelMutex} held.
+	 */
+	private void removeFromWheel(final PendingCallback pendingCallback) {
+		getSlot(pendingCallback).remove(pendingCallback);
+	}
+
+	/**
+	 * Adds the {@code pendingCallback} to the timer wheel slot of its expiry and starts the timer if needed. Called
+	 * with the {@code wheelMutex} held.
+	 */
+	private void addToWheel(final PendingCallback pendingCallback) {
+		getSlot(pendingCallback).add(pendingCallback);
+
+		if (timerTask == null) {
+			startTimer();
+		}
+	}
+
+	private boolean isWheelEmpty() {
+		for (final Set<PendingCallback> slot : wheel) {
+			if (!slot.isEmpty()) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * @return the timer wheel slot of the {@code pendingCallback}, the one of the first tick at or after its expiry
+	 */
+	private Set<PendingCallback> getSlot(final PendingCallback pendingCallback) {
+		final long expiryTick = (pendingCallback.expiryMillis + TICK_MILLIS - 1) / TICK_MILLIS;
+		return wheel.get((int) (expiryTick % WHEEL_SLOTS));
+	}
+
+	private void startTimer() {
+		if (timer == null) {
+			timer =
+				Executors.newSingleThreadScheduledExecutor(runnable -> {
+					final Thread thread = new Thread(runnable, LOG_SOURCE);
+					thread.setDaemon(true);
+					return thread;
+				});
+		}
+
+		timerTask =
+			timer.scheduleWithFixedDelay(
+				() -> expireCallbacks(System.currentTimeMillis()),
+				TICK_MILLIS,
+				TICK_MILLIS,
+				TimeUnit.MILLISECONDS
+			);
+	}
+
+	/**
+	 * A registered completion callback with the event handles received for its request event.
+	 */
+	private static final class PendingCallback {
+
+		final String requestEventId;
+		final EdgeCallback callback;
+		final long registration;
+		// expiry at the maximum time to live since registration
+		final long maxExpiryMillis;
+		// guarded by wheelMutex
+		long expiryMillis;
+		final Queue<EdgeEventHandle> handles = new ConcurrentLinkedQueue<>();
+
+		PendingCallback(
+			final String requestEventId,
+			final EdgeCallback callback,
+			final long registration,
+			final long maxExpiryMillis
+		) {
+			this.requestEventId = requestEventId;
+			this.callback = callback;
+			this.registration = registration;
+			this.maxExpiryMillis = maxExpiryMillis;
+			this.expiryMillis = maxExpiryMillis;
+		}
 	}
 }
@@ -13,6 +13,8 @@ package com.adobe.marketing.mobile;
 
 import static com.adobe.marketing.mobile.EdgeConstants.LOG_TAG;
 
+import android.os.Handler;
+import android.os.Looper;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import com.adobe.marketing.mobile.services.Log;
@@ -21,6 +23,8 @@ import com.adobe.marketing.mobile.util.DataReaderException;
 import com.adobe.marketing.mobile.util.MapUtils;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 @SuppressWarnings("unused")
 public class Edge {
@@ -61,7 +65,7 @@ public class Edge {
 		}
 
 		// Note: iOS implementation ignores requests if XDM data is empty
-		if (MapUtils.isNullOrEmpty(experienceEvent.getXdmSchema())) {
+		if (!experienceEvent.hasXdmData()) {
 			Log.warning(LOG_TAG, LOG_SOURCE, "sendEvent API cannot make the request with null/empty XDM data.");
 			return;
 		}
@@ -87,6 +91,40 @@ public class Edge {
 		MobileCore.dispatchEvent(event);
 	}
 
+	/**
+	 * Sets the {@link Executor} used to invoke the {@link EdgeCallback}s provided to
+	 * {@link #sendEvent(ExperienceEvent, EdgeCallback)}. By default, the callbacks are invoked in order on a background
+	 * thread of the Edge extension, separate from the thread sending the Edge Network requests.
+	 *
+	 * @param executor the executor used to invoke the completion callbacks, or null to use the default executor
+	 */
+	public static void setCompletionCallbackExecutor(@Nullable final Executor executor) {
+		CompletionCallbacksManager.getInstance().setCallbackExecutor(executor);
+	}
+
+	/**
+	 * Sets the {@link Looper} on which the {@link EdgeCallback}s provided to
+	 * {@link #sendEvent(ExperienceEvent, EdgeCallback)} are invoked, for example {@link Looper#getMainLooper()}.
+	 *
+	 * If the looper is quitting, the callbacks are invoked on the default executor.
+	 *
+	 * @param looper the looper used to invoke the completion callbacks, or null to use the default executor
+	 * @see #setCompletionCallbackExecutor(Executor)
+	 */
+	public static void setCompletionCallbackLooper(@Nullable final Looper looper) {
+		if (looper == null) {
+			setCompletionCallbackExecutor(null);
+			return;
+		}
+
+		final Handler handler = new Handler(looper);
+		setCompletionCallbackExecutor(command -> {
+			if (!handler.post(command)) {
+				throw new RejectedExecutionException("The completion callback looper is quitting.");
+			}
+		});
+	}
+
 	/**
 	 * Gets the Edge Network location hint used in requests to the Adobe Experience Platform Edge Network.
 	 * The Edge Network location hint may be used when building the URL for Adobe Experience Platform Edge Network
@@ -13,10 +13,7 @@ package com.adobe.marketing.mobile;
 
 import com.adobe.marketing.mobile.services.Log;
 import com.adobe.marketing.mobile.util.MapUtils;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Map;
-import org.json.JSONObject;
 
 /**
  * An update Consent request payload.
@@ -66,11 +63,11 @@ class EdgeConsentUpdate {
 
 	/**
 	 * Builds the request payload with all the provided parameters and returns
-	 * as a JSON Object suitable as a request body.
+	 * it as UTF-8 encoded JSON suitable as a request body.
 	 *
-	 * @return the request payload in {@link JSONObject} format or null if the consents are null/empty
+	 * @return the request payload as UTF-8 encoded JSON or null if the consents are null/empty or cannot be serialized
 	 */
-	JSONObject asJsonObject() {
+	byte[] asJsonBytes() {
 		if (MapUtils.isNullOrEmpty(consents)) {
 			Log.debug(
 				EdgeConstants.LOG_TAG,
@@ -80,32 +77,52 @@ class EdgeConsentUpdate {
 			return null;
 		}
 
-		final Map<String, Object> payload = new HashMap<>();
+		final EdgeJsonWriter writer = new EdgeJsonWriter();
 
-		if (metadata != null) {
-			MapUtils.putIfNotEmpty(payload, EdgeJson.Event.METADATA, metadata.toObjectMap());
-		}
-
-		if (query != null) {
-			MapUtils.putIfNotEmpty(payload, EdgeJson.Event.QUERY, query.toObjectMap());
-		}
+		try {
+			writer.beginObject();
 
-		MapUtils.putIfNotEmpty(payload, EdgeJson.Event.Xdm.IDENTITY_MAP, identityMap);
+			if (metadata != null && !metadata.isEmpty()) {
+				writer.name(EdgeJson.Event.METADATA);
+				metadata.writeJson(writer);
+			}
 
-		final Map<String, Object> consent = new HashMap<>();
-		consent.put(EdgeJson.Event.Consent.STANDARD_KEY, EdgeJson.Event.Consent.STANDARD_VALUE);
-		consent.put(EdgeJson.Event.Consent.VERSION_KEY, EdgeJson.Event.Consent.VERSION_VALUE);
-		consent.put(EdgeJson.Event.Consent.VALUE_KEY, consents);
+			if (query != null) {
+				final Map<String, Object> queryMap = query.toObjectMap();
 
-		payload.put(
-			EdgeJson.Event.Consent.CONSENT_KEY,
-			new ArrayList<Map<String, Object>>() {
-				{
-					add(consent);
+				if (!MapUtils.isNullOrEmpty(queryMap)) {
+					writer.name(EdgeJson.Event.QUERY).value(queryMap);
 				}
 			}
-		);
 
-		return new JSONObject(payload);
+			if (!MapUtils.isNullOrEmpty(identityMap)) {
+				writer.name(EdgeJson.Event.Xdm.IDENTITY_MAP).value(identityMap);
+			}
+
+			writer
+				.name(EdgeJson.Event.Consent.CONSENT_KEY)
+				.beginArray()
+				.beginObject()
+				.name(EdgeJson.Event.Consent.STANDARD_KEY)
+				.value(EdgeJson.Event.Consent.STANDARD_VALUE)
+				.name(EdgeJson.Event.Consent.VERSION_KEY)
+				.value(EdgeJson.Event.Consent.VERSION_VALUE)
+				.name(EdgeJson.Event.Consent.VALUE_KEY)
+				.value(consents)
+				.endObject()
+				.endArray();
+
+			writer.endObject();
+		} catch (IllegalArgumentException e) {
+			Log.warning(
+				EdgeConstants.LOG_TAG,
+				LOG_SOURCE,
+				"Unable to create consent update request: %s",
+				e.getLocalizedMessage()
+			);
+			return null;
+		}
+
+		return writer.toByteArray();
 	}
 }
@@ -39,6 +39,28 @@ final class EdgeConstants {
 		static final String REQUEST_CONFIG_LINE_FEED = "\n";
 		static final int RETRY_INTERVAL_SECONDS = 5;
 		static final int LOCATION_HINT_TTL_SEC = 1800;
+		static final int BATCH_MAX_EVENTS = 1; // batching is disabled unless configured
+		static final int BATCH_MAX_BYTES = 64 * 1024;
+		static final int PIPELINE_MAX_IN_FLIGHT = 1; // pipelining is disabled unless configured
+		static final int PIPELINE_MAX_IN_FLIGHT_LIMIT = 8;
+		static final int STREAMING_MAX_RECORD_BYTES = 8 * 1024 * 1024;
+		static final boolean COMPRESSION_ENABLED = false; // request compression is disabled unless configured
+		static final int COMPRESSION_MIN_BYTES = 1024;
+		static final long DATA_STORE_FLUSH_DELAY_MILLISECONDS = 1000;
+		static final int WAITING_EVENTS_MAX_REQUESTS = 1000;
+		static final long WAITING_EVENTS_MAX_AGE_MILLIS = 10 * 60 * 1000L;
+		static final long WAITING_EVENTS_EVICTION_INTERVAL_MILLIS = 60 * 1000L;
+		static final long COMPLETION_CALLBACK_TTL_MILLIS = 10 * 60 * 1000L;
+		static final long COMPLETION_CALLBACK_MAX_TTL_MILLIS = 24 * 60 * 60 * 1000L;
+		static final int COMPLETION_CALLBACKS_MAX = 1000;
+		static final int COMPLETION_CALLBACK_QUEUE_CAPACITY = 256;
+		static final long COMPLETION_CALLBACK_SLOW_MILLIS = 100;
+		static final long RESPONSE_PROCESSING_WAIT_MILLIS = 5000;
+		static final int RETRY_MAX_INTERVAL_SECONDS = 300;
+		static final int RETRY_MAX_SERVER_INTERVAL_SECONDS = 3600;
+		static final int RETRY_FAILURE_THRESHOLD = 5;
+		static final int RETRY_OPEN_INTERVAL_SECONDS = 60;
+		static final int URL_CACHE_MAX_ENTRIES = 16;
 
 		static final ConsentStatus COLLECT_CONSENT_YES = ConsentStatus.YES; // used if Consent extension is not registered
 		static final ConsentStatus COLLECT_CONSENT_PENDING = ConsentStatus.PENDING; // used when Consent encoding failed or the value different than y/n
@@ -81,6 +103,9 @@ final class EdgeConstants {
 		static final String RESET_IDENTITIES_DATE = "resetIdentitiesDate";
 		static final String PROPERTY_LOCATION_HINT = "locationHint";
 		static final String PROPERTY_LOCATION_HINT_EXPIRY_TIMESTAMP = "locationHintExpiryTimestamp";
+		static final String HIT_SNAPSHOTS = "hitSnapshots";
+		static final String HIT_SNAPSHOT_PREFIX = "hitSnapshot.";
+		static final String PIPELINE_SENT_HITS = "pipelineSentHits";
 
 		private DataStoreKeys() {}
 	}
@@ -106,6 +131,14 @@ final class EdgeConstants {
 			static final String EDGE_CONFIG_ID = "edge.configId";
 			static final String EDGE_DOMAIN = "edge.domain";
 			static final String EDGE_REQUEST_ENVIRONMENT = "edge.environment";
+			static final String EDGE_BATCH_MAX_EVENTS = "edge.batch.maxEvents";
+			static final String EDGE_BATCH_MAX_BYTES = "edge.batch.maxBytes";
+			static final String EDGE_PIPELINE_MAX_IN_FLIGHT = "edge.pipeline.maxInFlight";
+			static final String EDGE_COMPRESSION_ENABLED = "edge.compression.enabled";
+			static final String EDGE_COMPRESSION_MIN_BYTES = "edge.compression.minBytes";
+			static final String EDGE_RETRY_MAX_INTERVAL_SECONDS = "edge.retry.maxIntervalSeconds";
+			static final String EDGE_RETRY_FAILURE_THRESHOLD = "edge.retry.failureThreshold";
+			static final String EDGE_RETRY_OPEN_INTERVAL_SECONDS = "edge.retry.openIntervalSeconds";
 
 			private Configuration() {}
 		}
@@ -153,10 +186,17 @@ final class EdgeConstants {
 		static final String HEADER_KEY_AEP_VALIDATION_TOKEN = "X-Adobe-AEP-Validation-Token";
 		static final int DEFAULT_CONNECT_TIMEOUT_SECONDS = 5;
 		static final int DEFAULT_READ_TIMEOUT_SECONDS = 5;
+		// overall time to wait for the connections of a request, including the compression fallback request
+		static final long DEFAULT_REQUEST_DEADLINE_MILLIS = 20000L;
 		static final String HEADER_KEY_ACCEPT = "accept";
 		static final String HEADER_KEY_CONTENT_TYPE = "Content-Type";
 		static final String HEADER_VALUE_APPLICATION_JSON = "application/json";
 		static final String HEADER_KEY_RETRY_AFTER = "Retry-After";
+		static final String HEADER_KEY_CONTENT_ENCODING = "Content-Encoding";
+		static final String HEADER_VALUE_GZIP = "gzip";
+		static final String HEADER_VALUE_DEFLATE = "deflate";
+		static final String HEADER_KEY_ACCEPT_ENCODING = "Accept-Encoding";
+		static final String HEADER_VALUE_ACCEPT_ENCODING = "gzip, deflate";
 
 		private NetworkKeys() {}
 	}
@@ -11,12 +11,20 @@
 
 package com.adobe.marketing.mobile;
 
+import android.util.Base64;
 import com.adobe.marketing.mobile.services.DataEntity;
 import com.adobe.marketing.mobile.services.Log;
 import com.adobe.marketing.mobile.util.JSONUtils;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.json.JSONException;
@@ -24,18 +32,47 @@ import org.json.JSONObject;
 
 /**
  * Class that encapsulates the data to be queued persistently for the {@link EdgeExtension}
+ * <p>
+ * Entities are persisted in a versioned format: the event, configuration and identity map are stored as
+ * length-prefixed sections, so a queued hit can be read without parsing it as one nested JSON document.
+ * Large entities are deflated and Base64 encoded. Entities persisted as JSON by older versions of the SDK are still
+ * read. When read from a {@code DataEntity}, the configuration and identity map are only parsed when first accessed.
+ * <p>
+ * When serialized with an {@link EdgeHitSnapshotStore}, the configuration and identity map are stored once in the
+ * snapshot store and the persisted entity only holds references to them.
+ * <p>
+ * This class is not thread safe.
  */
 final class EdgeDataEntity {
 
 	private static final String LOG_SOURCE = "EdgeDataEntity";
 
+	// legacy JSON format keys
 	private static final String CONFIGURATION_KEY = "configuration";
 	private static final String IDENTITY_MAP_KEY = "identityMap";
 	private static final String EVENT_KEY = "event";
 
+	// versioned format: <prefix><length>:<event><length>:<configuration><length>:<identityMap>
+	private static final String FORMAT_V2_PREFIX = "EDE2:";
+	private static final String FORMAT_V2_DEFLATED_PREFIX = "EDE2Z:";
+	private static final char SECTION_LENGTH_SEPARATOR = ':';
+	// prefix of a configuration or identity map section holding a snapshot reference instead of a JSON object
+	private static final String SNAPSHOT_REFERENCE_PREFIX = "#";
+	// entities smaller than this are not worth deflating
+	private static final int DEFLATE_MIN_LENGTH = 1024;
+	private static final int INFLATE_BUFFER_SIZE = 4096;
+
 	private final Event event;
-	private final Map<String, Object> configuration;
-	private final Map<String, Object> identityMap;
+	private Map<String, Object> configuration;
+	private Map<String, Object> identityMap;
+
+	// serialized configuration and identity map, set when read from a DataEntity until parsed
+	private String configurationJson;
+	private String identityMapJson;
+
+	// snapshot references held by this entity, set when read from a DataEntity until released
+	private String configurationReference;
+	private String identityMapReference;
 
 	/**
 	 * Creates a read-only {@link EdgeDataEntity} object with the provided information.
@@ -62,7 +99,26 @@ final class EdgeDataEntity {
 	 * @throws IllegalArgumentException if the provided {@code event} is null
 	 */
 	EdgeDataEntity(final Event event) {
-		this(event, null, null);
+		this(event, (Map<String, Object>) null, null);
+	}
+
+	/**
+	 * Creates a read-only {@link EdgeDataEntity} object from its serialized configuration and identity map,
+	 * which are parsed when first accessed.
+	 *
+	 * @param event an {@link Event}, should not be null
+	 * @param configurationJson the Edge configuration as a JSON object, or an empty string if none
+	 * @param identityMapJson the identity information as a JSON object, or an empty string if none
+	 * @throws IllegalArgumentException if the provided {@code event} is null
+	 */
+	private EdgeDataEntity(final Event event, final String configurationJson, final String identityMapJson) {
+		if (event == null) {
+			throw new IllegalArgumentException();
+		}
+
+		this.event = event;
+		this.configurationJson = configurationJson;
+		this.identityMapJson = identityMapJson;
 	}
 
 	/**
@@ -77,6 +133,10 @@ final class EdgeDataEntity {
 	 * Attempts to modify the returned map, whether direct or via its collection views, result in an {@link UnsupportedOperationException}.
 	 */
 	Map<String, Object> getConfiguration() {
+		if (configuration == null) {
+			configuration = parseMap(configurationJson, CONFIGURATION_KEY);
+		}
+
 		return Collections.unmodifiableMap(configuration);
 	}
 
@@ -85,26 +145,78 @@ final class EdgeDataEntity {
 	 * Attempts to modify the returned map, whether direct or via its collection views, result in an {@link UnsupportedOperationException}.
 	 */
 	Map<String, Object> getIdentityMap() {
+		if (identityMap == null) {
+			identityMap = parseMap(identityMapJson, IDENTITY_MAP_KEY);
+		}
+
 		return Collections.unmodifiableMap(identityMap);
 	}
 
+	/**
+	 * Checks if this and the {@code other} entity have the same Edge configuration and identity information.
+	 * When both entities were read from a {@code DataEntity}, their serialized values are compared first to avoid
+	 * parsing them.
+	 *
+	 * @param other the {@link EdgeDataEntity} to compare with, should not be null
+	 * @return true if the configuration and identity map of both entities are equal
+	 */
+	boolean hasSameConfigurationAndIdentityMap(@NotNull final EdgeDataEntity other) {
+		return (
+			(isSameJson(configurationJson, other.configurationJson) ||
+				getConfiguration().equals(other.getConfiguration())) &&
+			(isSameJson(identityMapJson, other.identityMapJson) || getIdentityMap().equals(other.getIdentityMap()))
+		);
+	}
+
+	/**
+	 * Releases the snapshots referenced by this entity, once it was removed from the hit queue.
+	 * Further calls to this method are a no-op.
+	 *
+	 * @param snapshotStore the {@link EdgeHitSnapshotStore} this entity was read with
+	 */
+	void releaseSnapshots(@Nullable final EdgeHitSnapshotStore snapshotStore) {
+		if (snapshotStore == null) {
+			return;
+		}
+
+		snapshotStore.release(configurationReference);
+		snapshotStore.release(identityMapReference);
+		configurationReference = null;
+		identityMapReference = null;
+	}
+
 	/**
 	 * Serializes this to a {@code DataEntity}.
 	 * @return serialized {@code EdgeDataEntity} or null if it could not be serialized.
 	 */
 	@Nullable DataEntity toDataEntity() {
+		return toDataEntity(null);
+	}
+
+	/**
+	 * Serializes this to a {@code DataEntity}, storing the configuration and identity map in the provided
+	 * {@code snapshotStore}.
+	 * @param snapshotStore the {@link EdgeHitSnapshotStore} for the configuration and identity map;
+	 *                      if null, they are stored in the {@code DataEntity}
+	 * @return serialized {@code EdgeDataEntity} or null if it could not be serialized.
+	 */
+	@Nullable DataEntity toDataEntity(@Nullable final EdgeHitSnapshotStore snapshotStore) {
 		try {
-			JSONObject serializedEntity = new JSONObject();
-			serializedEntity.put(EVENT_KEY, new JSONObject(EventCoder.encode(this.event)));
-			serializedEntity.put(CONFIGURATION_KEY, new JSONObject(this.configuration));
-			serializedEntity.put(IDENTITY_MAP_KEY, new JSONObject(this.identityMap));
-
-			return new DataEntity(
-				event.getUniqueIdentifier(),
-				new Date(event.getTimestamp()),
-				serializedEntity.toString()
-			);
-		} catch (JSONException e) {
+			final String eventJson = EventCoder.encode(this.event);
+
+			if (eventJson == null) {
+				throw new IllegalArgumentException("Event could not be encoded.");
+			}
+
+			final StringBuilder sections = new StringBuilder();
+			appendSection(sections, eventJson);
+			final String configurationSection = configurationJson != null ? configurationJson : toJson(configuration);
+			final String identityMapSection = identityMapJson != null ? identityMapJson : toJson(identityMap);
+			appendSection(sections, toSnapshotSection(configurationSection, snapshotStore));
+			appendSection(sections, toSnapshotSection(identityMapSection, snapshotStore));
+
+			return new DataEntity(event.getUniqueIdentifier(), new Date(event.getTimestamp()), encode(sections));
+		} catch (IllegalArgumentException e) {
 			Log.debug(
 				EdgeConstants.LOG_TAG,
 				LOG_SOURCE,
@@ -122,40 +234,332 @@ final class EdgeDataEntity {
 	 * could not be deserialized to an {@code EdgeDataEntity}
 	 */
 	@Nullable static EdgeDataEntity fromDataEntity(@NotNull final DataEntity dataEntity) {
+		return fromDataEntity(dataEntity, null);
+	}
+
+	/**
+	 * Deserializes a {@code DataEntity} to a {@code EdgeDataEntity}, reading the referenced snapshots from the
+	 * provided {@code snapshotStore}.
+	 * @param dataEntity {@code DataEntity} to be processed
+	 * @param snapshotStore the {@link EdgeHitSnapshotStore} used when serializing {@code dataEntity}
+	 * @return a deserialized {@code EdgeDataEntity} instance or null if it
+	 * could not be deserialized to an {@code EdgeDataEntity}
+	 */
+	@Nullable static EdgeDataEntity fromDataEntity(
+		@NotNull final DataEntity dataEntity,
+		@Nullable final EdgeHitSnapshotStore snapshotStore
+	) {
 		String entity = dataEntity.getData();
 		if (entity == null || entity.isEmpty()) {
 			return null;
 		}
 
 		try {
-			JSONObject serializedEntity = new JSONObject(entity);
+			if (entity.startsWith(FORMAT_V2_DEFLATED_PREFIX)) {
+				final byte[] deflated = Base64.decode(
+					entity.substring(FORMAT_V2_DEFLATED_PREFIX.length()),
+					Base64.NO_WRAP
+				);
+				return fromSections(new String(inflate(deflated), StandardCharsets.UTF_8), 0, snapshotStore);
+			}
+
+			if (entity.startsWith(FORMAT_V2_PREFIX)) {
+				return fromSections(entity, FORMAT_V2_PREFIX.length(), snapshotStore);
+			}
+
+			return fromLegacyJson(entity);
+		} catch (JSONException | IllegalArgumentException | DataFormatException e) {
+			Log.debug(
+				EdgeConstants.LOG_TAG,
+				LOG_SOURCE,
+				"Failed to deserialize DataEntity to EdgeDataEntity: " + e.getLocalizedMessage()
+			);
+		}
 
-			Map<String, Object> configuration = null;
+		return null;
+	}
+
+	/**
+	 * Reads the snapshot references of a serialized entity, without decoding the entity.
+	 * @param dataEntity the {@code DataEntity} serialized with an {@link EdgeHitSnapshotStore}
+	 * @return the references to the configuration and identity map snapshots; empty if the entity does not
+	 * reference snapshots or cannot be read
+	 */
+	@NotNull static List<String> getSnapshotReferences(@NotNull final DataEntity dataEntity) {
+		final List<String> references = new ArrayList<>();
+		final String entity = dataEntity.getData();
+
+		if (entity == null) {
+			return references;
+		}
 
-			if (serializedEntity.has(CONFIGURATION_KEY)) {
-				JSONObject configObj = serializedEntity.getJSONObject(CONFIGURATION_KEY);
-				configuration = JSONUtils.toMap(configObj);
+		try {
+			final String sections;
+			final int[] position = { 0 };
+
+			if (entity.startsWith(FORMAT_V2_DEFLATED_PREFIX)) {
+				final byte[] deflated = Base64.decode(
+					entity.substring(FORMAT_V2_DEFLATED_PREFIX.length()),
+					Base64.NO_WRAP
+				);
+				sections = new String(inflate(deflated), StandardCharsets.UTF_8);
+			} else if (entity.startsWith(FORMAT_V2_PREFIX)) {
+				sections = entity;
+				position[0] = FORMAT_V2_PREFIX.length();
+			} else {
+				// entities persisted as JSON do not reference snapshots
+				return references;
 			}
 
-			Map<String, Object> identityMap = null;
+			// skip the event, followed by the configuration and identity map sections
+			readSection(sections, position);
+
+			for (int i = 0; i < 2; i++) {
+				final String reference = getSnapshotReference(readSection(sections, position));
 
-			if (serializedEntity.has(IDENTITY_MAP_KEY)) {
-				JSONObject identityObj = serializedEntity.getJSONObject(IDENTITY_MAP_KEY);
-				identityMap = JSONUtils.toMap(identityObj);
+				if (reference != null) {
+					references.add(reference);
+				}
 			}
+		} catch (IllegalArgumentException | DataFormatException e) {
+			Log.debug(
+				EdgeConstants.LOG_TAG,
+				LOG_SOURCE,
+				"Failed to read the snapshot references of DataEntity: " + e.getLocalizedMessage()
+			);
+		}
+
+		return references;
+	}
+
+	/**
+	 * Reads an entity persisted in the versioned format. The event is decoded, while the configuration and identity
+	 * map are kept serialized until first accessed.
+	 * @throws IllegalArgumentException if the sections are malformed or reference a snapshot which does not exist
+	 */
+	private static EdgeDataEntity fromSections(
+		final String sections,
+		final int offset,
+		final EdgeHitSnapshotStore snapshotStore
+	) {
+		final int[] position = { offset };
+		final String eventJson = readSection(sections, position);
+		final String configurationSection = readSection(sections, position);
+		final String identityMapSection = readSection(sections, position);
+
+		if (position[0] != sections.length()) {
+			throw new IllegalArgumentException("Unexpected data after the last section.");
+		}
+
+		final EdgeDataEntity entity = new EdgeDataEntity(
+			EventCoder.decode(eventJson),
+			readSnapshot(configurationSection, snapshotStore),
+			readSnapshot(identityMapSection, snapshotStore)
+		);
+		entity.configurationReference = getSnapshotReference(configurationSection);
+		entity.identityMapReference = getSnapshotReference(identityMapSection);
+		return entity;
+	}
+
+	/**
+	 * Reads an entity persisted as JSON by older versions of the SDK.
+	 */
+	private static EdgeDataEntity fromLegacyJson(final String entity) throws JSONException {
+		JSONObject serializedEntity = new JSONObject(entity);
+
+		Map<String, Object> configuration = null;
 
-			String eventString = serializedEntity.getJSONObject(EVENT_KEY).toString();
-			Event event = EventCoder.decode(eventString);
+		if (serializedEntity.has(CONFIGURATION_KEY)) {
+			JSONObject configObj = serializedEntity.getJSONObject(CONFIGURATION_KEY);
+			configuration = JSONUtils.toMap(configObj);
+		}
+
+		Map<String, Object> identityMap = null;
+
+		if (serializedEntity.has(IDENTITY_MAP_KEY)) {
+			JSONObject identityObj = serializedEntity.getJSONObject(IDENTITY_MAP_KEY);
+			identityMap = JSONUtils.toMap(identityObj);
+		}
+
+		String eventString = serializedEntity.getJSONObject(EVENT_KEY).toString();
+		Event event = EventCoder.decode(eventString);
+
+		return new EdgeDataEntity(event, configuration, identityMap);
+	}
+
+	/**
+	 * Adds the versioned format prefix to the provided sections, deflating them if that makes the result shorter.
+	 */
+	private static String encode(final StringBuilder sections) {
+		if (sections.length() < DEFLATE_MIN_LENGTH) {
+			return FORMAT_V2_PREFIX + sections;
+		}
+
+		final byte[] deflated = deflate(sections.toString().getBytes(StandardCharsets.UTF_8));
+		final String encoded = FORMAT_V2_DEFLATED_PREFIX + Base64.encodeToString(deflated, Base64.NO_WRAP);
+
+		if (encoded.length() < FORMAT_V2_PREFIX.length() + sections.length()) {
+			return encoded;
+		}
+
+		return FORMAT_V2_PREFIX + sections;
+	}
+
+	/**
+	 * Stores a non-empty configuration or identity map section in the {@code snapshotStore}.
+	 * @return the section referencing the stored snapshot, or {@code json} if it was not stored
+	 */
+	private static String toSnapshotSection(final String json, final EdgeHitSnapshotStore snapshotStore) {
+		if (snapshotStore == null || json.isEmpty()) {
+			return json;
+		}
+
+		final String reference = snapshotStore.retain(json);
+		return reference != null ? SNAPSHOT_REFERENCE_PREFIX + reference : json;
+	}
+
+	/**
+	 * Reads a configuration or identity map section, resolving it from the {@code snapshotStore} if it is a reference.
+	 * @throws IllegalArgumentException if the referenced snapshot does not exist
+	 */
+	private static String readSnapshot(final String section, final EdgeHitSnapshotStore snapshotStore) {
+		final String reference = getSnapshotReference(section);
+
+		if (reference == null) {
+			return section;
+		}
+
+		final String snapshot = snapshotStore != null ? snapshotStore.get(reference) : null;
+
+		if (snapshot == null) {
+			throw new IllegalArgumentException("Snapshot (" + reference + ") not found.");
+		}
+
+		return snapshot;
+	}
+
+	private static String getSnapshotReference(final String section) {
+		if (!section.startsWith(SNAPSHOT_REFERENCE_PREFIX)) {
+			return null;
+		}
+
+		return section.substring(SNAPSHOT_REFERENCE_PREFIX.length());
+	}
+
+	private static void appendSection(final StringBuilder sections, final String value) {
+		sections.append(value.length()).append(SECTION_LENGTH_SEPARATOR).append(value);
+	}
+
+	/**
+	 * Reads the section starting at {@code position[0]} and moves the position after it.
+	 * @throws IllegalArgumentException if the section is malformed
+	 */
+	private static String readSection(final String sections, final int[] position) {
+		final int separator = sections.indexOf(SECTION_LENGTH_SEPARATOR, position[0]);
+
+		if (separator <= position[0]) {
+			throw new IllegalArgumentException("Missing section length.");
+		}
 
-			return new EdgeDataEntity(event, configuration, identityMap);
-		} catch (JSONException | IllegalArgumentException e) {
+		// throws NumberFormatException, an IllegalArgumentException, if the length is malformed
+		final int length = Integer.parseInt(sections.substring(position[0], separator));
+		final int start = separator + 1;
+
+		if (length < 0 || length > sections.length() - start) {
+			throw new IllegalArgumentException("Invalid section length " + length + ".");
+		}
+
+		position[0] = start + length;
+		return sections.substring(start, start + length);
+	}
+
+	/**
+	 * Serializes the provided map as a JSON object.
+	 * @return the JSON object as a {@code String}, or an empty string if the map is empty
+	 * @throws IllegalArgumentException if the map cannot be serialized to JSON
+	 */
+	private static String toJson(final Map<String, Object> map) {
+		if (map == null || map.isEmpty()) {
+			return "";
+		}
+
+		return new String(new EdgeJsonWriter().value(map).toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Parses a JSON object serialized with {@link #toJson(Map)}.
+	 * @return the parsed map, or an empty map if {@code json} is empty or cannot be parsed
+	 */
+	private static Map<String, Object> parseMap(final String json, final String name) {
+		if (json == null || json.isEmpty()) {
+			return Collections.emptyMap();
+		}
+
+		try {
+			final Map<String, Object> map = JSONUtils.toMap(new JSONObject(json));
+
+			if (map != null) {
+				return map;
+			}
+		} catch (JSONException e) {
 			Log.debug(
 				EdgeConstants.LOG_TAG,
 				LOG_SOURCE,
-				"Failed to deserialize DataEntity to EdgeDataEntity: " + e.getLocalizedMessage()
+				"Failed to deserialize the %s of EdgeDataEntity: %s",
+				name,
+				e.getLocalizedMessage()
 			);
 		}
 
-		return null;
+		return Collections.emptyMap();
+	}
+
+	private static boolean isSameJson(final String json, final String otherJson) {
+		return json != null && json.equals(otherJson);
+	}
+
+	private static byte[] deflate(final byte[] bytes) {
+		final Deflater deflater = new Deflater();
+
+		try {
+			deflater.setInput(bytes);
+			deflater.finish();
+
+			final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(bytes.length / 2);
+			final byte[] buffer = new byte[INFLATE_BUFFER_SIZE];
+
+			while (!deflater.finished()) {
+				outputStream.write(buffer, 0, deflater.deflate(buffer));
+			}
+
+			return outputStream.toByteArray();
+		} finally {
+			deflater.end();
+		}
+	}
+
+	private static byte[] inflate(final byte[] bytes) throws DataFormatException {
+		final Inflater inflater = new Inflater();
+
+		try {
+			inflater.setInput(bytes);
+
+			final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(bytes.length * 4);
+			final byte[] buffer = new byte[INFLATE_BUFFER_SIZE];
+
+			while (!inflater.finished()) {
+				final int inflated = inflater.inflate(buffer);
+
+				if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					throw new DataFormatException("Truncated deflate data.");
+				}
+
+				outputStream.write(buffer, 0, inflated);
+			}
+
+			return outputStream.toByteArray();
+		} finally {
+			inflater.end();
+		}
 	}
 }
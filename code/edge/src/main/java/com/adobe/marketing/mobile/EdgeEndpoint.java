@@ -11,13 +11,22 @@
 
 package com.adobe.marketing.mobile;
 
+import static com.adobe.marketing.mobile.EdgeConstants.LOG_TAG;
+
+import com.adobe.marketing.mobile.services.Log;
 import com.adobe.marketing.mobile.util.StringUtils;
+import com.adobe.marketing.mobile.util.UrlUtils;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 
 class EdgeEndpoint {
 
+	private static final String LOG_SOURCE = "EdgeEndpoint";
+
 	/**
 	 * Represents all the known Edge Network environment types.
 	 * <ul>
@@ -55,7 +64,44 @@ class EdgeEndpoint {
 		}
 	}
 
+	// endpoints built for the recent request types and configurations, which rarely change
+	private static final LruCache<List<Object>, EdgeEndpoint> endpoints = new LruCache<>(
+		EdgeConstants.Defaults.URL_CACHE_MAX_ENTRIES
+	);
+
 	private final String endpoint;
+	// URL prefix built for the last datastream ID, as most requests use the same datastream
+	private volatile UrlPrefix lastUrlPrefix;
+
+	/**
+	 * Gets the {@code EdgeEndpoint} for the provided request settings, reusing the instance built for the same
+	 * settings recently.
+	 * @param requestType the {@link EdgeNetworkService.RequestType} used to determine the Experience Edge endpoint
+	 * @param environment the Edge request environment
+	 * @param domain the custom Edge domain, or null if using the default domain
+	 * @param path the custom request path, or null if using the default path for {@code requestType}
+	 * @param locationHint an optional location hint for the {@code EdgeEndpoint} which hints at the
+	 *                        Edge Network cluster to send requests.
+	 * @return the {@code EdgeEndpoint} for the provided request settings
+	 * @see #EdgeEndpoint(EdgeNetworkService.RequestType, String, String, String, String)
+	 */
+	static EdgeEndpoint get(
+		final EdgeNetworkService.RequestType requestType,
+		final String environment,
+		final String domain,
+		final String path,
+		final String locationHint
+	) {
+		final List<Object> key = Arrays.asList(requestType, environment, domain, path, locationHint);
+		EdgeEndpoint edgeEndpoint = endpoints.get(key);
+
+		if (edgeEndpoint == null) {
+			edgeEndpoint = new EdgeEndpoint(requestType, environment, domain, path, locationHint);
+			endpoints.put(key, edgeEndpoint);
+		}
+
+		return edgeEndpoint;
+	}
 
 	/**
 	 * Construct a new {@code EdgeEndpoint} based on the Edge request environment and custom domain.
@@ -123,4 +169,83 @@ class EdgeEndpoint {
 	String getEndpoint() {
 		return endpoint;
 	}
+
+	/**
+	 * Gets the Edge endpoint URL with the datastream ID query parameter, to which the request ID is appended.
+	 * The URL prefix of the last datastream ID is reused.
+	 * @param configId the datastream ID of the request
+	 * @return the endpoint URL with the {@code configId} query parameter
+	 */
+	String getUrlPrefix(final String configId) {
+		return getUrlPrefixHolder(configId).prefix;
+	}
+
+	/**
+	 * Gets the Edge endpoint URL with the datastream ID query parameter if it is a valid URL.
+	 * Checks that the URL is valid by ensuring:
+	 * <ul>
+	 *     <li>The URL is parsable by the {@link java.net.URL} class.</li>
+	 *     <li>The URL scheme is "HTTPS".</li>
+	 * </ul>
+	 * The request ID query parameter does not change the URL validity, so the result is kept with the URL prefix
+	 * of the last datastream ID.
+	 * @param configId the datastream ID of the request
+	 * @return the endpoint URL with the {@code configId} query parameter, or null if the URL is not valid
+	 */
+	String getValidUrlPrefix(final String configId) {
+		final UrlPrefix urlPrefix = getUrlPrefixHolder(configId);
+		Boolean isValid = urlPrefix.isValid;
+
+		if (isValid == null) {
+			isValid = isValidUrl(urlPrefix.prefix);
+			urlPrefix.isValid = isValid;
+		}
+
+		return isValid ? urlPrefix.prefix : null;
+	}
+
+	private UrlPrefix getUrlPrefixHolder(final String configId) {
+		final UrlPrefix urlPrefix = lastUrlPrefix;
+
+		if (urlPrefix != null && Objects.equals(urlPrefix.configId, configId)) {
+			return urlPrefix;
+		}
+
+		final UrlPrefix newUrlPrefix = new UrlPrefix(
+			configId,
+			endpoint + "?" + EdgeConstants.NetworkKeys.REQUEST_PARAMETER_KEY_CONFIG_ID + "=" + configId
+		);
+		lastUrlPrefix = newUrlPrefix;
+		return newUrlPrefix;
+	}
+
+	private static boolean isValidUrl(final String url) {
+		if (!UrlUtils.isValidUrl(url)) {
+			Log.debug(LOG_TAG, LOG_SOURCE, "Request invalid, URL is malformed, '%s'.", url);
+			return false;
+		}
+
+		if (!url.startsWith("https")) {
+			Log.debug(LOG_TAG, LOG_SOURCE, "Request invalid, URL scheme must be 'https', '%s'.", url);
+			return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * The endpoint URL with the query parameter of a datastream ID.
+	 */
+	private static final class UrlPrefix {
+
+		final String configId;
+		final String prefix;
+		// whether the prefix is a valid URL, or null if not yet validated
+		volatile Boolean isValid;
+
+		UrlPrefix(final String configId, final String prefix) {
+			this.configId = configId;
+			this.prefix = prefix;
+		}
+	}
 }
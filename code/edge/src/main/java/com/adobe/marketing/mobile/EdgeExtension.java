@@ -25,7 +25,9 @@ import com.adobe.marketing.mobile.util.DataReader;
 import com.adobe.marketing.mobile.util.DataReaderException;
 import com.adobe.marketing.mobile.util.MapUtils;
 import com.adobe.marketing.mobile.util.StringUtils;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 
@@ -41,8 +43,12 @@ class EdgeExtension extends Extension {
 	/* used for creating the networkResponseHandler on demand */
 	private final Object networkResponseHandlerMutex = new Object();
 	private NetworkResponseHandler networkResponseHandler;
-	private NamedCollection dataStore;
+	private CoalescingNamedCollection dataStore;
 	private final HitQueuing hitQueue;
+	// processor of the hit queue, null if the hit queue was provided
+	private final EdgeHitProcessor hitProcessor;
+	// shared by the queued hits and the hit processor, null if the hit queue was provided
+	private final EdgeHitSnapshotStore snapshotStore;
 
 	/*
 	 * An {@code EdgeSharedStateCallback} to create and retrieve shared states.
@@ -59,6 +65,24 @@ class EdgeExtension extends Extension {
 		}
 	};
 
+	/*
+	 * Shared states resolved for the event being processed, reused between readyForEvent and the event processing.
+	 */
+	private final SharedStateCache sharedStateCache = new SharedStateCache((stateOwner, event, xdm, barrier) ->
+		xdm
+			? getApi().getXDMSharedState(stateOwner, event, barrier, SharedStateResolution.ANY)
+			: getApi().getSharedState(stateOwner, event, barrier, SharedStateResolution.ANY)
+	);
+
+	// Edge configuration computed from the last Configuration shared state
+	private final SharedStateCache.DerivedValue<Map<String, Object>> edgeConfiguration =
+		new SharedStateCache.DerivedValue<>(EventUtils::getEdgeConfiguration);
+
+	// collect consent computed from the last Consent XDM shared state
+	private final SharedStateCache.DerivedValue<ConsentStatus> collectConsent = new SharedStateCache.DerivedValue<>(
+		ConsentStatus::getCollectConsentOrDefault
+	);
+
 	@VisibleForTesting
 	final EdgeState state;
 
@@ -89,21 +113,33 @@ class EdgeExtension extends Extension {
 	protected EdgeExtension(final ExtensionApi extensionApi, final HitQueuing hitQueue) {
 		super(extensionApi);
 		if (hitQueue == null) {
-			final EdgeHitProcessor hitProcessor = new EdgeHitProcessor(
-				getNetworkResponseHandler(),
-				new EdgeNetworkService(ServiceProvider.getInstance().getNetworkService()),
-				getNamedCollection(),
-				sharedStateCallback,
-				new EdgeExtensionStateCallback()
-			);
-
 			final DataQueue dataQueue = ServiceProvider.getInstance().getDataQueueService().getDataQueue(getName());
+			// snapshots are written directly, so they are persisted before the hits referencing them
+			this.snapshotStore =
+				new EdgeHitSnapshotStore(
+					ServiceProvider.getInstance().getDataStoreService().getNamedCollection(EdgeConstants.EDGE_DATA_STORAGE),
+					dataQueue
+				);
+			this.hitProcessor =
+				new EdgeHitProcessor(
+					getNetworkResponseHandler(),
+					new EdgeNetworkService(ServiceProvider.getInstance().getNetworkService()),
+					getNamedCollection(),
+					sharedStateCallback,
+					new EdgeExtensionStateCallback(),
+					dataQueue,
+					snapshotStore
+				);
+
 			this.hitQueue = new PersistentHitQueue(dataQueue, hitProcessor);
 		} else {
 			this.hitQueue = hitQueue;
+			this.hitProcessor = null;
+			this.snapshotStore = null;
 		}
 
-		state = new EdgeState(this.hitQueue, new EdgeProperties(getNamedCollection()), sharedStateCallback);
+		state =
+			new EdgeState(this.hitQueue, new EdgeProperties(getNamedCollection()), sharedStateCallback, snapshotStore);
 	}
 
 	@NonNull @Override
@@ -167,6 +203,14 @@ class EdgeExtension extends Extension {
 	protected void onUnregistered() {
 		super.onUnregistered();
 		hitQueue.close();
+
+		if (hitProcessor != null) {
+			hitProcessor.close();
+		}
+
+		if (dataStore != null) {
+			dataStore.close();
+		}
 	}
 
 	@Override
@@ -200,10 +244,12 @@ class EdgeExtension extends Extension {
 				"Event with id %s contained no data, ignoring.",
 				event.getUniqueIdentifier()
 			);
+			completeDroppedEvent(event);
 			return;
 		}
 
 		if (shouldIgnore(event)) {
+			completeDroppedEvent(event);
 			return;
 		}
 		processAndQueueEvent(event);
@@ -254,6 +300,10 @@ class EdgeExtension extends Extension {
 	void handleResetComplete(@NonNull final Event event) {
 		getNetworkResponseHandler().setLastResetDate(event.getTimestamp()); // set last reset date
 
+		if (dataStore != null) {
+			dataStore.flush();
+		}
+
 		if (hitQueue == null) {
 			Log.warning(
 				LOG_TAG,
@@ -336,10 +386,11 @@ class EdgeExtension extends Extension {
 				"Unable to process the event '%s', Configuration shared state is null.",
 				event.getUniqueIdentifier()
 			);
+			completeDroppedEvent(event);
 			return; // Shouldn't get here as Configuration state is checked in readyForEvent
 		}
 
-		Map<String, Object> edgeConfig = EventUtils.getEdgeConfiguration(configReady);
+		Map<String, Object> edgeConfig = edgeConfiguration.get(configReady);
 
 		if (
 			StringUtils.isNullOrEmpty(
@@ -353,6 +404,7 @@ class EdgeExtension extends Extension {
 				"Missing edge.configId in Configuration, dropping event with unique id (%s)",
 				event.getUniqueIdentifier()
 			);
+			completeDroppedEvent(event);
 			return;
 		}
 
@@ -365,6 +417,7 @@ class EdgeExtension extends Extension {
 				"Unable to process the event '%s', Identity shared state is null.",
 				event.getUniqueIdentifier()
 			);
+			completeDroppedEvent(event);
 			return; // Shouldn't get here as Identity state is checked in readyForEvent
 		}
 
@@ -375,11 +428,21 @@ class EdgeExtension extends Extension {
 				"Hit queue is null, unable to queue Edge event with id (%s).",
 				event.getUniqueIdentifier()
 			);
+			completeDroppedEvent(event);
 			return;
 		}
 
 		EdgeDataEntity entity = new EdgeDataEntity(event, edgeConfig, identityReady);
-		hitQueue.queue(entity.toDataEntity());
+		hitQueue.queue(entity.toDataEntity(snapshotStore));
+	}
+
+	/**
+	 * Completes the completion callback registered for the dropped {@code event}, if any, with no event handles.
+	 *
+	 * @param event the event which is not sent to the Edge Network
+	 */
+	private void completeDroppedEvent(@NonNull final Event event) {
+		CompletionCallbacksManager.getInstance().unregisterCallback(event.getUniqueIdentifier());
 	}
 
 	/**
@@ -389,8 +452,12 @@ class EdgeExtension extends Extension {
 	 * @return the Configuration shared state or null if it is pending
 	 */
 	private Map<String, Object> getConfigurationState(@NonNull final Event event) {
-		SharedStateResult sharedStateResult = getApi()
-			.getSharedState(EdgeConstants.SharedState.CONFIGURATION, event, false, SharedStateResolution.ANY);
+		SharedStateResult sharedStateResult = sharedStateCache.resolve(
+			EdgeConstants.SharedState.CONFIGURATION,
+			event,
+			false,
+			false
+		);
 		if (sharedStateResult == null || sharedStateResult.getStatus() != SharedStateStatus.SET) {
 			return null;
 		}
@@ -414,8 +481,12 @@ class EdgeExtension extends Extension {
 	 * @return the Identity shared state or null if it is pending
 	 */
 	private Map<String, Object> getIdentityXDMState(@NonNull final Event event, final boolean barrier) {
-		SharedStateResult sharedStateResult = getApi()
-			.getXDMSharedState(EdgeConstants.SharedState.IDENTITY, event, barrier, SharedStateResolution.ANY);
+		SharedStateResult sharedStateResult = sharedStateCache.resolve(
+			EdgeConstants.SharedState.IDENTITY,
+			event,
+			true,
+			barrier
+		);
 		if (sharedStateResult == null || sharedStateResult.getStatus() != SharedStateStatus.SET) {
 			return null;
 		}
@@ -452,8 +523,12 @@ class EdgeExtension extends Extension {
 	 * @return {@code ConsentStatus} value from shared state or, if not found, current consent value
 	 */
 	private ConsentStatus getConsentForEvent(@NonNull final Event event) {
-		SharedStateResult sharedStateResult = getApi()
-			.getXDMSharedState(EdgeConstants.SharedState.CONSENT, event, false, SharedStateResolution.ANY);
+		SharedStateResult sharedStateResult = sharedStateCache.resolve(
+			EdgeConstants.SharedState.CONSENT,
+			event,
+			true,
+			false
+		);
 		if (sharedStateResult == null || sharedStateResult.getStatus() != SharedStateStatus.SET) {
 			Log.debug(
 				LOG_TAG,
@@ -464,13 +539,34 @@ class EdgeExtension extends Extension {
 			return state.getCurrentCollectConsent();
 		}
 
-		return ConsentStatus.getCollectConsentOrDefault(sharedStateResult.getValue());
+		return collectConsent.get(sharedStateResult.getValue());
 	}
 
 	private NamedCollection getNamedCollection() {
 		if (dataStore == null) {
-			dataStore =
-				ServiceProvider.getInstance().getDataStoreService().getNamedCollection(EdgeConstants.EDGE_DATA_STORAGE);
+			final NamedCollection namedCollection = ServiceProvider
+				.getInstance()
+				.getDataStoreService()
+				.getNamedCollection(EdgeConstants.EDGE_DATA_STORAGE);
+
+			if (namedCollection != null) {
+				// coalesces the frequent refreshes of the location hint expiry, while the store payloads, location hint,
+				// reset date and sent pipelined hits are written immediately so they are not lost if the application
+				// is terminated
+				dataStore =
+					new CoalescingNamedCollection(
+						namedCollection,
+						EdgeConstants.Defaults.DATA_STORE_FLUSH_DELAY_MILLISECONDS,
+						new HashSet<>(
+							Arrays.asList(
+								EdgeConstants.DataStoreKeys.STORE_PAYLOADS,
+								EdgeConstants.DataStoreKeys.PROPERTY_LOCATION_HINT,
+								EdgeConstants.DataStoreKeys.RESET_IDENTITIES_DATE,
+								EdgeConstants.DataStoreKeys.PIPELINE_SENT_HITS
+							)
+						)
+					);
+			}
 		}
 
 		return dataStore;
@@ -11,6 +11,7 @@
 
 package com.adobe.marketing.mobile;
 
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 import org.json.JSONObject;
 
@@ -21,19 +22,44 @@ class EdgeHit {
 
 	private final String datastreamId;
 	private final String requestId;
-	private final JSONObject payload;
+	private final byte[] body;
+	private final KonductorConfig streamingConfig;
 	private final EdgeEndpoint edgeEndpoint;
 
 	/**
 	 * Creates an {@link EdgeHit} instance with the provided datastream ID and payload, and generates an unique identifier
-	 * to be used as {@code requestId}.
+	 * to be used as {@code requestId}. The payload is encoded to the request body once, when the hit is created.
 	 *  @param datastreamId the Edge datastream identifier for this hit; should not be null
 	 * @param payload the network request payload
 	 * @param edgeEndpoint the endpoint URL for this hit
 	 */
 	EdgeHit(final String datastreamId, final JSONObject payload, final EdgeEndpoint edgeEndpoint) {
+		this(
+			datastreamId,
+			payload == null || payload.length() == 0 ? null : payload.toString().getBytes(StandardCharsets.UTF_8),
+			payload == null ? null : KonductorConfig.fromJsonObject(payload),
+			edgeEndpoint
+		);
+	}
+
+	/**
+	 * Creates an {@link EdgeHit} instance with the provided datastream ID and encoded request body, and generates an
+	 * unique identifier to be used as {@code requestId}.
+	 *  @param datastreamId the Edge datastream identifier for this hit; should not be null
+	 * @param body the network request body, as UTF-8 encoded JSON
+	 * @param streamingConfig the {@link KonductorConfig} sent in the request body, used to read streamed responses;
+	 *                        may be null if the request has no {@code konductorConfig}
+	 * @param edgeEndpoint the endpoint URL for this hit
+	 */
+	EdgeHit(
+		final String datastreamId,
+		final byte[] body,
+		final KonductorConfig streamingConfig,
+		final EdgeEndpoint edgeEndpoint
+	) {
 		this.datastreamId = datastreamId;
-		this.payload = payload;
+		this.body = body;
+		this.streamingConfig = streamingConfig;
 		this.edgeEndpoint = edgeEndpoint;
 		this.requestId = UUID.randomUUID().toString();
 	}
@@ -66,11 +92,20 @@ class EdgeHit {
 	}
 
 	/**
-	 * The network request payload for this {@link EdgeHit}
+	 * The network request body for this {@link EdgeHit}
+	 *
+	 * @return the UTF-8 encoded JSON request body, or null if the payload was empty
+	 */
+	byte[] getBody() {
+		return body;
+	}
+
+	/**
+	 * The streaming configuration sent with this {@link EdgeHit}
 	 *
-	 * @return the payload as {@link JSONObject}
+	 * @return the {@link KonductorConfig} of this request, or null if none was set
 	 */
-	JSONObject getPayload() {
-		return payload;
+	KonductorConfig getStreamingConfig() {
+		return streamingConfig;
 	}
 }
@@ -17,6 +17,7 @@ import androidx.annotation.NonNull;
 import com.adobe.marketing.mobile.edge.Datastream;
 import com.adobe.marketing.mobile.edge.SDKConfig;
 import com.adobe.marketing.mobile.services.DataEntity;
+import com.adobe.marketing.mobile.services.DataQueue;
 import com.adobe.marketing.mobile.services.HitProcessing;
 import com.adobe.marketing.mobile.services.HitProcessingResult;
 import com.adobe.marketing.mobile.services.Log;
@@ -24,16 +25,23 @@ import com.adobe.marketing.mobile.services.NamedCollection;
 import com.adobe.marketing.mobile.util.DataReader;
 import com.adobe.marketing.mobile.util.MapUtils;
 import com.adobe.marketing.mobile.util.StringUtils;
-import com.adobe.marketing.mobile.util.UrlUtils;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.regex.Matcher;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Pattern;
-import org.json.JSONException;
-import org.json.JSONObject;
 
 /**
  * Handles the processing of {@link EdgeDataEntity}s, sending network requests.
@@ -46,10 +54,29 @@ class EdgeHitProcessor implements HitProcessing {
 	private final NamedCollection namedCollection;
 	private final EdgeSharedStateCallback sharedStateCallback;
 	private final EdgeStateCallback stateCallback;
-	private final ConcurrentHashMap<String, Integer> entityRetryIntervalMapping = new ConcurrentHashMap<>();
+	private final DataQueue dataQueue;
+	private final EdgeHitSnapshotStore snapshotStore;
+	// queued hits sent by a pipelined request behind a failed request, removed without sending them again; persisted
+	// so they are not sent again after a relaunch, loaded on first use
+	private Set<String> sentEntityIds;
+	// queued hits whose pipelined request failed behind a successful request, retried after their retry interval
+	private final Set<String> deferredEntityIds = Collections.newSetFromMap(new ConcurrentHashMap<>());
+	// endpoint of the last head hit which was not complete, used to compute its retry interval; replaced by the
+	// next head hit, so it is never kept for the hits removed from the queue without being processed
+	private volatile HitEndpoint retryEndpoint;
+	private ExecutorService pipelineExecutor;
+	// parses the responses and dispatches the response events, in order, off the network thread
+	private volatile ResponseProcessingQueue responseProcessingQueue = new ResponseProcessingQueue();
+	// computes the retry intervals and stops sending requests to unavailable endpoints
+	private volatile RetryPolicy retryPolicy = new RetryPolicy();
+	// request headers computed from the last Assurance shared state
+	private final SharedStateCache.DerivedValue<Map<String, String>> assuranceHeaders =
+		new SharedStateCache.DerivedValue<>(EdgeHitProcessor::computeAssuranceHeaders);
 	static EdgeNetworkService networkService;
 	private static final String VALID_PATH_REGEX_PATTERN = "^\\/[/.a-zA-Z0-9-~_]+$";
 	private static final Pattern pattern = Pattern.compile(VALID_PATH_REGEX_PATTERN);
+	// validation results of the recent custom paths
+	private final LruCache<String, Boolean> validPaths = new LruCache<>(EdgeConstants.Defaults.URL_CACHE_MAX_ENTRIES);
 
 	EdgeHitProcessor(
 		final NetworkResponseHandler networkResponseHandler,
@@ -57,18 +84,79 @@ class EdgeHitProcessor implements HitProcessing {
 		final NamedCollection namedCollection,
 		final EdgeSharedStateCallback callback,
 		final EdgeStateCallback stateCallback
+	) {
+		this(networkResponseHandler, networkService, namedCollection, callback, stateCallback, null);
+	}
+
+	/**
+	 * Creates a hit processor which is able to coalesce consecutive Experience Event hits into a single request.
+	 *
+	 * @param networkResponseHandler the handler for the network responses
+	 * @param networkService the {@link EdgeNetworkService} used to send the requests
+	 * @param namedCollection the Edge data store
+	 * @param callback the {@link EdgeSharedStateCallback} used to fetch shared states
+	 * @param stateCallback the {@link EdgeStateCallback} used to read the Edge state
+	 * @param dataQueue the {@link DataQueue} backing the hit queue which uses this processor; used to peek the
+	 *                  hits following the one being processed. If null, request batching is disabled.
+	 */
+	EdgeHitProcessor(
+		final NetworkResponseHandler networkResponseHandler,
+		final EdgeNetworkService networkService,
+		final NamedCollection namedCollection,
+		final EdgeSharedStateCallback callback,
+		final EdgeStateCallback stateCallback,
+		final DataQueue dataQueue
+	) {
+		this(networkResponseHandler, networkService, namedCollection, callback, stateCallback, dataQueue, null);
+	}
+
+	/**
+	 * Creates a hit processor which is able to coalesce consecutive Experience Event hits into a single request
+	 * and reads the configuration and identity snapshots of the queued hits from the provided snapshot store.
+	 *
+	 * @param networkResponseHandler the handler for the network responses
+	 * @param networkService the {@link EdgeNetworkService} used to send the requests
+	 * @param namedCollection the Edge data store
+	 * @param callback the {@link EdgeSharedStateCallback} used to fetch shared states
+	 * @param stateCallback the {@link EdgeStateCallback} used to read the Edge state
+	 * @param dataQueue the {@link DataQueue} backing the hit queue which uses this processor; used to peek the
+	 *                  hits following the one being processed. If null, request batching is disabled.
+	 * @param snapshotStore the {@link EdgeHitSnapshotStore} used when queuing the hits; the snapshots of the
+	 *                      processed hits are released from it
+	 */
+	EdgeHitProcessor(
+		final NetworkResponseHandler networkResponseHandler,
+		final EdgeNetworkService networkService,
+		final NamedCollection namedCollection,
+		final EdgeSharedStateCallback callback,
+		final EdgeStateCallback stateCallback,
+		final DataQueue dataQueue,
+		final EdgeHitSnapshotStore snapshotStore
 	) {
 		this.networkResponseHandler = networkResponseHandler;
 		this.networkService = networkService;
 		this.namedCollection = namedCollection;
 		this.sharedStateCallback = callback;
 		this.stateCallback = stateCallback;
+		this.dataQueue = dataQueue;
+		this.snapshotStore = snapshotStore;
 	}
 
 	@Override
 	public int retryInterval(@NonNull final DataEntity dataEntity) {
-		Integer retryInterval = entityRetryIntervalMapping.get(dataEntity.getUniqueIdentifier());
-		return retryInterval != null ? retryInterval : EdgeConstants.Defaults.RETRY_INTERVAL_SECONDS;
+		// wait until the endpoint of the hit can be retried
+		final HitEndpoint hitEndpoint = retryEndpoint;
+		final String endpoint;
+
+		if (hitEndpoint != null && hitEndpoint.entityId.equals(dataEntity.getUniqueIdentifier())) {
+			endpoint = hitEndpoint.endpoint;
+		} else {
+			final EdgeDataEntity entity = EdgeDataEntity.fromDataEntity(dataEntity, snapshotStore);
+			endpoint = entity != null ? getEndpoint(entity) : null;
+		}
+
+		final int pauseSeconds = endpoint != null ? retryPolicy.getPauseSeconds(endpoint) : 0;
+		return pauseSeconds > 0 ? pauseSeconds : EdgeConstants.Defaults.RETRY_INTERVAL_SECONDS;
 	}
 
 	/**
@@ -82,29 +170,72 @@ class EdgeHitProcessor implements HitProcessing {
 	 */
 	@Override
 	public void processHit(@NonNull final DataEntity dataEntity, @NonNull final HitProcessingResult processingResult) {
-		EdgeDataEntity entity = EdgeDataEntity.fromDataEntity(dataEntity);
+		EdgeDataEntity entity = EdgeDataEntity.fromDataEntity(dataEntity, snapshotStore);
 
 		if (entity == null) {
 			Log.debug(LOG_TAG, LOG_SOURCE, "Unable to deserialize DataEntity to EdgeDataEntity. Dropping the hit.");
+
+			if (snapshotStore != null) {
+				// the snapshots referenced by the dropped hit are released, they are not kept until the queue is empty
+				for (final String reference : EdgeDataEntity.getSnapshotReferences(dataEntity)) {
+					snapshotStore.release(reference);
+				}
+			}
+
 			processingResult.complete(true);
 			return;
 		}
 
-		// Add in Identity Map at request (global) level
-		RequestBuilder request = new RequestBuilder(namedCollection);
-		request.addXdmPayload(entity.getIdentityMap());
+		final String entityId = dataEntity.getUniqueIdentifier();
 
-		// Enable response streaming for all events
-		request.enableResponseStreaming(
-			EdgeConstants.Defaults.REQUEST_CONFIG_RECORD_SEPARATOR,
-			EdgeConstants.Defaults.REQUEST_CONFIG_LINE_FEED
-		);
+		if (getSentEntityIds().remove(entityId)) {
+			saveSentEntityIds();
+			Log.trace(LOG_TAG, LOG_SOURCE, "Hit (%s) was already sent by a pipelined request, removing it.", entityId);
+			processingResult.complete(true);
+			entity.releaseSnapshots(snapshotStore);
+			return;
+		}
+
+		if (deferredEntityIds.remove(entityId)) {
+			// the pipelined request of this hit failed, retry it after its retry interval
+			retryEndpoint = new HitEndpoint(entityId, getEndpoint(entity));
+			processingResult.complete(false);
+			return;
+		}
+
+		// the responses to previous requests may update the state store and location hint used by this request
+		awaitStateUpdates();
+		retryPolicy.updateConfiguration(entity.getConfiguration());
 
 		boolean hitCompleteResult = true;
+		List<EdgeDataEntity> processedEntities = Collections.singletonList(entity);
+
 		if (EventUtils.isExperienceEvent(entity.getEvent())) {
-			hitCompleteResult = processExperienceEventHit(dataEntity.getUniqueIdentifier(), entity, request);
+			final List<QueuedRequest> queuedRequests = getExperienceEventRequests(dataEntity, entity);
+			final List<QueuedRequest> processedRequests;
+
+			if (queuedRequests.size() > 1) {
+				processedRequests = processPipelinedRequests(queuedRequests);
+				hitCompleteResult = !processedRequests.isEmpty();
+			} else {
+				processedRequests = queuedRequests;
+				hitCompleteResult =
+					processExperienceEventHit(entityId, queuedRequests.get(0).entities, createRequestBuilder(entity));
+			}
+
+			final List<String> processedEntityIds = new ArrayList<>();
+			processedEntities = new ArrayList<>();
+
+			for (final QueuedRequest processedRequest : processedRequests) {
+				processedEntityIds.addAll(processedRequest.entityIds);
+				processedEntities.addAll(processedRequest.entities);
+			}
+
+			if (hitCompleteResult && processedEntityIds.size() > 1) {
+				removeProcessedHits(processedEntityIds);
+			}
 		} else if (EventUtils.isUpdateConsentEvent(entity.getEvent())) {
-			hitCompleteResult = processUpdateConsentEventHit(dataEntity.getUniqueIdentifier(), entity, request);
+			hitCompleteResult = processUpdateConsentEventHit(entityId, entity, createRequestBuilder(entity));
 		} else if (EventUtils.isResetComplete(entity.getEvent())) {
 			// clear state store
 			final StoreResponsePayloadManager payloadManager = new StoreResponsePayloadManager(namedCollection);
@@ -112,7 +243,16 @@ class EdgeHitProcessor implements HitProcessing {
 			hitCompleteResult = true; // Request complete, don't retry hit
 		}
 
+		retryEndpoint = hitCompleteResult ? null : new HitEndpoint(entityId, getEndpoint(entity));
 		processingResult.complete(hitCompleteResult);
+
+		if (hitCompleteResult) {
+			// released once the processed hits were removed from the queue, so a queued hit never references
+			// a removed snapshot
+			for (final EdgeDataEntity processedEntity : processedEntities) {
+				processedEntity.releaseSnapshots(snapshotStore);
+			}
+		}
 	}
 
 	/**
@@ -124,114 +264,166 @@ class EdgeHitProcessor implements HitProcessing {
 	 * @return true if sending the hit is complete, false if sending the hit should be retried at a later time
 	 */
 	boolean sendNetworkRequest(final String entityId, final EdgeHit edgeHit, final Map<String, String> requestHeaders) {
-		if (edgeHit == null || edgeHit.getPayload() == null || edgeHit.getPayload().length() == 0) {
+		return sendNetworkRequest(entityId, edgeHit, requestHeaders, 0);
+	}
+
+	/**
+	 * Sends a network call to Experience Edge Network with the provided information in {@link EdgeHit},
+	 * compressing the request body if it is at least {@code compressionMinBytes} in size.
+	 * @param entityId the unique id of the entity being processed
+	 * @param edgeHit the Edge request to be sent; should not be null
+	 * @param requestHeaders the headers for the network requests
+	 * @param compressionMinBytes the minimum request body size for compression; zero disables compression
+	 * @return true if sending the hit is complete, false if sending the hit should be retried at a later time
+	 * @see #getCompressionMinBytes(Map)
+	 */
+	boolean sendNetworkRequest(
+		final String entityId,
+		final EdgeHit edgeHit,
+		final Map<String, String> requestHeaders,
+		final int compressionMinBytes
+	) {
+		if (edgeHit == null || edgeHit.getBody() == null || edgeHit.getBody().length == 0) {
 			Log.warning(LOG_TAG, LOG_SOURCE, "Request body was null/empty, dropping this request");
+
+			if (edgeHit != null) {
+				networkResponseHandler.removeWaitingEvents(edgeHit.getRequestId());
+			}
+
 			return true;
 		}
 
+		// the network thread only queues the response records, they are processed in order by the response queue
+		final ResponseProcessingQueue responseQueue = responseProcessingQueue;
 		EdgeNetworkService.ResponseCallback responseCallback = new EdgeNetworkService.ResponseCallback() {
 			@Override
 			public void onResponse(final String jsonResponse) {
-				networkResponseHandler.processResponseOnSuccess(jsonResponse, edgeHit.getRequestId());
+				responseQueue.submit(
+					() -> networkResponseHandler.processResponseOnSuccess(jsonResponse, edgeHit.getRequestId()),
+					updatesState(jsonResponse)
+				);
 			}
 
 			@Override
 			public void onError(final String jsonError) {
-				networkResponseHandler.processResponseOnError(jsonError, edgeHit.getRequestId());
+				responseQueue.submit(() ->
+					networkResponseHandler.processResponseOnError(jsonError, edgeHit.getRequestId())
+				);
 			}
 
 			@Override
 			public void onComplete() {
-				networkResponseHandler.processResponseOnComplete(edgeHit.getRequestId());
+				responseQueue.submit(() -> networkResponseHandler.processResponseOnComplete(edgeHit.getRequestId()));
 			}
 		};
 
-		String url = networkService.buildUrl(
-			edgeHit.getEdgeEndpoint(),
-			edgeHit.getDatastreamId(),
-			edgeHit.getRequestId()
-		);
+		final EdgeEndpoint edgeEndpoint = edgeHit.getEdgeEndpoint();
+		final String urlPrefix = edgeEndpoint != null ? edgeEndpoint.getValidUrlPrefix(edgeHit.getDatastreamId()) : null;
 
-		if (!isValidUrl(url)) {
+		if (urlPrefix == null) {
 			Log.warning(
 				LOG_TAG,
 				LOG_SOURCE,
-				"Unable to send network request for entity (%s) as URL is malformed or scheme is not 'https', '%s'.",
-				entityId,
-				url
+				"Unable to send network request for entity (%s) as URL is malformed or scheme is not 'https'.",
+				entityId
 			);
+			networkResponseHandler.removeWaitingEvents(edgeHit.getRequestId());
 
 			return true;
 		}
 
-		try {
+		// the request ID is appended once the URL prefix is validated, as it does not change the URL validity
+		final String url = networkService.buildUrl(urlPrefix, edgeHit.getRequestId());
+		final String endpoint = edgeEndpoint.getEndpoint();
+
+		if (!retryPolicy.allowRequest(endpoint)) {
 			Log.debug(
 				LOG_TAG,
 				LOG_SOURCE,
-				"Sending network request with id (%s) to URL '%s' with body:\n%s",
-				edgeHit.getRequestId(),
-				url,
-				edgeHit.getPayload().toString(2)
+				"Not sending network request for entity (%s), endpoint (%s) is paused for %d seconds.",
+				entityId,
+				endpoint,
+				retryPolicy.getPauseSeconds(endpoint)
 			);
-		} catch (JSONException e) {
+			networkResponseHandler.removeWaitingEvents(edgeHit.getRequestId());
+
+			return false;
+		}
+
+		if (isDebugLoggingEnabled()) {
+			// only decode the request body when it is going to be logged
 			Log.debug(
 				LOG_TAG,
 				LOG_SOURCE,
-				"Sending network request with id (%s) to URL '%s'\nError parsing JSON request: %s",
+				"Sending network request with id (%s) to URL '%s' with body:\n%s",
 				edgeHit.getRequestId(),
 				url,
-				e.getLocalizedMessage()
+				new String(edgeHit.getBody(), StandardCharsets.UTF_8)
 			);
 		}
 
+		// the completion callbacks of the events expire after their request is sent, not while they are queued
+		CompletionCallbacksManager
+			.getInstance()
+			.startExpiry(networkResponseHandler.getWaitingEvents(edgeHit.getRequestId()));
+
 		RetryResult retryResult = networkService.doRequest(
 			url,
-			edgeHit.getPayload().toString(),
+			edgeHit.getBody(),
+			edgeHit.getStreamingConfig(),
+			compressionMinBytes,
 			requestHeaders,
 			responseCallback
 		);
 
 		if (retryResult == null || retryResult.getShouldRetry() == EdgeNetworkService.Retry.NO) {
-			if (entityId != null) {
-				entityRetryIntervalMapping.remove(entityId);
-			}
+			retryPolicy.recordSuccess(endpoint);
 
 			return true; // Hit sent successfully
 		} else {
-			if (
-				entityId != null &&
-				retryResult.getRetryIntervalSeconds() != EdgeConstants.Defaults.RETRY_INTERVAL_SECONDS
-			) {
-				entityRetryIntervalMapping.put(entityId, retryResult.getRetryIntervalSeconds());
-			}
+			// the retried request gets a new request id, release the events registered for this attempt
+			networkResponseHandler.removeWaitingEvents(edgeHit.getRequestId());
+			retryPolicy.recordFailure(
+				endpoint,
+				retryResult.hasServerRetryInterval()
+					? retryResult.getRetryIntervalSeconds()
+					: RetryResult.NO_SERVER_RETRY_INTERVAL
+			);
 
 			return false; // Hit failed to send, retry after interval
 		}
 	}
 
 	/**
-	 * Validates a given URL.
-	 * Checks that a URL is valid by ensuring:
-	 * <ul>
-	 *     <li>The URL is not null or empty.</li>
-	 *     <li>The URL is parsable by the {@link java.net.URL} class.</li>
-	 *     <li>The URL scheme is "HTTPS".</li>
-	 * </ul>
-	 * @param url the URL string to validate
-	 * @return true if the URL is valid, false otherwise.
+	 * Reads the request compression threshold from the Edge configuration.
+	 * @param edgeConfig the current Edge configuration
+	 * @return the minimum request body size in bytes for compression, or 0 if compression is not enabled
 	 */
-	private boolean isValidUrl(final String url) {
-		if (!UrlUtils.isValidUrl(url)) {
-			Log.debug(LOG_TAG, LOG_SOURCE, "Request invalid, URL is malformed, '%s'.", url);
-			return false;
+	private int getCompressionMinBytes(final Map<String, Object> edgeConfig) {
+		if (
+			!DataReader.optBoolean(
+				edgeConfig,
+				EdgeConstants.SharedState.Configuration.EDGE_COMPRESSION_ENABLED,
+				EdgeConstants.Defaults.COMPRESSION_ENABLED
+			)
+		) {
+			return 0;
 		}
 
-		if (!url.startsWith("https")) {
-			Log.debug(LOG_TAG, LOG_SOURCE, "Request invalid, URL scheme must be 'https', '%s'.", url);
-			return false;
-		}
+		return DataReader.optInt(
+			edgeConfig,
+			EdgeConstants.SharedState.Configuration.EDGE_COMPRESSION_MIN_BYTES,
+			EdgeConstants.Defaults.COMPRESSION_MIN_BYTES
+		);
+	}
 
-		return true;
+	/**
+	 * Checks if the current log level allows debug messages, used to avoid building expensive log messages.
+	 * @return true if the log level is {@link LoggingMode#DEBUG} or {@link LoggingMode#VERBOSE}
+	 */
+	private boolean isDebugLoggingEnabled() {
+		final LoggingMode logLevel = MobileCore.getLogLevel();
+		return logLevel == LoggingMode.DEBUG || logLevel == LoggingMode.VERBOSE;
 	}
 
 	/**
@@ -276,20 +468,464 @@ class EdgeHitProcessor implements HitProcessing {
 		return StringUtils.isNullOrEmpty(datastreamIdOverride) ? datastreamId : datastreamIdOverride;
 	}
 
+	/**
+	 * Creates the {@link RequestBuilder} for a request starting with the provided hit, with the identity map of
+	 * the hit and response streaming enabled.
+	 *
+	 * @param entity the first {@link EdgeDataEntity} of the request
+	 * @return a new {@code RequestBuilder} instance
+	 */
+	private RequestBuilder createRequestBuilder(@NonNull final EdgeDataEntity entity) {
+		// Add in Identity Map at request (global) level
+		final RequestBuilder request = new RequestBuilder(namedCollection);
+		request.addXdmPayload(entity.getIdentityMap());
+
+		// Enable response streaming for all events
+		request.enableResponseStreaming(
+			EdgeConstants.Defaults.REQUEST_CONFIG_RECORD_SEPARATOR,
+			EdgeConstants.Defaults.REQUEST_CONFIG_LINE_FEED
+		);
+
+		return request;
+	}
+
+	/**
+	 * Collects the Experience Event hits which can be sent together with the hit being processed.
+	 * <p>
+	 * Consecutive hits from the head of the queue are added to the same request as long as they are Experience Events
+	 * sharing the same Edge configuration, identity map, config overrides and request properties, and the request
+	 * does not exceed the {@code edge.batch.maxEvents} and {@code edge.batch.maxBytes} limits. When
+	 * {@code edge.pipeline.maxInFlight} is greater than one, the following Experience Event hits are collected in
+	 * additional requests, up to that number of requests. Collection stops at the first hit which is not an
+	 * Experience Event, so consent and reset hits are never sent ahead of the hits queued before them.
+	 *
+	 * @param dataEntity the {@link DataEntity} being processed, expected to be the head of the queue
+	 * @param entity the {@link EdgeDataEntity} decoded from {@code dataEntity}
+	 * @return the list of requests to be sent, in queue order; the first one starts with {@code entity}
+	 */
+	private List<QueuedRequest> getExperienceEventRequests(
+		@NonNull final DataEntity dataEntity,
+		@NonNull final EdgeDataEntity entity
+	) {
+		final List<QueuedRequest> requests = new ArrayList<>();
+		QueuedRequest request = new QueuedRequest(dataEntity.getUniqueIdentifier(), entity);
+		requests.add(request);
+
+		final int maxEvents = DataReader.optInt(
+			entity.getConfiguration(),
+			EdgeConstants.SharedState.Configuration.EDGE_BATCH_MAX_EVENTS,
+			EdgeConstants.Defaults.BATCH_MAX_EVENTS
+		);
+		final int maxInFlight = getPipelineMaxInFlight(entity.getConfiguration());
+
+		if (dataQueue == null || (maxEvents <= 1 && maxInFlight <= 1)) {
+			return requests;
+		}
+
+		final int maxBytes = DataReader.optInt(
+			entity.getConfiguration(),
+			EdgeConstants.SharedState.Configuration.EDGE_BATCH_MAX_BYTES,
+			EdgeConstants.Defaults.BATCH_MAX_BYTES
+		);
+
+		final List<DataEntity> queuedEntities = dataQueue.peek(Math.max(maxEvents, 1) * maxInFlight);
+
+		if (
+			queuedEntities == null ||
+			queuedEntities.isEmpty() ||
+			!dataEntity.getUniqueIdentifier().equals(queuedEntities.get(0).getUniqueIdentifier())
+		) {
+			// the hit being processed is not the head of the queue, do not batch
+			return requests;
+		}
+
+		int requestSize = dataEntity.getData().length();
+
+		for (int i = 1; i < queuedEntities.size(); i++) {
+			final DataEntity queuedEntity = queuedEntities.get(i);
+			final String entityId = queuedEntity.getUniqueIdentifier();
+			final String data = queuedEntity.getData();
+
+			if (data == null || getSentEntityIds().contains(entityId) || deferredEntityIds.contains(entityId)) {
+				break;
+			}
+
+			final boolean fitsRequest = request.size() < maxEvents && requestSize + data.length() <= maxBytes;
+
+			if (!fitsRequest && requests.size() >= maxInFlight) {
+				break;
+			}
+
+			final EdgeDataEntity candidate = EdgeDataEntity.fromDataEntity(queuedEntity, snapshotStore);
+
+			if (candidate == null || !EventUtils.isExperienceEvent(candidate.getEvent())) {
+				break;
+			}
+
+			if (fitsRequest && canBatch(request.entities.get(0), candidate)) {
+				request.add(entityId, candidate);
+				requestSize += data.length();
+				continue;
+			}
+
+			if (requests.size() >= maxInFlight) {
+				break;
+			}
+
+			request = new QueuedRequest(entityId, candidate);
+			requests.add(request);
+			requestSize = data.length();
+		}
+
+		if (requests.size() > 1) {
+			Log.trace(
+				LOG_TAG,
+				LOG_SOURCE,
+				"Sending %d queued Experience Event requests concurrently.",
+				requests.size()
+			);
+		} else if (request.size() > 1) {
+			Log.trace(
+				LOG_TAG,
+				LOG_SOURCE,
+				"Sending %d queued Experience Events in one request (%d bytes).",
+				request.size(),
+				requestSize
+			);
+		}
+
+		return requests;
+	}
+
+	/**
+	 * Sends the provided Experience Event requests concurrently.
+	 * <p>
+	 * The requests to the same datastream are sent sequentially, in queue order, and the requests following a
+	 * failed request to the same datastream are not sent. The requests to different datastreams are sent in parallel.
+	 * The hits sent after a failed request are removed without being sent again when they reach the head of the
+	 * queue; they are persisted, so they are not sent again after a relaunch either. A failed request following
+	 * successful requests is retried after its retry interval.
+	 * <p>
+	 * {@link #processExperienceEventHit(String, List, RequestBuilder)} runs concurrently for the different
+	 * datastreams. Each request is built by its own {@link RequestBuilder}, which is not thread safe, while the
+	 * {@link NetworkResponseHandler}, {@link RetryPolicy}, response queue and caches shared by the requests are.
+	 *
+	 * @param requests the requests to send, in queue order
+	 * @return the successful requests at the head of the queue, whose hits can be removed from the queue;
+	 * empty if the first request must be retried
+	 */
+	private List<QueuedRequest> processPipelinedRequests(@NonNull final List<QueuedRequest> requests) {
+		final Map<String, List<QueuedRequest>> datastreamRequests = new LinkedHashMap<>();
+
+		for (final QueuedRequest request : requests) {
+			final String datastreamId = getDatastreamId(request.entities.get(0));
+			List<QueuedRequest> sequentialRequests = datastreamRequests.get(datastreamId);
+
+			if (sequentialRequests == null) {
+				sequentialRequests = new ArrayList<>();
+				datastreamRequests.put(datastreamId, sequentialRequests);
+			}
+
+			sequentialRequests.add(request);
+		}
+
+		final List<Runnable> tasks = new ArrayList<>();
+
+		for (final List<QueuedRequest> sequentialRequests : datastreamRequests.values()) {
+			tasks.add(() -> {
+				for (final QueuedRequest request : sequentialRequests) {
+					final boolean complete = processExperienceEventHit(
+						request.entityIds.get(0),
+						request.entities,
+						createRequestBuilder(request.entities.get(0))
+					);
+					request.complete = complete;
+
+					if (!complete) {
+						break;
+					}
+				}
+			});
+		}
+
+		final List<Future<?>> futures = new ArrayList<>();
+
+		for (int i = 1; i < tasks.size(); i++) {
+			futures.add(getPipelineExecutor().submit(tasks.get(i)));
+		}
+
+		// the requests to the first datastream are sent on the hit queue thread
+		tasks.get(0).run();
+
+		for (final Future<?> future : futures) {
+			try {
+				future.get();
+			} catch (final InterruptedException | ExecutionException e) {
+				Log.warning(LOG_TAG, LOG_SOURCE, "Failed to wait for a pipelined request: %s", e.getLocalizedMessage());
+			}
+		}
+
+		final List<QueuedRequest> processedRequests = new ArrayList<>();
+		final Set<String> sentIds = getSentEntityIds();
+		final int sentCount = sentIds.size();
+		boolean isQueueHead = true;
+
+		for (final QueuedRequest request : requests) {
+			final boolean complete = Boolean.TRUE.equals(request.complete);
+
+			if (isQueueHead && complete) {
+				processedRequests.add(request);
+			} else if (isQueueHead) {
+				isQueueHead = false;
+
+				if (request.complete != null && !processedRequests.isEmpty()) {
+					deferredEntityIds.add(request.entityIds.get(0));
+				}
+			} else if (complete) {
+				sentIds.addAll(request.entityIds);
+			}
+		}
+
+		if (sentIds.size() != sentCount) {
+			// persisted before reporting the result, so the hits are not sent again if the application is terminated
+			saveSentEntityIds();
+		}
+
+		return processedRequests;
+	}
+
+	/**
+	 * Removes the processed hits from the head of the queue, except the one removed by the hit queue once the
+	 * processing result is reported.
+	 * <p>
+	 * The hits are only removed while they are still at the head of the queue, as the queue may have been cleared
+	 * while their request was sent, for example when the collect consent was set to no.
+	 *
+	 * @param entityIds the unique identifiers of the processed hits, in queue order, starting with the hit being
+	 *                  processed
+	 */
+	private void removeProcessedHits(@NonNull final List<String> entityIds) {
+		final List<DataEntity> queuedEntities = dataQueue.peek(entityIds.size());
+		int queuedCount = 0;
+
+		while (
+			queuedEntities != null &&
+			queuedCount < queuedEntities.size() &&
+			queuedCount < entityIds.size() &&
+			entityIds.get(queuedCount).equals(queuedEntities.get(queuedCount).getUniqueIdentifier())
+		) {
+			queuedCount++;
+		}
+
+		if (queuedCount < entityIds.size()) {
+			Log.debug(
+				LOG_TAG,
+				LOG_SOURCE,
+				"The hit queue changed while sending %d hits, only %d of them are still queued.",
+				entityIds.size(),
+				queuedCount
+			);
+		}
+
+		if (queuedCount > 1) {
+			dataQueue.remove(queuedCount - 1);
+		}
+	}
+
+	/**
+	 * Gets the queued hits already sent by a pipelined request, reading them from the data store on first use.
+	 * The persisted hits are discarded if the hit queue is empty, for example after it was cleared.
+	 * Called on the hit queue thread.
+	 */
+	private Set<String> getSentEntityIds() {
+		if (sentEntityIds != null) {
+			return sentEntityIds;
+		}
+
+		sentEntityIds = new HashSet<>();
+		final Map<String, String> persistedEntityIds = namedCollection != null
+			? namedCollection.getMap(EdgeConstants.DataStoreKeys.PIPELINE_SENT_HITS)
+			: null;
+
+		if (persistedEntityIds == null || persistedEntityIds.isEmpty()) {
+			return sentEntityIds;
+		}
+
+		if (dataQueue != null && dataQueue.count() == 0) {
+			namedCollection.remove(EdgeConstants.DataStoreKeys.PIPELINE_SENT_HITS);
+		} else {
+			sentEntityIds.addAll(persistedEntityIds.keySet());
+		}
+
+		return sentEntityIds;
+	}
+
+	/**
+	 * Persists the queued hits already sent by a pipelined request.
+	 */
+	private void saveSentEntityIds() {
+		if (namedCollection == null) {
+			return;
+		}
+
+		if (sentEntityIds.isEmpty()) {
+			namedCollection.remove(EdgeConstants.DataStoreKeys.PIPELINE_SENT_HITS);
+			return;
+		}
+
+		final Map<String, String> persistedEntityIds = new HashMap<>();
+
+		for (final String entityId : sentEntityIds) {
+			persistedEntityIds.put(entityId, "");
+		}
+
+		namedCollection.setMap(EdgeConstants.DataStoreKeys.PIPELINE_SENT_HITS, persistedEntityIds);
+	}
+
+	/**
+	 * Reads the maximum number of concurrent requests from the Edge configuration.
+	 * @param edgeConfig the Edge configuration of the hit being processed
+	 * @return the maximum number of in-flight requests, between 1 and
+	 * {@link EdgeConstants.Defaults#PIPELINE_MAX_IN_FLIGHT_LIMIT}
+	 */
+	private int getPipelineMaxInFlight(final Map<String, Object> edgeConfig) {
+		final int maxInFlight = DataReader.optInt(
+			edgeConfig,
+			EdgeConstants.SharedState.Configuration.EDGE_PIPELINE_MAX_IN_FLIGHT,
+			EdgeConstants.Defaults.PIPELINE_MAX_IN_FLIGHT
+		);
+
+		return Math.max(1, Math.min(maxInFlight, EdgeConstants.Defaults.PIPELINE_MAX_IN_FLIGHT_LIMIT));
+	}
+
+	/**
+	 * Gets the datastream the hit is sent to, used to keep the requests to the same datastream in order.
+	 * @param entity the {@link EdgeDataEntity} to be sent
+	 * @return the datastream ID override of the hit if set, otherwise the configured datastream ID
+	 */
+	private String getDatastreamId(@NonNull final EdgeDataEntity entity) {
+		final String datastreamIdOverride = DataReader.optString(
+			EventUtils.getConfig(entity.getEvent()),
+			EdgeConstants.EventDataKeys.Config.DATASTREAM_ID_OVERRIDE,
+			null
+		);
+
+		if (!StringUtils.isNullOrEmpty(datastreamIdOverride)) {
+			return datastreamIdOverride;
+		}
+
+		return DataReader.optString(
+			entity.getConfiguration(),
+			EdgeConstants.SharedState.Configuration.EDGE_CONFIG_ID,
+			""
+		);
+	}
+
+	/**
+	 * Sets the {@link Executor} used to process the Edge Network responses.
+	 *
+	 * @param executor the executor processing the responses, expected to run the tasks in submission order;
+	 *                 if null, the responses are processed in order on a background thread
+	 */
+	void setResponseExecutor(final Executor executor) {
+		responseProcessingQueue = new ResponseProcessingQueue(executor);
+	}
+
+	/**
+	 * Sets the {@link RetryPolicy} used to compute the retry intervals of the requests.
+	 *
+	 * @param retryPolicy the retry policy; should not be null
+	 */
+	void setRetryPolicy(final RetryPolicy retryPolicy) {
+		this.retryPolicy = retryPolicy;
+	}
+
+	/**
+	 * Waits for the processing of the responses received so far which update the state store or location hint, up to
+	 * {@link EdgeConstants.Defaults#RESPONSE_PROCESSING_WAIT_MILLIS}. Does not wait if no such response is pending.
+	 */
+	private void awaitStateUpdates() {
+		if (!responseProcessingQueue.awaitStateUpdates(EdgeConstants.Defaults.RESPONSE_PROCESSING_WAIT_MILLIS)) {
+			Log.debug(
+				LOG_TAG,
+				LOG_SOURCE,
+				"Responses to previous requests are still being processed, sending the next request without waiting."
+			);
+		}
+	}
+
+	/**
+	 * Checks if a response may update the state used by the next requests, that is if it may contain a state store
+	 * or location hint handle. The check is conservative, the response is not parsed.
+	 * @param jsonResponse the response record received from the Edge Network
+	 * @return true if the response mentions a state store or location hint handle type
+	 */
+	private static boolean updatesState(final String jsonResponse) {
+		return (
+			jsonResponse != null &&
+			(
+				jsonResponse.contains(EdgeJson.Response.EventHandle.Store.TYPE) ||
+				jsonResponse.contains(EdgeJson.Response.EventHandle.LocationHint.TYPE)
+			)
+		);
+	}
+
+	/**
+	 * Stops the threads sending the pipelined requests. Called when the hit queue using this processor is closed.
+	 */
+	synchronized void close() {
+		if (pipelineExecutor != null) {
+			pipelineExecutor.shutdown();
+			pipelineExecutor = null;
+		}
+	}
+
+	private synchronized ExecutorService getPipelineExecutor() {
+		if (pipelineExecutor == null) {
+			pipelineExecutor =
+				Executors.newCachedThreadPool(runnable -> {
+					final Thread thread = new Thread(runnable, "EdgeHitPipeline");
+					thread.setDaemon(true);
+					return thread;
+				});
+		}
+
+		return pipelineExecutor;
+	}
+
+	/**
+	 * Checks if the {@code candidate} hit can be sent in the same network request as the {@code head} hit.
+	 *
+	 * @param head the first {@link EdgeDataEntity} of the batch
+	 * @param candidate the {@code EdgeDataEntity} to be checked
+	 * @return true if both hits resolve to the same request configuration, false otherwise
+	 */
+	private boolean canBatch(@NonNull final EdgeDataEntity head, @NonNull final EdgeDataEntity candidate) {
+		return (
+			EventUtils.isExperienceEvent(candidate.getEvent()) &&
+			head.hasSameConfigurationAndIdentityMap(candidate) &&
+			Objects.equals(EventUtils.getConfig(head.getEvent()), EventUtils.getConfig(candidate.getEvent())) &&
+			Objects.equals(getRequestData(head.getEvent()), getRequestData(candidate.getEvent()))
+		);
+	}
+
 	/**
 	 * Process and send an ExperienceEvent network request.
 	 *
-	 * @param entityId the {@link DataEntity} unique identifier
-	 * @param entity the {@link EdgeDataEntity} which encapsulates the request data
+	 * @param entityId the {@link DataEntity} unique identifier of the first hit in {@code entities}
+	 * @param entities the {@link EdgeDataEntity} list which encapsulates the request data; all entities
+	 *                 share the same configuration, identity map and request properties
 	 * @param request a {@link RequestBuilder} instance
-	 * @return true if the request processing is complete for this hit or false if processing is
-	 * not complete and this hit must be retired.
+	 * @return true if the request processing is complete for these hits or false if processing is
+	 * not complete and these hits must be retired.
 	 */
 	private boolean processExperienceEventHit(
 		@NonNull final String entityId,
-		@NonNull final EdgeDataEntity entity,
+		@NonNull final List<EdgeDataEntity> entities,
 		@NonNull final RequestBuilder request
 	) {
+		final EdgeDataEntity entity = entities.get(0);
+
 		if (stateCallback != null) {
 			// Add Implementation Details to request (global) level
 			request.addXdmPayload(stateCallback.getImplementationDetails());
@@ -317,12 +953,15 @@ class EdgeHitProcessor implements HitProcessing {
 				"Cannot process Experience Event hit as the Edge Network configuration ID is null or empty, dropping current event (%s).",
 				entity.getEvent().getUniqueIdentifier()
 			);
+			completeDroppedEvents(entities);
 			return true; // Request complete, don't retry hit
 		}
 
 		final List<Event> listOfEvents = new ArrayList<>();
-		listOfEvents.add(entity.getEvent());
-		final JSONObject requestPayload = request.getPayloadWithExperienceEvents(listOfEvents);
+		for (final EdgeDataEntity batchedEntity : entities) {
+			listOfEvents.add(batchedEntity.getEvent());
+		}
+		final byte[] requestPayload = request.getPayloadWithExperienceEvents(listOfEvents);
 
 		if (requestPayload == null) {
 			Log.warning(
@@ -331,7 +970,7 @@ class EdgeHitProcessor implements HitProcessing {
 				"Failed to build the request payload, dropping current event (%s).",
 				entity.getEvent().getUniqueIdentifier()
 			);
-
+			completeDroppedEvents(entities);
 			return true; // Request complete, don't retry hit
 		}
 
@@ -342,14 +981,31 @@ class EdgeHitProcessor implements HitProcessing {
 			requestProperties
 		);
 
-		final EdgeHit edgeHit = new EdgeHit(datastreamId, requestPayload, edgeEndpoint);
+		final EdgeHit edgeHit = new EdgeHit(
+			datastreamId,
+			requestPayload,
+			request.buildKonductorConfig(),
+			edgeEndpoint
+		);
 
 		// NOTE: the order of these events need to be maintained as they were sent in the network request
 		// otherwise the response callback cannot be matched
 		networkResponseHandler.addWaitingEvents(edgeHit.getRequestId(), listOfEvents);
 
 		final Map<String, String> requestHeaders = getRequestHeaders();
-		return sendNetworkRequest(entityId, edgeHit, requestHeaders);
+		return sendNetworkRequest(entityId, edgeHit, requestHeaders, getCompressionMinBytes(edgeConfig));
+	}
+
+	/**
+	 * Completes the completion callbacks registered for the events of the dropped {@code entities}, if any, with no
+	 * event handles.
+	 *
+	 * @param entities the {@link EdgeDataEntity} list whose events are not sent to the Edge Network
+	 */
+	private static void completeDroppedEvents(@NonNull final List<EdgeDataEntity> entities) {
+		for (final EdgeDataEntity entity : entities) {
+			CompletionCallbacksManager.getInstance().unregisterCallback(entity.getEvent().getUniqueIdentifier());
+		}
 	}
 
 	/**
@@ -367,7 +1023,7 @@ class EdgeHitProcessor implements HitProcessing {
 		@NonNull final RequestBuilder request
 	) {
 		// Build and send the consent network request to Experience Edge
-		final JSONObject consentPayload = request.getConsentPayload(entity.getEvent());
+		final byte[] consentPayload = request.getConsentPayload(entity.getEvent());
 
 		if (consentPayload == null) {
 			Log.debug(
@@ -400,11 +1056,41 @@ class EdgeHitProcessor implements HitProcessing {
 
 		final EdgeEndpoint edgeEndpoint = getEdgeEndpoint(EdgeNetworkService.RequestType.CONSENT, edgeConfig, null);
 
-		final EdgeHit edgeHit = new EdgeHit(datastreamId, consentPayload, edgeEndpoint);
+		final EdgeHit edgeHit = new EdgeHit(
+			datastreamId,
+			consentPayload,
+			request.buildKonductorConfig(),
+			edgeEndpoint
+		);
 
 		networkResponseHandler.addWaitingEvent(edgeHit.getRequestId(), entity.getEvent());
 		final Map<String, String> requestHeaders = getRequestHeaders();
-		return sendNetworkRequest(entityId, edgeHit, requestHeaders);
+		return sendNetworkRequest(entityId, edgeHit, requestHeaders, getCompressionMinBytes(edgeConfig));
+	}
+
+	/**
+	 * Gets the endpoint the request of the provided hit is sent to, the one its retries are paused for.
+	 * @param entity the {@link EdgeDataEntity} of a queued hit
+	 * @return the endpoint of the hit request, or null if the hit does not send a request
+	 */
+	private String getEndpoint(@NonNull final EdgeDataEntity entity) {
+		final Event event = entity.getEvent();
+
+		if (EventUtils.isExperienceEvent(event)) {
+			return getEdgeEndpoint(
+				EdgeNetworkService.RequestType.INTERACT,
+				entity.getConfiguration(),
+				getRequestProperties(event)
+			)
+				.getEndpoint();
+		}
+
+		if (EventUtils.isUpdateConsentEvent(event)) {
+			return getEdgeEndpoint(EdgeNetworkService.RequestType.CONSENT, entity.getConfiguration(), null)
+				.getEndpoint();
+		}
+
+		return null;
 	}
 
 	/**
@@ -435,7 +1121,7 @@ class EdgeHitProcessor implements HitProcessing {
 		// Use null fallback value for request without custom path value
 		String customPath = DataReader.optString(requestProperties, EdgeConstants.EventDataKeys.Request.PATH, null);
 
-		return new EdgeEndpoint(requestType, requestEnvironment, requestDomain, customPath, locationHint);
+		return EdgeEndpoint.get(requestType, requestEnvironment, requestDomain, customPath, locationHint);
 	}
 
 	/**
@@ -465,12 +1151,7 @@ class EdgeHitProcessor implements HitProcessing {
 	 * @return the custom path string
 	 */
 	private String getCustomRequestPath(final Event event) {
-		Map<String, Object> requestData = DataReader.optTypedMap(
-			Object.class,
-			event.getEventData(),
-			EdgeConstants.EventDataKeys.Request.KEY,
-			null
-		);
+		Map<String, Object> requestData = getRequestData(event);
 		String path = DataReader.optString(requestData, EdgeConstants.EventDataKeys.Request.PATH, null);
 
 		if (StringUtils.isNullOrEmpty(path)) {
@@ -490,6 +1171,20 @@ class EdgeHitProcessor implements HitProcessing {
 		return path;
 	}
 
+	/**
+	 * Extracts the request properties map from the event data
+	 * @param event current event for which the request properties are to be extracted
+	 * @return the request properties map or null if not present
+	 */
+	private Map<String, Object> getRequestData(final Event event) {
+		return DataReader.optTypedMap(
+			Object.class,
+			event.getEventData(),
+			EdgeConstants.EventDataKeys.Request.KEY,
+			null
+		);
+	}
+
 	/**
 	 * Validates a given path does not contain invalid characters.
 	 * A 'path'  may only contain alphanumeric characters, forward slash, period, hyphen, underscore, or tilde, but may not contain a double forward slash.
@@ -497,13 +1192,14 @@ class EdgeHitProcessor implements HitProcessing {
 	 * @return true if 'path' passes validation, false if 'path' contains invalid characters.
 	 */
 	private boolean isValidPath(final String path) {
-		if (path.contains("//")) {
-			return false;
-		}
+		Boolean isValid = validPaths.get(path);
 
-		Matcher matcher = pattern.matcher(path);
+		if (isValid == null) {
+			isValid = !path.contains("//") && pattern.matcher(path).find();
+			validPaths.put(path, isValid);
+		}
 
-		return matcher.find();
+		return isValid;
 	}
 
 	/**
@@ -532,16 +1228,66 @@ class EdgeHitProcessor implements HitProcessing {
 			return requestHeaders;
 		}
 
+		// the headers are computed again only when the Assurance shared state changes
+		requestHeaders.putAll(assuranceHeaders.get(assuranceStateResult.getValue()));
+		return requestHeaders;
+	}
+
+	/**
+	 * Computes the request headers from the provided {@code Assurance} shared state.
+	 * @param assuranceState the {@code Assurance} shared state, may be null
+	 * @return the {@code Assurance} request headers or empty if the integration identifier is not set
+	 */
+	private static Map<String, String> computeAssuranceHeaders(final Map<String, Object> assuranceState) {
+		final Map<String, String> assuranceHeaders = new HashMap<>();
 		final String assuranceIntegrationId = DataReader.optString(
-			assuranceStateResult.getValue(),
+			assuranceState,
 			EdgeConstants.SharedState.Assurance.INTEGRATION_ID,
 			null
 		);
 
 		if (!StringUtils.isNullOrEmpty(assuranceIntegrationId)) {
-			requestHeaders.put(EdgeConstants.NetworkKeys.HEADER_KEY_AEP_VALIDATION_TOKEN, assuranceIntegrationId);
+			assuranceHeaders.put(EdgeConstants.NetworkKeys.HEADER_KEY_AEP_VALIDATION_TOKEN, assuranceIntegrationId);
 		}
 
-		return requestHeaders;
+		return assuranceHeaders;
+	}
+
+	/**
+	 * The endpoint of a queued hit.
+	 */
+	private static final class HitEndpoint {
+
+		final String entityId;
+		final String endpoint;
+
+		HitEndpoint(final String entityId, final String endpoint) {
+			this.entityId = entityId;
+			this.endpoint = endpoint;
+		}
+	}
+
+	/**
+	 * The queued hits sent in one network request.
+	 */
+	private static final class QueuedRequest {
+
+		final List<String> entityIds = new ArrayList<>();
+		final List<EdgeDataEntity> entities = new ArrayList<>();
+		// null until the request is sent, then true if sending the hits is complete
+		volatile Boolean complete;
+
+		QueuedRequest(final String entityId, final EdgeDataEntity entity) {
+			add(entityId, entity);
+		}
+
+		void add(final String entityId, final EdgeDataEntity entity) {
+			entityIds.add(entityId);
+			entities.add(entity);
+		}
+
+		int size() {
+			return entities.size();
+		}
 	}
 }
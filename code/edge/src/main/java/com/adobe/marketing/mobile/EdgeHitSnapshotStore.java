@@ -0,0 +1,283 @@
+/*
+  Copyright 2023 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile;
+
+import static com.adobe.marketing.mobile.EdgeConstants.LOG_TAG;
+
+import com.adobe.marketing.mobile.services.DataQueue;
+import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.services.NamedCollection;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Persists the configuration and identity snapshots shared by queued {@link EdgeDataEntity} hits.
+ * <p>
+ * Each distinct snapshot is stored once in the Edge data store, keyed by the hash of its content, and queued hits only
+ * hold a reference to it. Snapshots are reference counted: they are retained when a hit referencing them is queued
+ * and removed once all the hits referencing them were released. The reference counts are persisted next to the
+ * snapshots and read on first use, so the hit queue is never scanned.
+ * <p>
+ * A count may stay too high if the application is terminated between retaining a snapshot and queueing its hit. If
+ * the hit queue is empty on first use, the stored snapshots are not referenced by any hit and are removed then.
+ */
+class EdgeHitSnapshotStore {
+
+	private static final String LOG_SOURCE = "EdgeHitSnapshotStore";
+	private static final String HASH_ALGORITHM = "SHA-256";
+	// number of hash bytes used in a snapshot reference
+	private static final int REFERENCE_BYTES = 16;
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	private final NamedCollection namedCollection;
+	private final DataQueue dataQueue;
+	private final Object mutex = new Object();
+
+	// snapshot reference to the number of queued hits referencing it, loaded from the data store on first use
+	private Map<String, Integer> referenceCounts;
+	// snapshot reference to content, for the snapshots read or written since launch
+	private final Map<String, String> snapshots = new HashMap<>();
+	// snapshot content to reference, so the snapshots already stored are not hashed again
+	private final Map<String, String> references = new HashMap<>();
+
+	/**
+	 * Creates a snapshot store which is not backed by a hit queue; the stored snapshots are not reclaimed.
+	 *
+	 * @param namedCollection the data store of the snapshots
+	 */
+	EdgeHitSnapshotStore(final NamedCollection namedCollection) {
+		this(namedCollection, null);
+	}
+
+	/**
+	 * Creates a snapshot store for the hits of the provided queue.
+	 *
+	 * @param namedCollection the data store of the snapshots
+	 * @param dataQueue the {@link DataQueue} of the hits referencing the snapshots; if it is empty on first use,
+	 *                  the stored snapshots are removed
+	 */
+	EdgeHitSnapshotStore(final NamedCollection namedCollection, final DataQueue dataQueue) {
+		this.namedCollection = namedCollection;
+		this.dataQueue = dataQueue;
+	}
+
+	/**
+	 * Stores the provided snapshot, if not already stored, and increments its reference count.
+	 *
+	 * @param snapshot the snapshot content, should not be null or empty
+	 * @return the reference to the stored snapshot, or null if the snapshot could not be stored
+	 */
+	String retain(final String snapshot) {
+		if (namedCollection == null) {
+			return null;
+		}
+
+		synchronized (mutex) {
+			final Map<String, Integer> counts = getReferenceCounts();
+			String reference = references.get(snapshot);
+
+			if (reference == null) {
+				reference = computeReference(snapshot);
+
+				if (reference == null) {
+					return null;
+				}
+
+				final String storedSnapshot = getSnapshot(reference);
+
+				if (storedSnapshot == null) {
+					namedCollection.setString(EdgeConstants.DataStoreKeys.HIT_SNAPSHOT_PREFIX + reference, snapshot);
+					snapshots.put(reference, snapshot);
+				} else if (!storedSnapshot.equals(snapshot)) {
+					Log.debug(LOG_TAG, LOG_SOURCE, "Snapshot hash collision for (%s), not storing it.", reference);
+					return null;
+				}
+
+				references.put(snapshot, reference);
+			}
+
+			final Integer count = counts.get(reference);
+			counts.put(reference, count != null ? count + 1 : 1);
+			saveReferenceCounts(counts);
+
+			return reference;
+		}
+	}
+
+	/**
+	 * Reads the snapshot for the provided reference.
+	 *
+	 * @param reference a reference returned by {@link #retain(String)}
+	 * @return the snapshot content, or null if there is no snapshot for {@code reference}
+	 */
+	String get(final String reference) {
+		if (namedCollection == null || reference == null) {
+			return null;
+		}
+
+		synchronized (mutex) {
+			getReferenceCounts();
+			return getSnapshot(reference);
+		}
+	}
+
+	/**
+	 * Decrements the reference count of a snapshot, removing it when it is no longer referenced.
+	 * Releasing an unknown reference is a no-op.
+	 *
+	 * @param reference a reference returned by {@link #retain(String)}
+	 */
+	void release(final String reference) {
+		if (namedCollection == null || reference == null) {
+			return;
+		}
+
+		synchronized (mutex) {
+			final Map<String, Integer> counts = getReferenceCounts();
+			final Integer count = counts.get(reference);
+
+			if (count == null) {
+				return;
+			}
+
+			if (count > 1) {
+				counts.put(reference, count - 1);
+			} else {
+				counts.remove(reference);
+				removeSnapshot(reference);
+			}
+
+			saveReferenceCounts(counts);
+		}
+	}
+
+	/**
+	 * Removes all the stored snapshots. Called when the hit queue is cleared.
+	 */
+	void clear() {
+		if (namedCollection == null) {
+			return;
+		}
+
+		synchronized (mutex) {
+			for (final String reference : getReferenceCounts().keySet()) {
+				removeSnapshot(reference);
+			}
+
+			referenceCounts = new HashMap<>();
+			snapshots.clear();
+			references.clear();
+			namedCollection.remove(EdgeConstants.DataStoreKeys.HIT_SNAPSHOTS);
+		}
+	}
+
+	private String getSnapshot(final String reference) {
+		String snapshot = snapshots.get(reference);
+
+		if (snapshot == null) {
+			snapshot = namedCollection.getString(EdgeConstants.DataStoreKeys.HIT_SNAPSHOT_PREFIX + reference, null);
+
+			if (snapshot != null) {
+				snapshots.put(reference, snapshot);
+			}
+		}
+
+		return snapshot;
+	}
+
+	private void removeSnapshot(final String reference) {
+		final String snapshot = snapshots.remove(reference);
+
+		if (snapshot != null) {
+			references.remove(snapshot);
+		}
+
+		namedCollection.remove(EdgeConstants.DataStoreKeys.HIT_SNAPSHOT_PREFIX + reference);
+	}
+
+	/**
+	 * Gets the snapshot reference counts, reading them from the data store on first use. If the hit queue is empty
+	 * then, the stored snapshots are removed.
+	 */
+	private Map<String, Integer> getReferenceCounts() {
+		if (referenceCounts != null) {
+			return referenceCounts;
+		}
+
+		referenceCounts = new HashMap<>();
+		final Map<String, String> persistedCounts = namedCollection.getMap(EdgeConstants.DataStoreKeys.HIT_SNAPSHOTS);
+
+		if (persistedCounts == null || persistedCounts.isEmpty()) {
+			return referenceCounts;
+		}
+
+		final int queuedCount = dataQueue != null ? dataQueue.count() : 0;
+
+		if (dataQueue != null && queuedCount == 0) {
+			// no queued hit references the stored snapshots
+			for (final String reference : persistedCounts.keySet()) {
+				removeSnapshot(reference);
+			}
+
+			namedCollection.remove(EdgeConstants.DataStoreKeys.HIT_SNAPSHOTS);
+			Log.debug(LOG_TAG, LOG_SOURCE, "Removed %d snapshots not referenced by queued hits.", persistedCounts.size());
+			return referenceCounts;
+		}
+
+		for (final Map.Entry<String, String> entry : persistedCounts.entrySet()) {
+			try {
+				referenceCounts.put(entry.getKey(), Integer.parseInt(entry.getValue()));
+			} catch (NumberFormatException e) {
+				// each queued hit references a snapshot at most twice, for its configuration and identity map
+				Log.debug(LOG_TAG, LOG_SOURCE, "Invalid reference count for snapshot (%s), keeping it.", entry.getKey());
+				referenceCounts.put(entry.getKey(), Math.max(1, queuedCount * 2));
+			}
+		}
+
+		return referenceCounts;
+	}
+
+	/**
+	 * Persists the snapshot reference counts, read on next launch.
+	 */
+	private void saveReferenceCounts(final Map<String, Integer> counts) {
+		final Map<String, String> persistedCounts = new HashMap<>();
+
+		for (final Map.Entry<String, Integer> entry : counts.entrySet()) {
+			persistedCounts.put(entry.getKey(), String.valueOf(entry.getValue()));
+		}
+
+		namedCollection.setMap(EdgeConstants.DataStoreKeys.HIT_SNAPSHOTS, persistedCounts);
+	}
+
+	private static String computeReference(final String snapshot) {
+		try {
+			final byte[] hash = MessageDigest
+				.getInstance(HASH_ALGORITHM)
+				.digest(snapshot.getBytes(StandardCharsets.UTF_8));
+			final char[] reference = new char[REFERENCE_BYTES * 2];
+
+			for (int i = 0; i < REFERENCE_BYTES; i++) {
+				reference[i * 2] = HEX_DIGITS[(hash[i] >> 4) & 0xF];
+				reference[i * 2 + 1] = HEX_DIGITS[hash[i] & 0xF];
+			}
+
+			return new String(reference);
+		} catch (NoSuchAlgorithmException e) {
+			Log.debug(LOG_TAG, LOG_SOURCE, "Unable to hash snapshot: %s", e.getLocalizedMessage());
+			return null;
+		}
+	}
+}
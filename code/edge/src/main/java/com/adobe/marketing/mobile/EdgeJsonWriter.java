@@ -0,0 +1,377 @@
+/*
+  Copyright 2023 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Writes JSON directly as UTF-8 bytes, without building an intermediate {@link JSONObject} tree.
+ * <p>
+ * Values are serialized the same way as when wrapped in a {@link JSONObject}: {@link Map}s are written as objects,
+ * {@link Collection}s and arrays as JSON arrays, {@code null} values as {@code null}, and other {@code java.*} types
+ * as their string representation.
+ * <p>
+ * This class is not thread safe.
+ */
+class EdgeJsonWriter {
+
+	private static final int DEFAULT_CAPACITY = 1024;
+	private static final byte[] NULL_BYTES = { 'n', 'u', 'l', 'l' };
+	private static final byte[] TRUE_BYTES = { 't', 'r', 'u', 'e' };
+	private static final byte[] FALSE_BYTES = { 'f', 'a', 'l', 's', 'e' };
+	private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+	private byte[] buffer;
+	private int size;
+
+	// true if the next element in the current object or array needs to be preceded by a comma
+	private boolean needsComma = false;
+	// true if a name was written and its value is expected next
+	private boolean afterName = false;
+
+	EdgeJsonWriter() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a new writer.
+	 * @param initialCapacity the initial size in bytes of the output buffer
+	 */
+	EdgeJsonWriter(final int initialCapacity) {
+		buffer = new byte[Math.max(initialCapacity, 16)];
+	}
+
+	/**
+	 * Starts a new JSON object.
+	 * @return this {@code EdgeJsonWriter} instance
+	 */
+	EdgeJsonWriter beginObject() {
+		beforeValue();
+		writeByte('{');
+		needsComma = false;
+		return this;
+	}
+
+	/**
+	 * Ends the current JSON object.
+	 * @return this {@code EdgeJsonWriter} instance
+	 */
+	EdgeJsonWriter endObject() {
+		writeByte('}');
+		needsComma = true;
+		return this;
+	}
+
+	/**
+	 * Starts a new JSON array.
+	 * @return this {@code EdgeJsonWriter} instance
+	 */
+	EdgeJsonWriter beginArray() {
+		beforeValue();
+		writeByte('[');
+		needsComma = false;
+		return this;
+	}
+
+	/**
+	 * Ends the current JSON array.
+	 * @return this {@code EdgeJsonWriter} instance
+	 */
+	EdgeJsonWriter endArray() {
+		writeByte(']');
+		needsComma = true;
+		return this;
+	}
+
+	/**
+	 * Writes the name of the next member of the current JSON object.
+	 * @param name the member name
+	 * @return this {@code EdgeJsonWriter} instance
+	 * @throws IllegalArgumentException if {@code name} is null
+	 */
+	EdgeJsonWriter name(final String name) {
+		if (name == null) {
+			throw new IllegalArgumentException("JSON object names cannot be null.");
+		}
+
+		if (needsComma) {
+			writeByte(',');
+		}
+
+		writeString(name);
+		writeByte(':');
+		afterName = true;
+		needsComma = false;
+		return this;
+	}
+
+	/**
+	 * Writes a value, either as a member value after {@link #name(String)} or as an element of the current array.
+	 * @param value the value to write
+	 * @return this {@code EdgeJsonWriter} instance
+	 * @throws IllegalArgumentException if {@code value} contains a null map key or a non-finite number
+	 */
+	EdgeJsonWriter value(final Object value) {
+		if (value == null || value == JSONObject.NULL) {
+			beforeValue();
+			writeBytes(NULL_BYTES);
+		} else if (value instanceof String) {
+			beforeValue();
+			writeString((String) value);
+		} else if (value instanceof Boolean) {
+			beforeValue();
+			writeBytes((Boolean) value ? TRUE_BYTES : FALSE_BYTES);
+		} else if (value instanceof Number) {
+			beforeValue();
+			writeRaw(numberToString((Number) value));
+		} else if (value instanceof Map) {
+			writeMap((Map<?, ?>) value);
+			return this;
+		} else if (value instanceof Collection) {
+			beginArray();
+
+			for (final Object element : (Collection<?>) value) {
+				value(element);
+			}
+
+			endArray();
+			return this;
+		} else if (value.getClass().isArray()) {
+			beginArray();
+			final int length = Array.getLength(value);
+
+			for (int i = 0; i < length; i++) {
+				value(Array.get(value, i));
+			}
+
+			endArray();
+			return this;
+		} else if (value instanceof JSONObject || value instanceof JSONArray) {
+			beforeValue();
+			writeRaw(value.toString());
+		} else if (value instanceof Character || value.getClass().getName().startsWith("java.")) {
+			beforeValue();
+			writeString(value.toString());
+		} else {
+			// matches JSONObject, which does not serialize arbitrary objects
+			beforeValue();
+			writeBytes(NULL_BYTES);
+		}
+
+		needsComma = true;
+		return this;
+	}
+
+	/**
+	 * @return the number of bytes written so far
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * @return a copy of the UTF-8 encoded JSON written so far
+	 */
+	byte[] toByteArray() {
+		return Arrays.copyOf(buffer, size);
+	}
+
+	private void writeMap(final Map<?, ?> map) {
+		beginObject();
+
+		for (final Map.Entry<?, ?> entry : map.entrySet()) {
+			if (entry.getKey() == null) {
+				throw new IllegalArgumentException("JSON object names cannot be null.");
+			}
+
+			name(entry.getKey().toString());
+			value(entry.getValue());
+		}
+
+		endObject();
+	}
+
+	private void beforeValue() {
+		if (afterName) {
+			afterName = false;
+		} else if (needsComma) {
+			writeByte(',');
+		}
+	}
+
+	private static String numberToString(final Number number) {
+		if (
+			number instanceof Integer ||
+			number instanceof Long ||
+			number instanceof Short ||
+			number instanceof Byte ||
+			number instanceof BigInteger ||
+			number instanceof BigDecimal
+		) {
+			return number.toString();
+		}
+
+		final double doubleValue = number.doubleValue();
+
+		if (Double.isNaN(doubleValue) || Double.isInfinite(doubleValue)) {
+			throw new IllegalArgumentException("JSON does not allow non-finite numbers: " + number);
+		}
+
+		final long longValue = number.longValue();
+
+		if (doubleValue == (double) longValue) {
+			return Long.toString(longValue);
+		}
+
+		return number.toString();
+	}
+
+	/**
+	 * Writes a quoted and escaped JSON string, encoded as UTF-8.
+	 */
+	private void writeString(final String value) {
+		final int length = value.length();
+		// enough for any UTF-8 encoded char, the buffer grows as needed for escaped chars
+		ensureCapacity(size + 2 + length * 3);
+		writeByte('"');
+
+		for (int i = 0; i < length; i++) {
+			final char c = value.charAt(i);
+
+			switch (c) {
+				case '"':
+				case '\\':
+					writeByte('\\');
+					writeByte(c);
+					break;
+				case '\b':
+					writeEscape('b');
+					break;
+				case '\f':
+					writeEscape('f');
+					break;
+				case '\n':
+					writeEscape('n');
+					break;
+				case '\r':
+					writeEscape('r');
+					break;
+				case '\t':
+					writeEscape('t');
+					break;
+				case '\u2028':
+				case '\u2029':
+					writeUnicodeEscape(c);
+					break;
+				default:
+					if (c < 0x20) {
+						writeUnicodeEscape(c);
+					} else if (c < 0x80) {
+						writeByte(c);
+					} else if (c < 0x800) {
+						writeByte(0xC0 | (c >> 6));
+						writeByte(0x80 | (c & 0x3F));
+					} else if (
+						Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))
+					) {
+						final int codePoint = Character.toCodePoint(c, value.charAt(++i));
+						writeByte(0xF0 | (codePoint >> 18));
+						writeByte(0x80 | ((codePoint >> 12) & 0x3F));
+						writeByte(0x80 | ((codePoint >> 6) & 0x3F));
+						writeByte(0x80 | (codePoint & 0x3F));
+					} else if (Character.isSurrogate(c)) {
+						// unpaired surrogate, replaced the same way as String.getBytes(UTF_8)
+						writeByte('?');
+					} else {
+						writeByte(0xE0 | (c >> 12));
+						writeByte(0x80 | ((c >> 6) & 0x3F));
+						writeByte(0x80 | (c & 0x3F));
+					}
+			}
+		}
+
+		writeByte('"');
+	}
+
+	private void writeEscape(final char c) {
+		writeByte('\\');
+		writeByte(c);
+	}
+
+	private void writeUnicodeEscape(final char c) {
+		writeByte('\\');
+		writeByte('u');
+		writeByte(HEX_DIGITS[(c >> 12) & 0xF]);
+		writeByte(HEX_DIGITS[(c >> 8) & 0xF]);
+		writeByte(HEX_DIGITS[(c >> 4) & 0xF]);
+		writeByte(HEX_DIGITS[c & 0xF]);
+	}
+
+	/**
+	 * Writes a string which is already valid JSON, such as a number or a serialized {@code JSONObject}, as UTF-8.
+	 */
+	private void writeRaw(final String value) {
+		final int length = value.length();
+		boolean ascii = true;
+
+		for (int i = 0; i < length && ascii; i++) {
+			ascii = value.charAt(i) < 0x80;
+		}
+
+		if (!ascii) {
+			writeBytes(value.getBytes(StandardCharsets.UTF_8));
+			return;
+		}
+
+		ensureCapacity(size + length);
+
+		for (int i = 0; i < length; i++) {
+			buffer[size++] = (byte) value.charAt(i);
+		}
+	}
+
+	private void writeBytes(final byte[] bytes) {
+		ensureCapacity(size + bytes.length);
+		System.arraycopy(bytes, 0, buffer, size, bytes.length);
+		size += bytes.length;
+	}
+
+	private void writeByte(final int b) {
+		if (size == buffer.length) {
+			ensureCapacity(size + 1);
+		}
+
+		buffer[size++] = (byte) b;
+	}
+
+	private void ensureCapacity(final int capacity) {
+		if (capacity <= buffer.length) {
+			return;
+		}
+
+		int newCapacity = buffer.length * 2;
+
+		if (newCapacity < capacity) {
+			newCapacity = capacity;
+		}
+
+		buffer = Arrays.copyOf(buffer, newCapacity);
+	}
+}
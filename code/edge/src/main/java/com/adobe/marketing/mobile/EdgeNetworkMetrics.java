@@ -0,0 +1,96 @@
+/*
+  Copyright 2023 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters collected by the {@link EdgeNetworkService} for the network requests sent to the Edge Network.
+ * The counters are cumulative for the lifetime of the {@code EdgeNetworkService} instance.
+ */
+class EdgeNetworkMetrics {
+
+	private final AtomicLong compressedRequests = new AtomicLong();
+	private final AtomicLong uncompressedBytes = new AtomicLong();
+	private final AtomicLong compressedBytes = new AtomicLong();
+	private final AtomicLong compressionFallbacks = new AtomicLong();
+	private final AtomicLong requestDeadlineExpirations = new AtomicLong();
+
+	/**
+	 * Records a request which was sent with a compressed body and not rejected by the server.
+	 * @param originalSize the size in bytes of the request body before compression
+	 * @param compressedSize the size in bytes of the compressed request body
+	 */
+	void recordCompressedRequest(final int originalSize, final int compressedSize) {
+		compressedRequests.incrementAndGet();
+		uncompressedBytes.addAndGet(originalSize);
+		compressedBytes.addAndGet(compressedSize);
+	}
+
+	/**
+	 * Records a compressed request which was rejected by the server and sent again uncompressed.
+	 */
+	void recordCompressionFallback() {
+		compressionFallbacks.incrementAndGet();
+	}
+
+	/**
+	 * Records a request which was abandoned because no connection was received before the request deadline.
+	 */
+	void recordRequestDeadlineExpired() {
+		requestDeadlineExpirations.incrementAndGet();
+	}
+
+	/**
+	 * @return the number of request bodies sent compressed
+	 */
+	long getCompressedRequests() {
+		return compressedRequests.get();
+	}
+
+	/**
+	 * @return the total size in bytes of the compressed request bodies, before compression
+	 */
+	long getUncompressedBytes() {
+		return uncompressedBytes.get();
+	}
+
+	/**
+	 * @return the total size in bytes of the compressed request bodies, after compression
+	 */
+	long getCompressedBytes() {
+		return compressedBytes.get();
+	}
+
+	/**
+	 * @return the number of compressed requests which were sent again uncompressed
+	 */
+	long getCompressionFallbacks() {
+		return compressionFallbacks.get();
+	}
+
+	/**
+	 * @return the number of requests abandoned because the request deadline expired
+	 */
+	long getRequestDeadlineExpirations() {
+		return requestDeadlineExpirations.get();
+	}
+
+	/**
+	 * The overall compression ratio of the compressed request bodies, as compressed size over original size.
+	 * @return the compression ratio, or 1 if no request body was compressed
+	 */
+	double getCompressionRatio() {
+		final long original = uncompressedBytes.get();
+		return original == 0 ? 1.0 : (double) compressedBytes.get() / original;
+	}
+}
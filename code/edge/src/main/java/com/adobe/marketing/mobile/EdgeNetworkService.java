@@ -20,17 +20,28 @@ import com.adobe.marketing.mobile.services.NetworkRequest;
 import com.adobe.marketing.mobile.services.Networking;
 import com.adobe.marketing.mobile.util.StringUtils;
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.Scanner;
+import java.util.TimeZone;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
 import org.json.JSONException;
 import org.json.JSONObject;
 
@@ -94,7 +105,18 @@ class EdgeNetworkService {
 		void onComplete();
 	}
 
+	// connection result of a request abandoned after its deadline expired
+	private static final Object EXPIRED = new Object();
 	private static final String DEFAULT_NAMESPACE = "global";
+	// the preferred IMF-fixdate format followed by the obsolete RFC 850 and asctime formats
+	private static final String[] HTTP_DATE_PATTERNS = {
+		"EEE, dd MMM yyyy HH:mm:ss zzz",
+		"EEEE, dd-MMM-yy HH:mm:ss zzz",
+		"EEE MMM d HH:mm:ss yyyy",
+	};
+	private static final int RESPONSE_BUFFER_SIZE = 8 * 1024;
+	// query parameter appended to the endpoint URL prefix of each request
+	static final String REQUEST_ID_PARAMETER = "&" + EdgeConstants.NetworkKeys.REQUEST_PARAMETER_KEY_REQUEST_ID + "=";
 	private static final String DEFAULT_GENERIC_ERROR_MESSAGE =
 		"Request to Edge Network failed with an unknown exception";
 
@@ -110,17 +132,43 @@ class EdgeNetworkService {
 	);
 
 	private final Networking networkService;
+	private final long requestDeadlineMillis;
+	private final Clock clock;
+	private final EdgeNetworkMetrics metrics = new EdgeNetworkMetrics();
+	// set when the Edge Network rejected a compressed request body, compression is not used afterwards
+	private volatile boolean compressionRejected = false;
 
 	/**
 	 * Construct a new {@code EdgeNetworkService} instance.
 	 * @param service non-null platform {@link Networking} service
 	 */
 	EdgeNetworkService(final Networking service) {
+		this(service, EdgeConstants.NetworkKeys.DEFAULT_REQUEST_DEADLINE_MILLIS);
+	}
+
+	/**
+	 * Construct a new {@code EdgeNetworkService} instance.
+	 * @param service non-null platform {@link Networking} service
+	 * @param requestDeadlineMillis the maximum time in milliseconds to wait for the connections of a request
+	 */
+	EdgeNetworkService(final Networking service, final long requestDeadlineMillis) {
+		this(service, requestDeadlineMillis, Clock.SYSTEM);
+	}
+
+	/**
+	 * Construct a new {@code EdgeNetworkService} instance.
+	 * @param service non-null platform {@link Networking} service
+	 * @param requestDeadlineMillis the maximum time in milliseconds to wait for the connections of a request
+	 * @param clock the {@link Clock} used to compute the retry intervals from the {@code Retry-After} HTTP-dates
+	 */
+	EdgeNetworkService(final Networking service, final long requestDeadlineMillis, final Clock clock) {
 		if (service == null) {
 			throw new IllegalArgumentException("NetworkService cannot be null.");
 		}
 
 		this.networkService = service;
+		this.requestDeadlineMillis = requestDeadlineMillis;
+		this.clock = clock;
 	}
 
 	/**
@@ -136,12 +184,55 @@ class EdgeNetworkService {
 	 *                         {@link ResponseCallback#onComplete()} callback is invoked when no retry is required,
 	 *                         otherwise it is the caller's responsibility to do any necessary cleanup
 	 * @return {@link Retry} status indicating if the request failed due to a recoverable error and should be retried
+	 * @see #doRequest(String, byte[], KonductorConfig, int, Map, ResponseCallback)
 	 */
 	RetryResult doRequest(
 		final String url,
 		final String jsonRequest,
 		final Map<String, String> requestHeaders,
 		final ResponseCallback responseCallback
+	) {
+		return doRequest(
+			url,
+			jsonRequest != null ? jsonRequest.getBytes(StandardCharsets.UTF_8) : null,
+			KonductorConfig.fromJsonRequest(jsonRequest),
+			0,
+			requestHeaders,
+			responseCallback
+		);
+	}
+
+	/**
+	 * Make a request to the Adobe Edge Network with an already encoded request body. On successful request, response
+	 * content is sent to the given {@link ResponseCallback#onResponse(String)} handler. If streaming is enabled in the
+	 * {@code streamingConfig}, {@link ResponseCallback#onResponse(String)} is called for each streamed record.
+	 * On error, the given {@link ResponseCallback#onError(String)} is called with an error message.
+	 * <p>
+	 * If {@code compressionMinBytes} is greater than zero, request bodies of at least that size are sent gzip
+	 * compressed. If the Edge Network rejects the compressed body with HTTP 415, the request is sent again
+	 * uncompressed and compression is not used for the following requests.
+	 * <p>
+	 * If the {@link Networking} service does not return the connection before the request deadline, the request is
+	 * abandoned and should be retried; a connection returned after the deadline is closed.
+	 *
+	 * @param url url to the Adobe Edge Network
+	 * @param body the request body as UTF-8 encoded JSON
+	 * @param streamingConfig the {@link KonductorConfig} sent in the request body; if null, the response is not streamed
+	 * @param compressionMinBytes the minimum request body size in bytes for compressing the request body;
+	 *                            zero or negative values disable compression
+	 * @param requestHeaders the HTTP headers to attach to the request
+	 * @param responseCallback optional callback to receive the Adobe Edge Network response; the
+	 *                         {@link ResponseCallback#onComplete()} callback is invoked when no retry is required,
+	 *                         otherwise it is the caller's responsibility to do any necessary cleanup
+	 * @return {@link Retry} status indicating if the request failed due to a recoverable error and should be retried
+	 */
+	RetryResult doRequest(
+		final String url,
+		final byte[] body,
+		final KonductorConfig streamingConfig,
+		final int compressionMinBytes,
+		final Map<String, String> requestHeaders,
+		final ResponseCallback responseCallback
 	) {
 		if (StringUtils.isNullOrEmpty(url)) {
 			Log.error(LOG_TAG, LOG_SOURCE, "Could not send request to a null url");
@@ -153,7 +244,39 @@ class EdgeNetworkService {
 			return new RetryResult(Retry.NO);
 		}
 
-		HttpConnecting connection = doConnect(url, jsonRequest, requestHeaders);
+		final long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(requestDeadlineMillis);
+		HttpConnecting connection;
+		final byte[] compressedBody = compressRequestBody(body, compressionMinBytes);
+
+		if (compressedBody != null) {
+			final Map<String, String> compressedRequestHeaders = new HashMap<>();
+
+			if (requestHeaders != null) {
+				compressedRequestHeaders.putAll(requestHeaders);
+			}
+
+			compressedRequestHeaders.put(
+				EdgeConstants.NetworkKeys.HEADER_KEY_CONTENT_ENCODING,
+				EdgeConstants.NetworkKeys.HEADER_VALUE_GZIP
+			);
+			connection = doConnect(url, compressedBody, compressedRequestHeaders, deadlineNanos);
+
+			if (connection != null && connection.getResponseCode() == HttpURLConnection.HTTP_UNSUPPORTED_TYPE) {
+				Log.warning(
+					LOG_TAG,
+					LOG_SOURCE,
+					"Compressed request body was rejected by Experience Edge, sending the request again uncompressed. Request compression is disabled for the following requests."
+				);
+				compressionRejected = true;
+				metrics.recordCompressionFallback();
+				connection.close();
+				connection = doConnect(url, body, requestHeaders, deadlineNanos);
+			} else if (connection != null) {
+				recordCompressedRequest(body.length, compressedBody.length);
+			}
+		} else {
+			connection = doConnect(url, body, requestHeaders, deadlineNanos);
+		}
 
 		if (connection == null) {
 			final RetryResult retryResult = new RetryResult(Retry.YES);
@@ -176,15 +299,16 @@ class EdgeNetworkService {
 				connection.getResponseMessage()
 			);
 
-			KonductorConfig konductorConfig = KonductorConfig.fromJsonRequest(jsonRequest);
-			boolean shouldStreamResponse = konductorConfig != null && konductorConfig.isStreamingEnabled();
+			boolean shouldStreamResponse = streamingConfig != null && streamingConfig.isStreamingEnabled();
+			final InputStream inputStream = getDecodedInputStream(connection, connection.getInputStream());
 
 			handleContent(
-				connection.getInputStream(),
-				shouldStreamResponse ? konductorConfig.getRecordSeparator() : null,
-				shouldStreamResponse ? konductorConfig.getLineFeed() : null,
+				inputStream,
+				shouldStreamResponse ? streamingConfig.getRecordSeparator() : null,
+				shouldStreamResponse ? streamingConfig.getLineFeed() : null,
 				responseCallback
 			);
+			closeQuietly(inputStream);
 		} else if (connection.getResponseCode() == HttpURLConnection.HTTP_NO_CONTENT) {
 			// Successful collect requests do not return content
 			Log.debug(
@@ -221,15 +345,16 @@ class EdgeNetworkService {
 				connection.getResponseMessage()
 			);
 
-			KonductorConfig konductorConfig = KonductorConfig.fromJsonRequest(jsonRequest);
-			boolean shouldStreamResponse = konductorConfig != null && konductorConfig.isStreamingEnabled();
+			boolean shouldStreamResponse = streamingConfig != null && streamingConfig.isStreamingEnabled();
+			final InputStream inputStream = getDecodedInputStream(connection, connection.getInputStream());
 
 			handleContent(
-				connection.getInputStream(),
-				shouldStreamResponse ? konductorConfig.getRecordSeparator() : null,
-				shouldStreamResponse ? konductorConfig.getLineFeed() : null,
+				inputStream,
+				shouldStreamResponse ? streamingConfig.getRecordSeparator() : null,
+				shouldStreamResponse ? streamingConfig.getLineFeed() : null,
 				responseCallback
 			);
+			closeQuietly(inputStream);
 		} else {
 			Log.warning(
 				LOG_TAG,
@@ -238,7 +363,9 @@ class EdgeNetworkService {
 				connection.getResponseCode(),
 				connection.getResponseMessage()
 			);
-			handleError(connection.getErrorStream(), responseCallback);
+			final InputStream errorStream = getDecodedInputStream(connection, connection.getErrorStream());
+			handleError(errorStream, responseCallback);
+			closeQuietly(errorStream);
 		}
 
 		connection.close();
@@ -250,17 +377,163 @@ class EdgeNetworkService {
 		return retryResult;
 	}
 
+	/**
+	 * Gets the {@link EdgeNetworkMetrics} collected by this {@code EdgeNetworkService}.
+	 * @return the network metrics for the requests sent by this instance
+	 */
+	EdgeNetworkMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Records a request sent with a compressed body in the {@link EdgeNetworkMetrics}.
+	 * @param originalSize the size in bytes of the request body before compression
+	 * @param compressedSize the size in bytes of the compressed request body
+	 */
+	private void recordCompressedRequest(final int originalSize, final int compressedSize) {
+		metrics.recordCompressedRequest(originalSize, compressedSize);
+		Log.trace(
+			LOG_TAG,
+			LOG_SOURCE,
+			"Sent request body compressed from %d to %d bytes (overall compression ratio %.2f).",
+			originalSize,
+			compressedSize,
+			metrics.getCompressionRatio()
+		);
+	}
+
+	/**
+	 * Compresses the request body using gzip, if compression is enabled and the body is large enough.
+	 * @param body the request body to compress
+	 * @param compressionMinBytes the minimum body size in bytes for compression; zero or negative disables compression
+	 * @return the compressed request body, or null if the body should be sent uncompressed
+	 */
+	private byte[] compressRequestBody(final byte[] body, final int compressionMinBytes) {
+		if (compressionMinBytes <= 0 || compressionRejected || body == null || body.length < compressionMinBytes) {
+			return null;
+		}
+
+		final byte[] compressedBody;
+
+		try {
+			final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(body.length / 2);
+
+			try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream)) {
+				gzipOutputStream.write(body);
+			}
+
+			compressedBody = outputStream.toByteArray();
+		} catch (IOException e) {
+			Log.debug(
+				LOG_TAG,
+				LOG_SOURCE,
+				"Failed to compress the request body, sending it uncompressed: %s",
+				e.getLocalizedMessage()
+			);
+			return null;
+		}
+
+		if (compressedBody.length >= body.length) {
+			return null;
+		}
+
+		return compressedBody;
+	}
+
+	/**
+	 * Wraps the response stream of the {@code connection} with a decompressing stream, based on the response
+	 * {@code Content-Encoding} header. The response content is inflated incrementally as it is read.
+	 * @param connection the network connection
+	 * @param inputStream the response or error stream of the {@code connection}
+	 * @return the decoded response stream, the {@code inputStream} if the response is not compressed or uses
+	 * an unsupported encoding, or null if {@code inputStream} is null or the compressed stream cannot be read
+	 */
+	private InputStream getDecodedInputStream(final HttpConnecting connection, final InputStream inputStream) {
+		if (inputStream == null) {
+			return null;
+		}
+
+		final String contentEncoding = connection.getResponsePropertyValue(
+			EdgeConstants.NetworkKeys.HEADER_KEY_CONTENT_ENCODING
+		);
+
+		if (StringUtils.isNullOrEmpty(contentEncoding)) {
+			return inputStream;
+		}
+
+		final String encoding = contentEncoding.trim().toLowerCase(Locale.ROOT);
+
+		try {
+			if (EdgeConstants.NetworkKeys.HEADER_VALUE_GZIP.equals(encoding)) {
+				return new GZIPInputStream(inputStream, RESPONSE_BUFFER_SIZE);
+			} else if (EdgeConstants.NetworkKeys.HEADER_VALUE_DEFLATE.equals(encoding)) {
+				return new InflaterInputStream(inputStream);
+			}
+		} catch (IOException e) {
+			Log.warning(
+				LOG_TAG,
+				LOG_SOURCE,
+				"Failed to read the %s encoded network response: %s",
+				encoding,
+				e.getLocalizedMessage()
+			);
+			closeQuietly(inputStream);
+			return null;
+		}
+
+		Log.debug(
+			LOG_TAG,
+			LOG_SOURCE,
+			"Network response has unsupported Content-Encoding '%s', reading it as is.",
+			contentEncoding
+		);
+		return inputStream;
+	}
+
+	private static void closeQuietly(final InputStream inputStream) {
+		if (inputStream == null) {
+			return;
+		}
+
+		try {
+			inputStream.close();
+		} catch (IOException e) {
+			Log.trace(LOG_TAG, LOG_SOURCE, "Failed to close the network response stream: %s", e.getLocalizedMessage());
+		}
+	}
+
 	/**
 	 * Computes the retry interval for the given network connection
 	 * @param connection the network connection that needs to be retried
-	 * @return the retry interval in seconds
+	 * @return the retry interval in seconds, or {@link RetryResult#NO_SERVER_RETRY_INTERVAL} if the server did not
+	 * send a valid {@code Retry-After} header
 	 */
 	private int computeRetryInterval(final HttpConnecting connection) {
-		String header = connection.getResponsePropertyValue(EdgeConstants.NetworkKeys.HEADER_KEY_RETRY_AFTER);
+		return parseRetryAfter(
+			connection.getResponsePropertyValue(EdgeConstants.NetworkKeys.HEADER_KEY_RETRY_AFTER),
+			clock.currentTimeMillis()
+		);
+	}
+
+	/**
+	 * Parses the value of a {@code Retry-After} header, either a number of seconds or an HTTP-date.
+	 *
+	 * @param header the {@code Retry-After} header value, may be null
+	 * @param nowMillis the current time in milliseconds, used to compute the delay until an HTTP-date
+	 * @return the retry interval in seconds, or {@link RetryResult#NO_SERVER_RETRY_INTERVAL} if the header
+	 * is missing, invalid or the HTTP-date is not in the future
+	 */
+	static int parseRetryAfter(final String header, final long nowMillis) {
+		if (StringUtils.isNullOrEmpty(header)) {
+			return RetryResult.NO_SERVER_RETRY_INTERVAL;
+		}
 
-		if (header != null && header.matches("\\d+")) {
+		final String value = header.trim();
+
+		if (value.matches("\\d+")) {
 			try {
-				return Integer.parseInt(header);
+				final int seconds = Integer.parseInt(value);
+				return seconds > 0 ? seconds : RetryResult.NO_SERVER_RETRY_INTERVAL;
 			} catch (NumberFormatException e) {
 				Log.debug(
 					LOG_TAG,
@@ -269,10 +542,37 @@ class EdgeNetworkService {
 					header,
 					e.getLocalizedMessage()
 				);
+				return RetryResult.NO_SERVER_RETRY_INTERVAL;
+			}
+		}
+
+		for (final String pattern : HTTP_DATE_PATTERNS) {
+			final SimpleDateFormat dateFormat = new SimpleDateFormat(pattern, Locale.US);
+			dateFormat.setTimeZone(TimeZone.getTimeZone("GMT"));
+			dateFormat.setLenient(false);
+
+			try {
+				final Date date = dateFormat.parse(value);
+
+				if (date == null) {
+					continue;
+				}
+
+				final long delayMillis = date.getTime() - nowMillis;
+
+				if (delayMillis <= 0) {
+					// the device clock may be ahead of the server clock, use the client backoff
+					return RetryResult.NO_SERVER_RETRY_INTERVAL;
+				}
+
+				return (int) Math.min(Integer.MAX_VALUE, (delayMillis + 999) / 1000);
+			} catch (ParseException e) {
+				// try the next HTTP-date format
 			}
 		}
 
-		return EdgeConstants.Defaults.RETRY_INTERVAL_SECONDS;
+		Log.debug(LOG_TAG, LOG_SOURCE, "Failed to parse Retry-After header with value of '%s'.", header);
+		return RetryResult.NO_SERVER_RETRY_INTERVAL;
 	}
 
 	/**
@@ -283,31 +583,38 @@ class EdgeNetworkService {
 	 * @return the computed URL
 	 */
 	public String buildUrl(final EdgeEndpoint edgeEndpoint, final String configId, final String requestId) {
-		StringBuilder url = new StringBuilder(edgeEndpoint.getEndpoint());
-		url.append("?").append(EdgeConstants.NetworkKeys.REQUEST_PARAMETER_KEY_CONFIG_ID).append("=").append(configId);
+		return buildUrl(edgeEndpoint.getUrlPrefix(configId), requestId);
+	}
 
-		if (requestId != null && !requestId.isEmpty()) {
-			url
-				.append("&")
-				.append(EdgeConstants.NetworkKeys.REQUEST_PARAMETER_KEY_REQUEST_ID)
-				.append("=")
-				.append(requestId);
+	/**
+	 * Appends the request ID query parameter to the URL prefix of an {@link EdgeEndpoint}.
+	 *
+	 * @param urlPrefix the endpoint URL with the config ID query parameter, see {@link EdgeEndpoint#getUrlPrefix}
+	 * @param requestId optional request ID. If one is not given, the Adobe Edge Network generates one in the response
+	 * @return the computed URL
+	 */
+	public String buildUrl(final String urlPrefix, final String requestId) {
+		if (requestId == null || requestId.isEmpty()) {
+			return urlPrefix;
 		}
 
-		return url.toString();
+		return urlPrefix + REQUEST_ID_PARAMETER + requestId;
 	}
 
 	/**
 	 * Make a network request to the Adobe Edge Network and return the connection object.
 	 * @param url URL to the Adobe Edge Network. Must contain the required config ID as a query parameter
-	 * @param jsonRequest the request body as a JSON formatted string
+	 * @param body the request body as UTF-8 encoded JSON
 	 * @param requestHeaders HTTP headers to be included with the request
-	 * @return {@link HttpConnecting} object once the connection was initiated or null if an error occurred
+	 * @param deadlineNanos the {@link System#nanoTime()} value after which the connection is no longer awaited
+	 * @return {@link HttpConnecting} object once the connection was initiated or null if an error occurred or
+	 * the deadline expired
 	 */
 	private HttpConnecting doConnect(
 		final String url,
-		final String jsonRequest,
-		final Map<String, String> requestHeaders
+		final byte[] body,
+		final Map<String, String> requestHeaders,
+		final long deadlineNanos
 	) {
 		Map<String, String> headers = getDefaultHeaders();
 
@@ -319,29 +626,55 @@ class EdgeNetworkService {
 		NetworkRequest networkRequest = new NetworkRequest(
 			url,
 			HttpMethod.POST,
-			jsonRequest.getBytes(),
+			body,
 			headers,
 			EdgeConstants.NetworkKeys.DEFAULT_CONNECT_TIMEOUT_SECONDS,
 			EdgeConstants.NetworkKeys.DEFAULT_READ_TIMEOUT_SECONDS
 		);
 
 		final CountDownLatch countDownLatch = new CountDownLatch(1);
-		final HttpConnecting[] httpConnecting = new HttpConnecting[1];
+		// the connection, or EXPIRED once the request is abandoned; set by whichever happens first
+		final AtomicReference<Object> result = new AtomicReference<>();
 		networkService.connectAsync(
 			networkRequest,
 			connection -> {
-				httpConnecting[0] = connection;
+				if (!result.compareAndSet(null, connection) && connection != null) {
+					Log.debug(LOG_TAG, LOG_SOURCE, "Closing connection for url (%s) received after the deadline.", url);
+					connection.close();
+				}
+
 				countDownLatch.countDown();
 			}
 		);
 
+		boolean deadlineExpired = false;
+
 		try {
-			countDownLatch.await();
-			return httpConnecting[0];
+			if (countDownLatch.await(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+				return (HttpConnecting) result.get();
+			}
+
+			deadlineExpired = true;
 		} catch (final InterruptedException | IllegalArgumentException e) {
 			Log.warning(LOG_TAG, LOG_SOURCE, "Connection failure for url (%s), error: (%s)", url, e);
 		}
 
+		if (!result.compareAndSet(null, EXPIRED)) {
+			// the connection was received while giving up on it
+			final Object connection = result.get();
+			return connection instanceof HttpConnecting ? (HttpConnecting) connection : null;
+		}
+
+		if (deadlineExpired) {
+			metrics.recordRequestDeadlineExpired();
+			Log.warning(
+				LOG_TAG,
+				LOG_SOURCE,
+				"No connection received for url (%s) before the request deadline, the request will be retried.",
+				url
+			);
+		}
+
 		return null;
 	}
 
@@ -405,8 +738,8 @@ class EdgeNetworkService {
 			return;
 		}
 
-		if (lineFeedDelimiter == null) {
-			Log.debug(LOG_TAG, LOG_SOURCE, "line feed is null, processing of response content aborted.");
+		if (lineFeedDelimiter == null || lineFeedDelimiter.isEmpty()) {
+			Log.debug(LOG_TAG, LOG_SOURCE, "line feed is null or empty, processing of response content aborted.");
 			return;
 		}
 
@@ -415,25 +748,21 @@ class EdgeNetworkService {
 			return;
 		}
 
-		final Scanner scanner = new Scanner(inputStream, "UTF-8");
-		scanner.useDelimiter(lineFeedDelimiter);
-
-		final int trimLength = recordSeparator.length();
-
-		while (scanner.hasNext()) {
-			final String jsonResult = scanner.next();
-			if (jsonResult.length() - trimLength < 0) {
-				Log.debug(
-					LOG_TAG,
-					LOG_SOURCE,
-					"Unexpected network response chunk is shorter than record separator '%s'. Ignoring response '%s'.",
-					recordSeparator,
-					jsonResult
-				);
-				continue;
-			}
+		final StreamingResponseSplitter splitter = new StreamingResponseSplitter(
+			recordSeparator,
+			lineFeedDelimiter,
+			EdgeConstants.Defaults.STREAMING_MAX_RECORD_BYTES
+		);
 
-			responseCallback.onResponse(jsonResult.substring(trimLength));
+		try {
+			splitter.split(inputStream, responseCallback::onResponse);
+		} catch (IOException e) {
+			Log.warning(
+				LOG_TAG,
+				LOG_SOURCE,
+				"Exception reading streamed network response: %s",
+				e.getLocalizedMessage()
+			);
 		}
 	}
 
@@ -514,6 +843,10 @@ class EdgeNetworkService {
 			EdgeConstants.NetworkKeys.HEADER_KEY_CONTENT_TYPE,
 			EdgeConstants.NetworkKeys.HEADER_VALUE_APPLICATION_JSON
 		);
+		defaultHeaders.put(
+			EdgeConstants.NetworkKeys.HEADER_KEY_ACCEPT_ENCODING,
+			EdgeConstants.NetworkKeys.HEADER_VALUE_ACCEPT_ENCODING
+		);
 		return defaultHeaders;
 	}
 
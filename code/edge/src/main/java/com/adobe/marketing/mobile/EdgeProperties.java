@@ -16,25 +16,37 @@ import static com.adobe.marketing.mobile.EdgeConstants.LOG_TAG;
 import com.adobe.marketing.mobile.services.Log;
 import com.adobe.marketing.mobile.services.NamedCollection;
 import com.adobe.marketing.mobile.util.StringUtils;
-import java.util.Calendar;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.TimeZone;
 
 /**
  * Manages the structure of the properties used by the Edge extension.
  */
 class EdgeProperties {
 
+	private static final long NO_EXPIRY_DATE = Long.MIN_VALUE;
 	private final String LOG_SOURCE = "EdgeProperties";
 	private final NamedCollection namedCollection;
+	private final Clock clock;
 
 	// Edge Network location hint and expiration date. Location hint is invalid after expiry date.
 	private String locationHint;
-	private Calendar locationHintExpiryDate;
+	// expiry date in milliseconds since the Unix epoch, NO_EXPIRY_DATE if not set
+	private long locationHintExpiryMillis = NO_EXPIRY_DATE;
 
 	EdgeProperties(final NamedCollection namedCollection) {
+		this(namedCollection, Clock.SYSTEM);
+	}
+
+	/**
+	 * Creates the Edge properties persisted in the provided data store.
+	 *
+	 * @param namedCollection the data store of the properties
+	 * @param clock the {@link Clock} used to compute and check the location hint expiry date
+	 */
+	EdgeProperties(final NamedCollection namedCollection, final Clock clock) {
 		this.namedCollection = namedCollection;
+		this.clock = clock;
 	}
 
 	/**
@@ -42,9 +54,7 @@ class EdgeProperties {
 	 * @return the Edge Network location hint or null if location hint expired or is not set.
 	 */
 	String getLocationHint() {
-		final Calendar now = Calendar.getInstance(TimeZone.getTimeZone("GMT"));
-
-		if (locationHintExpiryDate != null && locationHintExpiryDate.after(now)) {
+		if (locationHintExpiryMillis > clock.currentTimeMillis()) {
 			return locationHint;
 		}
 
@@ -69,13 +79,10 @@ class EdgeProperties {
 
 		if (StringUtils.isNullOrEmpty(hint)) {
 			locationHint = null;
-			locationHintExpiryDate = null;
+			locationHintExpiryMillis = NO_EXPIRY_DATE;
 		} else {
-			final Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("GMT"));
-			calendar.add(Calendar.SECOND, Math.max(ttlSeconds, 0));
-
 			locationHint = hint;
-			locationHintExpiryDate = calendar;
+			locationHintExpiryMillis = clock.currentTimeMillis() + Math.max(ttlSeconds, 0) * 1000L;
 		}
 
 		saveToPersistence();
@@ -101,11 +108,8 @@ class EdgeProperties {
 			EdgeConstants.DataStoreKeys.PROPERTY_LOCATION_HINT_EXPIRY_TIMESTAMP,
 			0
 		);
-		final Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("GMT"));
-		calendar.setTimeInMillis(hintExpiry);
-
 		this.locationHint = hint;
-		this.locationHintExpiryDate = calendar;
+		this.locationHintExpiryMillis = hintExpiry;
 	}
 
 	/**
@@ -121,20 +125,21 @@ class EdgeProperties {
 			return;
 		}
 
-		if (StringUtils.isNullOrEmpty(locationHint)) {
-			namedCollection.remove(EdgeConstants.DataStoreKeys.PROPERTY_LOCATION_HINT);
-		} else {
-			namedCollection.setString(EdgeConstants.DataStoreKeys.PROPERTY_LOCATION_HINT, locationHint);
-		}
-
-		if (locationHintExpiryDate == null) {
+		// the expiry is saved first, so it is persisted along with a changed location hint
+		if (locationHintExpiryMillis == NO_EXPIRY_DATE) {
 			namedCollection.remove(EdgeConstants.DataStoreKeys.PROPERTY_LOCATION_HINT_EXPIRY_TIMESTAMP);
 		} else {
 			namedCollection.setLong(
 				EdgeConstants.DataStoreKeys.PROPERTY_LOCATION_HINT_EXPIRY_TIMESTAMP,
-				locationHintExpiryDate.getTimeInMillis()
+				locationHintExpiryMillis
 			);
 		}
+
+		if (StringUtils.isNullOrEmpty(locationHint)) {
+			namedCollection.remove(EdgeConstants.DataStoreKeys.PROPERTY_LOCATION_HINT);
+		} else {
+			namedCollection.setString(EdgeConstants.DataStoreKeys.PROPERTY_LOCATION_HINT, locationHint);
+		}
 	}
 
 	/**
@@ -15,10 +15,8 @@ import static com.adobe.marketing.mobile.EdgeConstants.LOG_TAG;
 
 import com.adobe.marketing.mobile.services.Log;
 import com.adobe.marketing.mobile.util.MapUtils;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import org.json.JSONObject;
 
 /**
  * A request for pushing events to the Adobe Experience Edge.
@@ -57,39 +55,40 @@ class EdgeRequest {
 
 	/**
 	 * Builds the request payload with all the provided parameters and events and returns
-	 * as a JSON Object suitable as a request body.
+	 * it as UTF-8 encoded JSON suitable as a request body. The payload is written directly from the request data,
+	 * without building an intermediate JSON object tree.
 	 *
 	 * @param serializedEvents list of experience events, should not be null/empty
-	 * @return the request payload in {@link JSONObject} format or null if events list is null/empty
+	 * @return the request payload as UTF-8 encoded JSON or null if events list is null/empty or cannot be serialized
 	 */
-	JSONObject asJsonObject(final List<Map<String, Object>> serializedEvents) {
+	byte[] asJsonBytes(final List<Map<String, Object>> serializedEvents) {
 		if (serializedEvents == null || serializedEvents.isEmpty()) {
 			Log.warning(LOG_TAG, LOG_SOURCE, "Unable to create Edge Request with no Events.");
 			return null;
 		}
 
-		Map<String, Object> requestPayload = new HashMap<>();
+		final EdgeJsonWriter writer = new EdgeJsonWriter();
 
-		MapUtils.putIfNotEmpty(requestPayload, JSON_KEY_XDM, xdmPayloads);
+		try {
+			writer.beginObject();
 
-		requestPayload.put(JSON_KEY_EVENTS, serializedEvents);
+			if (!MapUtils.isNullOrEmpty(xdmPayloads)) {
+				writer.name(JSON_KEY_XDM).value(xdmPayloads);
+			}
 
-		if (metadata != null) {
-			MapUtils.putIfNotEmpty(requestPayload, JSON_KEY_META, metadata.toObjectMap());
-		}
+			writer.name(JSON_KEY_EVENTS).value(serializedEvents);
 
-		JSONObject jsonPayload = null;
-		try {
-			jsonPayload = new JSONObject(requestPayload);
-		} catch (NullPointerException e) {
-			Log.warning(
-				LOG_TAG,
-				LOG_SOURCE,
-				"Unable to create Edge Request with null keys: %s",
-				e.getLocalizedMessage()
-			);
+			if (metadata != null && !metadata.isEmpty()) {
+				writer.name(JSON_KEY_META);
+				metadata.writeJson(writer);
+			}
+
+			writer.endObject();
+		} catch (IllegalArgumentException e) {
+			Log.warning(LOG_TAG, LOG_SOURCE, "Unable to create Edge Request: %s", e.getLocalizedMessage());
+			return null;
 		}
 
-		return jsonPayload;
+		return writer.toByteArray();
 	}
 }
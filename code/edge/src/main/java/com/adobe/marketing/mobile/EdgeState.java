@@ -32,6 +32,7 @@ class EdgeState {
 	private Map<String, Object> implementationDetails;
 	private final EdgeSharedStateCallback sharedStateCallback;
 	private final EdgeProperties edgeProperties;
+	private final EdgeHitSnapshotStore snapshotStore;
 
 	/**
 	 * Constructor.
@@ -40,10 +41,27 @@ class EdgeState {
 	 * @param sharedStateCallback callback for setting shared states
 	 */
 	EdgeState(final HitQueuing hitQueue, EdgeProperties edgeProperties, EdgeSharedStateCallback sharedStateCallback) {
+		this(hitQueue, edgeProperties, sharedStateCallback, null);
+	}
+
+	/**
+	 * Constructor.
+	 * @param hitQueue instance of type {@link HitQueuing}
+	 * @param edgeProperties instance of type {@link EdgeProperties}
+	 * @param sharedStateCallback callback for setting shared states
+	 * @param snapshotStore the {@link EdgeHitSnapshotStore} used by the queued hits, cleared with the {@code hitQueue}
+	 */
+	EdgeState(
+		final HitQueuing hitQueue,
+		final EdgeProperties edgeProperties,
+		final EdgeSharedStateCallback sharedStateCallback,
+		final EdgeHitSnapshotStore snapshotStore
+	) {
 		currentCollectConsent = EdgeConstants.Defaults.COLLECT_CONSENT_PENDING;
 		this.edgeProperties = edgeProperties;
 		this.sharedStateCallback = sharedStateCallback;
 		this.hitQueue = hitQueue;
+		this.snapshotStore = snapshotStore;
 		handleCollectConsentChange(currentCollectConsent);
 	}
 
@@ -224,6 +242,11 @@ class EdgeState {
 				break;
 			case NO:
 				hitQueue.clear();
+
+				if (snapshotStore != null) {
+					snapshotStore.clear();
+				}
+
 				hitQueue.beginProcessing();
 				Log.debug(LOG_TAG, LOG_SOURCE, "Collect consent set to (n), clearing the Edge queue.");
 				break;
@@ -63,7 +63,12 @@ final class EventUtils {
 
 	/**
 	 * Extracts the Edge config values from the Configuration shared state payload,
-	 * including {@code edge.configId}, {@code edge.environment}, and {@code edge.domain}.
+	 * including {@code edge.configId}, {@code edge.environment}, {@code edge.domain}, the optional
+	 * request batching limits {@code edge.batch.maxEvents} and {@code edge.batch.maxBytes}, the optional
+	 * request pipelining limit {@code edge.pipeline.maxInFlight}, the optional request compression settings
+	 * {@code edge.compression.enabled} and {@code edge.compression.minBytes} and the optional retry settings
+	 * {@code edge.retry.maxIntervalSeconds}, {@code edge.retry.failureThreshold} and
+	 * {@code edge.retry.openIntervalSeconds}.
 	 *
 	 * @param configSharedState shared state payload for Configuration
 	 * @return all Edge config keys extracted from the {@code configSharedState}
@@ -82,6 +87,30 @@ final class EventUtils {
 			MapUtils.putIfNotEmpty(edgeConfig, configKey, configValue);
 		}
 
+		final String[] configKeysWithIntValue = new String[] {
+			EdgeConstants.SharedState.Configuration.EDGE_BATCH_MAX_EVENTS,
+			EdgeConstants.SharedState.Configuration.EDGE_BATCH_MAX_BYTES,
+			EdgeConstants.SharedState.Configuration.EDGE_PIPELINE_MAX_IN_FLIGHT,
+			EdgeConstants.SharedState.Configuration.EDGE_COMPRESSION_MIN_BYTES,
+			EdgeConstants.SharedState.Configuration.EDGE_RETRY_MAX_INTERVAL_SECONDS,
+			EdgeConstants.SharedState.Configuration.EDGE_RETRY_FAILURE_THRESHOLD,
+			EdgeConstants.SharedState.Configuration.EDGE_RETRY_OPEN_INTERVAL_SECONDS,
+		};
+
+		for (String configKey : configKeysWithIntValue) {
+			final int configValue = DataReader.optInt(configSharedState, configKey, 0);
+
+			if (configValue > 0) {
+				edgeConfig.put(configKey, configValue);
+			}
+		}
+
+		if (
+			DataReader.optBoolean(configSharedState, EdgeConstants.SharedState.Configuration.EDGE_COMPRESSION_ENABLED, false)
+		) {
+			edgeConfig.put(EdgeConstants.SharedState.Configuration.EDGE_COMPRESSION_ENABLED, true);
+		}
+
 		return edgeConfig;
 	}
 
@@ -99,6 +99,22 @@ public final class ExperienceEvent {
 			return this;
 		}
 
+		/**
+		 * Sets free form data associated with this event, transferring the ownership of {@code data} to this event.
+		 * <p>
+		 * Unlike {@link #setData(Map)}, {@code data} is not copied, which avoids the copy cost for large payloads.
+		 * The caller must not modify {@code data}, or any map or list it contains, after this call.
+		 *
+		 * @param data free form data, JSON like types are accepted
+		 * @return instance of current builder
+		 * @throws UnsupportedOperationException if this instance was already built
+		 */
+		public Builder adoptData(final Map<String, Object> data) {
+			throwIfAlreadyBuilt();
+			experienceEvent.data = data;
+			return this;
+		}
+
 		/**
 		 * Solution specific XDM event data for this event.
 		 * If XDM schema is set multiple times using either this API or {@link #setXdmSchema(Map)},
@@ -168,6 +184,68 @@ public final class ExperienceEvent {
 			return this.setXdmSchema(xdm, null);
 		}
 
+		/**
+		 * Solution specific XDM event data for this event, transferring the ownership of {@code xdm} to this event.
+		 * <p>
+		 * Unlike {@link #setXdmSchema(Map, String)}, {@code xdm} is not copied, which avoids the copy cost for large
+		 * payloads sent frequently. The caller must not modify {@code xdm}, or any map or list it contains, after
+		 * this call; building it once and handing it over, or passing an unmodifiable map, is recommended.
+		 * If XDM schema is set multiple times, the value will be overwritten and only the last changes are applied.
+		 * Setting {@code xdm} to null clears the value.
+		 *
+		 * @param xdm {@code Map<String, Object>} of raw XDM schema data
+		 * @param datasetIdentifier The Experience Platform dataset identifier where this event is sent.
+		 *                          If not provided, the default dataset defined in the configuration ID is used
+		 * @return instance of current builder
+		 * @throws UnsupportedOperationException if this instance was already built
+		 */
+		public Builder adoptXdmSchema(final Map<String, Object> xdm, final String datasetIdentifier) {
+			throwIfAlreadyBuilt();
+			experienceEvent.xdmData = xdm;
+			experienceEvent.datasetIdentifier = datasetIdentifier;
+			return this;
+		}
+
+		/**
+		 * Solution specific XDM event data for this event, transferring the ownership of the XDM data serialized by
+		 * {@code xdm} to this event.
+		 * <p>
+		 * Unlike {@link #setXdmSchema(Schema)}, the map returned by {@link Schema#serializeToXdm()} is not copied, so
+		 * the typed schema is converted to event data once. {@code serializeToXdm()} must return new maps and lists
+		 * which are not modified afterwards, as the generated XDM schema classes do.
+		 * This event is sent to the Experience Platform dataset defined by {@link Schema#getDatasetIdentifier()}.
+		 *
+		 * @param xdm {@link Schema} information
+		 * @return instance of current builder
+		 * @throws UnsupportedOperationException if this instance was already built
+		 */
+		public Builder adoptXdmSchema(final Schema xdm) {
+			throwIfAlreadyBuilt();
+
+			if (xdm == null) {
+				experienceEvent.xdmData = null;
+				experienceEvent.datasetIdentifier = null;
+			} else {
+				experienceEvent.xdmData = xdm.serializeToXdm();
+				experienceEvent.datasetIdentifier = xdm.getDatasetIdentifier();
+			}
+
+			return this;
+		}
+
+		/**
+		 * Solution specific XDM event data for this event, transferring the ownership of {@code xdm} to this event.
+		 * The event is sent to the default Experience Platform dataset.
+		 *
+		 * @param xdm {@code Map<String, Object>} of raw XDM schema data
+		 * @return instance of current builder
+		 * @throws UnsupportedOperationException if this instance was already built
+		 * @see #adoptXdmSchema(Map, String)
+		 */
+		public Builder adoptXdmSchema(final Map<String, Object> xdm) {
+			return this.adoptXdmSchema(xdm, null);
+		}
+
 		private void throwIfAlreadyBuilt() {
 			if (didBuild) {
 				throw new UnsupportedOperationException(
@@ -238,6 +316,15 @@ public final class ExperienceEvent {
 		return Collections.emptyMap();
 	}
 
+	/**
+	 * Checks if this event has XDM data, without copying it.
+	 *
+	 * @return true if the XDM data is not null or empty
+	 */
+	boolean hasXdmData() {
+		return !MapUtils.isNullOrEmpty(xdmData);
+	}
+
 	/**
 	 * Converts current ExperienceEvent into map to be passed as EventData
 	 *
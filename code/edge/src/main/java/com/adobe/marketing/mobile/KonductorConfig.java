@@ -13,6 +13,7 @@ package com.adobe.marketing.mobile;
 
 import static com.adobe.marketing.mobile.EdgeConstants.LOG_TAG;
 
+import androidx.annotation.NonNull;
 import com.adobe.marketing.mobile.services.Log;
 import java.util.HashMap;
 import java.util.Map;
@@ -85,15 +86,26 @@ class KonductorConfig {
 	}
 
 	static KonductorConfig fromJsonRequest(final String jsonRequest) {
-		JSONObject metadataObject;
+		JSONObject requestObject;
 
 		try {
-			metadataObject = new JSONObject(jsonRequest).optJSONObject(EdgeJson.Event.METADATA);
+			requestObject = new JSONObject(jsonRequest);
 		} catch (Exception e) {
 			Log.debug(LOG_TAG, LOG_SOURCE, "Failed to read KonductorConfig from json request.");
 			return null;
 		}
 
+		return fromJsonObject(requestObject);
+	}
+
+	/**
+	 * Reads the {@code KonductorConfig} from the request metadata of an already built request payload.
+	 * @param request the request payload
+	 * @return the {@link KonductorConfig} of the request, or null if the request has no streaming configuration
+	 */
+	static KonductorConfig fromJsonObject(@NonNull final JSONObject request) {
+		JSONObject metadataObject = request.optJSONObject(EdgeJson.Event.METADATA);
+
 		if (metadataObject == null) {
 			return null;
 		}
@@ -0,0 +1,67 @@
+/*
+  Copyright 2023 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A thread safe map holding up to a maximum number of entries, evicting the least recently used entry when full.
+ * <p>
+ * Used to cache values computed from inputs which rarely change, such as the Edge configuration, so the number of
+ * distinct entries is expected to stay small.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+class LruCache<K, V> {
+
+	private final Map<K, V> entries;
+
+	/**
+	 * @param maxEntries the maximum number of entries held by the cache; should be positive
+	 */
+	LruCache(final int maxEntries) {
+		this.entries =
+			new LinkedHashMap<K, V>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+					return size() > maxEntries;
+				}
+			};
+	}
+
+	/**
+	 * @param key the key of the entry
+	 * @return the value cached for {@code key}, or null if none is cached
+	 */
+	synchronized V get(final K key) {
+		return entries.get(key);
+	}
+
+	/**
+	 * Caches the provided value, evicting the least recently used entry if the cache is full.
+	 *
+	 * @param key the key of the entry
+	 * @param value the value to cache
+	 */
+	synchronized void put(final K key, final V value) {
+		entries.put(key, value);
+	}
+
+	/**
+	 * @return the number of cached entries
+	 */
+	synchronized int size() {
+		return entries.size();
+	}
+}
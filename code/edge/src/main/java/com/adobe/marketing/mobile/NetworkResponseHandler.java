@@ -13,6 +13,7 @@ package com.adobe.marketing.mobile;
 
 import static com.adobe.marketing.mobile.EdgeConstants.LOG_TAG;
 
+import androidx.annotation.NonNull;
 import com.adobe.marketing.mobile.services.Log;
 import com.adobe.marketing.mobile.services.NamedCollection;
 import com.adobe.marketing.mobile.util.DataReader;
@@ -21,6 +22,7 @@ import com.adobe.marketing.mobile.util.JSONUtils;
 import com.adobe.marketing.mobile.util.MapUtils;
 import com.adobe.marketing.mobile.util.StringUtils;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -35,18 +37,23 @@ import org.json.JSONObject;
  * This class is used to process the Experience Edge network responses when the {@link EdgeNetworkService.ResponseCallback}
  * is invoked with a response or error message. The response processing consists in parsing the server
  * response message and dispatching response content and/or error response content events and storing the response payload (if needed).
+ * <p>
+ * This class is thread safe: the waiting events are registered by the requests sent concurrently to different
+ * datastreams, while the responses are processed in order on the response processing queue.
  */
 class NetworkResponseHandler {
 
 	private static final String LOG_SOURCE = "NetworkResponseHandler";
 
 	// the order of the request events matter for matching them with the response events
-	private final ConcurrentMap<String, List<Event>> sentEventsWaitingResponse;
+	private final ConcurrentMap<String, WaitingEvents> sentEventsWaitingResponse;
 	private final Object mutex = new Object();
 	private final NamedCollection namedCollection;
 	private final EdgeStateCallback edgeStateCallback;
 	// Date of the last edge identity reset complete event
-	private long lastResetDate;
+	private volatile long lastResetDate;
+	// time of the last eviction of expired waiting events
+	private volatile long lastWaitingEventsEvictionMillis;
 
 	NetworkResponseHandler(final NamedCollection namedCollection, final EdgeStateCallback edgeStateCallback) {
 		this.edgeStateCallback = edgeStateCallback;
@@ -75,6 +82,10 @@ class NetworkResponseHandler {
 	 * Adds the requestId in the internal {@code sentEventsWaitingResponse} with the associated list of events.
 	 * This list should maintain the order of the received events for matching with the response event index.
 	 * If the same requestId was stored before, the new list will replace the existing events.
+	 * <p>
+	 * Waiting events are expected to be removed once their request completes or is retried. As a safeguard,
+	 * entries older than {@link EdgeConstants.Defaults#WAITING_EVENTS_MAX_AGE_MILLIS} are evicted and at most
+	 * {@link EdgeConstants.Defaults#WAITING_EVENTS_MAX_REQUESTS} requests are kept, evicting the oldest first.
 	 *
 	 * @param requestId batch request id
 	 * @param batchedEvents batched events sent to ExEdge
@@ -84,7 +95,9 @@ class NetworkResponseHandler {
 			return;
 		}
 
-		if (sentEventsWaitingResponse.put(requestId, batchedEvents) != null) {
+		final long now = System.currentTimeMillis();
+
+		if (sentEventsWaitingResponse.put(requestId, new WaitingEvents(batchedEvents, now)) != null) {
 			Log.warning(
 				LOG_TAG,
 				LOG_SOURCE,
@@ -92,6 +105,8 @@ class NetworkResponseHandler {
 				requestId
 			);
 		}
+
+		evictWaitingEvents(now);
 	}
 
 	/**
@@ -119,41 +134,32 @@ class NetworkResponseHandler {
 			return null;
 		}
 
-		synchronized (mutex) {
-			return sentEventsWaitingResponse.remove(requestId);
-		}
+		final WaitingEvents waitingEvents = sentEventsWaitingResponse.remove(requestId);
+		return waitingEvents != null ? waitingEvents.events : null;
+	}
+
+	/**
+	 * Gets the number of requests with events waiting for a response.
+	 *
+	 * @return the current size of the waiting events registry
+	 */
+	int getWaitingEventsCount() {
+		return sentEventsWaitingResponse.size();
 	}
 
 	/**
 	 * Returns the list of unique event ids associated with the provided requestId or empty if not found.
 	 *
 	 * @param requestId batch request id
-	 * @return the list of unique event ids associated with the requestId that were removed
+	 * @return the unmodifiable list of unique event ids associated with the requestId
 	 */
 	List<String> getWaitingEvents(final String requestId) {
 		if (StringUtils.isNullOrEmpty(requestId)) {
 			return Collections.emptyList();
 		}
 
-		synchronized (mutex) {
-			final List<Event> temp = sentEventsWaitingResponse.get(requestId);
-
-			if (temp == null) {
-				return Collections.emptyList();
-			}
-
-			final List<String> eventIds = new ArrayList<>();
-
-			for (Event event : temp) {
-				eventIds.add(event.getUniqueIdentifier());
-			}
-
-			if (!temp.isEmpty()) {
-				return new ArrayList<>(eventIds);
-			}
-		}
-
-		return Collections.emptyList();
+		final WaitingEvents waitingEvents = sentEventsWaitingResponse.get(requestId);
+		return waitingEvents != null ? waitingEvents.eventIds : Collections.emptyList();
 	}
 
 	/**
@@ -448,10 +454,14 @@ class NetworkResponseHandler {
 	 * @return the event ID for which this event handle was received, or null if not found
 	 */
 	private String extractRequestEventId(final int eventIndex, final String requestId) {
-		List<String> requestEventIdsList = getWaitingEvents(requestId);
+		if (requestId == null) {
+			return null;
+		}
+
+		final WaitingEvents waitingEvents = sentEventsWaitingResponse.get(requestId);
 
-		if (eventIndex >= 0 && eventIndex < requestEventIdsList.size()) {
-			return requestEventIdsList.get(eventIndex);
+		if (waitingEvents != null && eventIndex >= 0 && eventIndex < waitingEvents.eventIds.size()) {
+			return waitingEvents.eventIds.get(eventIndex);
 		}
 
 		return null;
@@ -670,15 +680,67 @@ class NetworkResponseHandler {
 			return false;
 		}
 
+		final WaitingEvents waitingEvents = sentEventsWaitingResponse.get(requestId);
+		return waitingEvents != null && waitingEvents.firstEventTimestamp < lastResetDate;
+	}
+
+	/**
+	 * Evicts the expired waiting events, at most once per
+	 * {@link EdgeConstants.Defaults#WAITING_EVENTS_EVICTION_INTERVAL_MILLIS} unless the registry exceeds its maximum
+	 * size, then evicts the oldest entries until it is within its maximum size.
+	 *
+	 * @param now the current time in milliseconds
+	 */
+	private void evictWaitingEvents(final long now) {
+		final boolean overCapacity =
+			sentEventsWaitingResponse.size() > EdgeConstants.Defaults.WAITING_EVENTS_MAX_REQUESTS;
+
+		if (
+			!overCapacity &&
+			now - lastWaitingEventsEvictionMillis < EdgeConstants.Defaults.WAITING_EVENTS_EVICTION_INTERVAL_MILLIS
+		) {
+			return;
+		}
+
 		synchronized (mutex) {
-			final List<Event> contexts = sentEventsWaitingResponse.get(requestId);
+			lastWaitingEventsEvictionMillis = now;
+			int evictedCount = 0;
 
-			if (contexts == null || contexts.isEmpty()) {
-				return false;
+			for (final Map.Entry<String, WaitingEvents> entry : sentEventsWaitingResponse.entrySet()) {
+				if (now - entry.getValue().createdMillis > EdgeConstants.Defaults.WAITING_EVENTS_MAX_AGE_MILLIS) {
+					if (sentEventsWaitingResponse.remove(entry.getKey(), entry.getValue())) {
+						evictedCount++;
+					}
+				}
 			}
 
-			final Event firstEvent = contexts.get(0);
-			return firstEvent.getTimestamp() < lastResetDate;
+			while (sentEventsWaitingResponse.size() > EdgeConstants.Defaults.WAITING_EVENTS_MAX_REQUESTS) {
+				Map.Entry<String, WaitingEvents> oldest = null;
+
+				for (final Map.Entry<String, WaitingEvents> entry : sentEventsWaitingResponse.entrySet()) {
+					if (oldest == null || entry.getValue().createdMillis < oldest.getValue().createdMillis) {
+						oldest = entry;
+					}
+				}
+
+				if (oldest == null) {
+					break;
+				}
+
+				if (sentEventsWaitingResponse.remove(oldest.getKey(), oldest.getValue())) {
+					evictedCount++;
+				}
+			}
+
+			if (evictedCount > 0) {
+				Log.debug(
+					LOG_TAG,
+					LOG_SOURCE,
+					"Evicted %d requests waiting for a response for too long, %d requests still waiting.",
+					evictedCount,
+					sentEventsWaitingResponse.size()
+				);
+			}
 		}
 	}
 
@@ -693,4 +755,30 @@ class NetworkResponseHandler {
 
 		return namedCollection.getLong(EdgeConstants.DataStoreKeys.RESET_IDENTITIES_DATE, 0);
 	}
+
+	/**
+	 * The events sent in a request, in request order, with their unique ids indexed by the event index used
+	 * in the response. Immutable once created, so it is read without locking.
+	 */
+	private static final class WaitingEvents {
+
+		final List<Event> events;
+		final List<String> eventIds;
+		final long firstEventTimestamp;
+		final long createdMillis;
+
+		WaitingEvents(@NonNull final List<Event> events, final long createdMillis) {
+			final List<Event> eventsCopy = new ArrayList<>(events);
+			final String[] ids = new String[eventsCopy.size()];
+
+			for (int i = 0; i < ids.length; i++) {
+				ids[i] = eventsCopy.get(i).getUniqueIdentifier();
+			}
+
+			this.events = Collections.unmodifiableList(eventsCopy);
+			this.eventIds = Collections.unmodifiableList(Arrays.asList(ids));
+			this.firstEventTimestamp = eventsCopy.get(0).getTimestamp();
+			this.createdMillis = createdMillis;
+		}
+	}
 }
@@ -16,19 +16,17 @@ import static com.adobe.marketing.mobile.EdgeConstants.LOG_TAG;
 import com.adobe.marketing.mobile.edge.SDKConfig;
 import com.adobe.marketing.mobile.services.Log;
 import com.adobe.marketing.mobile.services.NamedCollection;
-import com.adobe.marketing.mobile.util.CloneFailedException;
 import com.adobe.marketing.mobile.util.DataReader;
 import com.adobe.marketing.mobile.util.DataReaderException;
-import com.adobe.marketing.mobile.util.EventDataUtils;
 import com.adobe.marketing.mobile.util.MapUtils;
-import com.adobe.marketing.mobile.util.TimeUtils;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import org.json.JSONObject;
 
+/**
+ * Builds the payload of a single Edge Network request. Not thread safe, a new instance is used for each request.
+ */
 class RequestBuilder {
 
 	private static final String LOG_SOURCE = "RequestBuilder";
@@ -114,9 +112,9 @@ class RequestBuilder {
 	 * Builds the request payload with all the provided parameters and experience events
 	 *
 	 * @param events list of experience events, should not be null/empty
-	 * @return the request payload in {@link JSONObject} format or null if events list is null/empty
+	 * @return the request payload as UTF-8 encoded JSON or null if events list is null/empty
 	 */
-	JSONObject getPayloadWithExperienceEvents(final List<Event> events) {
+	byte[] getPayloadWithExperienceEvents(final List<Event> events) {
 		if (events == null || events.isEmpty()) {
 			return null;
 		}
@@ -139,16 +137,16 @@ class RequestBuilder {
 
 		List<Map<String, Object>> experienceEvents = extractExperienceEvents(events);
 
-		return request.asJsonObject(experienceEvents);
+		return request.asJsonBytes(experienceEvents);
 	}
 
 	/**
 	 * Builds the request payload to update the consent.
 	 *
 	 * @param event The Consent Update event containing XDM formatted data
-	 * @return the consent update payload in {@link JSONObject} format or null if the consent payload is empty
+	 * @return the consent update payload as UTF-8 encoded JSON or null if the consent payload is empty
 	 */
-	JSONObject getConsentPayload(final Event event) {
+	byte[] getConsentPayload(final Event event) {
 		if (event == null || MapUtils.isNullOrEmpty(event.getEventData())) {
 			Log.debug(
 				LOG_TAG,
@@ -200,10 +198,14 @@ class RequestBuilder {
 			new RequestMetadata.Builder().setKonductorConfig(konductorConfig.toObjectMap()).build()
 		);
 
-		return consents.asJsonObject();
+		return consents.asJsonBytes();
 	}
 
-	private KonductorConfig buildKonductorConfig() {
+	/**
+	 * Builds the {@link KonductorConfig} sent with the request, based on the streaming settings of this builder.
+	 * @return the {@code KonductorConfig} for the request payload
+	 */
+	KonductorConfig buildKonductorConfig() {
 		KonductorConfig konductorConfig = new KonductorConfig();
 
 		// streaming separators can include empty spaces, so don't use StringUtils.isNullOrEmpty since it uses trim
@@ -222,6 +224,10 @@ class RequestBuilder {
 	 * of maps.  The timestamp for each {@link Event} is set as the timestamp for its containing {@link ExperienceEvent}
 	 * data. The {@link Event#getUniqueIdentifier()} is set as the event ID for its containing
 	 * {@link ExperienceEvent} data.
+	 * <p>
+	 * The event data is not deep copied: only the maps modified for the request, the top level event data and its
+	 * {@code xdm} and {@code meta} maps, are copied, and the other values are shared with the event data. The event
+	 * data is already a copy owned by the {@link Event} and is only read when writing the request payload.
 	 *
 	 * @param events a list of SDK {@link Event}s which contain a {@link ExperienceEvent} as event data
 	 * @return a list of {@link ExperienceEvent}s as maps
@@ -230,54 +236,55 @@ class RequestBuilder {
 		List<Map<String, Object>> experienceEvents = new ArrayList<>();
 
 		for (Event e : events) {
-			try {
-				Map<String, Object> data = EventDataUtils.clone(e.getEventData());
-				if (!MapUtils.isNullOrEmpty(data)) {
-					setDatasetIdToExperienceEvent(data);
-					setTimestampToExperienceEvent(data, e);
-					setEventIdToExperienceEvent(data, e);
-					if (data.containsKey(EdgeConstants.EventDataKeys.Request.KEY)) {
-						// Remove this request object as it is internal to the SDK
-						// request object contains custom values to overwrite different request properties like path
-						data.remove(EdgeConstants.EventDataKeys.Request.KEY);
-					}
-					if (data.containsKey(EdgeConstants.EventDataKeys.Config.KEY)) {
-						// Remove this config object as it is internal to the SDK
-						// request object contains datastream ID override and datastream config overrides
-						data.remove(EdgeConstants.EventDataKeys.Config.KEY);
-					}
-					experienceEvents.add(data);
-				}
-			} catch (CloneFailedException ex) {
-				Log.warning(
-					LOG_TAG,
-					LOG_SOURCE,
-					"Failed to extract and clone data for an experience event (id: %s), skipping. Exception details: %s",
-					e.getUniqueIdentifier(),
-					ex.getLocalizedMessage()
-				);
+			final Map<String, Object> eventData = e.getEventData();
+
+			if (MapUtils.isNullOrEmpty(eventData)) {
+				continue;
 			}
+
+			final Map<String, Object> data = new HashMap<>(eventData);
+			// Remove this request object as it is internal to the SDK
+			// request object contains custom values to overwrite different request properties like path
+			data.remove(EdgeConstants.EventDataKeys.Request.KEY);
+			// Remove this config object as it is internal to the SDK
+			// request object contains datastream ID override and datastream config overrides
+			data.remove(EdgeConstants.EventDataKeys.Config.KEY);
+			setDatasetIdToExperienceEvent(data);
+
+			final Map<String, Object> xdm = copyMapForWrite(data, EdgeJson.Event.XDM);
+			setTimestampToExperienceEvent(xdm, e);
+			setEventIdToExperienceEvent(xdm, e);
+			experienceEvents.add(data);
 		}
 
 		return experienceEvents;
 	}
 
 	/**
-	 * Set the event timestamp as XDM event timestamp if no timestamp value is provided in the xdm payload under {@code data}.
-	 * If a timestamp value exists, it will not be overwritten.
-	 * @param data the request payload containing the {@code xdm} object.
-	 * @param event the {@code Event} used to retrieve the timestamp for this experience event if no timestamp is set in the XDM payload.
+	 * Replaces the map under {@code key} in {@code data} with a shallow copy which can be modified without changing
+	 * the original map. If there is no map under {@code key}, a new empty map is set.
+	 *
+	 * @param data the map containing the map to copy; should not be null
+	 * @param key the key of the map to copy
+	 * @return the copied map, set in {@code data} under {@code key}
 	 */
 	@SuppressWarnings("unchecked")
-	private void setTimestampToExperienceEvent(final Map<String, Object> data, final Event event) {
-		// get experience event XDM data
-		Map<String, Object> xdm = (Map<String, Object>) data.get(EdgeJson.Event.XDM);
-
-		if (xdm == null) {
-			xdm = new HashMap<>();
-			data.put(EdgeJson.Event.XDM, xdm);
-		}
+	private Map<String, Object> copyMapForWrite(final Map<String, Object> data, final String key) {
+		final Object value = data.get(key);
+		final Map<String, Object> copy = value instanceof Map
+			? new HashMap<>((Map<String, Object>) value)
+			: new HashMap<>();
+		data.put(key, copy);
+		return copy;
+	}
 
+	/**
+	 * Set the event timestamp as XDM event timestamp if no timestamp value is provided in the xdm payload.
+	 * If a timestamp value exists, it will not be overwritten.
+	 * @param xdm the {@code xdm} object of the experience event.
+	 * @param event the {@code Event} used to retrieve the timestamp for this experience event if no timestamp is set in the XDM payload.
+	 */
+	private void setTimestampToExperienceEvent(final Map<String, Object> xdm, final Event event) {
 		String timestampFromPayload = null;
 		try {
 			timestampFromPayload = DataReader.getString(xdm, EdgeJson.Event.Xdm.TIMESTAMP);
@@ -291,26 +298,14 @@ class RequestBuilder {
 
 		// if no timestamp is provided in the xdm event payload, set the event timestamp
 		if (timestampFromPayload == null || timestampFromPayload.isEmpty()) {
-			long eventTimestamp = event.getTimestamp();
-			String eventTimestampString = TimeUtils.getISO8601UTCDateWithMilliseconds(new Date(eventTimestamp));
-			xdm.put(EdgeJson.Event.Xdm.TIMESTAMP, eventTimestampString);
+			xdm.put(EdgeJson.Event.Xdm.TIMESTAMP, TimestampFormatter.formatUtcMillis(event.getTimestamp()));
 		}
 	}
 
-	@SuppressWarnings("unchecked")
-	private void setEventIdToExperienceEvent(final Map<String, Object> data, final Event event) {
-		// get experience event XDM data
-		Map<String, Object> xdm = (Map<String, Object>) data.get(EdgeJson.Event.XDM);
-
-		if (xdm == null) {
-			xdm = new HashMap<>();
-			data.put(EdgeJson.Event.XDM, xdm);
-		}
-
+	private void setEventIdToExperienceEvent(final Map<String, Object> xdm, final Event event) {
 		xdm.put(EdgeJson.Event.Xdm.EVENT_ID, event.getUniqueIdentifier());
 	}
 
-	@SuppressWarnings("unchecked")
 	private void setDatasetIdToExperienceEvent(final Map<String, Object> data) {
 		String datasetId = (String) data.remove(EdgeConstants.EventDataKeys.DATASET_ID);
 
@@ -319,12 +314,7 @@ class RequestBuilder {
 		}
 
 		// get experience event meta data
-		Map<String, Object> meta = (Map<String, Object>) data.get(EdgeJson.Event.METADATA);
-
-		if (meta == null) {
-			meta = new HashMap<>();
-			data.put(EdgeJson.Event.METADATA, meta);
-		}
+		final Map<String, Object> meta = copyMapForWrite(data, EdgeJson.Event.METADATA);
 
 		Map<String, Object> collectMeta = new HashMap<>();
 		collectMeta.put(EdgeJson.Event.Metadata.DATASET_ID, datasetId);
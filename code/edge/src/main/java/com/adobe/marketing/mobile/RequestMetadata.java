@@ -87,6 +87,44 @@ class RequestMetadata {
 		return serializedMap;
 	}
 
+	/**
+	 * Checks if this {@code RequestMetadata} has any data to be sent.
+	 *
+	 * @return true if all the metadata maps are null or empty
+	 */
+	boolean isEmpty() {
+		return (
+			MapUtils.isNullOrEmpty(konductorConfig) &&
+			MapUtils.isNullOrEmpty(state) &&
+			MapUtils.isNullOrEmpty(sdkConfig) &&
+			MapUtils.isNullOrEmpty(configOverrides)
+		);
+	}
+
+	/**
+	 * Writes current {@code RequestMetadata} as a JSON object, with the same content as {@link #toObjectMap()}.
+	 *
+	 * @param writer the {@link EdgeJsonWriter} to write to
+	 */
+	void writeJson(final EdgeJsonWriter writer) {
+		writer.beginObject();
+		writeIfNotEmpty(writer, JSON_KEY_GATEWAY, konductorConfig);
+		writeIfNotEmpty(writer, JSON_KEY_STATE, state);
+		writeIfNotEmpty(writer, JSON_KEY_SDK_CONFIG, sdkConfig);
+		writeIfNotEmpty(writer, JSON_KEY_CONFIG_OVERRIDE, configOverrides);
+		writer.endObject();
+	}
+
+	private static void writeIfNotEmpty(
+		final EdgeJsonWriter writer,
+		final String key,
+		final Map<String, Object> value
+	) {
+		if (!MapUtils.isNullOrEmpty(value)) {
+			writer.name(key).value(value);
+		}
+	}
+
 	static class Builder {
 
 		private final RequestMetadata requestMetadata;
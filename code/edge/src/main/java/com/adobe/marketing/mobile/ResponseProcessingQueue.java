@@ -0,0 +1,203 @@
+/*
+  Copyright 2023 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile;
+
+import static com.adobe.marketing.mobile.EdgeConstants.LOG_TAG;
+
+import com.adobe.marketing.mobile.services.Log;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the processing of the Edge Network responses in submission order, away from the thread reading the
+ * network connection.
+ * <p>
+ * The tasks are run one at a time, so the response records of a request are processed in the order they are
+ * received and the completion of a request is processed after all its records. {@link #awaitStateUpdates(long)}
+ * allows the caller to wait only for the pending tasks which update the state, for example before building a request
+ * which depends on the state store or location hint updated by the previous responses.
+ */
+class ResponseProcessingQueue {
+
+	private static final String LOG_SOURCE = "ResponseProcessingQueue";
+
+	private final Object mutex = new Object();
+	// executor running the tasks, null until the first task when the default executor is used
+	private Executor executor;
+	private int pendingTasks = 0;
+	// number of pending tasks which update the state read by the next requests
+	private int pendingStateTasks = 0;
+
+	/**
+	 * Creates a queue which runs the tasks in order on a background thread.
+	 */
+	ResponseProcessingQueue() {
+		this(null);
+	}
+
+	/**
+	 * Creates a queue which runs the tasks on the provided executor.
+	 *
+	 * @param executor the {@link Executor} running the tasks, expected to run them in submission order;
+	 *                 if null, the tasks are run in order on a background thread
+	 */
+	ResponseProcessingQueue(final Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Queues the provided task, to be run after the previously submitted tasks.
+	 *
+	 * @param task the task to run; should not be null
+	 */
+	void submit(final Runnable task) {
+		submit(task, false);
+	}
+
+	/**
+	 * Queues the provided task, to be run after the previously submitted tasks.
+	 *
+	 * @param task the task to run; should not be null
+	 * @param updatesState true if the task updates the state read by the next requests, such as the state store or
+	 *                     the location hint
+	 * @see #awaitStateUpdates(long)
+	 */
+	void submit(final Runnable task, final boolean updatesState) {
+		synchronized (mutex) {
+			pendingTasks++;
+
+			if (updatesState) {
+				pendingStateTasks++;
+			}
+		}
+
+		final Runnable queuedTask = () -> {
+			try {
+				task.run();
+			} catch (Exception e) {
+				Log.warning(
+					LOG_TAG,
+					LOG_SOURCE,
+					"Exception thrown when processing an Edge Network response: %s",
+					e.getLocalizedMessage()
+				);
+			} finally {
+				taskCompleted(updatesState);
+			}
+		};
+
+		try {
+			getExecutor().execute(queuedTask);
+		} catch (RuntimeException e) {
+			Log.warning(
+				LOG_TAG,
+				LOG_SOURCE,
+				"Failed to queue the processing of an Edge Network response, processing it now: %s",
+				e.getLocalizedMessage()
+			);
+			queuedTask.run();
+		}
+	}
+
+	/**
+	 * Waits until all the submitted tasks are complete.
+	 *
+	 * @param timeoutMillis the maximum time to wait, in milliseconds
+	 * @return true if no task is pending, false if the wait timed out or was interrupted
+	 */
+	boolean awaitIdle(final long timeoutMillis) {
+		return await(timeoutMillis, false);
+	}
+
+	/**
+	 * Waits until all the submitted tasks which update the state are complete. As the tasks are run in order,
+	 * the tasks submitted before them are complete as well.
+	 *
+	 * @param timeoutMillis the maximum time to wait, in milliseconds
+	 * @return true if no task updating the state is pending, false if the wait timed out or was interrupted
+	 */
+	boolean awaitStateUpdates(final long timeoutMillis) {
+		return await(timeoutMillis, true);
+	}
+
+	/**
+	 * @return the number of submitted tasks which are not complete
+	 */
+	int getPendingTasksCount() {
+		synchronized (mutex) {
+			return pendingTasks;
+		}
+	}
+
+	private boolean await(final long timeoutMillis, final boolean stateTasksOnly) {
+		final long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+
+		synchronized (mutex) {
+			while ((stateTasksOnly ? pendingStateTasks : pendingTasks) > 0) {
+				final long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+
+				if (remainingMillis <= 0) {
+					return false;
+				}
+
+				try {
+					mutex.wait(remainingMillis);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return false;
+				}
+			}
+
+			return true;
+		}
+	}
+
+	private void taskCompleted(final boolean updatesState) {
+		synchronized (mutex) {
+			pendingTasks--;
+
+			if (updatesState) {
+				pendingStateTasks--;
+			}
+
+			if (pendingTasks == 0 || (updatesState && pendingStateTasks == 0)) {
+				mutex.notifyAll();
+			}
+		}
+	}
+
+	private Executor getExecutor() {
+		synchronized (mutex) {
+			if (executor == null) {
+				// a single thread runs the tasks in order and stops when idle
+				final ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(
+					1,
+					1,
+					60,
+					TimeUnit.SECONDS,
+					new LinkedBlockingQueue<>(),
+					runnable -> {
+						final Thread thread = new Thread(runnable, "EdgeResponseProcessing");
+						thread.setDaemon(true);
+						return thread;
+					}
+				);
+				threadPoolExecutor.allowCoreThreadTimeOut(true);
+				executor = threadPoolExecutor;
+			}
+
+			return executor;
+		}
+	}
+}
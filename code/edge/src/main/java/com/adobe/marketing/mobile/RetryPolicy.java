@@ -0,0 +1,243 @@
+/*
+  Copyright 2023 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile;
+
+import static com.adobe.marketing.mobile.EdgeConstants.LOG_TAG;
+
+import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.util.DataReader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Computes the retry intervals of the Edge requests and pauses the requests to unavailable endpoints.
+ * <p>
+ * A failed request pauses all the requests to its endpoint for its retry interval. Consecutive failures to the
+ * same endpoint back off exponentially with decorrelated jitter: each interval is picked randomly between
+ * {@link EdgeConstants.Defaults#RETRY_INTERVAL_SECONDS} and three times the previous interval, up to
+ * {@code edge.retry.maxIntervalSeconds}. A retry interval sent by the server, for example in a {@code Retry-After}
+ * header, takes precedence, up to {@link EdgeConstants.Defaults#RETRY_MAX_SERVER_INTERVAL_SECONDS}.
+ * <p>
+ * Each endpoint has a circuit breaker which opens after {@code edge.retry.failureThreshold} consecutive failures.
+ * While open, no request is sent to the endpoint for {@code edge.retry.openIntervalSeconds}. After that interval,
+ * the circuit is half-open and a single probe request is allowed; it closes the circuit if it succeeds, or opens
+ * it again if it fails.
+ */
+class RetryPolicy {
+
+	private static final String LOG_SOURCE = "RetryPolicy";
+	private static final int BACKOFF_MULTIPLIER = 3;
+
+	private enum CircuitState {
+		CLOSED,
+		OPEN,
+		HALF_OPEN
+	}
+
+	private final Clock clock;
+	private final Random random;
+	// endpoint to its retry state
+	private final Map<String, EndpointState> endpointStates = new HashMap<>();
+	private int maxIntervalSeconds = EdgeConstants.Defaults.RETRY_MAX_INTERVAL_SECONDS;
+	private int failureThreshold = EdgeConstants.Defaults.RETRY_FAILURE_THRESHOLD;
+	private int openIntervalSeconds = EdgeConstants.Defaults.RETRY_OPEN_INTERVAL_SECONDS;
+
+	/**
+	 * Creates a retry policy using the system clock.
+	 */
+	RetryPolicy() {
+		this(Clock.SYSTEM, new Random());
+	}
+
+	/**
+	 * Creates a retry policy.
+	 *
+	 * @param clock the {@link Clock} used to time the open circuits
+	 * @param random the {@link Random} used to compute the jitter of the retry intervals
+	 */
+	RetryPolicy(final Clock clock, final Random random) {
+		this.clock = clock;
+		this.random = random;
+	}
+
+	/**
+	 * Updates the retry settings from the Edge configuration. Missing or invalid settings use their default value.
+	 *
+	 * @param edgeConfig the Edge configuration of the hit being processed
+	 */
+	synchronized void updateConfiguration(final Map<String, Object> edgeConfig) {
+		maxIntervalSeconds =
+			Math.max(
+				EdgeConstants.Defaults.RETRY_INTERVAL_SECONDS,
+				DataReader.optInt(
+					edgeConfig,
+					EdgeConstants.SharedState.Configuration.EDGE_RETRY_MAX_INTERVAL_SECONDS,
+					EdgeConstants.Defaults.RETRY_MAX_INTERVAL_SECONDS
+				)
+			);
+		failureThreshold =
+			Math.max(
+				1,
+				DataReader.optInt(
+					edgeConfig,
+					EdgeConstants.SharedState.Configuration.EDGE_RETRY_FAILURE_THRESHOLD,
+					EdgeConstants.Defaults.RETRY_FAILURE_THRESHOLD
+				)
+			);
+		openIntervalSeconds =
+			Math.max(
+				1,
+				DataReader.optInt(
+					edgeConfig,
+					EdgeConstants.SharedState.Configuration.EDGE_RETRY_OPEN_INTERVAL_SECONDS,
+					EdgeConstants.Defaults.RETRY_OPEN_INTERVAL_SECONDS
+				)
+			);
+	}
+
+	/**
+	 * Checks if a request can be sent to the provided endpoint. When the open interval of the circuit has elapsed,
+	 * this call allows the probe request and any other request is denied until its result is recorded.
+	 *
+	 * @param endpoint the endpoint of the request
+	 * @return true if the request can be sent, false if the endpoint is paused or its circuit is open
+	 */
+	synchronized boolean allowRequest(final String endpoint) {
+		final EndpointState state = endpointStates.get(endpoint);
+
+		if (state == null) {
+			return true;
+		}
+
+		if (clock.currentTimeMillis() < state.pausedUntilMillis) {
+			return false;
+		}
+
+		if (state.circuitState == CircuitState.CLOSED) {
+			return true;
+		}
+
+		if (state.circuitState == CircuitState.OPEN && clock.currentTimeMillis() >= state.openUntilMillis) {
+			Log.debug(LOG_TAG, LOG_SOURCE, "Sending a probe request to endpoint (%s).", endpoint);
+			state.circuitState = CircuitState.HALF_OPEN;
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Records a request which does not need to be retried, closing the circuit of its endpoint.
+	 *
+	 * @param endpoint the endpoint of the request
+	 */
+	synchronized void recordSuccess(final String endpoint) {
+		final EndpointState state = endpointStates.remove(endpoint);
+
+		if (state != null && state.circuitState != CircuitState.CLOSED) {
+			Log.debug(LOG_TAG, LOG_SOURCE, "Endpoint (%s) is available again, closing its circuit.", endpoint);
+		}
+	}
+
+	/**
+	 * Records a request which needs to be retried, pausing the requests to its endpoint for its retry interval.
+	 *
+	 * @param endpoint the endpoint of the request
+	 * @param serverRetryIntervalSeconds the retry interval from the server response, or
+	 *                                   {@link RetryResult#NO_SERVER_RETRY_INTERVAL} if none was sent
+	 * @return the seconds until a request can be sent to the endpoint again
+	 */
+	synchronized int recordFailure(final String endpoint, final int serverRetryIntervalSeconds) {
+		EndpointState state = endpointStates.get(endpoint);
+
+		if (state == null) {
+			state = new EndpointState();
+			endpointStates.put(endpoint, state);
+		}
+
+		state.consecutiveFailures++;
+		state.lastIntervalSeconds = nextBackoffSeconds(state.lastIntervalSeconds);
+
+		if (state.circuitState == CircuitState.HALF_OPEN || state.consecutiveFailures >= failureThreshold) {
+			if (state.circuitState != CircuitState.OPEN) {
+				Log.debug(
+					LOG_TAG,
+					LOG_SOURCE,
+					"Opening the circuit of endpoint (%s) for %d seconds after %d consecutive failures.",
+					endpoint,
+					openIntervalSeconds,
+					state.consecutiveFailures
+				);
+			}
+
+			state.circuitState = CircuitState.OPEN;
+			state.openUntilMillis = clock.currentTimeMillis() + openIntervalSeconds * 1000L;
+		}
+
+		final int intervalSeconds = serverRetryIntervalSeconds > 0
+			? Math.min(serverRetryIntervalSeconds, EdgeConstants.Defaults.RETRY_MAX_SERVER_INTERVAL_SECONDS)
+			: state.lastIntervalSeconds;
+		state.pausedUntilMillis = clock.currentTimeMillis() + intervalSeconds * 1000L;
+
+		return getPauseSeconds(state);
+	}
+
+	/**
+	 * Gets the time left until a request can be sent to the provided endpoint.
+	 *
+	 * @param endpoint the endpoint of the request
+	 * @return the seconds left until the endpoint is no longer paused and its circuit is not open; zero if a request
+	 * can be sent or a probe request is in flight
+	 */
+	synchronized int getPauseSeconds(final String endpoint) {
+		final EndpointState state = endpointStates.get(endpoint);
+		return state != null ? getPauseSeconds(state) : 0;
+	}
+
+	private int getPauseSeconds(final EndpointState state) {
+		long pausedUntilMillis = state.pausedUntilMillis;
+
+		if (state.circuitState == CircuitState.OPEN) {
+			pausedUntilMillis = Math.max(pausedUntilMillis, state.openUntilMillis);
+		}
+
+		final long remainingMillis = pausedUntilMillis - clock.currentTimeMillis();
+		return remainingMillis > 0 ? (int) ((remainingMillis + 999) / 1000) : 0;
+	}
+
+	/**
+	 * Picks the next backoff interval using decorrelated jitter.
+	 *
+	 * @param lastIntervalSeconds the previous backoff interval, or zero for the first failure
+	 * @return a random interval between the base interval and three times {@code lastIntervalSeconds},
+	 * capped at the maximum interval
+	 */
+	private int nextBackoffSeconds(final int lastIntervalSeconds) {
+		final int baseSeconds = EdgeConstants.Defaults.RETRY_INTERVAL_SECONDS;
+		final long upperSeconds = Math.min(
+			maxIntervalSeconds,
+			Math.max(baseSeconds, (long) lastIntervalSeconds * BACKOFF_MULTIPLIER)
+		);
+
+		return baseSeconds + random.nextInt((int) (upperSeconds - baseSeconds) + 1);
+	}
+
+	private static final class EndpointState {
+
+		private CircuitState circuitState = CircuitState.CLOSED;
+		private int consecutiveFailures = 0;
+		private int lastIntervalSeconds = 0;
+		private long openUntilMillis = 0;
+		private long pausedUntilMillis = 0;
+	}
+}
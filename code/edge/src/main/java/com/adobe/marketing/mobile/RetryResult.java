@@ -16,8 +16,12 @@ package com.adobe.marketing.mobile;
  */
 class RetryResult {
 
+	// retry interval value used when the server did not send one
+	static final int NO_SERVER_RETRY_INTERVAL = -1;
+
 	private final EdgeNetworkService.Retry shouldRetry;
-	private int retryIntervalSeconds = EdgeConstants.Defaults.RETRY_INTERVAL_SECONDS;
+	private final int retryIntervalSeconds;
+	private final boolean hasServerRetryInterval;
 
 	/**
 	 * Constructs a {@link RetryResult} with the specified retry value and default retry interval of 5 seconds.
@@ -25,19 +29,21 @@ class RetryResult {
 	 * @param shouldRetry value indicating if the hit should be retried
 	 */
 	RetryResult(final EdgeNetworkService.Retry shouldRetry) {
-		this.shouldRetry = shouldRetry;
+		this(shouldRetry, NO_SERVER_RETRY_INTERVAL);
 	}
 
 	/**
 	 * Constructs a {@link RetryResult} with the specified retry value and retry interval.
 	 *
 	 * @param shouldRetry value indicating if the hit should be retried
-	 * @param retryIntervalSeconds value in seconds indicating the retry interval
+	 * @param retryIntervalSeconds value in seconds indicating the retry interval sent by the server; if not positive,
+	 *                             for example {@link #NO_SERVER_RETRY_INTERVAL}, the default retry interval is used
 	 */
 	RetryResult(final EdgeNetworkService.Retry shouldRetry, final int retryIntervalSeconds) {
 		this.shouldRetry = shouldRetry;
+		this.hasServerRetryInterval = retryIntervalSeconds > 0;
 		this.retryIntervalSeconds =
-			retryIntervalSeconds > 0 ? retryIntervalSeconds : EdgeConstants.Defaults.RETRY_INTERVAL_SECONDS;
+			hasServerRetryInterval ? retryIntervalSeconds : EdgeConstants.Defaults.RETRY_INTERVAL_SECONDS;
 	}
 
 	/**
@@ -57,4 +63,13 @@ class RetryResult {
 	public int getRetryIntervalSeconds() {
 		return retryIntervalSeconds;
 	}
+
+	/**
+	 * Checks if the retry interval was sent by the server, rather than being the default retry interval.
+	 *
+	 * @return true if the server sent the retry interval, for example in a {@code Retry-After} header
+	 */
+	public boolean hasServerRetryInterval() {
+		return hasServerRetryInterval;
+	}
 }
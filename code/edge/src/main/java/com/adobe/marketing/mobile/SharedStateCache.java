@@ -0,0 +1,135 @@
+/*
+  Copyright 2023 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile;
+
+import androidx.annotation.NonNull;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Caches the shared states resolved for the event being processed.
+ * <p>
+ * The shared states resolved for an event are kept until a different event is resolved, so checking if an event
+ * can be processed and processing it resolve each shared state once. Only set shared states are kept, pending
+ * shared states are resolved again.
+ * <p>
+ * The values computed from a shared state are memoized with {@link DerivedValue}, which computes the value again
+ * only when a different version of the shared state is resolved. The Mobile Core returns the same payload instance
+ * for the same shared state version, so the versions are compared by payload identity.
+ */
+class SharedStateCache {
+
+	/**
+	 * Resolves a shared state from the Mobile Core.
+	 */
+	interface Resolver {
+		/**
+		 * @param stateOwner the shared state owner
+		 * @param event the event for which the shared state is resolved
+		 * @param xdm true to resolve the XDM shared state, false for the standard shared state
+		 * @param barrier true to resolve the next shared state at or past the {@code event}
+		 * @return the {@link SharedStateResult}, may be null
+		 */
+		SharedStateResult resolve(String stateOwner, Event event, boolean xdm, boolean barrier);
+	}
+
+	/**
+	 * Computes a value from a shared state payload.
+	 *
+	 * @param <T> the type of the computed value
+	 */
+	interface Derivation<T> {
+		/**
+		 * @param state the shared state payload, may be null
+		 * @return the value computed from {@code state}
+		 */
+		T derive(Map<String, Object> state);
+	}
+
+	/**
+	 * A value computed from a shared state payload, computed again only when the payload changes.
+	 *
+	 * @param <T> the type of the computed value
+	 */
+	static final class DerivedValue<T> {
+
+		private final Derivation<T> derivation;
+		private Map<String, Object> lastState;
+		private T lastValue;
+		private boolean computed = false;
+
+		DerivedValue(@NonNull final Derivation<T> derivation) {
+			this.derivation = derivation;
+		}
+
+		/**
+		 * @param state the shared state payload, may be null
+		 * @return the value computed from {@code state}, reused when the same payload was used for the last value
+		 */
+		synchronized T get(final Map<String, Object> state) {
+			if (!computed || state != lastState) {
+				lastValue = derivation.derive(state);
+				lastState = state;
+				computed = true;
+			}
+
+			return lastValue;
+		}
+	}
+
+	private final Resolver resolver;
+	// unique identifier of the event for which the cached shared states were resolved
+	private String eventId;
+	private final Map<String, SharedStateResult> eventStates = new HashMap<>();
+
+	SharedStateCache(@NonNull final Resolver resolver) {
+		this.resolver = resolver;
+	}
+
+	/**
+	 * Resolves the shared state for the provided event, reusing the set shared state resolved earlier for it.
+	 *
+	 * @param stateOwner the shared state owner
+	 * @param event the event for which the shared state is resolved
+	 * @param xdm true to resolve the XDM shared state, false for the standard shared state
+	 * @param barrier true to resolve the next shared state at or past the {@code event}
+	 * @return the {@link SharedStateResult}, may be null
+	 */
+	synchronized SharedStateResult resolve(
+		@NonNull final String stateOwner,
+		@NonNull final Event event,
+		final boolean xdm,
+		final boolean barrier
+	) {
+		final String uniqueIdentifier = event.getUniqueIdentifier();
+
+		if (uniqueIdentifier == null || !uniqueIdentifier.equals(eventId)) {
+			eventStates.clear();
+			eventId = uniqueIdentifier;
+		}
+
+		final String key = stateOwner + (xdm ? "|xdm" : "|standard") + (barrier ? "|barrier" : "");
+		final SharedStateResult cachedResult = eventStates.get(key);
+
+		if (cachedResult != null) {
+			return cachedResult;
+		}
+
+		final SharedStateResult result = resolver.resolve(stateOwner, event, xdm, barrier);
+
+		if (result != null && result.getStatus() == SharedStateStatus.SET) {
+			eventStates.put(key, result);
+		}
+
+		return result;
+	}
+}
@@ -14,7 +14,6 @@ package com.adobe.marketing.mobile;
 import static com.adobe.marketing.mobile.EdgeConstants.LOG_TAG;
 
 import com.adobe.marketing.mobile.services.Log;
-import java.util.Calendar;
 import org.json.JSONException;
 import org.json.JSONObject;
 
@@ -28,26 +27,28 @@ class StoreResponsePayload {
 	private final String key;
 	private final String value;
 	private final Integer maxAgeSeconds;
-	private long expiryTimestampMilliseconds; // date stamp in milliseconds that this payload expires.
-
-	private StoreResponsePayload(final String key, final String value, final Integer maxAge) {
+	private final long expiryTimestampMilliseconds; // date stamp in milliseconds that this payload expires.
+
+	private StoreResponsePayload(
+		final String key,
+		final String value,
+		final Integer maxAge,
+		final long expiryTimestampMilliseconds
+	) {
 		this.key = key;
 		this.value = value;
 		this.maxAgeSeconds = maxAge;
-
-		// compute expiryDate
-		Calendar calendar = Calendar.getInstance();
-		calendar.add(Calendar.SECOND, maxAge);
-		expiryTimestampMilliseconds = calendar.getTimeInMillis();
+		this.expiryTimestampMilliseconds = expiryTimestampMilliseconds;
 	}
 
 	/**
 	 * Checks if the payload has exceeded its max age
 	 *
+	 * @param currentTimeMillis the current time in milliseconds since the Unix epoch
 	 * @return true if the payload is expired, false otherwise
 	 */
-	boolean isExpired() {
-		return Calendar.getInstance().getTimeInMillis() >= expiryTimestampMilliseconds;
+	boolean isExpired(final long currentTimeMillis) {
+		return currentTimeMillis >= expiryTimestampMilliseconds;
 	}
 
 	/**
@@ -77,6 +78,18 @@ class StoreResponsePayload {
 	}
 
 	static StoreResponsePayload fromJsonObject(final JSONObject jsonObject) {
+		return fromJsonObject(jsonObject, Clock.SYSTEM.currentTimeMillis());
+	}
+
+	/**
+	 * Creates a payload from its JSON representation.
+	 *
+	 * @param jsonObject the JSON representation of the payload
+	 * @param currentTimeMillis the current time in milliseconds since the Unix epoch, used to compute the expiry date
+	 *                          from the max age when the JSON representation has no expiry date
+	 * @return the {@link StoreResponsePayload}, or null if the key, value or max age is missing
+	 */
+	static StoreResponsePayload fromJsonObject(final JSONObject jsonObject, final long currentTimeMillis) {
 		if (jsonObject == null) {
 			Log.debug(
 				LOG_TAG,
@@ -133,14 +146,13 @@ class StoreResponsePayload {
 			return null;
 		}
 
-		StoreResponsePayload payloadObj = new StoreResponsePayload(key, value, maxAge);
-
-		// expiryDate not required, set it if available
-		if (expiryDate != Long.MIN_VALUE) {
-			payloadObj.expiryTimestampMilliseconds = expiryDate;
-		}
-
-		return payloadObj;
+		// expiryDate not required, compute it from the max age if not available
+		return new StoreResponsePayload(
+			key,
+			value,
+			maxAge,
+			expiryDate != Long.MIN_VALUE ? expiryDate : currentTimeMillis + maxAge * 1000L
+		);
 	}
 
 	/**
@@ -13,23 +13,49 @@ package com.adobe.marketing.mobile;
 
 import static com.adobe.marketing.mobile.EdgeConstants.LOG_TAG;
 
+import androidx.annotation.VisibleForTesting;
 import com.adobe.marketing.mobile.services.Log;
 import com.adobe.marketing.mobile.services.NamedCollection;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.WeakHashMap;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+/**
+ * Manages the store response payloads persisted in the Edge data store.
+ * <p>
+ * The persisted payloads are cached in memory, shared by all the managers using the same data store, and the changes
+ * are written to the data store once per save or delete. Expired payloads are evicted lazily, in expiry order, when the
+ * active stores are read, and the evictions are written with the next save or delete; until then, the expired payloads
+ * left in the data store are evicted again when loaded.
+ */
 class StoreResponsePayloadManager {
 
 	private static final String LOG_SOURCE = "StoreResponsePayloadManager";
 
+	// one cache per data store instance, shared by the managers created for each request and response
+	private static final Map<NamedCollection, StoreCache> caches = new WeakHashMap<>();
+
 	private final NamedCollection namedCollection;
+	private final Clock clock;
 
 	StoreResponsePayloadManager(final NamedCollection dataStore) {
+		this(dataStore, Clock.SYSTEM);
+	}
+
+	/**
+	 * Creates a manager of the store payloads persisted in the provided data store.
+	 *
+	 * @param dataStore the data store of the store payloads
+	 * @param clock the {@link Clock} used to compute and check the payload expiry dates
+	 */
+	StoreResponsePayloadManager(final NamedCollection dataStore, final Clock clock) {
 		this.namedCollection = dataStore;
+		this.clock = clock;
 	}
 
 	/**
@@ -44,42 +70,19 @@ class StoreResponsePayloadManager {
 			return null;
 		}
 
-		Map<String, String> serializedPayloads = namedCollection.getMap(EdgeConstants.DataStoreKeys.STORE_PAYLOADS);
+		final StoreCache cache = getCache(namedCollection);
 
-		if (serializedPayloads == null) {
-			Log.debug(LOG_TAG, LOG_SOURCE, "Cannot get active stores, serializedPayloads is null.");
-			return null;
-		}
-
-		Map<String, StoreResponsePayload> deserializedPayloads = new HashMap<>();
-		ArrayList<String> toBeDeleted = new ArrayList<>();
+		synchronized (cache) {
+			final long currentTimeMillis = clock.currentTimeMillis();
 
-		for (String serializedPayload : serializedPayloads.values()) {
-			StoreResponsePayload payload;
-
-			try {
-				payload = StoreResponsePayload.fromJsonObject(new JSONObject(serializedPayload));
-			} catch (JSONException e) {
-				Log.debug(
-					LOG_TAG,
-					LOG_SOURCE,
-					"Failed to convert JSON object to StoreResponsePayload: %s",
-					e.getLocalizedMessage()
-				);
-				continue;
+			if (!cache.isPersisted(currentTimeMillis)) {
+				Log.debug(LOG_TAG, LOG_SOURCE, "Cannot get active stores, serializedPayloads is null.");
+				return null;
 			}
 
-			if (payload != null) {
-				if (payload.isExpired()) {
-					toBeDeleted.add(payload.getKey());
-				} else {
-					deserializedPayloads.put(payload.getKey(), payload);
-				}
-			}
+			cache.evictExpired(currentTimeMillis);
+			return new HashMap<>(cache.payloads);
 		}
-
-		deleteStoreResponses(toBeDeleted);
-		return deserializedPayloads;
 	}
 
 	/**
@@ -98,29 +101,30 @@ class StoreResponsePayloadManager {
 			return;
 		}
 
-		Map<String, String> serializedPayloads = namedCollection.getMap(EdgeConstants.DataStoreKeys.STORE_PAYLOADS);
-
-		if (serializedPayloads == null) {
-			serializedPayloads = new HashMap<>();
-		}
+		final StoreCache cache = getCache(namedCollection);
 
-		ArrayList<String> toBeDeleted = new ArrayList<>();
+		synchronized (cache) {
+			final long currentTimeMillis = clock.currentTimeMillis();
 
-		for (Map<String, Object> payloadMap : responsePayloads) {
-			StoreResponsePayload payload = StoreResponsePayload.fromJsonObject(new JSONObject(payloadMap));
+			for (Map<String, Object> payloadMap : responsePayloads) {
+				StoreResponsePayload payload = StoreResponsePayload.fromJsonObject(
+					new JSONObject(payloadMap),
+					currentTimeMillis
+				);
 
-			if (payload != null) {
-				if (payload.getMaxAge() <= 0) {
-					// The Experience Edge server (Konductor) defines state values with 0 or -1 max age as to be deleted on the client.
-					toBeDeleted.add(payload.getKey());
-				} else {
-					serializedPayloads.put(payload.getKey(), payload.toJsonObject().toString());
+				if (payload != null) {
+					if (payload.getMaxAge() <= 0) {
+						// The Experience Edge server (Konductor) defines state values with 0 or -1 max age as to be deleted on the client.
+						cache.remove(payload.getKey(), currentTimeMillis);
+					} else {
+						cache.put(payload, payload.toJsonObject().toString(), currentTimeMillis);
+					}
 				}
 			}
-		}
 
-		namedCollection.setMap(EdgeConstants.DataStoreKeys.STORE_PAYLOADS, serializedPayloads);
-		deleteStoreResponses(toBeDeleted);
+			cache.evictExpired(currentTimeMillis);
+			cache.persist();
+		}
 	}
 
 	/**
@@ -139,18 +143,23 @@ class StoreResponsePayloadManager {
 			return;
 		}
 
-		Map<String, String> serializedPayloads = namedCollection.getMap(EdgeConstants.DataStoreKeys.STORE_PAYLOADS);
+		final StoreCache cache = getCache(namedCollection);
 
-		if (serializedPayloads == null) {
-			Log.debug(LOG_TAG, LOG_SOURCE, "Cannot delete stores, data store is null.");
-			return;
-		}
+		synchronized (cache) {
+			final long currentTimeMillis = clock.currentTimeMillis();
 
-		for (String key : keys) {
-			serializedPayloads.remove(key);
-		}
+			if (!cache.isPersisted(currentTimeMillis)) {
+				Log.debug(LOG_TAG, LOG_SOURCE, "Cannot delete stores, data store is null.");
+				return;
+			}
 
-		namedCollection.setMap(EdgeConstants.DataStoreKeys.STORE_PAYLOADS, serializedPayloads);
+			for (String key : keys) {
+				cache.remove(key, currentTimeMillis);
+			}
+
+			cache.evictExpired(currentTimeMillis);
+			cache.persist();
+		}
 	}
 
 	/**
@@ -162,6 +171,170 @@ class StoreResponsePayloadManager {
 			return;
 		}
 
-		namedCollection.remove(EdgeConstants.DataStoreKeys.STORE_PAYLOADS);
+		final StoreCache cache = getCache(namedCollection);
+
+		synchronized (cache) {
+			cache.clear();
+		}
+	}
+
+	/**
+	 * @return the number of payloads in the expiry index of the data store cache
+	 */
+	@VisibleForTesting
+	int getExpiryQueueSize() {
+		final StoreCache cache = getCache(namedCollection);
+
+		synchronized (cache) {
+			return cache.expiryQueue.size();
+		}
+	}
+
+	private static StoreCache getCache(final NamedCollection namedCollection) {
+		synchronized (caches) {
+			StoreCache cache = caches.get(namedCollection);
+
+			if (cache == null) {
+				cache = new StoreCache(namedCollection);
+				caches.put(namedCollection, cache);
+			}
+
+			return cache;
+		}
+	}
+
+	/**
+	 * In-memory copy of the store payloads persisted in a data store, with an index of the payloads by expiry date.
+	 * The persisted payloads are loaded on first use. Callers synchronize on the cache instance.
+	 */
+	private static final class StoreCache {
+
+		private final NamedCollection namedCollection;
+		private final Map<String, StoreResponsePayload> payloads = new HashMap<>();
+		// mirror of the persisted map, store key to serialized payload
+		private final Map<String, String> serializedPayloads = new HashMap<>();
+		// payloads ordered by expiry date; replaced or removed payloads are taken out of the queue
+		private final PriorityQueue<StoreResponsePayload> expiryQueue = new PriorityQueue<>(
+			11,
+			(first, second) -> Long.compare(first.getExpiryDate(), second.getExpiryDate())
+		);
+		private boolean loaded = false;
+		private boolean persisted = false;
+		// true if the payloads changed since they were last written to the data store
+		private boolean dirty = false;
+
+		StoreCache(final NamedCollection namedCollection) {
+			this.namedCollection = namedCollection;
+		}
+
+		/**
+		 * @param currentTimeMillis the current time, used to load the persisted payloads without an expiry date
+		 * @return true if the store payloads exist in the data store
+		 */
+		boolean isPersisted(final long currentTimeMillis) {
+			load(currentTimeMillis);
+			return persisted;
+		}
+
+		void put(final StoreResponsePayload payload, final String serializedPayload, final long currentTimeMillis) {
+			load(currentTimeMillis);
+			final StoreResponsePayload replaced = payloads.put(payload.getKey(), payload);
+			serializedPayloads.put(payload.getKey(), serializedPayload);
+
+			if (replaced != null) {
+				expiryQueue.remove(replaced);
+			}
+
+			expiryQueue.add(payload);
+			dirty = true;
+		}
+
+		void remove(final String key, final long currentTimeMillis) {
+			load(currentTimeMillis);
+			final StoreResponsePayload removed = payloads.remove(key);
+			serializedPayloads.remove(key);
+
+			if (removed != null) {
+				expiryQueue.remove(removed);
+				dirty = true;
+			}
+		}
+
+		/**
+		 * Removes the payloads which expired at {@code timestamp}. The evictions are written by the next
+		 * {@link #persist()}.
+		 */
+		void evictExpired(final long timestamp) {
+			load(timestamp);
+
+			while (!expiryQueue.isEmpty() && expiryQueue.peek().getExpiryDate() <= timestamp) {
+				final StoreResponsePayload expired = expiryQueue.poll();
+				payloads.remove(expired.getKey());
+				serializedPayloads.remove(expired.getKey());
+				dirty = true;
+			}
+		}
+
+		/**
+		 * Writes all the payloads to the data store, if they changed since they were last written.
+		 */
+		void persist() {
+			if (persisted && !dirty) {
+				return;
+			}
+
+			namedCollection.setMap(EdgeConstants.DataStoreKeys.STORE_PAYLOADS, new HashMap<>(serializedPayloads));
+			persisted = true;
+			dirty = false;
+		}
+
+		void clear() {
+			payloads.clear();
+			serializedPayloads.clear();
+			expiryQueue.clear();
+			loaded = true;
+			persisted = false;
+			dirty = false;
+			namedCollection.remove(EdgeConstants.DataStoreKeys.STORE_PAYLOADS);
+		}
+
+		private void load(final long currentTimeMillis) {
+			if (loaded) {
+				return;
+			}
+
+			loaded = true;
+			final Map<String, String> persistedPayloads = namedCollection.getMap(
+				EdgeConstants.DataStoreKeys.STORE_PAYLOADS
+			);
+
+			if (persistedPayloads == null) {
+				return;
+			}
+
+			persisted = true;
+
+			for (String serializedPayload : persistedPayloads.values()) {
+				StoreResponsePayload payload;
+
+				try {
+					payload = StoreResponsePayload.fromJsonObject(new JSONObject(serializedPayload), currentTimeMillis);
+				} catch (JSONException e) {
+					Log.debug(
+						LOG_TAG,
+						LOG_SOURCE,
+						"Failed to convert JSON object to StoreResponsePayload: %s",
+						e.getLocalizedMessage()
+					);
+					continue;
+				}
+
+				if (payload != null) {
+					payloads.put(payload.getKey(), payload);
+					serializedPayloads.put(payload.getKey(), serializedPayload);
+					expiryQueue.add(payload);
+				}
+			}
+		}
 	}
 }
@@ -0,0 +1,217 @@
+/*
+  Copyright 2023 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile;
+
+import static com.adobe.marketing.mobile.EdgeConstants.LOG_TAG;
+
+import androidx.annotation.NonNull;
+import com.adobe.marketing.mobile.services.Log;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Splits a streamed Edge Network response into records.
+ * <p>
+ * Each record is expected to start with the record separator and end with the line feed delimiter, as configured
+ * through {@link KonductorConfig}. The splitter works directly on the UTF-8 bytes of the response, using a single
+ * record buffer which is reused for all the records of the response, and decodes each record once, when its
+ * line feed is found.
+ * <p>
+ * Records larger than the configured maximum size are dropped.
+ */
+class StreamingResponseSplitter {
+
+	private static final String LOG_SOURCE = "StreamingResponseSplitter";
+	private static final int READ_BUFFER_SIZE = 8 * 1024;
+
+	/**
+	 * Receives the records read from the response stream, in order.
+	 */
+	interface RecordHandler {
+		/**
+		 * Called for each complete record, after the record separator was removed.
+		 * @param record the decoded record content
+		 */
+		void onRecord(@NonNull final String record);
+	}
+
+	private final byte[] recordSeparator;
+	private final byte[] lineFeed;
+	private final int maxRecordBytes;
+
+	private byte[] recordBuffer = new byte[READ_BUFFER_SIZE];
+	private int recordLength = 0;
+	private boolean recordOverflow = false;
+
+	/**
+	 * Creates a new splitter.
+	 * @param recordSeparator the record separator prefixing each record; may be empty
+	 * @param lineFeed the line feed delimiter ending each record; should not be empty
+	 * @param maxRecordBytes the maximum size in bytes of a record, excluding the separator and line feed
+	 */
+	StreamingResponseSplitter(
+		@NonNull final String recordSeparator,
+		@NonNull final String lineFeed,
+		final int maxRecordBytes
+	) {
+		if (lineFeed.isEmpty()) {
+			throw new IllegalArgumentException("Line feed delimiter cannot be empty.");
+		}
+
+		this.recordSeparator = recordSeparator.getBytes(StandardCharsets.UTF_8);
+		this.lineFeed = lineFeed.getBytes(StandardCharsets.UTF_8);
+		this.maxRecordBytes = maxRecordBytes;
+	}
+
+	/**
+	 * Reads the {@code inputStream} until its end and calls {@code handler} as soon as each record is complete.
+	 * Any content following the last line feed is handled as the last record.
+	 *
+	 * @param inputStream the response stream to read from
+	 * @param handler the {@link RecordHandler} receiving the records
+	 * @throws IOException if reading from the {@code inputStream} fails
+	 */
+	void split(@NonNull final InputStream inputStream, @NonNull final RecordHandler handler) throws IOException {
+		final byte[] readBuffer = new byte[READ_BUFFER_SIZE];
+		final byte lastLineFeedByte = lineFeed[lineFeed.length - 1];
+		int read;
+
+		while ((read = inputStream.read(readBuffer)) != -1) {
+			int start = 0;
+
+			for (int i = 0; i < read; i++) {
+				if (readBuffer[i] != lastLineFeedByte) {
+					continue;
+				}
+
+				append(readBuffer, start, i + 1 - start);
+				start = i + 1;
+
+				if (endsWithLineFeed()) {
+					completeRecord(recordLength - lineFeed.length, handler);
+				}
+			}
+
+			append(readBuffer, start, read - start);
+		}
+
+		completeRecord(recordLength, handler);
+	}
+
+	/**
+	 * Handles the record currently held in the record buffer and resets the buffer for the next record.
+	 * @param length the length of the record in the buffer, excluding the line feed
+	 * @param handler the {@link RecordHandler} receiving the record
+	 */
+	private void completeRecord(final int length, final RecordHandler handler) {
+		final boolean overflow = recordOverflow;
+		recordLength = 0;
+		recordOverflow = false;
+
+		if (overflow) {
+			Log.warning(
+				LOG_TAG,
+				LOG_SOURCE,
+				"Dropping network response record larger than the maximum allowed size of %d bytes.",
+				maxRecordBytes
+			);
+			return;
+		}
+
+		if (length <= 0) {
+			return;
+		}
+
+		if (length < recordSeparator.length) {
+			Log.debug(
+				LOG_TAG,
+				LOG_SOURCE,
+				"Unexpected network response chunk is shorter than record separator. Ignoring response '%s'.",
+				new String(recordBuffer, 0, length, StandardCharsets.UTF_8)
+			);
+			return;
+		}
+
+		final int offset = startsWithRecordSeparator() ? recordSeparator.length : 0;
+		handler.onRecord(new String(recordBuffer, offset, length - offset, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Appends bytes to the record buffer, growing it as needed up to the maximum record size.
+	 * Once a record exceeds the maximum size, only the bytes needed to detect its line feed are retained.
+	 */
+	private void append(final byte[] source, final int offset, final int length) {
+		if (length <= 0) {
+			return;
+		}
+
+		final long limit = (long) maxRecordBytes + recordSeparator.length + lineFeed.length;
+
+		if (!recordOverflow && (long) recordLength + length > limit) {
+			recordOverflow = true;
+		}
+
+		if (recordOverflow) {
+			// keep the tail which may contain the beginning of the line feed
+			final int keep = Math.min(recordLength, lineFeed.length - 1);
+			System.arraycopy(recordBuffer, recordLength - keep, recordBuffer, 0, keep);
+			recordLength = keep;
+		}
+
+		ensureCapacity(recordLength + length);
+		System.arraycopy(source, offset, recordBuffer, recordLength, length);
+		recordLength += length;
+	}
+
+	private void ensureCapacity(final int capacity) {
+		if (capacity <= recordBuffer.length) {
+			return;
+		}
+
+		int newCapacity = recordBuffer.length;
+
+		while (newCapacity < capacity) {
+			newCapacity *= 2;
+		}
+
+		final byte[] newBuffer = new byte[newCapacity];
+		System.arraycopy(recordBuffer, 0, newBuffer, 0, recordLength);
+		recordBuffer = newBuffer;
+	}
+
+	private boolean endsWithLineFeed() {
+		if (recordLength < lineFeed.length) {
+			return false;
+		}
+
+		final int offset = recordLength - lineFeed.length;
+
+		for (int i = 0; i < lineFeed.length; i++) {
+			if (recordBuffer[offset + i] != lineFeed[i]) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private boolean startsWithRecordSeparator() {
+		for (int i = 0; i < recordSeparator.length; i++) {
+			if (recordBuffer[i] != recordSeparator[i]) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+}
@@ -0,0 +1,87 @@
+/*
+  Copyright 2023 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile;
+
+/**
+ * Formats timestamps as ISO 8601 UTC dates with milliseconds, for example {@code 2023-05-01T10:20:30.456Z}.
+ * <p>
+ * The date fields are computed arithmetically from the epoch milliseconds, without the {@code Date},
+ * {@code Calendar} and {@code SimpleDateFormat} instances created by each
+ * {@code TimeUtils.getISO8601UTCDateWithMilliseconds} call. The output is the same for the years 0 to 9999.
+ */
+final class TimestampFormatter {
+
+	private static final long MILLIS_PER_DAY = 86_400_000L;
+	private static final int FORMATTED_LENGTH = 24;
+
+	private TimestampFormatter() {}
+
+	/**
+	 * Formats the provided timestamp as an ISO 8601 UTC date with milliseconds.
+	 *
+	 * @param epochMillis the timestamp in milliseconds since the Unix epoch
+	 * @return the timestamp formatted as {@code yyyy-MM-dd'T'HH:mm:ss.SSS'Z'}
+	 */
+	static String formatUtcMillis(final long epochMillis) {
+		long epochDay = epochMillis / MILLIS_PER_DAY;
+		long millisOfDay = epochMillis % MILLIS_PER_DAY;
+
+		if (millisOfDay < 0) {
+			millisOfDay += MILLIS_PER_DAY;
+			epochDay--;
+		}
+
+		// civil date from the days since 1970-01-01, using 400 year eras starting on March 1st
+		final long shiftedDay = epochDay + 719_468;
+		final long era = (shiftedDay >= 0 ? shiftedDay : shiftedDay - 146_096) / 146_097;
+		final long dayOfEra = shiftedDay - era * 146_097;
+		final long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+		final long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+		final long shiftedMonth = (5 * dayOfYear + 2) / 153;
+		final int day = (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+		final int month = (int) (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+		final int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+
+		final int millisOfDayInt = (int) millisOfDay;
+		final int hours = millisOfDayInt / 3_600_000;
+		final int minutes = (millisOfDayInt / 60_000) % 60;
+		final int seconds = (millisOfDayInt / 1000) % 60;
+		final int millis = millisOfDayInt % 1000;
+
+		final char[] chars = new char[FORMATTED_LENGTH];
+		writeDigits(chars, 0, year, 4);
+		chars[4] = '-';
+		writeDigits(chars, 5, month, 2);
+		chars[7] = '-';
+		writeDigits(chars, 8, day, 2);
+		chars[10] = 'T';
+		writeDigits(chars, 11, hours, 2);
+		chars[13] = ':';
+		writeDigits(chars, 14, minutes, 2);
+		chars[16] = ':';
+		writeDigits(chars, 17, seconds, 2);
+		chars[19] = '.';
+		writeDigits(chars, 20, millis, 3);
+		chars[23] = 'Z';
+
+		return new String(chars);
+	}
+
+	private static void writeDigits(final char[] chars, final int offset, final int value, final int width) {
+		int remaining = value;
+
+		for (int i = offset + width - 1; i >= offset; i--) {
+			chars[i] = (char) ('0' + remaining % 10);
+			remaining /= 10;
+		}
+	}
+}
@@ -25,12 +25,12 @@ public final class Formatters {
 	 * @return a list of {@link Property} elements serialized to XDM map structure
 	 */
 	public static List<Map<String, Object>> serializeFromList(final List<? extends Property> listProperty) {
-		List<Map<String, Object>> serializedList = new ArrayList<>();
-
 		if (listProperty == null) {
-			return serializedList;
+			return new ArrayList<>();
 		}
 
+		List<Map<String, Object>> serializedList = new ArrayList<>(listProperty.size());
+
 		for (Property property : listProperty) {
 			if (property != null) {
 				serializedList.add(property.serializeToXdm());
@@ -0,0 +1,300 @@
+/*
+  Copyright 2023 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.adobe.marketing.mobile.util.FakeNamedCollection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CoalescingNamedCollectionTests {
+
+	private static final long NO_AUTOMATIC_FLUSH = 60000;
+
+	private CountingNamedCollection persistedCollection;
+	private CoalescingNamedCollection namedCollection;
+
+	@Before
+	public void setup() {
+		persistedCollection = new CountingNamedCollection();
+		namedCollection = new CoalescingNamedCollection(persistedCollection, NO_AUTOMATIC_FLUSH);
+	}
+
+	@After
+	public void tearDown() {
+		namedCollection.close();
+	}
+
+	@Test
+	public void testWrites_arePendingUntilFlushed() {
+		namedCollection.setString("string", "value");
+		namedCollection.setLong("long", 123L);
+		namedCollection.setInt("int", 1);
+		namedCollection.setBoolean("boolean", true);
+
+		assertEquals(0, persistedCollection.writes);
+		assertFalse(persistedCollection.contains("string"));
+
+		// reads return the pending values
+		assertEquals("value", namedCollection.getString("string", null));
+		assertEquals(123L, namedCollection.getLong("long", 0));
+		assertEquals(1, namedCollection.getInt("int", 0));
+		assertTrue(namedCollection.getBoolean("boolean", false));
+		assertTrue(namedCollection.contains("string"));
+
+		namedCollection.flush();
+
+		assertEquals(4, persistedCollection.writes);
+		assertEquals("value", persistedCollection.getString("string", null));
+		assertEquals(123L, persistedCollection.getLong("long", 0));
+		assertEquals(1, persistedCollection.getInt("int", 0));
+		assertTrue(persistedCollection.getBoolean("boolean", false));
+	}
+
+	@Test
+	public void testWrites_sameKey_coalesced() {
+		namedCollection.setLong("long", 1L);
+		namedCollection.setLong("long", 2L);
+		namedCollection.setLong("long", 3L);
+
+		namedCollection.flush();
+
+		assertEquals(1, persistedCollection.writes);
+		assertEquals(3L, persistedCollection.getLong("long", 0));
+	}
+
+	@Test
+	public void testWrites_unchangedValue_skipped() {
+		namedCollection.setString("string", "value");
+		namedCollection.setMap("map", Collections.singletonMap("key", "value"));
+		namedCollection.setLong("long", 5L);
+		namedCollection.setDouble("double", 1.5);
+		namedCollection.remove("removed");
+		namedCollection.flush();
+		persistedCollection.writes = 0;
+
+		namedCollection.setString("string", "value");
+		namedCollection.setMap("map", Collections.singletonMap("key", "value"));
+		namedCollection.setLong("long", 5L);
+		namedCollection.setDouble("double", 1.5);
+		namedCollection.remove("removed");
+		namedCollection.flush();
+
+		assertEquals(0, persistedCollection.writes);
+		// compared with the values last written, without reading them back
+		assertEquals(0, persistedCollection.reads);
+	}
+
+	@Test
+	public void testWrites_unchangedPendingValue_skipped() {
+		namedCollection.setString("string", "value");
+		namedCollection.setString("string", "value");
+		namedCollection.flush();
+
+		assertEquals(1, persistedCollection.writes);
+		assertEquals(0, persistedCollection.reads);
+	}
+
+	@Test
+	public void testWrites_valueNotWrittenByCollection_written() {
+		persistedCollection.setString("string", "value");
+		persistedCollection.writes = 0;
+
+		namedCollection.setString("string", "value");
+		namedCollection.flush();
+
+		assertEquals(1, persistedCollection.writes);
+		assertEquals("value", persistedCollection.getString("string", null));
+	}
+
+	@Test
+	public void testRemoveAll_thenUnchangedValue_written() {
+		namedCollection.setString("string", "value");
+		namedCollection.flush();
+
+		namedCollection.removeAll();
+		namedCollection.flush();
+		namedCollection.setString("string", "value");
+		namedCollection.flush();
+
+		assertEquals(2, persistedCollection.writes);
+		assertEquals("value", persistedCollection.getString("string", null));
+	}
+
+	@Test
+	public void testRemove_pendingUntilFlushed() {
+		persistedCollection.setString("string", "value");
+
+		namedCollection.remove("string");
+
+		assertFalse(namedCollection.contains("string"));
+		assertNull(namedCollection.getString("string", null));
+		assertTrue(persistedCollection.contains("string"));
+
+		namedCollection.flush();
+
+		assertFalse(persistedCollection.contains("string"));
+	}
+
+	@Test
+	public void testRemoveAll_thenWrite() {
+		persistedCollection.setString("string", "value");
+		persistedCollection.setString("other", "value");
+
+		namedCollection.removeAll();
+		namedCollection.setString("other", "newValue");
+
+		assertFalse(namedCollection.contains("string"));
+		assertEquals("newValue", namedCollection.getString("other", null));
+
+		namedCollection.flush();
+
+		assertFalse(persistedCollection.contains("string"));
+		assertEquals("newValue", persistedCollection.getString("other", null));
+	}
+
+	@Test
+	public void testSetMap_copiesMap() {
+		Map<String, String> map = new HashMap<>();
+		map.put("key", "value");
+
+		namedCollection.setMap("map", map);
+		map.put("key", "changed");
+
+		assertEquals("value", namedCollection.getMap("map").get("key"));
+		namedCollection.flush();
+		assertEquals("value", persistedCollection.getMap("map").get("key"));
+	}
+
+	@Test
+	public void testWrites_flushedAfterDelay() throws Exception {
+		CoalescingNamedCollection delayedCollection = new CoalescingNamedCollection(persistedCollection, 50);
+
+		delayedCollection.setString("string", "value");
+		delayedCollection.setString("string", "newValue");
+		Thread.sleep(500);
+
+		assertEquals(1, persistedCollection.writes);
+		assertEquals("newValue", persistedCollection.getString("string", null));
+		delayedCollection.close();
+	}
+
+	@Test
+	public void testClose_flushesAndWritesThrough() {
+		namedCollection.setString("string", "value");
+
+		namedCollection.close();
+		assertEquals("value", persistedCollection.getString("string", null));
+
+		namedCollection.setString("string", "newValue");
+		assertEquals("newValue", persistedCollection.getString("string", null));
+	}
+
+	@Test
+	public void testWrites_writeThroughKey_appliedImmediately() {
+		namedCollection.close();
+		namedCollection =
+			new CoalescingNamedCollection(persistedCollection, NO_AUTOMATIC_FLUSH, Collections.singleton("string"));
+
+		namedCollection.setString("string", "value");
+		assertEquals(1, persistedCollection.writes);
+		assertEquals("value", persistedCollection.getString("string", null));
+
+		namedCollection.remove("string");
+		assertFalse(persistedCollection.contains("string"));
+	}
+
+	@Test
+	public void testWrites_writeThroughKey_flushesPendingWritesFirst() {
+		namedCollection.close();
+		namedCollection =
+			new CoalescingNamedCollection(persistedCollection, NO_AUTOMATIC_FLUSH, Collections.singleton("string"));
+
+		namedCollection.removeAll();
+		namedCollection.setLong("long", 1L);
+		assertEquals(0, persistedCollection.writes);
+
+		namedCollection.setString("string", "value");
+
+		assertEquals(2, persistedCollection.writes);
+		assertEquals(1L, persistedCollection.getLong("long", 0));
+		assertEquals("value", persistedCollection.getString("string", null));
+	}
+
+	private static class CountingNamedCollection extends FakeNamedCollection {
+
+		int writes = 0;
+		int reads = 0;
+
+		@Override
+		public void setString(String key, String val) {
+			writes++;
+			super.setString(key, val);
+		}
+
+		@Override
+		public void setLong(String key, long val) {
+			writes++;
+			super.setLong(key, val);
+		}
+
+		@Override
+		public void setInt(String key, int val) {
+			writes++;
+			super.setInt(key, val);
+		}
+
+		@Override
+		public void setBoolean(String key, boolean val) {
+			writes++;
+			super.setBoolean(key, val);
+		}
+
+		@Override
+		public void setDouble(String key, double val) {
+			writes++;
+			super.setDouble(key, val);
+		}
+
+		@Override
+		public void setMap(String key, Map<String, String> val) {
+			writes++;
+			super.setMap(key, val);
+		}
+
+		@Override
+		public Map<String, String> getMap(String key) {
+			reads++;
+			return super.getMap(key);
+		}
+
+		@Override
+		public boolean contains(String key) {
+			reads++;
+			return super.contains(key);
+		}
+
+		@Override
+		public void remove(String key) {
+			writes++;
+			super.remove(key);
+		}
+	}
+}
@@ -13,14 +13,20 @@ package com.adobe.marketing.mobile;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -242,6 +248,263 @@ public class CompletionCallbacksManagerTests {
 		assertFalse(latchOfOne.await(100, TimeUnit.MILLISECONDS));
 	}
 
+	// ----------- expiry and limits
+	@Test
+	public void testExpireCallbacks_completesExpiredCallback_withReceivedHandles() {
+		final CompletionCallbacksManager manager = new CompletionCallbacksManager(1000, 10);
+		manager.setCallbackExecutor(Runnable::run);
+		final List<EdgeEventHandle> receivedData = new ArrayList<>();
+		final long now = System.currentTimeMillis();
+
+		manager.registerCallback(
+			uniqueEventId,
+			handles -> {
+				receivedData.addAll(handles);
+				latchOfOne.countDown();
+			}
+		);
+		manager.eventHandleReceived(uniqueEventId, eventHandle);
+		manager.startExpiry(Collections.singletonList(uniqueEventId));
+
+		manager.expireCallbacks(now + 500);
+		assertEquals(1, latchOfOne.getCount());
+		assertEquals(1, manager.getLiveCallbacksCount());
+
+		manager.expireCallbacks(now + 3000);
+		assertEquals(0, latchOfOne.getCount());
+		assertEquals(1, receivedData.size());
+		assertEquals(0, manager.getLiveCallbacksCount());
+		assertEquals(1, manager.getEvictedCallbacksCount());
+
+		// not completed again
+		manager.unregisterCallback(uniqueEventId);
+		assertEquals(1, receivedData.size());
+	}
+
+	@Test
+	public void testExpireCallbacks_afterLongPause_completesAllExpiredCallbacks() {
+		final CompletionCallbacksManager manager = new CompletionCallbacksManager(1000, 10);
+		manager.setCallbackExecutor(Runnable::run);
+		final CountDownLatch latchOfTwo = new CountDownLatch(2);
+
+		manager.registerCallback(uniqueEventId, handles -> latchOfTwo.countDown());
+		manager.registerCallback(uniqueEventId2, handles -> latchOfTwo.countDown());
+		manager.startExpiry(Arrays.asList(uniqueEventId, uniqueEventId2));
+
+		manager.expireCallbacks(System.currentTimeMillis() + 10 * 60 * 1000);
+
+		assertEquals(0, latchOfTwo.getCount());
+		assertEquals(0, manager.getLiveCallbacksCount());
+		assertEquals(2, manager.getEvictedCallbacksCount());
+	}
+
+	@Test
+	public void testExpireCallbacks_requestNotSent_callbackNotExpired() {
+		final CompletionCallbacksManager manager = new CompletionCallbacksManager(1000, 10);
+		manager.setCallbackExecutor(Runnable::run);
+
+		manager.registerCallback(uniqueEventId, handles -> latchOfOne.countDown());
+		manager.expireCallbacks(System.currentTimeMillis() + 10 * 60 * 1000);
+
+		assertEquals(1, latchOfOne.getCount());
+		assertEquals(1, manager.getLiveCallbacksCount());
+		assertEquals(0, manager.getEvictedCallbacksCount());
+	}
+
+	@Test
+	public void testExpireCallbacks_requestNotSent_completedAfterMaxTimeToLive() {
+		final CompletionCallbacksManager manager = new CompletionCallbacksManager(1000, 5000, 10);
+		manager.setCallbackExecutor(Runnable::run);
+		final List<EdgeEventHandle> receivedData = new ArrayList<>();
+		final long now = System.currentTimeMillis();
+
+		manager.registerCallback(
+			uniqueEventId,
+			handles -> {
+				receivedData.addAll(handles);
+				latchOfOne.countDown();
+			}
+		);
+
+		manager.expireCallbacks(now + 3000);
+		assertEquals(1, latchOfOne.getCount());
+		assertEquals(1, manager.getLiveCallbacksCount());
+
+		manager.expireCallbacks(now + 7000);
+		assertEquals(0, latchOfOne.getCount());
+		assertTrue(receivedData.isEmpty());
+		assertEquals(0, manager.getLiveCallbacksCount());
+		assertEquals(1, manager.getEvictedCallbacksCount());
+	}
+
+	@Test
+	public void testStartExpiry_afterMaxTimeToLive_doesNotExtendExpiry() {
+		final CompletionCallbacksManager manager = new CompletionCallbacksManager(5000, 1000, 10);
+		manager.setCallbackExecutor(Runnable::run);
+		final long registeredMillis = System.currentTimeMillis();
+
+		manager.registerCallback(uniqueEventId, handles -> latchOfOne.countDown());
+		manager.startExpiry(Collections.singletonList(uniqueEventId));
+
+		manager.expireCallbacks(registeredMillis + 3000);
+		assertEquals(0, latchOfOne.getCount());
+		assertEquals(0, manager.getLiveCallbacksCount());
+	}
+
+	@Test
+	public void testStartExpiry_requestSentAgain_restartsTimeToLive() throws InterruptedException {
+		final CompletionCallbacksManager manager = new CompletionCallbacksManager(1000, 10);
+		manager.setCallbackExecutor(Runnable::run);
+
+		manager.registerCallback(uniqueEventId, handles -> latchOfOne.countDown());
+		manager.startExpiry(Collections.singletonList(uniqueEventId));
+		final long firstSentMillis = System.currentTimeMillis();
+		Thread.sleep(20);
+		manager.startExpiry(Collections.singletonList(uniqueEventId));
+
+		manager.expireCallbacks(firstSentMillis + 1005);
+		assertEquals(1, latchOfOne.getCount());
+
+		manager.expireCallbacks(firstSentMillis + 3000);
+		assertEquals(0, latchOfOne.getCount());
+		assertEquals(0, manager.getLiveCallbacksCount());
+	}
+
+	@Test
+	public void testRegisterCallback_whenMaxCallbacksExceeded_completesOldestCallback() throws InterruptedException {
+		final CompletionCallbacksManager manager = new CompletionCallbacksManager(60000, 2);
+		manager.setCallbackExecutor(Runnable::run);
+
+		manager.registerCallback(uniqueEventId, handles -> latchOfOne.countDown());
+		Thread.sleep(5);
+		manager.registerCallback(uniqueEventId2, handles -> anotherLatchOfOne.countDown());
+		Thread.sleep(5);
+		manager.registerCallback(uniqueEventId3, handles -> anotherLatchOfOne.countDown());
+
+		assertEquals(0, latchOfOne.getCount());
+		assertEquals(1, anotherLatchOfOne.getCount());
+		assertEquals(2, manager.getLiveCallbacksCount());
+		assertEquals(1, manager.getEvictedCallbacksCount());
+	}
+
+	@Test
+	public void testEventHandleReceived_withoutRegisteredCallback_handleNotKept() throws InterruptedException {
+		final List<EdgeEventHandle> receivedData = new ArrayList<>();
+
+		CompletionCallbacksManager.getInstance().eventHandleReceived(uniqueEventId, eventHandle);
+		CompletionCallbacksManager
+			.getInstance()
+			.registerCallback(
+				uniqueEventId,
+				handles -> {
+					receivedData.addAll(handles);
+					latchOfOne.countDown();
+				}
+			);
+		CompletionCallbacksManager.getInstance().unregisterCallback(uniqueEventId);
+
+		assertTrue(latchOfOne.await(100, TimeUnit.MILLISECONDS));
+		assertEquals(0, receivedData.size());
+	}
+
+	// ----------- callback executor
+	@Test
+	public void testUnregisterCallback_defaultExecutor_invokesCallbackOffCallingThread() throws InterruptedException {
+		final CompletionCallbacksManager manager = new CompletionCallbacksManager(60000, 10);
+		final AtomicReference<Thread> callbackThread = new AtomicReference<>();
+
+		manager.registerCallback(
+			uniqueEventId,
+			handles -> {
+				callbackThread.set(Thread.currentThread());
+				latchOfOne.countDown();
+			}
+		);
+		manager.unregisterCallback(uniqueEventId);
+
+		assertTrue(latchOfOne.await(1000, TimeUnit.MILLISECONDS));
+		assertNotEquals(Thread.currentThread(), callbackThread.get());
+	}
+
+	@Test
+	public void testUnregisterCallback_defaultExecutor_slowCallbackDoesNotBlockCaller() throws InterruptedException {
+		final CompletionCallbacksManager manager = new CompletionCallbacksManager(60000, 10);
+		final CountDownLatch releaseLatch = new CountDownLatch(1);
+
+		manager.registerCallback(
+			uniqueEventId,
+			handles -> {
+				try {
+					releaseLatch.await(1000, TimeUnit.MILLISECONDS);
+				} catch (InterruptedException ignored) {}
+			}
+		);
+		manager.registerCallback(uniqueEventId2, handles -> latchOfOne.countDown());
+
+		manager.unregisterCallback(uniqueEventId);
+		manager.unregisterCallback(uniqueEventId2);
+
+		// the second callback waits for the first one, invoked in order
+		assertFalse(latchOfOne.await(100, TimeUnit.MILLISECONDS));
+		releaseLatch.countDown();
+		assertTrue(latchOfOne.await(1000, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	public void testUnregisterCallback_customExecutor_invokesCallbackOnExecutor() throws InterruptedException {
+		final CompletionCallbacksManager manager = new CompletionCallbacksManager(60000, 10);
+		final AtomicInteger executions = new AtomicInteger();
+		final List<EdgeEventHandle> receivedData = new ArrayList<>();
+
+		manager.setCallbackExecutor(command -> {
+			executions.incrementAndGet();
+			command.run();
+		});
+		manager.registerCallback(
+			uniqueEventId,
+			handles -> {
+				receivedData.addAll(handles);
+				latchOfOne.countDown();
+			}
+		);
+		manager.eventHandleReceived(uniqueEventId, eventHandle);
+		manager.unregisterCallback(uniqueEventId);
+
+		assertEquals(0, latchOfOne.getCount());
+		assertEquals(1, executions.get());
+		assertEquals(1, receivedData.size());
+
+		// null restores the default executor
+		manager.setCallbackExecutor(null);
+		manager.registerCallback(uniqueEventId2, handles -> anotherLatchOfOne.countDown());
+		manager.unregisterCallback(uniqueEventId2);
+
+		assertTrue(anotherLatchOfOne.await(1000, TimeUnit.MILLISECONDS));
+		assertEquals(1, executions.get());
+	}
+
+	@Test
+	public void testUnregisterCallback_rejectingExecutor_invokesCallbackOnDefaultExecutor()
+		throws InterruptedException {
+		final CompletionCallbacksManager manager = new CompletionCallbacksManager(60000, 10);
+		final AtomicReference<Thread> callbackThread = new AtomicReference<>();
+
+		manager.setCallbackExecutor(command -> {
+			throw new RejectedExecutionException("shut down");
+		});
+		manager.registerCallback(
+			uniqueEventId,
+			handles -> {
+				callbackThread.set(Thread.currentThread());
+				latchOfOne.countDown();
+			}
+		);
+		manager.unregisterCallback(uniqueEventId);
+
+		assertTrue(latchOfOne.await(1000, TimeUnit.MILLISECONDS));
+		assertNotEquals(Thread.currentThread(), callbackThread.get());
+	}
+
 	// ----------- null, empty
 	@Test
 	public void testUnregisterCallback_withNullEmptyUniqueEvent_doesNotCrash() {
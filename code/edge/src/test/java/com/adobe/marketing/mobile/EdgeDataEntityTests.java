@@ -17,12 +17,25 @@ import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mockStatic;
 
+import android.util.Base64;
 import com.adobe.marketing.mobile.services.DataEntity;
+import com.adobe.marketing.mobile.util.FakeNamedCollection;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.zip.Deflater;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
+import org.mockito.MockedStatic;
 
 public class EdgeDataEntityTests {
 
@@ -37,6 +50,24 @@ public class EdgeDataEntityTests {
 			put("identityMap", "example");
 		}
 	};
+	private MockedStatic<Base64> base64MockedStatic;
+
+	@Before
+	public void setup() {
+		// android.util.Base64 is not available in unit tests, use the Java implementation
+		base64MockedStatic = mockStatic(Base64.class);
+		base64MockedStatic
+			.when(() -> Base64.encodeToString(any(byte[].class), anyInt()))
+			.thenAnswer(invocation -> java.util.Base64.getEncoder().encodeToString(invocation.getArgument(0)));
+		base64MockedStatic
+			.when(() -> Base64.decode(anyString(), anyInt()))
+			.thenAnswer(invocation -> java.util.Base64.getDecoder().decode((String) invocation.getArgument(0)));
+	}
+
+	@After
+	public void teardown() {
+		base64MockedStatic.close();
+	}
 
 	@Test
 	public void testConstructor_allParams() {
@@ -218,4 +249,128 @@ public class EdgeDataEntityTests {
 	public void testFromDataEntity_whenInvalidDataEntity_returnsNull() {
 		assertNull(EdgeDataEntity.fromDataEntity(new DataEntity("abc")));
 	}
+
+	@Test
+	public void testToDataEntity_usesVersionedFormat() {
+		DataEntity serializedEntity = new EdgeDataEntity(event, edgeConfig, identityMap).toDataEntity();
+		assertNotNull(serializedEntity);
+		assertTrue(serializedEntity.getData().startsWith("EDE2:"));
+	}
+
+	@Test
+	public void testToFromDataEntity_whenLargeEntity_isDeflated() {
+		Map<String, Object> eventData = new HashMap<>();
+
+		for (int i = 0; i < 200; i++) {
+			eventData.put("key" + i, "a repetitive value which compresses well");
+		}
+
+		Event largeEvent = new Event.Builder("name", "type", "source").setEventData(eventData).build();
+		DataEntity serializedEntity = new EdgeDataEntity(largeEvent, edgeConfig, identityMap).toDataEntity();
+		assertNotNull(serializedEntity);
+		assertTrue(serializedEntity.getData().startsWith("EDE2Z:"));
+
+		EdgeDataEntity deserializedEntity = EdgeDataEntity.fromDataEntity(serializedEntity);
+		assertNotNull(deserializedEntity);
+		assertEquals(largeEvent.getUniqueIdentifier(), deserializedEntity.getEvent().getUniqueIdentifier());
+		assertEquals(eventData, deserializedEntity.getEvent().getEventData());
+		assertEquals(edgeConfig, deserializedEntity.getConfiguration());
+		assertEquals(identityMap, deserializedEntity.getIdentityMap());
+	}
+
+	@Test
+	public void testFromDataEntity_whenLegacyJsonFormat() throws Exception {
+		JSONObject legacyEntity = new JSONObject();
+		legacyEntity.put("event", new JSONObject(EventCoder.encode(event)));
+		legacyEntity.put("configuration", new JSONObject(edgeConfig));
+		legacyEntity.put("identityMap", new JSONObject(identityMap));
+
+		EdgeDataEntity deserializedEntity = EdgeDataEntity.fromDataEntity(new DataEntity(legacyEntity.toString()));
+		assertNotNull(deserializedEntity);
+		assertEquals(event.getUniqueIdentifier(), deserializedEntity.getEvent().getUniqueIdentifier());
+		assertEquals(edgeConfig, deserializedEntity.getConfiguration());
+		assertEquals(identityMap, deserializedEntity.getIdentityMap());
+
+		// re-serialized in the versioned format
+		DataEntity serializedEntity = deserializedEntity.toDataEntity();
+		assertNotNull(serializedEntity);
+		assertTrue(serializedEntity.getData().startsWith("EDE2:"));
+	}
+
+	@Test
+	public void testFromDataEntity_whenInvalidSectionLength_returnsNull() {
+		String eventJson = EventCoder.encode(event);
+		String invalidLength = "EDE2:" + (eventJson.length() + 10) + ":" + eventJson;
+		assertNull(EdgeDataEntity.fromDataEntity(new DataEntity(invalidLength)));
+		assertNull(EdgeDataEntity.fromDataEntity(new DataEntity("EDE2:-1:" + eventJson + "0:0:")));
+		assertNull(EdgeDataEntity.fromDataEntity(new DataEntity("EDE2:" + eventJson.length() + ":" + eventJson)));
+	}
+
+	@Test
+	public void testFromDataEntity_whenTrailingData_returnsNull() {
+		String eventJson = EventCoder.encode(event);
+		String trailingData = "EDE2:" + eventJson.length() + ":" + eventJson + "0:0:x";
+		assertNull(EdgeDataEntity.fromDataEntity(new DataEntity(trailingData)));
+	}
+
+	@Test
+	public void testFromDataEntity_whenCorruptedDeflatedData_returnsNull() {
+		assertNull(EdgeDataEntity.fromDataEntity(new DataEntity("EDE2Z:not base64")));
+
+		byte[] sections = ("2:{}0:0:").getBytes(StandardCharsets.UTF_8);
+		Deflater deflater = new Deflater();
+		deflater.setInput(sections);
+		deflater.finish();
+		byte[] buffer = new byte[100];
+		int length = deflater.deflate(buffer);
+		deflater.end();
+
+		// truncated deflate stream
+		String truncated = java.util.Base64.getEncoder().encodeToString(Arrays.copyOf(buffer, length - 2));
+		assertNull(EdgeDataEntity.fromDataEntity(new DataEntity("EDE2Z:" + truncated)));
+	}
+
+	@Test
+	public void testFromDataEntity_parsesConfigurationAndIdentityMapWhenAccessed() {
+		DataEntity serializedEntity = new EdgeDataEntity(event, edgeConfig, identityMap).toDataEntity();
+		assertNotNull(serializedEntity);
+
+		EdgeDataEntity first = EdgeDataEntity.fromDataEntity(serializedEntity);
+		EdgeDataEntity second = EdgeDataEntity.fromDataEntity(serializedEntity);
+		assertNotNull(first);
+		assertNotNull(second);
+
+		assertTrue(first.hasSameConfigurationAndIdentityMap(second));
+		assertTrue(first.hasSameConfigurationAndIdentityMap(new EdgeDataEntity(event, edgeConfig, identityMap)));
+		assertFalse(first.hasSameConfigurationAndIdentityMap(new EdgeDataEntity(event, edgeConfig, null)));
+		assertEquals(edgeConfig, second.getConfiguration());
+		assertEquals(identityMap, second.getIdentityMap());
+	}
+
+	@Test
+	public void testToFromDataEntity_withSnapshotStore() {
+		EdgeHitSnapshotStore snapshotStore = new EdgeHitSnapshotStore(new FakeNamedCollection());
+
+		String data = new EdgeDataEntity(event, edgeConfig, identityMap).toDataEntity(snapshotStore).getData();
+		String otherData = new EdgeDataEntity(event, edgeConfig, identityMap).toDataEntity(snapshotStore).getData();
+		assertFalse(data.contains("edge.configId"));
+		assertFalse(data.contains("identityMap"));
+
+		EdgeDataEntity deserializedEntity = EdgeDataEntity.fromDataEntity(new DataEntity(data), snapshotStore);
+		assertNotNull(deserializedEntity);
+		assertEquals(edgeConfig, deserializedEntity.getConfiguration());
+		assertEquals(identityMap, deserializedEntity.getIdentityMap());
+
+		// snapshots cannot be read without the snapshot store
+		assertNull(EdgeDataEntity.fromDataEntity(new DataEntity(data)));
+
+		// snapshots are kept while referenced by other hits
+		deserializedEntity.releaseSnapshots(snapshotStore);
+		EdgeDataEntity otherEntity = EdgeDataEntity.fromDataEntity(new DataEntity(otherData), snapshotStore);
+		assertNotNull(otherEntity);
+		assertEquals(edgeConfig, otherEntity.getConfiguration());
+
+		otherEntity.releaseSnapshots(snapshotStore);
+		assertNull(EdgeDataEntity.fromDataEntity(new DataEntity(otherData), snapshotStore));
+	}
 }
@@ -12,6 +12,9 @@
 package com.adobe.marketing.mobile;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 import org.junit.Test;
 
@@ -210,4 +213,57 @@ public class EdgeEndpointTests {
 			(new EdgeEndpoint(EdgeNetworkService.RequestType.INTERACT, "prod", null, null, "")).getEndpoint()
 		);
 	}
+
+	@Test
+	public void testGet_sameSettings_returnsSameEdgeEndpoint() {
+		final EdgeEndpoint endpoint = EdgeEndpoint.get(
+			EdgeNetworkService.RequestType.INTERACT,
+			"prod",
+			"my.domain.com",
+			null,
+			"va6"
+		);
+
+		assertEquals("https://my.domain.com/ee/va6/v1/interact", endpoint.getEndpoint());
+		assertSame(
+			endpoint,
+			EdgeEndpoint.get(EdgeNetworkService.RequestType.INTERACT, "prod", "my.domain.com", null, "va6")
+		);
+		assertNotSame(
+			endpoint,
+			EdgeEndpoint.get(EdgeNetworkService.RequestType.INTERACT, "prod", "my.domain.com", null, "or2")
+		);
+	}
+
+	@Test
+	public void testGetUrlPrefix_appendsConfigId() {
+		final EdgeEndpoint endpoint = new EdgeEndpoint(EdgeNetworkService.RequestType.INTERACT, "prod", null, null, null);
+
+		assertEquals("https://edge.adobedc.net/ee/v1/interact?configId=123", endpoint.getUrlPrefix("123"));
+		assertSame(endpoint.getUrlPrefix("123"), endpoint.getUrlPrefix("123"));
+		assertEquals("https://edge.adobedc.net/ee/v1/interact?configId=456", endpoint.getUrlPrefix("456"));
+		assertEquals("https://edge.adobedc.net/ee/v1/interact?configId=123", endpoint.getUrlPrefix("123"));
+	}
+
+	@Test
+	public void testGetValidUrlPrefix_validUrl_returnsUrlPrefix() {
+		final EdgeEndpoint endpoint = new EdgeEndpoint(EdgeNetworkService.RequestType.INTERACT, "prod", null, null, null);
+
+		assertEquals("https://edge.adobedc.net/ee/v1/interact?configId=123", endpoint.getValidUrlPrefix("123"));
+		assertSame(endpoint.getUrlPrefix("123"), endpoint.getValidUrlPrefix("123"));
+	}
+
+	@Test
+	public void testGetValidUrlPrefix_malformedUrl_returnsNull() {
+		final EdgeEndpoint endpoint = new EdgeEndpoint(
+			EdgeNetworkService.RequestType.INTERACT,
+			"prod",
+			"my.domain.com:_80",
+			null,
+			null
+		);
+
+		assertNull(endpoint.getValidUrlPrefix("123"));
+		assertEquals("https://my.domain.com:_80/ee/v1/interact?configId=123", endpoint.getUrlPrefix("123"));
+	}
 }
@@ -28,8 +28,12 @@ import static org.mockito.Mockito.when;
 import com.adobe.marketing.mobile.services.DataEntity;
 import com.adobe.marketing.mobile.services.HitQueuing;
 import com.adobe.marketing.mobile.util.JSONUtils;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import org.json.JSONObject;
 import org.junit.Before;
 import org.junit.Test;
@@ -175,6 +179,32 @@ public class EdgeExtensionTest {
 		verifyGetSharedStateCalls(0, 0, 1);
 	}
 
+	@Test
+	public void testHandleExperienceEventRequest_whenCollectConsentNo_completesCallback() throws Exception {
+		mockSharedStates(
+			new SharedStateResult(SharedStateStatus.SET, configData),
+			new SharedStateResult(SharedStateStatus.SET, identityState),
+			new SharedStateResult(SharedStateStatus.SET, getConsentsData(ConsentStatus.NO))
+		);
+		final CountDownLatch latch = new CountDownLatch(1);
+		final List<EdgeEventHandle> receivedHandles = new ArrayList<>();
+		CompletionCallbacksManager
+			.getInstance()
+			.registerCallback(
+				event1.getUniqueIdentifier(),
+				handles -> {
+					receivedHandles.addAll(handles);
+					latch.countDown();
+				}
+			);
+
+		edgeExtension.handleExperienceEventRequest(event1);
+
+		//verify
+		assertTrue(latch.await(1, TimeUnit.SECONDS));
+		assertTrue(receivedHandles.isEmpty());
+	}
+
 	@Test
 	public void testHandleExperienceEventRequest_whenCollectConsentPending_queues() {
 		mockSharedStates(
@@ -274,7 +304,7 @@ public class EdgeExtensionTest {
 	}
 
 	@Test
-	public void testProcessAndQueueEvent_whenConfigIdMissing_dropsEvent() {
+	public void testProcessAndQueueEvent_whenConfigIdMissing_dropsEvent_andCompletesCallback() throws Exception {
 		mockSharedStates(
 			new SharedStateResult(
 				SharedStateStatus.SET,
@@ -288,10 +318,14 @@ public class EdgeExtensionTest {
 			null
 		);
 
+		final CountDownLatch latch = new CountDownLatch(1);
+		CompletionCallbacksManager.getInstance().registerCallback(event1.getUniqueIdentifier(), handles -> latch.countDown());
+
 		edgeExtension.processAndQueueEvent(event1);
 
 		//verify
 		verify(mockQueue, never()).queue(any(DataEntity.class));
+		assertTrue(latch.await(1, TimeUnit.SECONDS));
 	}
 
 	// Tests for void handleConsentPreferencesUpdate(final Event event)
@@ -444,6 +478,24 @@ public class EdgeExtensionTest {
 		assertTrue(edgeExtension.readyForEvent(event1));
 	}
 
+	@Test
+	public void testReadyForEvent_thenHandleExperienceEventRequest_resolvesSharedStatesOnce() {
+		// setup: mock hub shared state for bootupIfNeeded
+		mockHubSharedState(new SharedStateResult(SharedStateStatus.SET, getHubExtensions(true)));
+		mockSharedStates(
+			new SharedStateResult(SharedStateStatus.SET, configData),
+			new SharedStateResult(SharedStateStatus.SET, identityState),
+			new SharedStateResult(SharedStateStatus.SET, getConsentsData(ConsentStatus.YES))
+		);
+
+		assertTrue(edgeExtension.readyForEvent(event1));
+		edgeExtension.handleExperienceEventRequest(event1);
+
+		//verify
+		verifyEventQueued(event1);
+		verifyGetSharedStateCalls(1, 1, 1);
+	}
+
 	@Test
 	public void testReadyForEvent_unknownEvents_returnsTrue() {
 		// setup: mock hub shared state for bootupIfNeeded
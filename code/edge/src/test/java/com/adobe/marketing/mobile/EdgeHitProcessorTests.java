@@ -22,21 +22,32 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import com.adobe.marketing.mobile.services.DataEntity;
+import com.adobe.marketing.mobile.services.DataQueue;
 import com.adobe.marketing.mobile.services.NamedCollection;
 import com.adobe.marketing.mobile.util.MapUtils;
-import com.adobe.marketing.mobile.util.StringUtils;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import org.jetbrains.annotations.NotNull;
@@ -48,6 +59,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.invocation.InvocationOnMock;
@@ -318,6 +330,8 @@ public class EdgeHitProcessorTests {
 	private Map<String, Object> edgeConfig;
 	private Map<String, Object> assuranceSharedState;
 	private CountDownLatch latchOfOne;
+	// current time of the retry policy clock
+	private long currentTimeMillis = 1000000L;
 
 	private static MockedStatic<CompletionCallbacksManager> callbacksManagersMockedStatic;
 
@@ -333,6 +347,9 @@ public class EdgeHitProcessorTests {
 	@Mock
 	NamedCollection mockNamedCollection;
 
+	@Mock
+	DataQueue mockDataQueue;
+
 	@Before
 	public void setup() throws Exception {
 		callbacksManagersMockedStatic = mockStatic(CompletionCallbacksManager.class);
@@ -365,6 +382,9 @@ public class EdgeHitProcessorTests {
 					}
 				}
 			);
+		// process the responses on the calling thread to verify them synchronously
+		hitProcessor.setResponseExecutor(Runnable::run);
+		hitProcessor.setRetryPolicy(createRetryPolicy());
 		latchOfOne = new CountDownLatch(1);
 	}
 
@@ -422,11 +442,14 @@ public class EdgeHitProcessorTests {
 			null
 		);
 		final EdgeHit hit = new EdgeHit(configId, requestBody, endpoint);
-		when(mockEdgeNetworkService.buildUrl(endpoint, configId, hit.getRequestId())).thenReturn("https://test.com");
+		when(mockEdgeNetworkService.buildUrl(endpoint.getUrlPrefix(configId), hit.getRequestId()))
+			.thenReturn("https://test.com");
 		when(
 			mockEdgeNetworkService.doRequest(
 				anyString(),
-				anyString(),
+				any(byte[].class),
+				any(),
+				anyInt(),
 				ArgumentMatchers.anyMap(),
 				any(EdgeNetworkService.ResponseCallback.class)
 			)
@@ -453,7 +476,9 @@ public class EdgeHitProcessorTests {
 		verify(mockEdgeNetworkService);
 		mockEdgeNetworkService.doRequest(
 			anyString(),
-			anyString(),
+			any(byte[].class),
+			any(),
+			anyInt(),
 			ArgumentMatchers.anyMap(),
 			callbackArgCaptor.capture()
 		);
@@ -479,11 +504,14 @@ public class EdgeHitProcessorTests {
 			null
 		);
 		final EdgeHit hit = new EdgeHit(configId, requestBody, endpoint);
-		when(mockEdgeNetworkService.buildUrl(endpoint, configId, hit.getRequestId())).thenReturn("https://test.com");
+		when(mockEdgeNetworkService.buildUrl(endpoint.getUrlPrefix(configId), hit.getRequestId()))
+			.thenReturn("https://test.com");
 		when(
 			mockEdgeNetworkService.doRequest(
 				anyString(),
-				anyString(),
+				any(byte[].class),
+				any(),
+				anyInt(),
 				ArgumentMatchers.anyMap(),
 				any(EdgeNetworkService.ResponseCallback.class)
 			)
@@ -503,7 +531,9 @@ public class EdgeHitProcessorTests {
 		verify(mockEdgeNetworkService);
 		mockEdgeNetworkService.doRequest(
 			anyString(),
-			anyString(),
+			any(byte[].class),
+			any(),
+			anyInt(),
 			ArgumentMatchers.anyMap(),
 			callbackArgCaptor.capture()
 		);
@@ -531,7 +561,8 @@ public class EdgeHitProcessorTests {
 			null
 		);
 		final EdgeHit hit = new EdgeHit(configId, requestBody, endpoint);
-		when(mockEdgeNetworkService.buildUrl(endpoint, configId, hit.getRequestId())).thenReturn("https://test.com");
+		when(mockEdgeNetworkService.buildUrl(endpoint.getUrlPrefix(configId), hit.getRequestId()))
+			.thenReturn("https://test.com");
 		doCallRealMethod().when(mockNetworkResponseHandler).processResponseOnComplete(anyString());
 		when(mockNetworkResponseHandler.removeWaitingEvents(hit.getRequestId()))
 			.thenReturn(
@@ -549,7 +580,9 @@ public class EdgeHitProcessorTests {
 		when(
 			mockEdgeNetworkService.doRequest(
 				anyString(),
-				anyString(),
+				any(byte[].class),
+				any(),
+				anyInt(),
 				ArgumentMatchers.anyMap(),
 				any(EdgeNetworkService.ResponseCallback.class)
 			)
@@ -561,7 +594,9 @@ public class EdgeHitProcessorTests {
 		verify(mockEdgeNetworkService, times(1));
 		mockEdgeNetworkService.doRequest(
 			anyString(),
-			anyString(),
+			any(byte[].class),
+			any(),
+			anyInt(),
 			ArgumentMatchers.anyMap(),
 			callbackArgCaptor.capture()
 		);
@@ -573,7 +608,68 @@ public class EdgeHitProcessorTests {
 	}
 
 	@Test
-	public void testSendNetworkRequest_whenMalformedUrl_returnsTrue_doesNotSendNetworkRequest() {
+	public void testSendNetworkRequest_responseCallback_processesResponsesInOrderOnResponseExecutor() {
+		// setup
+		final String configId = "456";
+		final EdgeEndpoint endpoint = new EdgeEndpoint(
+			EdgeNetworkService.RequestType.INTERACT,
+			"prod",
+			null,
+			null,
+			null
+		);
+		final EdgeHit hit = new EdgeHit(configId, getOneEventJson(), endpoint);
+		when(mockEdgeNetworkService.buildUrl(endpoint.getUrlPrefix(configId), hit.getRequestId()))
+			.thenReturn("https://test.com");
+		when(
+			mockEdgeNetworkService.doRequest(
+				anyString(),
+				any(byte[].class),
+				any(),
+				anyInt(),
+				ArgumentMatchers.anyMap(),
+				any(EdgeNetworkService.ResponseCallback.class)
+			)
+		)
+			.thenReturn(new RetryResult(EdgeNetworkService.Retry.NO));
+		final List<Runnable> queuedTasks = new ArrayList<>();
+		hitProcessor.setResponseExecutor(queuedTasks::add);
+
+		// test
+		hitProcessor.sendNetworkRequest(null, hit, new HashMap<String, String>());
+
+		ArgumentCaptor<EdgeNetworkService.ResponseCallback> callbackArgCaptor = ArgumentCaptor.forClass(
+			EdgeNetworkService.ResponseCallback.class
+		);
+		verify(mockEdgeNetworkService, times(1))
+			.doRequest(
+				anyString(),
+				any(byte[].class),
+				any(),
+				anyInt(),
+				ArgumentMatchers.anyMap(),
+				callbackArgCaptor.capture()
+			);
+		callbackArgCaptor.getValue().onResponse("response1");
+		callbackArgCaptor.getValue().onError("error1");
+		callbackArgCaptor.getValue().onComplete();
+
+		// verify the network thread only queued the responses
+		assertEquals(3, queuedTasks.size());
+		verifyNoInteractions(mockNetworkResponseHandler);
+
+		for (final Runnable task : queuedTasks) {
+			task.run();
+		}
+
+		final InOrder inOrder = inOrder(mockNetworkResponseHandler);
+		inOrder.verify(mockNetworkResponseHandler).processResponseOnSuccess("response1", hit.getRequestId());
+		inOrder.verify(mockNetworkResponseHandler).processResponseOnError("error1", hit.getRequestId());
+		inOrder.verify(mockNetworkResponseHandler).processResponseOnComplete(hit.getRequestId());
+	}
+
+	@Test
+	public void testSendNetworkRequest_whenRetry_removesWaitingEvents() {
 		// setup
 		final String configId = "456";
 		final JSONObject requestBody = getOneEventJson();
@@ -585,28 +681,133 @@ public class EdgeHitProcessorTests {
 			null
 		);
 		final EdgeHit hit = new EdgeHit(configId, requestBody, endpoint);
-		when(mockEdgeNetworkService.buildUrl(endpoint, configId, hit.getRequestId()))
-			.thenReturn("https://www.adobe.com:_80/");
+		when(mockEdgeNetworkService.buildUrl(endpoint.getUrlPrefix(configId), hit.getRequestId()))
+			.thenReturn("https://test.com");
+		when(
+			mockEdgeNetworkService.doRequest(
+				anyString(),
+				any(byte[].class),
+				any(),
+				anyInt(),
+				ArgumentMatchers.anyMap(),
+				any(EdgeNetworkService.ResponseCallback.class)
+			)
+		)
+			.thenReturn(new RetryResult(EdgeNetworkService.Retry.YES));
 
+		// test
 		final boolean hitComplete = hitProcessor.sendNetworkRequest(null, hit, new HashMap<String, String>());
 
 		// verify
-		verify(mockEdgeNetworkService, never())
+		assertFalse(hitComplete);
+		// the retried request uses a new request id, the events registered for this request id are released
+		verify(mockNetworkResponseHandler, times(1)).removeWaitingEvents(hit.getRequestId());
+	}
+
+	@Test
+	public void testSendNetworkRequest_whenCircuitOpen_doesNotSendNetworkRequest_untilOpenIntervalElapsed() {
+		// setup
+		final RetryPolicy retryPolicy = createRetryPolicy();
+		final Map<String, Object> retryConfig = new HashMap<>();
+		retryConfig.put(EdgeConstants.SharedState.Configuration.EDGE_RETRY_FAILURE_THRESHOLD, 1);
+		retryConfig.put(EdgeConstants.SharedState.Configuration.EDGE_RETRY_OPEN_INTERVAL_SECONDS, 30);
+		retryPolicy.updateConfiguration(retryConfig);
+		hitProcessor.setRetryPolicy(retryPolicy);
+
+		final String configId = "456";
+		final EdgeEndpoint endpoint = new EdgeEndpoint(
+			EdgeNetworkService.RequestType.INTERACT,
+			"prod",
+			null,
+			null,
+			null
+		);
+		final EdgeHit hit = new EdgeHit(configId, getOneEventJson(), endpoint);
+		final DataEntity dataEntity = new DataEntity("entity1", new Date(), "{}");
+		when(mockEdgeNetworkService.buildUrl(endpoint.getUrlPrefix(configId), hit.getRequestId()))
+			.thenReturn("https://test.com");
+		when(
+			mockEdgeNetworkService.doRequest(
+				anyString(),
+				any(byte[].class),
+				any(),
+				anyInt(),
+				ArgumentMatchers.anyMap(),
+				any(EdgeNetworkService.ResponseCallback.class)
+			)
+		)
+			.thenReturn(new RetryResult(EdgeNetworkService.Retry.YES), new RetryResult(EdgeNetworkService.Retry.NO));
+
+		// test, the first failure opens the circuit
+		assertFalse(hitProcessor.sendNetworkRequest("entity1", hit, new HashMap<String, String>()));
+		assertEquals(30, hitProcessor.retryInterval(dataEntity));
+
+		currentTimeMillis += 10000;
+		assertFalse(hitProcessor.sendNetworkRequest("entity1", hit, new HashMap<String, String>()));
+		assertEquals(20, hitProcessor.retryInterval(dataEntity));
+		verify(mockEdgeNetworkService, times(1))
 			.doRequest(
 				anyString(),
+				any(byte[].class),
+				any(),
+				anyInt(),
+				ArgumentMatchers.anyMap(),
+				any(EdgeNetworkService.ResponseCallback.class)
+			);
+
+		// the probe request is sent once the open interval elapsed
+		currentTimeMillis += 20000;
+		assertTrue(hitProcessor.sendNetworkRequest("entity1", hit, new HashMap<String, String>()));
+		assertEquals(EdgeConstants.Defaults.RETRY_INTERVAL_SECONDS, hitProcessor.retryInterval(dataEntity));
+		verify(mockEdgeNetworkService, times(2))
+			.doRequest(
 				anyString(),
+				any(byte[].class),
+				any(),
+				anyInt(),
 				ArgumentMatchers.anyMap(),
 				any(EdgeNetworkService.ResponseCallback.class)
 			);
+	}
 
-		assertTrue(hitComplete);
+	@Test
+	public void testRetryInterval_returnsPauseOfHitEndpoint() {
+		// setup
+		final Map<String, Object> otherEdgeConfig = new HashMap<>(edgeConfig);
+		otherEdgeConfig.put("edge.environment", "pre-prod");
+		final DataEntity dataEntity = new EdgeDataEntity(getExperienceEvent(), edgeConfig, identityMap).toDataEntity();
+		final DataEntity otherDataEntity = new EdgeDataEntity(getExperienceEvent(), otherEdgeConfig, identityMap)
+			.toDataEntity();
+		when(mockEdgeNetworkService.buildUrl(anyString(), anyString()))
+			.thenReturn("https://test.com");
+		when(
+			mockEdgeNetworkService.doRequest(
+				anyString(),
+				any(byte[].class),
+				any(),
+				anyInt(),
+				ArgumentMatchers.anyMap(),
+				any(EdgeNetworkService.ResponseCallback.class)
+			)
+		)
+			.thenReturn(
+				new RetryResult(EdgeNetworkService.Retry.YES, 120),
+				new RetryResult(EdgeNetworkService.Retry.YES, 10)
+			);
+
+		// test, each hit waits for the pause of its own endpoint
+		hitProcessor.processHit(dataEntity, success -> assertFalse(success));
+		hitProcessor.processHit(otherDataEntity, success -> assertFalse(success));
+
+		// verify, the endpoint of the last head hit is kept, the one of other hits is read from the hit
+		assertEquals(10, hitProcessor.retryInterval(otherDataEntity));
+		assertEquals(120, hitProcessor.retryInterval(dataEntity));
 	}
 
 	@Test
-	public void testSendNetworkRequest_whenWrongScheme_returnsTrue_doesNotSendNetworkRequest() {
+	public void testSendNetworkRequest_whenEndpointPaused_doesNotSendNetworkRequest_untilRetryAfterElapsed() {
 		// setup
 		final String configId = "456";
-		final JSONObject requestBody = getOneEventJson();
 		final EdgeEndpoint endpoint = new EdgeEndpoint(
 			EdgeNetworkService.RequestType.INTERACT,
 			"prod",
@@ -614,21 +815,73 @@ public class EdgeHitProcessorTests {
 			null,
 			null
 		);
+		final EdgeHit hit = new EdgeHit(configId, getOneEventJson(), endpoint);
+		final EdgeHit otherHit = new EdgeHit(configId, getOneEventJson(), endpoint);
+		final DataEntity otherDataEntity = new DataEntity("entity2", new Date(), "{}");
+		when(mockEdgeNetworkService.buildUrl(eq(endpoint.getUrlPrefix(configId)), anyString()))
+			.thenReturn("https://test.com");
+		when(
+			mockEdgeNetworkService.doRequest(
+				anyString(),
+				any(byte[].class),
+				any(),
+				anyInt(),
+				ArgumentMatchers.anyMap(),
+				any(EdgeNetworkService.ResponseCallback.class)
+			)
+		)
+			.thenReturn(new RetryResult(EdgeNetworkService.Retry.YES, 120), new RetryResult(EdgeNetworkService.Retry.NO));
+
+		// test, the Retry-After interval pauses the other hits to the same endpoint
+		assertFalse(hitProcessor.sendNetworkRequest("entity1", hit, new HashMap<String, String>()));
+		assertFalse(hitProcessor.sendNetworkRequest("entity2", otherHit, new HashMap<String, String>()));
+		assertEquals(120, hitProcessor.retryInterval(otherDataEntity));
+		verify(mockNetworkResponseHandler, times(1)).removeWaitingEvents(otherHit.getRequestId());
+
+		currentTimeMillis += 120000;
+		assertTrue(hitProcessor.sendNetworkRequest("entity2", otherHit, new HashMap<String, String>()));
+		assertEquals(EdgeConstants.Defaults.RETRY_INTERVAL_SECONDS, hitProcessor.retryInterval(otherDataEntity));
+		verify(mockEdgeNetworkService, times(2))
+			.doRequest(
+				anyString(),
+				any(byte[].class),
+				any(),
+				anyInt(),
+				ArgumentMatchers.anyMap(),
+				any(EdgeNetworkService.ResponseCallback.class)
+			);
+	}
+
+	@Test
+	public void testSendNetworkRequest_whenMalformedUrl_returnsTrue_doesNotSendNetworkRequest() {
+		// setup
+		final String configId = "456";
+		final JSONObject requestBody = getOneEventJson();
+		final EdgeEndpoint endpoint = new EdgeEndpoint(
+			EdgeNetworkService.RequestType.INTERACT,
+			"prod",
+			"www.adobe.com:_80",
+			null,
+			null
+		);
 		final EdgeHit hit = new EdgeHit(configId, requestBody, endpoint);
-		when(mockEdgeNetworkService.buildUrl(endpoint, configId, hit.getRequestId())).thenReturn("http://test.com");
 
 		final boolean hitComplete = hitProcessor.sendNetworkRequest(null, hit, new HashMap<String, String>());
 
 		// verify
+		verify(mockEdgeNetworkService, never()).buildUrl(anyString(), anyString());
 		verify(mockEdgeNetworkService, never())
 			.doRequest(
 				anyString(),
-				anyString(),
+				any(byte[].class),
+				any(),
+				anyInt(),
 				ArgumentMatchers.anyMap(),
 				any(EdgeNetworkService.ResponseCallback.class)
 			);
 
 		assertTrue(hitComplete);
+		verify(mockNetworkResponseHandler, times(1)).removeWaitingEvents(hit.getRequestId());
 	}
 
 	@Test
@@ -694,6 +947,72 @@ public class EdgeHitProcessorTests {
 		assertProcessHit(entity, true, true);
 	}
 
+	@Test
+	public void testProcessHit_compressionNotConfigured_sendsNetworkRequestWithCompressionDisabled() {
+		// setup
+		mockNetworkServiceResponse("https://test.com", new RetryResult(EdgeNetworkService.Retry.NO));
+		DataEntity dataEntity = new EdgeDataEntity(getExperienceEvent(), edgeConfig, identityMap).toDataEntity();
+
+		// test
+		assertProcessHitResult(dataEntity, true);
+
+		// verify
+		verify(mockEdgeNetworkService, times(1))
+			.doRequest(
+				anyString(),
+				any(byte[].class),
+				any(),
+				eq(0),
+				ArgumentMatchers.anyMap(),
+				any(EdgeNetworkService.ResponseCallback.class)
+			);
+	}
+
+	@Test
+	public void testProcessHit_compressionEnabled_sendsNetworkRequestWithDefaultCompressionMinBytes() {
+		// setup
+		mockNetworkServiceResponse("https://test.com", new RetryResult(EdgeNetworkService.Retry.NO));
+		edgeConfig.put("edge.compression.enabled", true);
+		DataEntity dataEntity = new EdgeDataEntity(getConsentEvent(), edgeConfig, identityMap).toDataEntity();
+
+		// test
+		assertProcessHitResult(dataEntity, true);
+
+		// verify
+		verify(mockEdgeNetworkService, times(1))
+			.doRequest(
+				anyString(),
+				any(byte[].class),
+				any(),
+				eq(EdgeConstants.Defaults.COMPRESSION_MIN_BYTES),
+				ArgumentMatchers.anyMap(),
+				any(EdgeNetworkService.ResponseCallback.class)
+			);
+	}
+
+	@Test
+	public void testProcessHit_compressionEnabled_withMinBytes_sendsNetworkRequestWithConfiguredCompressionMinBytes() {
+		// setup
+		mockNetworkServiceResponse("https://test.com", new RetryResult(EdgeNetworkService.Retry.NO));
+		edgeConfig.put("edge.compression.enabled", true);
+		edgeConfig.put("edge.compression.minBytes", 4096);
+		DataEntity dataEntity = new EdgeDataEntity(getExperienceEvent(), edgeConfig, identityMap).toDataEntity();
+
+		// test
+		assertProcessHitResult(dataEntity, true);
+
+		// verify
+		verify(mockEdgeNetworkService, times(1))
+			.doRequest(
+				anyString(),
+				any(byte[].class),
+				any(),
+				eq(4096),
+				ArgumentMatchers.anyMap(),
+				any(EdgeNetworkService.ResponseCallback.class)
+			);
+	}
+
 	@Test
 	public void testProcessHit_experienceEvent_sendsNetworkRequest_retryResponse_returnsFalse() {
 		// setup
@@ -746,10 +1065,14 @@ public class EdgeHitProcessorTests {
 		// Tests that when a good hit is processed that a network request is made and the request returns 200
 
 		// setup
-		EdgeDataEntity entity = new EdgeDataEntity(getExperienceEvent(), null, identityMap);
+		final Event event = getExperienceEvent();
+		EdgeDataEntity entity = new EdgeDataEntity(event, null, identityMap);
 
 		// test
 		assertProcessHit(entity, false, true);
+
+		// verify the callback of the dropped event is completed
+		verify(mockResponseCallbackHandler, times(1)).unregisterCallback(event.getUniqueIdentifier());
 	}
 
 	@Test
@@ -1130,7 +1453,8 @@ public class EdgeHitProcessorTests {
 		// verify retry interval was set
 		assertEquals(retryInterval, hitProcessor.retryInterval(dataEntity));
 
-		// Now send hit again but return NO retry and success result
+		// Now send hit again once the retry interval elapsed but return NO retry and success result
+		currentTimeMillis += retryInterval * 1000L;
 		mockNetworkServiceResponse("https://test.com", new RetryResult(EdgeNetworkService.Retry.NO));
 
 		assertProcessHitResult(dataEntity, true); // retry is NO so processHit should return true
@@ -1170,18 +1494,21 @@ public class EdgeHitProcessorTests {
 			);
 		assertProcessHitResult(dataEntity, true);
 
-		ArgumentCaptor<String> payloadCaptor = ArgumentCaptor.forClass(String.class);
+		ArgumentCaptor<byte[]> payloadCaptor = ArgumentCaptor.forClass(byte[].class);
 		verify(mockEdgeNetworkService, times(1))
 			.doRequest(
 				anyString(),
 				payloadCaptor.capture(),
+				any(),
+				anyInt(),
 				ArgumentMatchers.anyMap(),
 				any(EdgeNetworkService.ResponseCallback.class)
 			);
 
-		assertTrue(payloadCaptor.getValue().contains("implementationdetails"));
+		String payload = new String(payloadCaptor.getValue(), StandardCharsets.UTF_8);
+		assertTrue(payload.contains("implementationdetails"));
 
-		JSONObject requestJson = new JSONObject(payloadCaptor.getValue());
+		JSONObject requestJson = new JSONObject(payload);
 		assertNotNull(requestJson);
 		JSONObject xdmJson = requestJson.getJSONObject("xdm");
 		assertNotNull(xdmJson);
@@ -1206,16 +1533,19 @@ public class EdgeHitProcessorTests {
 		// test
 		assertProcessHitResult(dataEntity, true);
 
-		ArgumentCaptor<String> payloadCaptor = ArgumentCaptor.forClass(String.class);
+		ArgumentCaptor<byte[]> payloadCaptor = ArgumentCaptor.forClass(byte[].class);
 		verify(mockEdgeNetworkService, times(1))
 			.doRequest(
 				anyString(),
 				payloadCaptor.capture(),
+				any(),
+				anyInt(),
 				ArgumentMatchers.anyMap(),
 				any(EdgeNetworkService.ResponseCallback.class)
 			);
 
-		assertFalse(payloadCaptor.getValue().contains("implementationdetails"));
+		String payload = new String(payloadCaptor.getValue(), StandardCharsets.UTF_8);
+		assertFalse(payload.contains("implementationdetails"));
 	}
 
 	@Test
@@ -1263,16 +1593,19 @@ public class EdgeHitProcessorTests {
 			fail("No HitProcessingResult was received for hitProcessor.processHit");
 		}
 
-		ArgumentCaptor<String> payloadCaptor = ArgumentCaptor.forClass(String.class);
+		ArgumentCaptor<byte[]> payloadCaptor = ArgumentCaptor.forClass(byte[].class);
 		verify(mockEdgeNetworkService, times(1))
 			.doRequest(
 				anyString(),
 				payloadCaptor.capture(),
+				any(),
+				anyInt(),
 				ArgumentMatchers.anyMap(),
 				any(EdgeNetworkService.ResponseCallback.class)
 			);
 
-		assertFalse(payloadCaptor.getValue().contains("implementationdetails"));
+		String payload = new String(payloadCaptor.getValue(), StandardCharsets.UTF_8);
+		assertFalse(payload.contains("implementationdetails"));
 	}
 
 	@Test
@@ -1351,8 +1684,431 @@ public class EdgeHitProcessorTests {
 		assertProcessHit(entity, true, true);
 	}
 
+	// Test request batching of queued Experience Events
+
+	@Test
+	public void testProcessHit_batchingDisabledByDefault_doesNotPeekQueue() {
+		hitProcessor = createBatchingHitProcessor();
+
+		EdgeDataEntity entity = new EdgeDataEntity(getExperienceEvent(), edgeConfig, identityMap);
+
+		assertProcessHit(entity, true, true);
+		verify(mockDataQueue, never()).peek(anyInt());
+		verify(mockDataQueue, never()).remove(anyInt());
+	}
+
+	@Test
+	public void testProcessHit_batchingEnabled_sendsConsecutiveExperienceEventsInOneRequest() throws Exception {
+		hitProcessor = createBatchingHitProcessor();
+		edgeConfig.put("edge.batch.maxEvents", 3);
+
+		DataEntity first = new EdgeDataEntity(getExperienceEvent(), edgeConfig, identityMap).toDataEntity();
+		DataEntity second = new EdgeDataEntity(getExperienceEvent(), edgeConfig, identityMap).toDataEntity();
+		DataEntity third = new EdgeDataEntity(getExperienceEvent(), edgeConfig, identityMap).toDataEntity();
+		when(mockDataQueue.peek(anyInt())).thenReturn(Arrays.asList(first, second, third));
+		mockNetworkServiceResponse("https://test.com", new RetryResult(EdgeNetworkService.Retry.NO));
+
+		assertProcessHitResult(first, true);
+
+		ArgumentCaptor<byte[]> payloadCaptor = ArgumentCaptor.forClass(byte[].class);
+		verify(mockEdgeNetworkService, times(1))
+			.doRequest(
+				anyString(),
+				payloadCaptor.capture(),
+				any(),
+				anyInt(),
+				ArgumentMatchers.anyMap(),
+				any(EdgeNetworkService.ResponseCallback.class)
+			);
+		String payload = new String(payloadCaptor.getValue(), StandardCharsets.UTF_8);
+		assertEquals(3, new JSONObject(payload).getJSONArray("events").length());
+
+		ArgumentCaptor<List<Event>> eventsCaptor = ArgumentCaptor.forClass(List.class);
+		verify(mockNetworkResponseHandler, times(1)).addWaitingEvents(anyString(), eventsCaptor.capture());
+		assertEquals(3, eventsCaptor.getValue().size());
+
+		// the hit queue removes the processed hit, the other two are removed by the hit processor
+		verify(mockDataQueue, times(1)).remove(2);
+	}
+
+	@Test
+	public void testProcessHit_batchingEnabled_queueClearedDuringRequest_doesNotRemoveNewHits() {
+		hitProcessor = createBatchingHitProcessor();
+		edgeConfig.put("edge.batch.maxEvents", 3);
+
+		DataEntity first = new EdgeDataEntity(getExperienceEvent(), edgeConfig, identityMap).toDataEntity();
+		DataEntity second = new EdgeDataEntity(getExperienceEvent(), edgeConfig, identityMap).toDataEntity();
+		DataEntity third = new EdgeDataEntity(getExperienceEvent(), edgeConfig, identityMap).toDataEntity();
+		DataEntity queuedAfterClear = new EdgeDataEntity(getExperienceEvent(), edgeConfig, identityMap)
+			.toDataEntity();
+		when(mockDataQueue.peek(anyInt()))
+			.thenReturn(Arrays.asList(first, second, third), Collections.singletonList(queuedAfterClear));
+		mockNetworkServiceResponse("https://test.com", new RetryResult(EdgeNetworkService.Retry.NO));
+
+		assertProcessHitResult(first, true);
+
+		assertWaitingEventsCount(3);
+		verify(mockDataQueue, never()).remove(anyInt());
+	}
+
+	@Test
+	public void testProcessHit_batchingEnabled_stopsAtConsentEvent() {
+		hitProcessor = createBatchingHitProcessor();
+		edgeConfig.put("edge.batch.maxEvents", 3);
+
+		DataEntity first = new EdgeDataEntity(getExperienceEvent(), edgeConfig, identityMap).toDataEntity();
+		DataEntity second = new EdgeDataEntity(getConsentEvent(), edgeConfig, identityMap).toDataEntity();
+		DataEntity third = new EdgeDataEntity(getExperienceEvent(), edgeConfig, identityMap).toDataEntity();
+		when(mockDataQueue.peek(anyInt())).thenReturn(Arrays.asList(first, second, third));
+		mockNetworkServiceResponse("https://test.com", new RetryResult(EdgeNetworkService.Retry.NO));
+
+		assertProcessHitResult(first, true);
+
+		assertWaitingEventsCount(1);
+		verify(mockDataQueue, never()).remove(anyInt());
+	}
+
+	@Test
+	public void testProcessHit_batchingEnabled_stopsAtDifferentIdentityMap() {
+		hitProcessor = createBatchingHitProcessor();
+		edgeConfig.put("edge.batch.maxEvents", 3);
+
+		DataEntity first = new EdgeDataEntity(getExperienceEvent(), edgeConfig, identityMap).toDataEntity();
+		DataEntity second = new EdgeDataEntity(getExperienceEvent(), edgeConfig, identityMap).toDataEntity();
+		DataEntity third = new EdgeDataEntity(getExperienceEvent(), edgeConfig, null).toDataEntity();
+		when(mockDataQueue.peek(anyInt())).thenReturn(Arrays.asList(first, second, third));
+		mockNetworkServiceResponse("https://test.com", new RetryResult(EdgeNetworkService.Retry.NO));
+
+		assertProcessHitResult(first, true);
+
+		assertWaitingEventsCount(2);
+		verify(mockDataQueue, times(1)).remove(1);
+	}
+
+	@Test
+	public void testProcessHit_batchingEnabled_stopsAtDifferentRequestPath() {
+		hitProcessor = createBatchingHitProcessor();
+		edgeConfig.put("edge.batch.maxEvents", 3);
+
+		DataEntity first = new EdgeDataEntity(getExperienceEvent(), edgeConfig, identityMap).toDataEntity();
+		DataEntity second = new EdgeDataEntity(
+			getExperienceEventWithOverwritePath(OVERWRITE_PATH),
+			edgeConfig,
+			identityMap
+		)
+			.toDataEntity();
+		when(mockDataQueue.peek(anyInt())).thenReturn(Arrays.asList(first, second));
+		mockNetworkServiceResponse("https://test.com", new RetryResult(EdgeNetworkService.Retry.NO));
+
+		assertProcessHitResult(first, true);
+
+		assertWaitingEventsCount(1);
+		verify(mockDataQueue, never()).remove(anyInt());
+	}
+
+	@Test
+	public void testProcessHit_batchingEnabled_respectsMaxBytes() {
+		hitProcessor = createBatchingHitProcessor();
+		edgeConfig.put("edge.batch.maxEvents", 3);
+
+		edgeConfig.put("edge.batch.maxBytes", 100000);
+		DataEntity first = new EdgeDataEntity(getExperienceEvent(), edgeConfig, identityMap).toDataEntity();
+		// allow room for two hits only
+		edgeConfig.put("edge.batch.maxBytes", first.getData().length() * 2 + 10);
+		first = new EdgeDataEntity(getExperienceEvent(), edgeConfig, identityMap).toDataEntity();
+		DataEntity second = new EdgeDataEntity(getExperienceEvent(), edgeConfig, identityMap).toDataEntity();
+		DataEntity third = new EdgeDataEntity(getExperienceEvent(), edgeConfig, identityMap).toDataEntity();
+		when(mockDataQueue.peek(anyInt())).thenReturn(Arrays.asList(first, second, third));
+		mockNetworkServiceResponse("https://test.com", new RetryResult(EdgeNetworkService.Retry.NO));
+
+		assertProcessHitResult(first, true);
+
+		assertWaitingEventsCount(2);
+		verify(mockDataQueue, times(1)).remove(1);
+	}
+
+	@Test
+	public void testProcessHit_batchingEnabled_processedHitNotQueueHead_doesNotBatch() {
+		hitProcessor = createBatchingHitProcessor();
+		edgeConfig.put("edge.batch.maxEvents", 3);
+
+		DataEntity first = new EdgeDataEntity(getExperienceEvent(), edgeConfig, identityMap).toDataEntity();
+		DataEntity second = new EdgeDataEntity(getExperienceEvent(), edgeConfig, identityMap).toDataEntity();
+		when(mockDataQueue.peek(anyInt())).thenReturn(Arrays.asList(second, first));
+		mockNetworkServiceResponse("https://test.com", new RetryResult(EdgeNetworkService.Retry.NO));
+
+		assertProcessHitResult(first, true);
+
+		assertWaitingEventsCount(1);
+		verify(mockDataQueue, never()).remove(anyInt());
+	}
+
+	@Test
+	public void testProcessHit_batchingEnabled_retryResponse_doesNotRemoveBatchedHits() {
+		hitProcessor = createBatchingHitProcessor();
+		edgeConfig.put("edge.batch.maxEvents", 2);
+
+		DataEntity first = new EdgeDataEntity(getExperienceEvent(), edgeConfig, identityMap).toDataEntity();
+		DataEntity second = new EdgeDataEntity(getExperienceEvent(), edgeConfig, identityMap).toDataEntity();
+		when(mockDataQueue.peek(anyInt())).thenReturn(Arrays.asList(first, second));
+		mockNetworkServiceResponse("https://test.com", new RetryResult(EdgeNetworkService.Retry.YES));
+
+		assertProcessHitResult(first, false);
+
+		assertWaitingEventsCount(2);
+		verify(mockDataQueue, never()).remove(anyInt());
+	}
+
+	// Test pipelining of queued Experience Event requests
+
+	@Test
+	public void testProcessHit_pipeliningEnabled_sendsConsecutiveRequests() {
+		hitProcessor = createBatchingHitProcessor();
+		edgeConfig.put("edge.pipeline.maxInFlight", 3);
+
+		DataEntity first = new EdgeDataEntity(getExperienceEvent(), edgeConfig, identityMap).toDataEntity();
+		DataEntity second = new EdgeDataEntity(getExperienceEvent(), edgeConfig, identityMap).toDataEntity();
+		DataEntity third = new EdgeDataEntity(
+			getExperienceEventWithConfig("otherDatastreamId", null),
+			edgeConfig,
+			identityMap
+		)
+			.toDataEntity();
+		when(mockDataQueue.peek(anyInt())).thenReturn(Arrays.asList(first, second, third));
+		mockNetworkServiceResponse("https://test.com", new RetryResult(EdgeNetworkService.Retry.NO));
+
+		assertProcessHitResult(first, true);
+
+		verify(mockEdgeNetworkService, times(3))
+			.doRequest(
+				anyString(),
+				any(byte[].class),
+				any(),
+				anyInt(),
+				ArgumentMatchers.anyMap(),
+				any(EdgeNetworkService.ResponseCallback.class)
+			);
+		verify(mockNetworkResponseHandler, times(3)).addWaitingEvents(anyString(), ArgumentMatchers.anyList());
+		// the hit queue removes the processed hit, the other two are removed by the hit processor
+		verify(mockDataQueue, times(1)).remove(2);
+	}
+
+	@Test
+	public void testProcessHit_pipeliningEnabled_stopsAtConsentEvent() {
+		hitProcessor = createBatchingHitProcessor();
+		edgeConfig.put("edge.pipeline.maxInFlight", 3);
+
+		DataEntity first = new EdgeDataEntity(getExperienceEvent(), edgeConfig, identityMap).toDataEntity();
+		DataEntity second = new EdgeDataEntity(getConsentEvent(), edgeConfig, identityMap).toDataEntity();
+		DataEntity third = new EdgeDataEntity(getExperienceEvent(), edgeConfig, identityMap).toDataEntity();
+		when(mockDataQueue.peek(anyInt())).thenReturn(Arrays.asList(first, second, third));
+		mockNetworkServiceResponse("https://test.com", new RetryResult(EdgeNetworkService.Retry.NO));
+
+		assertProcessHitResult(first, true);
+
+		assertWaitingEventsCount(1);
+		verify(mockDataQueue, never()).remove(anyInt());
+	}
+
+	@Test
+	public void testProcessHit_pipeliningEnabled_sameDatastream_stopsAfterFailedRequest() {
+		hitProcessor = createBatchingHitProcessor();
+		edgeConfig.put("edge.pipeline.maxInFlight", 2);
+
+		DataEntity first = new EdgeDataEntity(getExperienceEvent(), edgeConfig, identityMap).toDataEntity();
+		DataEntity second = new EdgeDataEntity(getExperienceEvent(), edgeConfig, identityMap).toDataEntity();
+		when(mockDataQueue.peek(anyInt())).thenReturn(Arrays.asList(first, second));
+		mockNetworkServiceResponse("https://test.com", new RetryResult(EdgeNetworkService.Retry.YES));
+
+		assertProcessHitResult(first, false);
+
+		// the second request is not sent ahead of the failed request to the same datastream
+		assertWaitingEventsCount(1);
+		verify(mockDataQueue, never()).remove(anyInt());
+	}
+
+	@Test
+	public void testProcessHit_pipeliningEnabled_failedRequestAfterSuccessfulRequest_retriedAfterInterval() {
+		hitProcessor = createBatchingHitProcessor();
+		edgeConfig.put("edge.pipeline.maxInFlight", 2);
+
+		DataEntity first = new EdgeDataEntity(getExperienceEvent(), edgeConfig, identityMap).toDataEntity();
+		DataEntity second = new EdgeDataEntity(getExperienceEvent(), edgeConfig, identityMap).toDataEntity();
+		when(mockDataQueue.peek(anyInt())).thenReturn(Arrays.asList(first, second));
+		when(mockEdgeNetworkService.buildUrl(anyString(), anyString()))
+			.thenReturn("https://test.com");
+		when(
+			mockEdgeNetworkService.doRequest(
+				anyString(),
+				any(byte[].class),
+				any(),
+				anyInt(),
+				ArgumentMatchers.anyMap(),
+				any(EdgeNetworkService.ResponseCallback.class)
+			)
+		)
+			.thenReturn(
+				new RetryResult(EdgeNetworkService.Retry.NO),
+				new RetryResult(EdgeNetworkService.Retry.YES),
+				new RetryResult(EdgeNetworkService.Retry.NO)
+			);
+
+		assertProcessHitResult(first, true);
+		verify(mockDataQueue, never()).remove(anyInt());
+
+		// the failed hit is reported for retry without sending it again
+		latchOfOne = new CountDownLatch(1);
+		assertProcessHitResult(second, false);
+		verify(mockNetworkResponseHandler, times(2)).addWaitingEvents(anyString(), ArgumentMatchers.anyList());
+
+		// then sent once its retry interval elapsed
+		currentTimeMillis += hitProcessor.retryInterval(second) * 1000L;
+		latchOfOne = new CountDownLatch(1);
+		assertProcessHitResult(second, true);
+		verify(mockNetworkResponseHandler, times(3)).addWaitingEvents(anyString(), ArgumentMatchers.anyList());
+	}
+
+	@Test
+	public void testProcessHit_pipeliningEnabled_successfulRequestAfterFailedRequest_persistsSentHit() {
+		hitProcessor = createBatchingHitProcessor();
+		edgeConfig.put("edge.pipeline.maxInFlight", 2);
+
+		DataEntity first = new EdgeDataEntity(getExperienceEvent(), edgeConfig, identityMap).toDataEntity();
+		DataEntity second = new EdgeDataEntity(
+			getExperienceEventWithConfig("otherDatastreamId", null),
+			edgeConfig,
+			identityMap
+		)
+			.toDataEntity();
+		when(mockDataQueue.peek(anyInt())).thenReturn(Arrays.asList(first, second));
+		when(mockEdgeNetworkService.buildUrl(endsWith("configId=works"), anyString()))
+			.thenReturn("https://test.com");
+		when(mockEdgeNetworkService.buildUrl(endsWith("configId=otherDatastreamId"), anyString()))
+			.thenReturn("https://other.test.com");
+		// the request to the other datastream is sent before the request of the first hit fails
+		final CountDownLatch otherRequestSent = new CountDownLatch(1);
+		when(
+			mockEdgeNetworkService.doRequest(
+				eq("https://test.com"),
+				any(byte[].class),
+				any(),
+				anyInt(),
+				ArgumentMatchers.anyMap(),
+				any(EdgeNetworkService.ResponseCallback.class)
+			)
+		)
+			.thenAnswer(invocation -> {
+				otherRequestSent.await(1, TimeUnit.SECONDS);
+				return new RetryResult(EdgeNetworkService.Retry.YES);
+			});
+		when(
+			mockEdgeNetworkService.doRequest(
+				eq("https://other.test.com"),
+				any(byte[].class),
+				any(),
+				anyInt(),
+				ArgumentMatchers.anyMap(),
+				any(EdgeNetworkService.ResponseCallback.class)
+			)
+		)
+			.thenAnswer(invocation -> {
+				otherRequestSent.countDown();
+				return new RetryResult(EdgeNetworkService.Retry.NO);
+			});
+
+		assertProcessHitResult(first, false);
+
+		// the hit sent behind the failed request is persisted
+		final Map<String, String> sentHits = new HashMap<>();
+		sentHits.put(second.getUniqueIdentifier(), "");
+		verify(mockNamedCollection, times(1)).setMap("pipelineSentHits", sentHits);
+
+		// and removed without sending it again after a relaunch
+		when(mockNamedCollection.getMap("pipelineSentHits")).thenReturn(sentHits);
+		when(mockDataQueue.count()).thenReturn(1);
+		when(mockDataQueue.peek(anyInt())).thenReturn(Collections.singletonList(second));
+		hitProcessor = createBatchingHitProcessor();
+		latchOfOne = new CountDownLatch(1);
+		assertProcessHitResult(second, true);
+
+		verify(mockEdgeNetworkService, times(2))
+			.doRequest(
+				anyString(),
+				any(byte[].class),
+				any(),
+				anyInt(),
+				ArgumentMatchers.anyMap(),
+				any(EdgeNetworkService.ResponseCallback.class)
+			);
+		verify(mockNamedCollection, times(1)).remove("pipelineSentHits");
+	}
+
+	@Test
+	public void testProcessHit_persistedSentHits_queueEmpty_discardsSentHits() {
+		final Map<String, String> sentHits = new HashMap<>();
+		sentHits.put("removedEntityId", "");
+		when(mockNamedCollection.getMap("pipelineSentHits")).thenReturn(sentHits);
+		when(mockDataQueue.count()).thenReturn(0);
+		hitProcessor = createBatchingHitProcessor();
+		edgeConfig.put("edge.pipeline.maxInFlight", 2);
+
+		DataEntity first = new EdgeDataEntity(getExperienceEvent(), edgeConfig, identityMap).toDataEntity();
+		when(mockDataQueue.peek(anyInt())).thenReturn(Collections.singletonList(first));
+		mockNetworkServiceResponse("https://test.com", new RetryResult(EdgeNetworkService.Retry.NO));
+
+		assertProcessHitResult(first, true);
+
+		verify(mockNamedCollection, times(1)).remove("pipelineSentHits");
+	}
+
+	@Test
+	public void testProcessHit_pipeliningEnabled_afterClose_sendsRequests() {
+		hitProcessor = createBatchingHitProcessor();
+		edgeConfig.put("edge.pipeline.maxInFlight", 2);
+
+		DataEntity first = new EdgeDataEntity(getExperienceEvent(), edgeConfig, identityMap).toDataEntity();
+		DataEntity second = new EdgeDataEntity(
+			getExperienceEventWithConfig("otherDatastreamId", null),
+			edgeConfig,
+			identityMap
+		)
+			.toDataEntity();
+		when(mockDataQueue.peek(anyInt())).thenReturn(Arrays.asList(first, second));
+		mockNetworkServiceResponse("https://test.com", new RetryResult(EdgeNetworkService.Retry.NO));
+
+		assertProcessHitResult(first, true);
+		hitProcessor.close();
+		latchOfOne = new CountDownLatch(1);
+		assertProcessHitResult(first, true);
+
+		verify(mockNetworkResponseHandler, times(4)).addWaitingEvents(anyString(), ArgumentMatchers.anyList());
+	}
+
 	//************************************************** Utils **************************************************
 
+	private EdgeHitProcessor createBatchingHitProcessor() {
+		final EdgeHitProcessor batchingHitProcessor = new EdgeHitProcessor(
+			mockNetworkResponseHandler,
+			mockEdgeNetworkService,
+			mockNamedCollection,
+			mockSharedStateCallback,
+			null,
+			mockDataQueue
+		);
+		batchingHitProcessor.setRetryPolicy(createRetryPolicy());
+		return batchingHitProcessor;
+	}
+
+	private RetryPolicy createRetryPolicy() {
+		return new RetryPolicy(() -> currentTimeMillis, new Random());
+	}
+
+	private void assertWaitingEventsCount(final int expectedCount) {
+		ArgumentCaptor<List<Event>> eventsCaptor = ArgumentCaptor.forClass(List.class);
+		verify(mockNetworkResponseHandler, times(1)).addWaitingEvents(anyString(), eventsCaptor.capture());
+		assertEquals(expectedCount, eventsCaptor.getValue().size());
+	}
+
 	void assertProcessHitResult(@NotNull final DataEntity entity, final boolean expectedHitProcessingResult) {
 		hitProcessor.processHit(
 			entity,
@@ -1428,7 +2184,14 @@ public class EdgeHitProcessorTests {
 				EdgeNetworkService.ResponseCallback.class
 			);
 			verify(mockEdgeNetworkService, times(1))
-				.doRequest(anyString(), anyString(), headersCaptor.capture(), callbackArgCaptor.capture());
+				.doRequest(
+					anyString(),
+					any(byte[].class),
+					any(),
+					anyInt(),
+					headersCaptor.capture(),
+					callbackArgCaptor.capture()
+				);
 
 			if (withHeaders == null || withHeaders.isEmpty()) {
 				assertEquals(0, headersCaptor.getValue().size());
@@ -1441,7 +2204,9 @@ public class EdgeHitProcessorTests {
 			verify(mockEdgeNetworkService, never())
 				.doRequest(
 					anyString(),
-					anyString(),
+					any(byte[].class),
+					any(),
+					anyInt(),
 					ArgumentMatchers.anyMap(),
 					any(EdgeNetworkService.ResponseCallback.class)
 				);
@@ -1449,16 +2214,14 @@ public class EdgeHitProcessorTests {
 	}
 
 	private void mockNetworkServiceResponse(final String returnBuildUrl, final RetryResult returnRetry) {
-		ArgumentCaptor<String> datastreamIdCaptor = ArgumentCaptor.forClass(String.class);
+		ArgumentCaptor<String> urlPrefixCaptor = ArgumentCaptor.forClass(String.class);
 
-		when(mockEdgeNetworkService.buildUrl(any(EdgeEndpoint.class), datastreamIdCaptor.capture(), anyString()))
+		when(mockEdgeNetworkService.buildUrl(urlPrefixCaptor.capture(), anyString()))
 			.thenAnswer(
 				new Answer<Object>() {
 					public Object answer(InvocationOnMock invocation) {
-						String capturedDatastreamId = datastreamIdCaptor.getValue();
-						return StringUtils.isNullOrEmpty(capturedDatastreamId)
-							? returnBuildUrl
-							: returnBuildUrl + "?configId=" + capturedDatastreamId;
+						String capturedUrlPrefix = urlPrefixCaptor.getValue();
+						return returnBuildUrl + capturedUrlPrefix.substring(capturedUrlPrefix.indexOf('?'));
 					}
 				}
 			);
@@ -1467,7 +2230,9 @@ public class EdgeHitProcessorTests {
 		when(
 			mockEdgeNetworkService.doRequest(
 				anyString(),
-				anyString(),
+				any(byte[].class),
+				any(),
+				anyInt(),
 				ArgumentMatchers.anyMap(),
 				any(EdgeNetworkService.ResponseCallback.class)
 			)
@@ -1493,7 +2258,7 @@ public class EdgeHitProcessorTests {
 			edgeConfig.put("edge.domain", domain);
 		}
 
-		when(mockEdgeNetworkService.buildUrl(any(EdgeEndpoint.class), anyString(), anyString()))
+		when(mockEdgeNetworkService.buildUrl(anyString(), anyString()))
 			.thenReturn("https://test.com");
 
 		DataEntity dataEntity = new EdgeDataEntity(event, edgeConfig, identityMap).toDataEntity();
@@ -1513,12 +2278,9 @@ public class EdgeHitProcessorTests {
 			fail("No HitProcessingResult was received for hitProcessor.processHit");
 		}
 
-		ArgumentCaptor<EdgeEndpoint> envCaptor = ArgumentCaptor.forClass(EdgeEndpoint.class);
-		ArgumentCaptor<EdgeNetworkService.RequestType> requestTypeCaptor = ArgumentCaptor.forClass(
-			EdgeNetworkService.RequestType.class
-		);
-		verify(mockEdgeNetworkService, times(1)).buildUrl(envCaptor.capture(), anyString(), anyString());
-		assertEquals(expectedUrl, envCaptor.getValue().getEndpoint());
+		ArgumentCaptor<String> urlPrefixCaptor = ArgumentCaptor.forClass(String.class);
+		verify(mockEdgeNetworkService, times(1)).buildUrl(urlPrefixCaptor.capture(), anyString());
+		assertEquals(expectedUrl + "?configId=works", urlPrefixCaptor.getValue());
 	}
 
 	private JSONObject getOneEventJson() {
@@ -0,0 +1,202 @@
+/*
+  Copyright 2023 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.adobe.marketing.mobile.services.DataEntity;
+import com.adobe.marketing.mobile.util.FakeDataQueue;
+import com.adobe.marketing.mobile.util.FakeNamedCollection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EdgeHitSnapshotStoreTests {
+
+	private static final String SNAPSHOT = "{\"edge.configId\":\"123\"}";
+	private static final String OTHER_SNAPSHOT = "{\"edge.configId\":\"456\"}";
+
+	private FakeNamedCollection namedCollection;
+	private FakeDataQueue dataQueue;
+	private EdgeHitSnapshotStore snapshotStore;
+
+	@Before
+	public void setup() {
+		namedCollection = new FakeNamedCollection();
+		dataQueue = new FakeDataQueue();
+		snapshotStore = new EdgeHitSnapshotStore(namedCollection, dataQueue);
+	}
+
+	@Test
+	public void testRetain_sameSnapshot_storedOnce() {
+		String reference = snapshotStore.retain(SNAPSHOT);
+		assertNotNull(reference);
+		assertEquals(reference, snapshotStore.retain(SNAPSHOT));
+
+		assertEquals(SNAPSHOT, namedCollection.getString("hitSnapshot." + reference, null));
+		Map<String, String> referenceCounts = namedCollection.getMap("hitSnapshots");
+		assertEquals(1, referenceCounts.size());
+		assertEquals("2", referenceCounts.get(reference));
+	}
+
+	@Test
+	public void testRetain_storedSnapshot_doesNotWriteSnapshotAgain() {
+		String reference = snapshotStore.retain(SNAPSHOT);
+		namedCollection.remove("hitSnapshot." + reference);
+
+		assertEquals(reference, snapshotStore.retain(SNAPSHOT));
+
+		assertFalse(namedCollection.contains("hitSnapshot." + reference));
+		assertEquals("2", namedCollection.getMap("hitSnapshots").get(reference));
+	}
+
+	@Test
+	public void testRetain_differentSnapshots_storedSeparately() {
+		String reference = snapshotStore.retain(SNAPSHOT);
+		String otherReference = snapshotStore.retain(OTHER_SNAPSHOT);
+
+		assertNotEquals(reference, otherReference);
+		assertEquals(SNAPSHOT, snapshotStore.get(reference));
+		assertEquals(OTHER_SNAPSHOT, snapshotStore.get(otherReference));
+	}
+
+	@Test
+	public void testRelease_removesSnapshotWhenNoLongerReferenced() {
+		String reference = snapshotStore.retain(SNAPSHOT);
+		snapshotStore.retain(SNAPSHOT);
+
+		snapshotStore.release(reference);
+		assertEquals(SNAPSHOT, snapshotStore.get(reference));
+		assertEquals("1", namedCollection.getMap("hitSnapshots").get(reference));
+
+		snapshotStore.release(reference);
+		assertNull(snapshotStore.get(reference));
+		assertFalse(namedCollection.contains("hitSnapshot." + reference));
+		assertTrue(namedCollection.getMap("hitSnapshots").isEmpty());
+	}
+
+	@Test
+	public void testRelease_unknownReference_isNoop() {
+		String reference = snapshotStore.retain(SNAPSHOT);
+
+		snapshotStore.release("unknown");
+		snapshotStore.release(null);
+
+		assertEquals(SNAPSHOT, snapshotStore.get(reference));
+	}
+
+	@Test
+	public void testGet_readsPersistedSnapshotsAndReferenceCounts_withoutReadingQueuedHits() {
+		queueHit("123");
+		queueHit("123");
+		String reference = EdgeDataEntity.getSnapshotReferences(dataQueue.peek()).get(0);
+		FakeDataQueue unreadableQueue = new FakeDataQueue() {
+			@Override
+			public List<DataEntity> peek(final int n) {
+				throw new AssertionError("The queued hits should not be read");
+			}
+		};
+		unreadableQueue.add(dataQueue.peek());
+
+		EdgeHitSnapshotStore reloadedStore = new EdgeHitSnapshotStore(namedCollection, unreadableQueue);
+		assertEquals(SNAPSHOT, reloadedStore.get(reference));
+
+		// referenced by the two queued hits
+		reloadedStore.release(reference);
+		assertEquals(SNAPSHOT, reloadedStore.get(reference));
+		reloadedStore.release(reference);
+		assertNull(reloadedStore.get(reference));
+		assertFalse(namedCollection.contains("hitSnapshot." + reference));
+	}
+
+	@Test
+	public void testReload_emptyQueue_removesStoredSnapshots() {
+		// retained for a hit which was never queued
+		String reference = snapshotStore.retain(SNAPSHOT);
+
+		EdgeHitSnapshotStore reloadedStore = new EdgeHitSnapshotStore(namedCollection, dataQueue);
+		assertNull(reloadedStore.get(reference));
+		assertFalse(namedCollection.contains("hitSnapshot." + reference));
+		assertFalse(namedCollection.contains("hitSnapshots"));
+	}
+
+	@Test
+	public void testReload_queuedHits_keepsStoredSnapshots() {
+		queueHit("123");
+		// retained for a hit which was never queued, kept until the queue is empty
+		String otherReference = snapshotStore.retain(OTHER_SNAPSHOT);
+
+		EdgeHitSnapshotStore reloadedStore = new EdgeHitSnapshotStore(namedCollection, dataQueue);
+		assertEquals(OTHER_SNAPSHOT, reloadedStore.get(otherReference));
+		assertEquals(2, namedCollection.getMap("hitSnapshots").size());
+	}
+
+	@Test
+	public void testReload_invalidReferenceCount_keepsSnapshot() {
+		queueHit("123");
+		String reference = EdgeDataEntity.getSnapshotReferences(dataQueue.peek()).get(0);
+		Map<String, String> referenceCounts = namedCollection.getMap("hitSnapshots");
+		referenceCounts.put(reference, "invalid");
+		namedCollection.setMap("hitSnapshots", referenceCounts);
+
+		EdgeHitSnapshotStore reloadedStore = new EdgeHitSnapshotStore(namedCollection, dataQueue);
+		reloadedStore.release(reference);
+		assertEquals(SNAPSHOT, reloadedStore.get(reference));
+	}
+
+	@Test
+	public void testClear_removesAllSnapshots() {
+		String reference = snapshotStore.retain(SNAPSHOT);
+		String otherReference = snapshotStore.retain(OTHER_SNAPSHOT);
+
+		snapshotStore.clear();
+
+		assertNull(snapshotStore.get(reference));
+		assertNull(snapshotStore.get(otherReference));
+		assertFalse(namedCollection.contains("hitSnapshot." + reference));
+		assertFalse(namedCollection.contains("hitSnapshot." + otherReference));
+		assertFalse(namedCollection.contains("hitSnapshots"));
+	}
+
+	@Test
+	public void testNoDataQueue_storedSnapshotsNotRemoved() {
+		String reference = snapshotStore.retain(SNAPSHOT);
+
+		EdgeHitSnapshotStore reloadedStore = new EdgeHitSnapshotStore(namedCollection);
+		assertEquals(SNAPSHOT, reloadedStore.get(reference));
+		assertTrue(namedCollection.contains("hitSnapshot." + reference));
+	}
+
+	@Test
+	public void testNullNamedCollection_snapshotsNotStored() {
+		EdgeHitSnapshotStore store = new EdgeHitSnapshotStore(null);
+
+		assertNull(store.retain(SNAPSHOT));
+		assertNull(store.get("reference"));
+		store.release("reference");
+		store.clear();
+	}
+
+	private void queueHit(final String configId) {
+		final Map<String, Object> configuration = new HashMap<>();
+		configuration.put("edge.configId", configId);
+		final Event event = new Event.Builder("test", "all", "things").build();
+		dataQueue.add(new EdgeDataEntity(event, configuration, null).toDataEntity(snapshotStore));
+	}
+}
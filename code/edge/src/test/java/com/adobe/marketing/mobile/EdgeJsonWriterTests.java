@@ -0,0 +1,170 @@
+/*
+  Copyright 2023 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class EdgeJsonWriterTests {
+
+	@Test
+	public void testValue_primitives() {
+		assertEquals("null", write(null));
+		assertEquals("true", write(true));
+		assertEquals("false", write(false));
+		assertEquals("123", write(123));
+		assertEquals("-9007199254740993", write(-9007199254740993L));
+		assertEquals("\"text\"", write("text"));
+		assertEquals("\"c\"", write('c'));
+	}
+
+	@Test
+	public void testValue_floatingPointNumbers() {
+		assertEquals("2", write(2.0d));
+		assertEquals("0.5", write(0.5d));
+		assertEquals("0.1", write(0.1f));
+		assertEquals("-3", write(-3.0f));
+		assertEquals("1.5E300", write(1.5e300d));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testValue_nan_throws() {
+		write(Double.NaN);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testValue_infinity_throws() {
+		write(Float.POSITIVE_INFINITY);
+	}
+
+	@Test
+	public void testValue_escapesStrings() {
+		assertEquals("\"quote\\\" backslash\\\\ slash/\"", write("quote\" backslash\\ slash/"));
+		assertEquals("\"\\b\\f\\n\\r\\t\"", write("\b\f\n\r\t"));
+		assertEquals("\"\\u0000\\u001f\\u2028\\u2029\"", write("\u0000\u001f\u2028\u2029"));
+	}
+
+	@Test
+	public void testValue_encodesUtf8() {
+		final String text = "caf\u00e9 \u2615 \ud83d\ude00";
+
+		final byte[] bytes = new EdgeJsonWriter().value(text).toByteArray();
+
+		assertEquals("\"" + text + "\"", new String(bytes, StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testValue_map() {
+		final Map<String, Object> map = new LinkedHashMap<>();
+		map.put("string", "value");
+		map.put("int", 1);
+		map.put("null", null);
+		map.put("nested", Collections.singletonMap("key", true));
+		map.put("empty", new HashMap<>());
+
+		assertEquals(
+			"{\"string\":\"value\",\"int\":1,\"null\":null,\"nested\":{\"key\":true},\"empty\":{}}",
+			write(map)
+		);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testValue_mapWithNullKey_throws() {
+		final Map<String, Object> map = new HashMap<>();
+		map.put(null, "value");
+
+		write(map);
+	}
+
+	@Test
+	public void testValue_collectionsAndArrays() {
+		final List<Object> list = new ArrayList<>();
+		list.add("a");
+		list.add(Arrays.asList(1, 2));
+		list.add(new int[] { 3, 4 });
+		list.add(new String[] { "b" });
+		list.add(new ArrayList<>());
+		list.add(null);
+
+		assertEquals("[\"a\",[1,2],[3,4],[\"b\"],[],null]", write(list));
+	}
+
+	@Test
+	public void testValue_unsupportedObject_writesNull() {
+		assertEquals("[null]", write(Collections.singletonList(new Object() {})));
+	}
+
+	@Test
+	public void testNamesAndValues_writesObject() {
+		final EdgeJsonWriter writer = new EdgeJsonWriter(16);
+
+		writer
+			.beginObject()
+			.name("a")
+			.value(1)
+			.name("b")
+			.beginArray()
+			.beginObject()
+			.name("c")
+			.value("d")
+			.endObject()
+			.value(2)
+			.endArray()
+			.name("e")
+			.beginObject()
+			.endObject()
+			.endObject();
+
+		assertEquals(
+			"{\"a\":1,\"b\":[{\"c\":\"d\"},2],\"e\":{}}",
+			new String(writer.toByteArray(), StandardCharsets.UTF_8)
+		);
+		assertEquals(writer.toByteArray().length, writer.size());
+	}
+
+	@Test
+	public void testValue_largeString_growsBuffer() {
+		final StringBuilder builder = new StringBuilder();
+
+		for (int i = 0; i < 10000; i++) {
+			builder.append("\u00e9\n");
+		}
+
+		final String expected = "\"" + builder.toString().replace("\n", "\\n") + "\"";
+
+		assertEquals(expected, write(builder.toString()));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testName_null_throws() {
+		new EdgeJsonWriter().beginObject().name(null);
+	}
+
+	@Test
+	public void testToByteArray_empty() {
+		assertEquals(0, new EdgeJsonWriter().toByteArray().length);
+		assertEquals(0, new EdgeJsonWriter().size());
+	}
+
+	private static String write(final Object value) {
+		return new String(new EdgeJsonWriter().value(value).toByteArray(), StandardCharsets.UTF_8);
+	}
+}
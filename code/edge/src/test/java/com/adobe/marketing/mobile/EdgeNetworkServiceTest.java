@@ -13,24 +13,36 @@ package com.adobe.marketing.mobile;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import com.adobe.marketing.mobile.services.HttpMethod;
+import com.adobe.marketing.mobile.services.NetworkCallback;
 import com.adobe.marketing.mobile.services.NetworkRequest;
 import com.adobe.marketing.mobile.util.MockConnection;
 import com.adobe.marketing.mobile.util.MockNetworkService;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.TimeZone;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.junit.Before;
@@ -202,6 +214,10 @@ public class EdgeNetworkServiceTest {
 			EdgeConstants.NetworkKeys.HEADER_KEY_CONTENT_TYPE,
 			EdgeConstants.NetworkKeys.HEADER_VALUE_APPLICATION_JSON
 		);
+		expectedHeaders.put(
+			EdgeConstants.NetworkKeys.HEADER_KEY_ACCEPT_ENCODING,
+			EdgeConstants.NetworkKeys.HEADER_VALUE_ACCEPT_ENCODING
+		);
 
 		// test
 		networkService = new EdgeNetworkService(mockNetworkService);
@@ -235,6 +251,10 @@ public class EdgeNetworkServiceTest {
 			EdgeConstants.NetworkKeys.HEADER_KEY_CONTENT_TYPE,
 			EdgeConstants.NetworkKeys.HEADER_VALUE_APPLICATION_JSON
 		);
+		expectedHeaders.put(
+			EdgeConstants.NetworkKeys.HEADER_KEY_ACCEPT_ENCODING,
+			EdgeConstants.NetworkKeys.HEADER_VALUE_ACCEPT_ENCODING
+		);
 		expectedHeaders.putAll(requestHeaders);
 
 		// test
@@ -269,6 +289,271 @@ public class EdgeNetworkServiceTest {
 		);
 	}
 
+	@Test
+	public void testDoRequest_whenCompressionEnabled_andBodyOverMinBytes_sendsGzipBody() throws Exception {
+		// setup
+		final byte[] body = buildCompressibleBody(4096);
+		mockNetworkService.mockConnectAsyncConnection = new MockConnection(200, "{}", null);
+		networkService = new EdgeNetworkService(mockNetworkService);
+
+		// test
+		networkService.doRequest(TEST_URL, body, null, 1024, requestHeaders, null);
+
+		// verify
+		assertEquals(1, mockNetworkService.connectAsyncWasCalledTimes);
+		final NetworkRequest networkRequest = mockNetworkService.connectAsyncParamNetworkRequest.get(0);
+		assertEquals(
+			EdgeConstants.NetworkKeys.HEADER_VALUE_GZIP,
+			networkRequest.getHeaders().get(EdgeConstants.NetworkKeys.HEADER_KEY_CONTENT_ENCODING)
+		);
+		assertEquals("value1", networkRequest.getHeaders().get("key1"));
+		assertTrue(networkRequest.getBody().length < body.length);
+		assertArrayEquals(body, gunzip(networkRequest.getBody()));
+
+		final EdgeNetworkMetrics metrics = networkService.getMetrics();
+		assertEquals(1, metrics.getCompressedRequests());
+		assertEquals(body.length, metrics.getUncompressedBytes());
+		assertEquals(networkRequest.getBody().length, metrics.getCompressedBytes());
+		assertTrue(metrics.getCompressionRatio() < 1.0);
+	}
+
+	@Test
+	public void testDoRequest_whenCompressedRequestRetried_recordsEachSentRequest() throws Exception {
+		// setup
+		final byte[] body = buildCompressibleBody(4096);
+		mockNetworkService.mockConnectAsyncConnection = new MockConnection(503, null, "Service Unavailable");
+		networkService = new EdgeNetworkService(mockNetworkService);
+
+		// test
+		networkService.doRequest(TEST_URL, body, null, 1024, null, null);
+		networkService.doRequest(TEST_URL, body, null, 1024, null, null);
+
+		// verify
+		assertEquals(2, mockNetworkService.connectAsyncWasCalledTimes);
+		final int compressedSize = mockNetworkService.connectAsyncParamNetworkRequest.get(1).getBody().length;
+		final EdgeNetworkMetrics metrics = networkService.getMetrics();
+		assertEquals(2, metrics.getCompressedRequests());
+		assertEquals(2L * body.length, metrics.getUncompressedBytes());
+		assertEquals(2L * compressedSize, metrics.getCompressedBytes());
+	}
+
+	@Test
+	public void testDoRequest_whenNoConnectionForCompressedRequest_doesNotRecordCompressedRequest() {
+		// setup
+		final byte[] body = buildCompressibleBody(4096);
+		mockNetworkService.mockConnectAsyncConnection = null;
+		networkService = new EdgeNetworkService(mockNetworkService);
+
+		// test
+		final RetryResult retryResult = networkService.doRequest(TEST_URL, body, null, 1024, null, null);
+
+		// verify
+		assertEquals(EdgeNetworkService.Retry.YES, retryResult.getShouldRetry());
+		assertEquals(0, networkService.getMetrics().getCompressedRequests());
+		assertEquals(1.0, networkService.getMetrics().getCompressionRatio(), 0.0);
+	}
+
+	@Test
+	public void testDoRequest_whenCompressionEnabled_andBodyUnderMinBytes_sendsUncompressedBody() {
+		// setup
+		final byte[] body = buildCompressibleBody(512);
+		mockNetworkService.mockConnectAsyncConnection = new MockConnection(200, "{}", null);
+		networkService = new EdgeNetworkService(mockNetworkService);
+
+		// test
+		networkService.doRequest(TEST_URL, body, null, 1024, null, null);
+
+		// verify
+		final NetworkRequest networkRequest = mockNetworkService.connectAsyncParamNetworkRequest.get(0);
+		assertNull(networkRequest.getHeaders().get(EdgeConstants.NetworkKeys.HEADER_KEY_CONTENT_ENCODING));
+		assertArrayEquals(body, networkRequest.getBody());
+		assertEquals(0, networkService.getMetrics().getCompressedRequests());
+	}
+
+	@Test
+	public void testDoRequest_whenCompressionDisabled_sendsUncompressedBody() {
+		// setup
+		final byte[] body = buildCompressibleBody(4096);
+		mockNetworkService.mockConnectAsyncConnection = new MockConnection(200, "{}", null);
+		networkService = new EdgeNetworkService(mockNetworkService);
+
+		// test
+		networkService.doRequest(TEST_URL, body, null, 0, null, null);
+
+		// verify
+		final NetworkRequest networkRequest = mockNetworkService.connectAsyncParamNetworkRequest.get(0);
+		assertNull(networkRequest.getHeaders().get(EdgeConstants.NetworkKeys.HEADER_KEY_CONTENT_ENCODING));
+		assertArrayEquals(body, networkRequest.getBody());
+		assertEquals(1.0, networkService.getMetrics().getCompressionRatio(), 0.0);
+	}
+
+	@Test
+	public void testDoRequest_whenCompressedBodyRejected_ResponseCode415_resendsUncompressed_andDisablesCompression() {
+		// setup
+		final byte[] body = buildCompressibleBody(4096);
+		final String responseStr = "{\"key\":\"value\"}";
+		final MockConnection rejectedConnection = new MockConnection(415, null, "Unsupported Media Type");
+		final MockConnection successConnection = new MockConnection(200, responseStr, null);
+		mockNetworkService =
+			new MockNetworkService() {
+				@Override
+				public void connectAsync(final NetworkRequest networkRequest, final NetworkCallback networkCallback) {
+					mockConnectAsyncConnection = connectAsyncWasCalledTimes == 0 ? rejectedConnection : successConnection;
+					super.connectAsync(networkRequest, networkCallback);
+				}
+			};
+		networkService = new EdgeNetworkService(mockNetworkService);
+
+		// test
+		DoRequestResult result = doRequestSync(TEST_URL, body, null, 1024);
+
+		// verify
+		assertEquals(EdgeNetworkService.Retry.NO, result.retryResult.getShouldRetry());
+		assertEquals(responseStr, result.onResponseCallback[1]);
+		assertNull(result.onErrorCallback[0]);
+		assertEquals(1, rejectedConnection.closeCalledTimes);
+		assertEquals(0, rejectedConnection.getErrorStreamCalledTimes);
+		assertEquals(2, mockNetworkService.connectAsyncWasCalledTimes);
+
+		final NetworkRequest retriedRequest = mockNetworkService.connectAsyncParamNetworkRequest.get(1);
+		assertNull(retriedRequest.getHeaders().get(EdgeConstants.NetworkKeys.HEADER_KEY_CONTENT_ENCODING));
+		assertArrayEquals(body, retriedRequest.getBody());
+		assertEquals(1, networkService.getMetrics().getCompressionFallbacks());
+		assertEquals(0, networkService.getMetrics().getCompressedRequests());
+
+		// following requests are not compressed
+		networkService.doRequest(TEST_URL, body, null, 1024, null, null);
+
+		assertEquals(3, mockNetworkService.connectAsyncWasCalledTimes);
+		final NetworkRequest nextRequest = mockNetworkService.connectAsyncParamNetworkRequest.get(2);
+		assertNull(nextRequest.getHeaders().get(EdgeConstants.NetworkKeys.HEADER_KEY_CONTENT_ENCODING));
+		assertArrayEquals(body, nextRequest.getBody());
+	}
+
+	@Test
+	public void testDoRequest_whenNoConnectionBeforeDeadline_returnsRetry_andRecordsDeadlineExpiration() {
+		// setup
+		final NetworkCallback[] pendingCallback = new NetworkCallback[1];
+		mockNetworkService =
+			new MockNetworkService() {
+				@Override
+				public void connectAsync(final NetworkRequest networkRequest, final NetworkCallback networkCallback) {
+					connectAsyncWasCalledTimes += 1;
+					pendingCallback[0] = networkCallback;
+				}
+			};
+		networkService = new EdgeNetworkService(mockNetworkService, 50);
+
+		// test
+		DoRequestResult result = doRequestSync(TEST_URL, "{}".getBytes(StandardCharsets.UTF_8), null, 0);
+
+		// verify
+		assertEquals(EdgeNetworkService.Retry.YES, result.retryResult.getShouldRetry());
+		assertNull(result.onCompleteCallback[0]);
+		assertEquals(1, mockNetworkService.connectAsyncWasCalledTimes);
+		assertEquals(1, networkService.getMetrics().getRequestDeadlineExpirations());
+
+		// a connection returned after the deadline is closed
+		final MockConnection lateConnection = new MockConnection(200, "{}", null);
+		pendingCallback[0].call(lateConnection);
+		assertEquals(1, lateConnection.closeCalledTimes);
+		assertEquals(0, lateConnection.getInputStreamCalledTimes);
+	}
+
+	@Test
+	public void testDoRequest_whenConnectionBeforeDeadline_doesNotRecordDeadlineExpiration() {
+		// setup
+		mockNetworkService.mockConnectAsyncConnection = new MockConnection(204, null, null);
+		networkService = new EdgeNetworkService(mockNetworkService, 50);
+
+		// test
+		DoRequestResult result = doRequestSync(TEST_URL, "{}".getBytes(StandardCharsets.UTF_8), null, 0);
+
+		// verify
+		assertEquals(EdgeNetworkService.Retry.NO, result.retryResult.getShouldRetry());
+		assertEquals(1, mockNetworkService.connectAsyncWasCalledTimes);
+		assertEquals(0, networkService.getMetrics().getRequestDeadlineExpirations());
+	}
+
+	@Test
+	public void testDoRequest_whenResponseGzipEncoded_andStreamingEnabled_CallsResponseCallbackWithDecodedRecords()
+		throws Exception {
+		// setup
+		final KonductorConfig streamingConfig = new KonductorConfig();
+		streamingConfig.enableStreaming("<RS>", "<LF>");
+		final String responseStr = "<RS>{\"key\":\"value\"}<LF>";
+		final Map<String, String> responseHeaders = new HashMap<>();
+		responseHeaders.put("Content-Encoding", "gzip");
+		MockConnection mockConnection = MockConnection.withResponseBytes(200, gzip(responseStr), responseHeaders);
+		mockNetworkService.mockConnectAsyncConnection = mockConnection;
+		networkService = new EdgeNetworkService(mockNetworkService);
+
+		// test
+		DoRequestResult result = doRequestSync(TEST_URL, "{}".getBytes(StandardCharsets.UTF_8), streamingConfig);
+
+		// verify
+		assertEquals(EdgeNetworkService.Retry.NO, result.retryResult.getShouldRetry());
+		assertEquals("{\"key\":\"value\"}", result.onResponseCallback[1]);
+		assertNull(result.onErrorCallback[0]);
+		assertEquals(1, mockConnection.closeCalledTimes);
+	}
+
+	@Test
+	public void testDoRequest_whenResponseDeflateEncoded_CallsResponseCallbackWithDecodedResponse() {
+		// setup
+		final String responseStr = "{\"key\":\"value\"}";
+		final Map<String, String> responseHeaders = new HashMap<>();
+		responseHeaders.put("Content-Encoding", "Deflate");
+		MockConnection mockConnection = MockConnection.withResponseBytes(200, deflate(responseStr), responseHeaders);
+		mockNetworkService.mockConnectAsyncConnection = mockConnection;
+		networkService = new EdgeNetworkService(mockNetworkService);
+
+		// test
+		DoRequestResult result = doRequestSync(TEST_URL, "{}");
+
+		// verify
+		assertEquals(EdgeNetworkService.Retry.NO, result.retryResult.getShouldRetry());
+		assertEquals(responseStr, result.onResponseCallback[1]);
+		assertNull(result.onErrorCallback[0]);
+	}
+
+	@Test
+	public void testDoRequest_whenResponseHasUnsupportedEncoding_CallsResponseCallbackWithResponseAsIs() {
+		// setup
+		final String responseStr = "{\"key\":\"value\"}";
+		final Map<String, String> responseHeaders = new HashMap<>();
+		responseHeaders.put("Content-Encoding", "identity");
+		MockConnection mockConnection = new MockConnection(200, responseStr, null, responseHeaders);
+		mockNetworkService.mockConnectAsyncConnection = mockConnection;
+		networkService = new EdgeNetworkService(mockNetworkService);
+
+		// test
+		DoRequestResult result = doRequestSync(TEST_URL, "{}");
+
+		// verify
+		assertEquals(responseStr, result.onResponseCallback[1]);
+	}
+
+	@Test
+	public void testDoRequest_whenGzipResponseIsCorrupted_NoResponseCallback_AndCallsOnComplete() {
+		// setup
+		final Map<String, String> responseHeaders = new HashMap<>();
+		responseHeaders.put("Content-Encoding", "gzip");
+		MockConnection mockConnection = new MockConnection(200, "{\"key\":\"value\"}", null, responseHeaders);
+		mockNetworkService.mockConnectAsyncConnection = mockConnection;
+		networkService = new EdgeNetworkService(mockNetworkService);
+
+		// test
+		DoRequestResult result = doRequestSync(TEST_URL, "{}");
+
+		// verify
+		assertEquals(EdgeNetworkService.Retry.NO, result.retryResult.getShouldRetry());
+		assertNull(result.onResponseCallback[0]);
+		assertNull(result.onErrorCallback[0]);
+		assertNotNull(result.onCompleteCallback[0]);
+		assertEquals(1, mockConnection.closeCalledTimes);
+	}
+
 	@Test
 	public void testDoRequest_whenConnection_ResponseCode200_ReturnsRetryNo_AndCallsResponseCallback_AndNoErrorCallback() {
 		// setup
@@ -290,6 +575,48 @@ public class EdgeNetworkServiceTest {
 		assertEquals(1, mockConnection.closeCalledTimes);
 	}
 
+	@Test
+	public void testDoRequest_withBodyBytes_andStreamingConfig_ResponseCode200_CallsResponseCallbackPerRecord() {
+		// setup
+		final byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+		final KonductorConfig streamingConfig = new KonductorConfig();
+		streamingConfig.enableStreaming("<RS>", "<LF>");
+		final String responseStr = "<RS>{\"key\":\"value\"}<LF>";
+		MockConnection mockConnection = new MockConnection(200, responseStr, null);
+		mockNetworkService.mockConnectAsyncConnection = mockConnection;
+		networkService = new EdgeNetworkService(mockNetworkService);
+
+		// test
+		DoRequestResult result = doRequestSync(TEST_URL, body, streamingConfig);
+
+		// verify
+		assertEquals(EdgeNetworkService.Retry.NO, result.retryResult.getShouldRetry());
+		assertEquals("called", result.onResponseCallback[0]);
+		assertEquals("{\"key\":\"value\"}", result.onResponseCallback[1]);
+		assertNull(result.onErrorCallback[0]);
+		assertEquals(1, mockConnection.closeCalledTimes);
+	}
+
+	@Test
+	public void testDoRequest_withBodyBytes_andNullStreamingConfig_ResponseCode200_CallsResponseCallbackWithFullResponse() {
+		// setup
+		final byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+		final String responseStr = "{\"key\":\"value\"}";
+		MockConnection mockConnection = new MockConnection(200, responseStr, null);
+		mockNetworkService.mockConnectAsyncConnection = mockConnection;
+		networkService = new EdgeNetworkService(mockNetworkService);
+
+		// test
+		DoRequestResult result = doRequestSync(TEST_URL, body, null);
+
+		// verify
+		assertEquals(EdgeNetworkService.Retry.NO, result.retryResult.getShouldRetry());
+		assertEquals("called", result.onResponseCallback[0]);
+		assertEquals(responseStr, result.onResponseCallback[1]);
+		assertNull(result.onErrorCallback[0]);
+		assertEquals(1, mockConnection.closeCalledTimes);
+	}
+
 	@Test
 	public void testDoRequest_whenConnection_ResponseCode204_ReturnsRetryNo_AndNoResponseCallback_AndNoErrorCallback() {
 		// setup
@@ -360,6 +687,81 @@ public class EdgeNetworkServiceTest {
 		testRecoverableNetworkResponse(504, "Gateway Timeout");
 	}
 
+	@Test
+	public void testDoRequest_whenConnection_503WithRetryAfterHttpDate_ReturnsRetryYes_WithRetryInterval() {
+		// setup
+		final SimpleDateFormat dateFormat = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+		dateFormat.setTimeZone(TimeZone.getTimeZone("GMT"));
+		final Map<String, String> headers = new HashMap<>();
+		headers.put("Retry-After", dateFormat.format(new Date(System.currentTimeMillis() + 125000)));
+		mockNetworkService.mockConnectAsyncConnection = new MockConnection(503, null, null, headers);
+		networkService = new EdgeNetworkService(mockNetworkService);
+
+		// test
+		DoRequestResult result = doRequestSync("https://test.com", "{}");
+
+		// verify, the HTTP-date has a one second precision
+		assertEquals(EdgeNetworkService.Retry.YES, result.retryResult.getShouldRetry());
+		assertTrue(result.retryResult.getRetryIntervalSeconds() >= 123);
+		assertTrue(result.retryResult.getRetryIntervalSeconds() <= 125);
+		assertTrue(result.retryResult.hasServerRetryInterval());
+	}
+
+	@Test
+	public void testDoRequest_whenConnection_503WithRetryAfterHttpDate_usesClock() {
+		// setup, Sun, 06 Nov 1994 08:49:37 GMT
+		final long nowMillis = 784111777000L - 90000;
+		final Map<String, String> headers = new HashMap<>();
+		headers.put("Retry-After", "Sun, 06 Nov 1994 08:49:37 GMT");
+		mockNetworkService.mockConnectAsyncConnection = new MockConnection(503, null, null, headers);
+		networkService =
+			new EdgeNetworkService(
+				mockNetworkService,
+				EdgeConstants.NetworkKeys.DEFAULT_REQUEST_DEADLINE_MILLIS,
+				() -> nowMillis
+			);
+
+		// test
+		DoRequestResult result = doRequestSync("https://test.com", "{}");
+
+		// verify
+		assertEquals(EdgeNetworkService.Retry.YES, result.retryResult.getShouldRetry());
+		assertEquals(90, result.retryResult.getRetryIntervalSeconds());
+	}
+
+	@Test
+	public void testParseRetryAfter_deltaSeconds() {
+		assertEquals(120, EdgeNetworkService.parseRetryAfter("120", 0));
+		assertEquals(30, EdgeNetworkService.parseRetryAfter(" 30 ", 0));
+	}
+
+	@Test
+	public void testParseRetryAfter_httpDate_allFormats() {
+		// Sun, 06 Nov 1994 08:49:37 GMT
+		final long nowMillis = 784111777000L - 90000;
+
+		assertEquals(90, EdgeNetworkService.parseRetryAfter("Sun, 06 Nov 1994 08:49:37 GMT", nowMillis));
+		assertEquals(90, EdgeNetworkService.parseRetryAfter("Sunday, 06-Nov-94 08:49:37 GMT", nowMillis));
+		assertEquals(90, EdgeNetworkService.parseRetryAfter("Sun Nov  6 08:49:37 1994", nowMillis));
+		assertEquals(91, EdgeNetworkService.parseRetryAfter("Sun, 06 Nov 1994 08:49:37 GMT", nowMillis - 500));
+	}
+
+	@Test
+	public void testParseRetryAfter_invalidOrPastValues_returnsNoServerInterval() {
+		final int noServerInterval = RetryResult.NO_SERVER_RETRY_INTERVAL;
+
+		assertEquals(noServerInterval, EdgeNetworkService.parseRetryAfter(null, 0));
+		assertEquals(noServerInterval, EdgeNetworkService.parseRetryAfter("", 0));
+		assertEquals(noServerInterval, EdgeNetworkService.parseRetryAfter("0", 0));
+		assertEquals(noServerInterval, EdgeNetworkService.parseRetryAfter("-10", 0));
+		assertEquals(noServerInterval, EdgeNetworkService.parseRetryAfter("99999999999", 0));
+		assertEquals(noServerInterval, EdgeNetworkService.parseRetryAfter("soon", 0));
+		assertEquals(
+			noServerInterval,
+			EdgeNetworkService.parseRetryAfter("Sun, 06 Nov 1994 08:49:37 GMT", 784111777000L + 1000)
+		);
+	}
+
 	private void testRecoverableNetworkResponse(final int responseCode, final String errorString) {
 		// setup
 		final String url = "https://test.com";
@@ -373,6 +775,7 @@ public class EdgeNetworkServiceTest {
 
 		// verify
 		assertEquals(EdgeNetworkService.Retry.YES, result.retryResult.getShouldRetry());
+		assertFalse(result.retryResult.hasServerRetryInterval());
 		assertNull(result.onResponseCallback[0]);
 		assertNull(result.onErrorCallback[0]);
 		assertEquals(0, mockConnection.getInputStreamCalledTimes);
@@ -891,34 +1294,37 @@ public class EdgeNetworkServiceTest {
 	 * onError callback if called and the value.
 	 */
 	private DoRequestResult doRequestSync(final String url, final String body) {
+		final DoRequestResult result = new DoRequestResult();
+		final Map<String, String> requestProperty = new HashMap<>();
+		result.retryResult = networkService.doRequest(url, body, requestProperty, createResponseCallback(result));
+
+		try {
+			latchOfThree.await(300, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {} //nothing
+
+		return result;
+	}
+
+	private DoRequestResult doRequestSync(final String url, final byte[] body, final KonductorConfig streamingConfig) {
+		return doRequestSync(url, body, streamingConfig, 0);
+	}
+
+	private DoRequestResult doRequestSync(
+		final String url,
+		final byte[] body,
+		final KonductorConfig streamingConfig,
+		final int compressionMinBytes
+	) {
 		final DoRequestResult result = new DoRequestResult();
 		final Map<String, String> requestProperty = new HashMap<>();
 		result.retryResult =
 			networkService.doRequest(
 				url,
 				body,
+				streamingConfig,
+				compressionMinBytes,
 				requestProperty,
-				new EdgeNetworkService.ResponseCallback() {
-					@Override
-					public void onResponse(final String jsonResponse) {
-						result.onResponseCallback[0] = "called";
-						result.onResponseCallback[1] = jsonResponse;
-						latchOfThree.countDown();
-					}
-
-					@Override
-					public void onError(String jsonError) {
-						result.onErrorCallback[0] = "called";
-						result.onErrorCallback[1] = jsonError;
-						latchOfThree.countDown();
-					}
-
-					@Override
-					public void onComplete() {
-						result.onCompleteCallback[0] = "called";
-						latchOfThree.countDown();
-					}
-				}
+				createResponseCallback(result)
 			);
 
 		try {
@@ -928,6 +1334,30 @@ public class EdgeNetworkServiceTest {
 		return result;
 	}
 
+	private EdgeNetworkService.ResponseCallback createResponseCallback(final DoRequestResult result) {
+		return new EdgeNetworkService.ResponseCallback() {
+			@Override
+			public void onResponse(final String jsonResponse) {
+				result.onResponseCallback[0] = "called";
+				result.onResponseCallback[1] = jsonResponse;
+				latchOfThree.countDown();
+			}
+
+			@Override
+			public void onError(String jsonError) {
+				result.onErrorCallback[0] = "called";
+				result.onErrorCallback[1] = jsonError;
+				latchOfThree.countDown();
+			}
+
+			@Override
+			public void onComplete() {
+				result.onCompleteCallback[0] = "called";
+				latchOfThree.countDown();
+			}
+		};
+	}
+
 	/**
 	 * Executes a call to {@link EdgeNetworkService#handleStreamingResponse(InputStream, String, String, EdgeNetworkService.ResponseCallback)}
 	 * and waits for up to 200ms to check if the onResponse callback to get called
@@ -1025,6 +1455,59 @@ public class EdgeNetworkServiceTest {
 		}
 	}
 
+	private static byte[] buildCompressibleBody(final int size) {
+		final StringBuilder builder = new StringBuilder(size);
+		builder.append("{\"events\":[");
+
+		while (builder.length() < size - 2) {
+			builder.append("{\"xdm\":{\"eventType\":\"commerce.purchases\"}},");
+		}
+
+		builder.setLength(size - 2);
+		return builder.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static byte[] gzip(final String content) throws IOException {
+		final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+		try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream)) {
+			gzipOutputStream.write(content.getBytes(StandardCharsets.UTF_8));
+		}
+
+		return outputStream.toByteArray();
+	}
+
+	private static byte[] deflate(final String content) {
+		final Deflater deflater = new Deflater();
+		deflater.setInput(content.getBytes(StandardCharsets.UTF_8));
+		deflater.finish();
+
+		final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		final byte[] buffer = new byte[1024];
+
+		while (!deflater.finished()) {
+			outputStream.write(buffer, 0, deflater.deflate(buffer));
+		}
+
+		deflater.end();
+		return outputStream.toByteArray();
+	}
+
+	private static byte[] gunzip(final byte[] compressed) throws IOException {
+		final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+		try (GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+			final byte[] buffer = new byte[1024];
+			int read;
+
+			while ((read = inputStream.read(buffer)) != -1) {
+				outputStream.write(buffer, 0, read);
+			}
+		}
+
+		return outputStream.toByteArray();
+	}
+
 	private void assertNetworkRequestsEqual(final NetworkRequest expected, final NetworkRequest actual) {
 		if (expected == null || actual == null) {
 			return;
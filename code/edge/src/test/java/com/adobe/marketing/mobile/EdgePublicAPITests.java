@@ -17,14 +17,23 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockConstruction;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import android.os.Handler;
+import android.os.Looper;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
@@ -34,6 +43,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.MockedConstruction;
 import org.mockito.MockedStatic;
 import org.mockito.junit.MockitoJUnitRunner;
 
@@ -111,6 +121,66 @@ public class EdgePublicAPITests {
 		assertFalse(requestEvent.getEventData().containsKey("datasetId"));
 	}
 
+	@Test
+	public void testSendEvent_largeProductList_adoptXdmSchemaFasterThanSetXdmSchema() {
+		// setup
+		final int productCount = 1000;
+		final int rounds = 30;
+		long setXdmSchemaNanos = Long.MAX_VALUE;
+		long adoptXdmSchemaNanos = Long.MAX_VALUE;
+
+		// test, the rounds alternate between both builders and the fastest round of each is kept
+		for (int i = 0; i < rounds; i++) {
+			Map<String, Object> xdm = createProductListXdm(productCount);
+			long startNanos = System.nanoTime();
+			Edge.sendEvent(new ExperienceEvent.Builder().setXdmSchema(xdm).build(), null);
+			setXdmSchemaNanos = Math.min(setXdmSchemaNanos, System.nanoTime() - startNanos);
+
+			xdm = createProductListXdm(productCount);
+			startNanos = System.nanoTime();
+			Edge.sendEvent(new ExperienceEvent.Builder().adoptXdmSchema(xdm).build(), null);
+			adoptXdmSchemaNanos = Math.min(adoptXdmSchemaNanos, System.nanoTime() - startNanos);
+		}
+
+		// verify
+		final ArgumentCaptor<Event> requestEventCaptor = ArgumentCaptor.forClass(Event.class);
+		mockCore.verify(() -> MobileCore.dispatchEvent(requestEventCaptor.capture()), times(2 * rounds));
+
+		final List<Event> requestEvents = requestEventCaptor.getAllValues();
+		assertEquals(requestEvents.get(0).getEventData().get("xdm"), requestEvents.get(1).getEventData().get("xdm"));
+		assertTrue(
+			String.format(
+				"Sending %d products took %d ns with adoptXdmSchema and %d ns with setXdmSchema",
+				productCount,
+				adoptXdmSchemaNanos,
+				setXdmSchemaNanos
+			),
+			adoptXdmSchemaNanos < setXdmSchemaNanos
+		);
+	}
+
+	@Test
+	public void testSetCompletionCallbackLooper_whenLooperQuitting_invokesCallbackOnDefaultExecutor()
+		throws InterruptedException {
+		final CountDownLatch latch = new CountDownLatch(1);
+
+		try (
+			MockedConstruction<Handler> mockHandler = mockConstruction(
+				Handler.class,
+				(handler, context) -> when(handler.post(any(Runnable.class))).thenReturn(false)
+			)
+		) {
+			Edge.setCompletionCallbackLooper(mock(Looper.class));
+			CompletionCallbacksManager.getInstance().registerCallback("looperEventId", handles -> latch.countDown());
+			CompletionCallbacksManager.getInstance().unregisterCallback("looperEventId");
+
+			assertTrue(latch.await(1000, TimeUnit.MILLISECONDS));
+			verify(mockHandler.constructed().get(0), times(1)).post(any(Runnable.class));
+		} finally {
+			Edge.setCompletionCallbackLooper(null);
+		}
+	}
+
 	@Test
 	public void testSetLocationHint_whenHintIsValue_dispatchesEdgeUpdateIdentity() throws InterruptedException {
 		Edge.setLocationHint("or2");
@@ -524,6 +594,30 @@ public class EdgePublicAPITests {
 		latch.await(2000, TimeUnit.MILLISECONDS);
 	}
 
+	private Map<String, Object> createProductListXdm(final int productCount) {
+		final List<Object> productListItems = new ArrayList<>();
+
+		for (int i = 0; i < productCount; i++) {
+			final Map<String, Object> product = new HashMap<>();
+			product.put("SKU", "sku-" + i);
+			product.put("name", "Product " + i);
+			product.put("priceTotal", 9.99 * i);
+			product.put("quantity", i % 5 + 1);
+			product.put("currencyCode", "USD");
+
+			final Map<String, Object> selectedOptions = new HashMap<>();
+			selectedOptions.put("color", "blue");
+			selectedOptions.put("size", "M");
+			product.put("selectedOptions", selectedOptions);
+			productListItems.add(product);
+		}
+
+		final Map<String, Object> xdm = new HashMap<>();
+		xdm.put("eventType", "commerce.productListViews");
+		xdm.put("productListItems", productListItems);
+		return xdm;
+	}
+
 	private Properties loadProperties(final String filepath) {
 		Properties properties = new Properties();
 		InputStream input = null;
@@ -190,4 +190,69 @@ public class EventUtilsTests {
 
 		assertEquals(0, result.size());
 	}
+
+	@Test
+	public void testGetEdgeConfiguration_validBatchLimits() {
+		Map<String, Object> result = EventUtils.getEdgeConfiguration(
+			new HashMap<String, Object>() {
+				{
+					put("edge.configId", "123");
+					put("edge.batch.maxEvents", 10);
+					put("edge.batch.maxBytes", 20000L);
+				}
+			}
+		);
+
+		assertEquals(3, result.size());
+		assertEquals(10, result.get("edge.batch.maxEvents"));
+		assertEquals(20000, result.get("edge.batch.maxBytes"));
+	}
+
+	@Test
+	public void testGetEdgeConfiguration_invalidBatchLimits() {
+		Map<String, Object> result = EventUtils.getEdgeConfiguration(
+			new HashMap<String, Object>() {
+				{
+					put("edge.configId", "123");
+					put("edge.batch.maxEvents", "10");
+					put("edge.batch.maxBytes", -1);
+				}
+			}
+		);
+
+		assertEquals(1, result.size());
+		assertEquals("123", result.get("edge.configId"));
+	}
+
+	@Test
+	public void testGetEdgeConfiguration_compressionSettings() {
+		Map<String, Object> result = EventUtils.getEdgeConfiguration(
+			new HashMap<String, Object>() {
+				{
+					put("edge.configId", "123");
+					put("edge.compression.enabled", true);
+					put("edge.compression.minBytes", 2048);
+				}
+			}
+		);
+
+		assertEquals(3, result.size());
+		assertEquals(true, result.get("edge.compression.enabled"));
+		assertEquals(2048, result.get("edge.compression.minBytes"));
+	}
+
+	@Test
+	public void testGetEdgeConfiguration_compressionDisabled_notIncluded() {
+		Map<String, Object> result = EventUtils.getEdgeConfiguration(
+			new HashMap<String, Object>() {
+				{
+					put("edge.configId", "123");
+					put("edge.compression.enabled", false);
+				}
+			}
+		);
+
+		assertEquals(1, result.size());
+		assertEquals("123", result.get("edge.configId"));
+	}
 }
@@ -15,6 +15,7 @@ import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertFalse;
 import static junit.framework.TestCase.assertNotNull;
 import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.assertSame;
 import static junit.framework.TestCase.assertTrue;
 
 import com.adobe.marketing.mobile.xdm.Schema;
@@ -599,6 +600,51 @@ public class ExperienceEventTests {
 		assertFalse(event.getData().containsKey("newKey"));
 	}
 
+	@Test
+	public void testExperienceEvent_withAdoptedXdmMapAndDataMap_toObjectMapDoesNotCopy() {
+		final Map<String, Object> xdm = generateXdmData();
+		final Map<String, Object> data = generateEventData();
+
+		ExperienceEvent event = new ExperienceEvent.Builder()
+			.adoptXdmSchema(xdm, "testDatasetId")
+			.adoptData(data)
+			.build();
+
+		final Map<String, Object> objectMap = event.toObjectMap();
+		assertSame(xdm, objectMap.get(xdmKey));
+		assertSame(data, objectMap.get(dataKey));
+		assertEquals("testDatasetId", objectMap.get(datasetKey));
+		assertTrue(event.hasXdmData());
+	}
+
+	@Test
+	public void testExperienceEvent_withAdoptedXdmMap_getXdmSchemaDeepCopies() {
+		final Map<String, Object> xdm = generateXdmData();
+
+		ExperienceEvent event = new ExperienceEvent.Builder().adoptXdmSchema(xdm).build();
+
+		// This change should NOT be reflected in the adopted xdm
+		event.getXdmSchema().put("newKey", "newValue");
+		assertFalse(xdm.containsKey("newKey"));
+		assertNull(event.toObjectMap().get(datasetKey));
+	}
+
+	@Test
+	public void testExperienceEvent_withAdoptedXdmSchema_toObjectMapDoesNotCopy() {
+		final MobileSDKSchema schema = new MobileSDKSchema();
+
+		ExperienceEvent event = new ExperienceEvent.Builder().adoptXdmSchema(schema).build();
+
+		final Map<String, Object> objectMap = event.toObjectMap();
+		assertSame(schema.data, objectMap.get(xdmKey));
+		assertEquals(schema.datasetId, objectMap.get(datasetKey));
+	}
+
+	@Test
+	public void testExperienceEventBuilderBuild_withNullAdoptedXdm_returnsNull() {
+		assertNull(new ExperienceEvent.Builder().adoptXdmSchema((Map<String, Object>) null).build());
+	}
+
 	@Test
 	public void testExperienceEventBuilderBuild_withoutXdm_returnsNull() {
 		assertNull(new ExperienceEvent.Builder().build());
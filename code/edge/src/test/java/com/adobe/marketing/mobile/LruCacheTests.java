@@ -0,0 +1,55 @@
+/*
+  Copyright 2023 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class LruCacheTests {
+
+	@Test
+	public void testPut_thenGet_returnsValue() {
+		final LruCache<String, Integer> cache = new LruCache<>(2);
+		cache.put("one", 1);
+
+		assertEquals(Integer.valueOf(1), cache.get("one"));
+		assertNull(cache.get("two"));
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void testPut_whenFull_evictsLeastRecentlyUsedEntry() {
+		final LruCache<String, Integer> cache = new LruCache<>(2);
+		cache.put("one", 1);
+		cache.put("two", 2);
+		// access "one" so "two" is the least recently used entry
+		cache.get("one");
+		cache.put("three", 3);
+
+		assertEquals(2, cache.size());
+		assertEquals(Integer.valueOf(1), cache.get("one"));
+		assertNull(cache.get("two"));
+		assertEquals(Integer.valueOf(3), cache.get("three"));
+	}
+
+	@Test
+	public void testPut_existingKey_replacesValue() {
+		final LruCache<String, Integer> cache = new LruCache<>(2);
+		cache.put("one", 1);
+		cache.put("one", 11);
+
+		assertEquals(1, cache.size());
+		assertEquals(Integer.valueOf(11), cache.get("one"));
+	}
+}
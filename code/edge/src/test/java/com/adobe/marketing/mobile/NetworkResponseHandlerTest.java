@@ -643,8 +643,7 @@ public class NetworkResponseHandlerTest {
 		networkResponseHandler.processResponseOnSuccess(jsonResponse, "123");
 
 		// verify
-		// expect 2 invocations based on payload manager implementation
-		verify(mockNamedCollection, times(2)).setMap(eq(EdgeConstants.DataStoreKeys.STORE_PAYLOADS), any(Map.class));
+		verify(mockNamedCollection, times(1)).setMap(eq(EdgeConstants.DataStoreKeys.STORE_PAYLOADS), any(Map.class));
 	}
 
 	@Test
@@ -706,8 +705,7 @@ public class NetworkResponseHandlerTest {
 		networkResponseHandler.processResponseOnSuccess(jsonResponse, "123");
 
 		// verify
-		// expect 2 invocations based on payload manager implementation
-		verify(mockNamedCollection, times(2)).setMap(eq(EdgeConstants.DataStoreKeys.STORE_PAYLOADS), any(Map.class));
+		verify(mockNamedCollection, times(1)).setMap(eq(EdgeConstants.DataStoreKeys.STORE_PAYLOADS), any(Map.class));
 	}
 
 	@Test
@@ -1793,6 +1791,51 @@ public class NetworkResponseHandlerTest {
 		assertEquals(e2.getUniqueIdentifier(), result.get(1));
 	}
 
+	@Test
+	public void testAddWaitingEvents_laterChangesToEventsList_doNotChangeWaitingEvents() {
+		final String requestId = "test";
+		List<Event> eventsList = new ArrayList<>();
+		Event e1 = new Event.Builder("e1", "eventType", "eventSource").build();
+		Event e2 = new Event.Builder("e2", "eventType", "eventSource").build();
+		eventsList.add(e1);
+		networkResponseHandler.addWaitingEvents(requestId, eventsList);
+		eventsList.add(e2);
+
+		List<String> result = networkResponseHandler.getWaitingEvents(requestId);
+		assertEquals(1, result.size());
+		assertEquals(e1.getUniqueIdentifier(), result.get(0));
+		assertEquals(1, networkResponseHandler.removeWaitingEvents(requestId).size());
+	}
+
+	@Test
+	public void testAddWaitingEvents_whenMaxRequestsExceeded_evictsOldestRequests() {
+		Event event = new Event.Builder("e1", "eventType", "eventSource").build();
+
+		for (int i = 0; i <= EdgeConstants.Defaults.WAITING_EVENTS_MAX_REQUESTS; i++) {
+			networkResponseHandler.addWaitingEvent("request" + i, event);
+		}
+
+		assertEquals(EdgeConstants.Defaults.WAITING_EVENTS_MAX_REQUESTS, networkResponseHandler.getWaitingEventsCount());
+		// the last added request is kept
+		assertEquals(
+			1,
+			networkResponseHandler.getWaitingEvents("request" + EdgeConstants.Defaults.WAITING_EVENTS_MAX_REQUESTS).size()
+		);
+	}
+
+	@Test
+	public void testGetWaitingEventsCount_countsRequestsWaitingForResponse() {
+		Event event = new Event.Builder("e1", "eventType", "eventSource").build();
+		assertEquals(0, networkResponseHandler.getWaitingEventsCount());
+
+		networkResponseHandler.addWaitingEvent("request1", event);
+		networkResponseHandler.addWaitingEvent("request2", event);
+		assertEquals(2, networkResponseHandler.getWaitingEventsCount());
+
+		networkResponseHandler.removeWaitingEvents("request1");
+		assertEquals(1, networkResponseHandler.getWaitingEventsCount());
+	}
+
 	@Test
 	public void testAddWaitingEvents_skips_whenNullRequestId() {
 		List<Event> eventsList = new ArrayList<>();
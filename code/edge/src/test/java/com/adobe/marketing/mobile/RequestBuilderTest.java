@@ -29,6 +29,7 @@ import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.node.ValueNode;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
@@ -63,13 +64,13 @@ public class RequestBuilderTest {
 	// getPayloadWithExperienceEvents tests
 	@Test
 	public void getPayloadWithExperienceEvents_returnsNull_whenEventsListIsNull() {
-		JSONObject payload = requestBuilder.getPayloadWithExperienceEvents(null);
+		JSONObject payload = toJsonObject(requestBuilder.getPayloadWithExperienceEvents(null));
 		assertNull(payload);
 	}
 
 	@Test
 	public void getPayloadWithExperienceEvents_returnsNull_whenEventsListIsEmpty() {
-		JSONObject payload = requestBuilder.getPayloadWithExperienceEvents(new ArrayList<>());
+		JSONObject payload = toJsonObject(requestBuilder.getPayloadWithExperienceEvents(new ArrayList<>()));
 		assertNull(payload);
 	}
 
@@ -77,7 +78,7 @@ public class RequestBuilderTest {
 	public void getPayloadWithExperienceEvents_doesNotFail_whenDataStoreIsNull() throws Exception {
 		RequestBuilder requestBuilder = new RequestBuilder(null);
 		List<Event> events = getSingleEvent(getExperienceEventData("value"));
-		JSONObject payload = requestBuilder.getPayloadWithExperienceEvents(events);
+		JSONObject payload = toJsonObject(requestBuilder.getPayloadWithExperienceEvents(events));
 
 		assertNotNull(payload);
 		assertNumberOfEvents(payload, 1);
@@ -93,7 +94,7 @@ public class RequestBuilderTest {
 	@Test
 	public void getPayloadWithExperienceEvents_setsEventTimestampAndEventId_whenEventsListIsValid() throws Exception {
 		List<Event> events = getSingleEvent(getExperienceEventData("value"));
-		JSONObject payload = requestBuilder.getPayloadWithExperienceEvents(events);
+		JSONObject payload = toJsonObject(requestBuilder.getPayloadWithExperienceEvents(events));
 
 		assertNotNull(payload);
 		assertNumberOfEvents(payload, 1);
@@ -109,7 +110,7 @@ public class RequestBuilderTest {
 	public void getPayloadWithExperienceEvents_doesNotOverwriteTimestamp_whenValidTimestampPresent() throws Exception {
 		String testTimestamp = "2021-06-03T00:00:20Z";
 		List<Event> events = getSingleEvent(getExperienceEventData("value", null, testTimestamp));
-		JSONObject payload = requestBuilder.getPayloadWithExperienceEvents(events);
+		JSONObject payload = toJsonObject(requestBuilder.getPayloadWithExperienceEvents(events));
 
 		assertNotNull(payload);
 		assertNumberOfEvents(payload, 1);
@@ -125,7 +126,7 @@ public class RequestBuilderTest {
 		throws Exception {
 		String testTimestamp = "invalidTimestamp";
 		List<Event> events = getSingleEvent(getExperienceEventData("value", null, testTimestamp));
-		JSONObject payload = requestBuilder.getPayloadWithExperienceEvents(events);
+		JSONObject payload = toJsonObject(requestBuilder.getPayloadWithExperienceEvents(events));
 
 		assertNotNull(payload);
 		assertNumberOfEvents(payload, 1);
@@ -140,7 +141,7 @@ public class RequestBuilderTest {
 	public void getPayloadWithExperienceEvents_setsEventTimestamp_whenProvidedTimestampIsEmpty() throws Exception {
 		String testTimestamp = "";
 		List<Event> events = getSingleEvent(getExperienceEventData("value", null, testTimestamp));
-		JSONObject payload = requestBuilder.getPayloadWithExperienceEvents(events);
+		JSONObject payload = toJsonObject(requestBuilder.getPayloadWithExperienceEvents(events));
 
 		assertNotNull(payload);
 		assertNumberOfEvents(payload, 1);
@@ -153,7 +154,7 @@ public class RequestBuilderTest {
 	@Test
 	public void getPayloadWithExperienceEvents_setsCollectMeta_whenEventContainsDatasetId() throws Exception {
 		List<Event> events = getSingleEvent(getExperienceEventData("value", "5dd603781b95cc18a83d42ce"));
-		JSONObject payload = requestBuilder.getPayloadWithExperienceEvents(events);
+		JSONObject payload = toJsonObject(requestBuilder.getPayloadWithExperienceEvents(events));
 
 		assertNotNull(payload);
 		assertNumberOfEvents(payload, 1);
@@ -169,7 +170,7 @@ public class RequestBuilderTest {
 	public void getPayloadWithExperienceEvents_setsCollectMeta_whenEventContainsDatasetIdWithWhitespace()
 		throws Exception {
 		List<Event> events = getSingleEvent(getExperienceEventData("value", "   5dd603781b95cc18a83d42ce   "));
-		JSONObject payload = requestBuilder.getPayloadWithExperienceEvents(events);
+		JSONObject payload = toJsonObject(requestBuilder.getPayloadWithExperienceEvents(events));
 
 		assertNotNull(payload);
 		assertNumberOfEvents(payload, 1);
@@ -185,7 +186,7 @@ public class RequestBuilderTest {
 	public void getPayloadWithExperienceEvents_doesNotSetCollectMeta_whenEventDoesNotContainDatasetId()
 		throws Exception {
 		List<Event> events = getSingleEvent(getExperienceEventData("value"));
-		JSONObject payload = requestBuilder.getPayloadWithExperienceEvents(events);
+		JSONObject payload = toJsonObject(requestBuilder.getPayloadWithExperienceEvents(events));
 
 		assertNotNull(payload);
 		assertNumberOfEvents(payload, 1);
@@ -197,6 +198,32 @@ public class RequestBuilderTest {
 		assertFalse(payloadMap.containsKey("events[0].datasetId")); // verify internal key is removed
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	public void getPayloadWithExperienceEvents_doesNotModifyEventData() throws Exception {
+		List<Event> events = getSingleEvent(getExperienceEventData("value", "5dd603781b95cc18a83d42ce"));
+		JSONObject payload = toJsonObject(requestBuilder.getPayloadWithExperienceEvents(events));
+
+		assertNotNull(payload);
+		assertNumberOfEvents(payload, 1);
+
+		Map<String, String> payloadMap = new HashMap<>();
+		addKeys("", new ObjectMapper().readTree(payload.toString()), payloadMap);
+		assertEquals(events.get(0).getUniqueIdentifier(), payloadMap.get("events[0].xdm._id"));
+		assertEquals("abc_stitch", payloadMap.get("events[0].xdm.stitch"));
+		assertEquals("value", payloadMap.get("events[0].data.key"));
+		assertEquals("5dd603781b95cc18a83d42ce", payloadMap.get("events[0].meta.collect.datasetId"));
+
+		// verify the event data is unchanged
+		final Map<String, Object> eventData = events.get(0).getEventData();
+		assertEquals("5dd603781b95cc18a83d42ce", eventData.get("datasetId"));
+		assertFalse(eventData.containsKey("meta"));
+		final Map<String, Object> xdm = (Map<String, Object>) eventData.get("xdm");
+		assertEquals(2, xdm.size());
+		assertFalse(xdm.containsKey("_id"));
+		assertFalse(xdm.containsKey("timestamp"));
+	}
+
 	@Test
 	public void getPayloadWithExperienceEvents_doesNotCollectMeta_whenEventContainsEmptyDatasetId() throws Exception {
 		List<Map<String, Object>> eventsData = new ArrayList<>();
@@ -204,7 +231,7 @@ public class RequestBuilderTest {
 		eventsData.add(getExperienceEventData("two", "   "));
 		List<Event> events = getMultipleEvents(eventsData);
 
-		JSONObject payload = requestBuilder.getPayloadWithExperienceEvents(events);
+		JSONObject payload = toJsonObject(requestBuilder.getPayloadWithExperienceEvents(events));
 
 		assertNotNull(payload);
 		assertNumberOfEvents(payload, 2);
@@ -229,7 +256,7 @@ public class RequestBuilderTest {
 		eventdata.put(EdgeJson.Event.METADATA, eventMeta);
 
 		List<Event> events = getSingleEvent(eventdata);
-		JSONObject payload = requestBuilder.getPayloadWithExperienceEvents(events);
+		JSONObject payload = toJsonObject(requestBuilder.getPayloadWithExperienceEvents(events));
 
 		assertNotNull(payload);
 		assertNumberOfEvents(payload, 1);
@@ -251,7 +278,7 @@ public class RequestBuilderTest {
 		eventsData.add(getExperienceEventData("two"));
 		List<Event> events = getMultipleEvents(eventsData);
 
-		JSONObject payload = requestBuilder.getPayloadWithExperienceEvents(events);
+		JSONObject payload = toJsonObject(requestBuilder.getPayloadWithExperienceEvents(events));
 
 		assertNotNull(payload);
 		assertNumberOfEvents(payload, 2);
@@ -278,7 +305,7 @@ public class RequestBuilderTest {
 		eventsData.add(getExperienceEventData("two", "123"));
 		List<Event> events = getMultipleEvents(eventsData);
 
-		JSONObject payload = requestBuilder.getPayloadWithExperienceEvents(events);
+		JSONObject payload = toJsonObject(requestBuilder.getPayloadWithExperienceEvents(events));
 
 		assertNotNull(payload);
 		assertNumberOfEvents(payload, 2);
@@ -304,7 +331,7 @@ public class RequestBuilderTest {
 		throws Exception {
 		List<Event> events = getSingleEvent(getExperienceEventData("value"));
 		requestBuilder.enableResponseStreaming("\u0000", "\n");
-		JSONObject payload = requestBuilder.getPayloadWithExperienceEvents(events);
+		JSONObject payload = toJsonObject(requestBuilder.getPayloadWithExperienceEvents(events));
 
 		assertNotNull(payload);
 		assertNumberOfEvents(payload, 1);
@@ -321,7 +348,7 @@ public class RequestBuilderTest {
 	public void getPayloadWithExperienceEvents_setsSdkConfigMeta_whenSdkConfigPresent() throws Exception {
 		List<Event> events = getSingleEvent(getExperienceEventData("value", null));
 		requestBuilder.addSdkConfig(new SDKConfig(new Datastream("OriginalDatastreamId")));
-		JSONObject payload = requestBuilder.getPayloadWithExperienceEvents(events);
+		JSONObject payload = toJsonObject(requestBuilder.getPayloadWithExperienceEvents(events));
 
 		assertNotNull(payload);
 		assertNumberOfEvents(payload, 1);
@@ -342,7 +369,7 @@ public class RequestBuilderTest {
 				}
 			}
 		);
-		JSONObject payload = requestBuilder.getPayloadWithExperienceEvents(events);
+		JSONObject payload = toJsonObject(requestBuilder.getPayloadWithExperienceEvents(events));
 
 		assertNotNull(payload);
 		assertNumberOfEvents(payload, 1);
@@ -358,7 +385,7 @@ public class RequestBuilderTest {
 		throws Exception {
 		List<Event> events = getSingleEvent(getExperienceEventData("value", "5dd603781b95cc18a83d42ce"));
 		requestBuilder.addConfigOverrides(new HashMap() {});
-		JSONObject payload = requestBuilder.getPayloadWithExperienceEvents(events);
+		JSONObject payload = toJsonObject(requestBuilder.getPayloadWithExperienceEvents(events));
 
 		assertNotNull(payload);
 		assertNumberOfEvents(payload, 1);
@@ -374,7 +401,7 @@ public class RequestBuilderTest {
 		throws Exception {
 		List<Event> events = getSingleEvent(getExperienceEventData("value", "5dd603781b95cc18a83d42ce"));
 		requestBuilder.addConfigOverrides(null);
-		JSONObject payload = requestBuilder.getPayloadWithExperienceEvents(events);
+		JSONObject payload = toJsonObject(requestBuilder.getPayloadWithExperienceEvents(events));
 
 		assertNotNull(payload);
 		assertNumberOfEvents(payload, 1);
@@ -406,7 +433,7 @@ public class RequestBuilderTest {
 		final JSONObject jsonObject = new JSONObject(jsonStr);
 		final Map<String, Object> identityState = JSONUtils.toMap(jsonObject);
 		requestBuilder.addXdmPayload(identityState);
-		JSONObject payload = requestBuilder.getPayloadWithExperienceEvents(events);
+		JSONObject payload = toJsonObject(requestBuilder.getPayloadWithExperienceEvents(events));
 
 		assertNotNull(payload);
 		assertNumberOfEvents(payload, 1);
@@ -422,7 +449,7 @@ public class RequestBuilderTest {
 		throws Exception {
 		List<Event> events = getSingleEvent(getExperienceEventData("value"));
 		setupMockStoreMetadata();
-		JSONObject payload = requestBuilder.getPayloadWithExperienceEvents(events);
+		JSONObject payload = toJsonObject(requestBuilder.getPayloadWithExperienceEvents(events));
 		assertNotNull(payload);
 		assertNumberOfEvents(payload, 1);
 
@@ -445,7 +472,7 @@ public class RequestBuilderTest {
 	public void getPayloadWithExperienceEvents_NoAddStoreMetadata_whenNullPayloadInDataStore() throws Exception {
 		List<Event> events = getSingleEvent(getExperienceEventData("value"));
 		setupMockStoreMetadataNullDatastoreKey();
-		JSONObject payload = requestBuilder.getPayloadWithExperienceEvents(events);
+		JSONObject payload = toJsonObject(requestBuilder.getPayloadWithExperienceEvents(events));
 		assertNotNull(payload);
 		assertNumberOfEvents(payload, 1);
 
@@ -459,7 +486,7 @@ public class RequestBuilderTest {
 	public void getPayloadWithExperienceEvents_doesNotAddStoreMetadata_whenDatastoreIsEmpty() throws Exception {
 		List<Event> events = getSingleEvent(getExperienceEventData("value"));
 		setupMockStoreMetadataEmpty();
-		JSONObject payload = requestBuilder.getPayloadWithExperienceEvents(events);
+		JSONObject payload = toJsonObject(requestBuilder.getPayloadWithExperienceEvents(events));
 		assertNotNull(payload);
 		assertNumberOfEvents(payload, 1);
 
@@ -471,46 +498,52 @@ public class RequestBuilderTest {
 	// getConsentPayload tests
 	@Test
 	public void getConsentPayload_returnsNull_whenEventNull() {
-		JSONObject payload = requestBuilder.getConsentPayload(null);
+		JSONObject payload = toJsonObject(requestBuilder.getConsentPayload(null));
 		assertNull(payload);
 	}
 
 	@Test
 	public void getConsentPayload_returnsNull_whenEventsListIsEmpty() {
-		JSONObject payload = requestBuilder.getConsentPayload(
-			new Event.Builder("test", "testType", "testSource").setEventData(null).build()
+		JSONObject payload = toJsonObject(
+			requestBuilder.getConsentPayload(
+				new Event.Builder("test", "testType", "testSource").setEventData(null).build()
+			)
 		);
 		assertNull(payload);
 	}
 
 	@Test
 	public void getConsentPayload_returnsNull_whenConsentsMissing() {
-		JSONObject payload = requestBuilder.getConsentPayload(
-			new Event.Builder("test", "testType", "testSource")
-				.setEventData(
-					new HashMap<String, Object>() {
-						{
-							put("missing", "consents");
+		JSONObject payload = toJsonObject(
+			requestBuilder.getConsentPayload(
+				new Event.Builder("test", "testType", "testSource")
+					.setEventData(
+						new HashMap<String, Object>() {
+							{
+								put("missing", "consents");
+							}
 						}
-					}
-				)
-				.build()
+					)
+					.build()
+			)
 		);
 		assertNull(payload);
 	}
 
 	@Test
 	public void getConsentPayload_returnsNull_whenConsentsPresentWithEmptyValue() {
-		JSONObject payload = requestBuilder.getConsentPayload(
-			new Event.Builder("test", "testType", "testSource")
-				.setEventData(
-					new HashMap<String, Object>() {
-						{
-							put("consents", new HashMap<>());
+		JSONObject payload = toJsonObject(
+			requestBuilder.getConsentPayload(
+				new Event.Builder("test", "testType", "testSource")
+					.setEventData(
+						new HashMap<String, Object>() {
+							{
+								put("consents", new HashMap<>());
+							}
 						}
-					}
-				)
-				.build()
+					)
+					.build()
+			)
 		);
 		assertNull(payload);
 	}
@@ -534,8 +567,10 @@ public class RequestBuilderTest {
 				put("consents", collectConsent);
 			}
 		};
-		JSONObject payload = requestBuilder.getConsentPayload(
-			new Event.Builder("test", "testType", "testSource").setEventData(consentsEventData).build()
+		JSONObject payload = toJsonObject(
+			requestBuilder.getConsentPayload(
+				new Event.Builder("test", "testType", "testSource").setEventData(consentsEventData).build()
+			)
 		);
 		assertNotNull(payload);
 
@@ -550,30 +585,32 @@ public class RequestBuilderTest {
 	@Test
 	public void getConsentPayload_doesNotAddStoreMetadata() throws Exception {
 		setupMockStoreMetadata();
-		JSONObject payload = requestBuilder.getConsentPayload(
-			new Event.Builder("test", "testType", "testSource")
-				.setEventData(
-					new HashMap<String, Object>() {
-						{
-							put(
-								"consents",
-								new HashMap<String, Object>() {
-									{
-										put(
-											"collect",
-											new HashMap<String, Object>() {
-												{
-													put("val", "y");
+		JSONObject payload = toJsonObject(
+			requestBuilder.getConsentPayload(
+				new Event.Builder("test", "testType", "testSource")
+					.setEventData(
+						new HashMap<String, Object>() {
+							{
+								put(
+									"consents",
+									new HashMap<String, Object>() {
+										{
+											put(
+												"collect",
+												new HashMap<String, Object>() {
+													{
+														put("val", "y");
+													}
 												}
-											}
-										);
+											);
+										}
 									}
-								}
-							);
+								);
+							}
 						}
-					}
-				)
-				.build()
+					)
+					.build()
+			)
 		);
 		assertStandardFieldsInConsentUpdatesPayload(payload);
 
@@ -602,30 +639,32 @@ public class RequestBuilderTest {
 		final JSONObject jsonObject = new JSONObject(jsonStr);
 		final Map<String, Object> identityState = JSONUtils.toMap(jsonObject);
 		requestBuilder.addXdmPayload(identityState);
-		JSONObject payload = requestBuilder.getConsentPayload(
-			new Event.Builder("test", "testType", "testSource")
-				.setEventData(
-					new HashMap<String, Object>() {
-						{
-							put(
-								"consents",
-								new HashMap<String, Object>() {
-									{
-										put(
-											"collect",
-											new HashMap<String, Object>() {
-												{
-													put("val", "y");
+		JSONObject payload = toJsonObject(
+			requestBuilder.getConsentPayload(
+				new Event.Builder("test", "testType", "testSource")
+					.setEventData(
+						new HashMap<String, Object>() {
+							{
+								put(
+									"consents",
+									new HashMap<String, Object>() {
+										{
+											put(
+												"collect",
+												new HashMap<String, Object>() {
+													{
+														put("val", "y");
+													}
 												}
-											}
-										);
+											);
+										}
 									}
-								}
-							);
+								);
+							}
 						}
-					}
-				)
-				.build()
+					)
+					.build()
+			)
 		);
 
 		assertStandardFieldsInConsentUpdatesPayload(payload);
@@ -641,30 +680,32 @@ public class RequestBuilderTest {
 		final JSONObject jsonObject = new JSONObject(jsonStr);
 		final Map<String, Object> identityState = JSONUtils.toMap(jsonObject);
 		requestBuilder.addXdmPayload(identityState);
-		JSONObject payload = requestBuilder.getConsentPayload(
-			new Event.Builder("test", "testType", "testSource")
-				.setEventData(
-					new HashMap<String, Object>() {
-						{
-							put(
-								"consents",
-								new HashMap<String, Object>() {
-									{
-										put(
-											"collect",
-											new HashMap<String, Object>() {
-												{
-													put("val", "y");
+		JSONObject payload = toJsonObject(
+			requestBuilder.getConsentPayload(
+				new Event.Builder("test", "testType", "testSource")
+					.setEventData(
+						new HashMap<String, Object>() {
+							{
+								put(
+									"consents",
+									new HashMap<String, Object>() {
+										{
+											put(
+												"collect",
+												new HashMap<String, Object>() {
+													{
+														put("val", "y");
+													}
 												}
-											}
-										);
+											);
+										}
 									}
-								}
-							);
+								);
+							}
 						}
-					}
-				)
-				.build()
+					)
+					.build()
+			)
 		);
 
 		assertStandardFieldsInConsentUpdatesPayload(payload);
@@ -674,30 +715,32 @@ public class RequestBuilderTest {
 	@Test
 	public void getConsentPayload_addsKonductorConfigWithStreaming_whenStreamingEnabled() throws Exception {
 		requestBuilder.enableResponseStreaming("\u0000", "\n");
-		JSONObject payload = requestBuilder.getConsentPayload(
-			new Event.Builder("test", "testType", "testSource")
-				.setEventData(
-					new HashMap<String, Object>() {
-						{
-							put(
-								"consents",
-								new HashMap<String, Object>() {
-									{
-										put(
-											"collect",
-											new HashMap<String, Object>() {
-												{
-													put("val", "y");
+		JSONObject payload = toJsonObject(
+			requestBuilder.getConsentPayload(
+				new Event.Builder("test", "testType", "testSource")
+					.setEventData(
+						new HashMap<String, Object>() {
+							{
+								put(
+									"consents",
+									new HashMap<String, Object>() {
+										{
+											put(
+												"collect",
+												new HashMap<String, Object>() {
+													{
+														put("val", "y");
+													}
 												}
-											}
-										);
+											);
+										}
 									}
-								}
-							);
+								);
+							}
 						}
-					}
-				)
-				.build()
+					)
+					.build()
+			)
 		);
 
 		assertStandardFieldsInConsentUpdatesPayload(payload);
@@ -727,6 +770,19 @@ public class RequestBuilderTest {
 		assertEquals("2.0", consent.getJSONObject(0).getString("version"));
 	}
 
+	private JSONObject toJsonObject(final byte[] payload) {
+		if (payload == null) {
+			return null;
+		}
+
+		try {
+			return new JSONObject(new String(payload, StandardCharsets.UTF_8));
+		} catch (JSONException e) {
+			fail("Request payload is not valid JSON: " + e.getLocalizedMessage());
+			return null;
+		}
+	}
+
 	private void assertNumberOfEvents(final JSONObject payload, final int expectedEventCount) {
 		JSONArray events;
 
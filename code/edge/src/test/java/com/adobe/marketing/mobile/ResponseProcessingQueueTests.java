@@ -0,0 +1,144 @@
+/*
+  Copyright 2023 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+
+public class ResponseProcessingQueueTests {
+
+	@Test
+	public void testSubmit_defaultExecutor_runsTasksInOrderOffCallingThread() {
+		final ResponseProcessingQueue queue = new ResponseProcessingQueue();
+		final List<Integer> results = Collections.synchronizedList(new ArrayList<>());
+		final AtomicReference<Thread> taskThread = new AtomicReference<>();
+
+		for (int i = 0; i < 100; i++) {
+			final int index = i;
+			queue.submit(() -> {
+				taskThread.set(Thread.currentThread());
+				results.add(index);
+			});
+		}
+
+		assertTrue(queue.awaitIdle(1000));
+		assertEquals(0, queue.getPendingTasksCount());
+		assertEquals(100, results.size());
+
+		for (int i = 0; i < 100; i++) {
+			assertEquals(i, (int) results.get(i));
+		}
+
+		assertNotEquals(Thread.currentThread(), taskThread.get());
+	}
+
+	@Test
+	public void testAwaitIdle_whenTaskPending_timesOut() throws InterruptedException {
+		final ResponseProcessingQueue queue = new ResponseProcessingQueue();
+		final CountDownLatch releaseLatch = new CountDownLatch(1);
+
+		queue.submit(() -> {
+			try {
+				releaseLatch.await(1000, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException ignored) {}
+		});
+
+		assertFalse(queue.awaitIdle(50));
+		assertEquals(1, queue.getPendingTasksCount());
+
+		releaseLatch.countDown();
+		assertTrue(queue.awaitIdle(1000));
+	}
+
+	@Test
+	public void testAwaitStateUpdates_whenOnlyOtherTasksPending_doesNotWait() {
+		final ResponseProcessingQueue queue = new ResponseProcessingQueue();
+		final CountDownLatch releaseLatch = new CountDownLatch(1);
+
+		queue.submit(
+			() -> {
+				try {
+					releaseLatch.await(1000, TimeUnit.MILLISECONDS);
+				} catch (InterruptedException ignored) {}
+			},
+			false
+		);
+
+		assertTrue(queue.awaitStateUpdates(0));
+		assertFalse(queue.awaitIdle(0));
+
+		releaseLatch.countDown();
+		assertTrue(queue.awaitIdle(1000));
+	}
+
+	@Test
+	public void testAwaitStateUpdates_whenStateTaskPending_waitsForIt() {
+		final ResponseProcessingQueue queue = new ResponseProcessingQueue();
+		final CountDownLatch releaseLatch = new CountDownLatch(1);
+		final List<String> results = Collections.synchronizedList(new ArrayList<>());
+
+		queue.submit(() -> {
+			try {
+				releaseLatch.await(1000, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException ignored) {}
+			results.add("first");
+		});
+		queue.submit(() -> results.add("state"), true);
+
+		assertFalse(queue.awaitStateUpdates(50));
+
+		releaseLatch.countDown();
+		assertTrue(queue.awaitStateUpdates(1000));
+		assertEquals(Arrays.asList("first", "state"), results);
+	}
+
+	@Test
+	public void testSubmit_taskThrows_nextTasksRun() {
+		final ResponseProcessingQueue queue = new ResponseProcessingQueue(Runnable::run);
+		final List<String> results = new ArrayList<>();
+
+		queue.submit(() -> results.add("first"));
+		queue.submit(() -> {
+			throw new IllegalStateException("test");
+		});
+		queue.submit(() -> results.add("third"));
+
+		assertEquals(Arrays.asList("first", "third"), results);
+		assertEquals(0, queue.getPendingTasksCount());
+		assertTrue(queue.awaitIdle(0));
+	}
+
+	@Test
+	public void testSubmit_rejectingExecutor_runsTaskOnCallingThread() {
+		final ResponseProcessingQueue queue = new ResponseProcessingQueue(command -> {
+			throw new RejectedExecutionException("shut down");
+		});
+		final List<String> results = new ArrayList<>();
+
+		queue.submit(() -> results.add("task"));
+
+		assertEquals(Collections.singletonList("task"), results);
+		assertEquals(0, queue.getPendingTasksCount());
+	}
+}
@@ -0,0 +1,232 @@
+/*
+  Copyright 2023 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RetryPolicyTests {
+
+	private static final String ENDPOINT = "https://edge.adobedc.net/ee/v1/interact";
+	private static final String OTHER_ENDPOINT = "https://edge.adobedc.net/ee/v1/privacy/set-consent";
+
+	private FakeClock clock;
+	private FixedRandom random;
+	private RetryPolicy retryPolicy;
+
+	@Before
+	public void setup() {
+		clock = new FakeClock();
+		random = new FixedRandom();
+		retryPolicy = new RetryPolicy(clock, random);
+	}
+
+	@Test
+	public void testRecordFailure_backsOffWithDecorrelatedJitter_upToMaxInterval() {
+		retryPolicy.updateConfiguration(config(40, 100, 60));
+
+		// the jitter picks the upper bound: base, then three times the previous interval, capped
+		random.pickMax = true;
+		assertEquals(5, retryPolicy.recordFailure(ENDPOINT, RetryResult.NO_SERVER_RETRY_INTERVAL));
+		assertEquals(15, retryPolicy.recordFailure(ENDPOINT, RetryResult.NO_SERVER_RETRY_INTERVAL));
+		assertEquals(40, retryPolicy.recordFailure(ENDPOINT, RetryResult.NO_SERVER_RETRY_INTERVAL));
+		assertEquals(40, retryPolicy.recordFailure(ENDPOINT, RetryResult.NO_SERVER_RETRY_INTERVAL));
+
+		// the jitter picks the lower bound
+		random.pickMax = false;
+		assertEquals(5, retryPolicy.recordFailure(ENDPOINT, RetryResult.NO_SERVER_RETRY_INTERVAL));
+		assertFalse(retryPolicy.allowRequest(ENDPOINT));
+
+		clock.advanceSeconds(5);
+		assertTrue(retryPolicy.allowRequest(ENDPOINT));
+	}
+
+	@Test
+	public void testRecordFailure_serverRetryInterval_takesPrecedence() {
+		random.pickMax = true;
+
+		assertEquals(5, retryPolicy.recordFailure(ENDPOINT, RetryResult.NO_SERVER_RETRY_INTERVAL));
+		assertEquals(2, retryPolicy.recordFailure(ENDPOINT, 2));
+		assertEquals(120, retryPolicy.recordFailure(ENDPOINT, 120));
+		assertEquals(
+			EdgeConstants.Defaults.RETRY_MAX_SERVER_INTERVAL_SECONDS,
+			retryPolicy.recordFailure(ENDPOINT, Integer.MAX_VALUE)
+		);
+	}
+
+	@Test
+	public void testRecordFailure_serverRetryIntervalEqualToDefault_takesPrecedence() {
+		random.pickMax = true;
+
+		assertEquals(5, retryPolicy.recordFailure(ENDPOINT, RetryResult.NO_SERVER_RETRY_INTERVAL));
+		assertEquals(15, retryPolicy.recordFailure(ENDPOINT, RetryResult.NO_SERVER_RETRY_INTERVAL));
+		assertEquals(
+			EdgeConstants.Defaults.RETRY_INTERVAL_SECONDS,
+			retryPolicy.recordFailure(ENDPOINT, EdgeConstants.Defaults.RETRY_INTERVAL_SECONDS)
+		);
+	}
+
+	@Test
+	public void testRecordFailure_pausesAllRequestsToEndpoint_untilDeadline() {
+		assertEquals(120, retryPolicy.recordFailure(ENDPOINT, 120));
+
+		assertFalse(retryPolicy.allowRequest(ENDPOINT));
+		assertTrue(retryPolicy.allowRequest(OTHER_ENDPOINT));
+		assertEquals(120, retryPolicy.getPauseSeconds(ENDPOINT));
+		assertEquals(0, retryPolicy.getPauseSeconds(OTHER_ENDPOINT));
+
+		clock.advanceSeconds(100);
+		assertFalse(retryPolicy.allowRequest(ENDPOINT));
+		assertEquals(20, retryPolicy.getPauseSeconds(ENDPOINT));
+		assertEquals(0, retryPolicy.getPauseSeconds(OTHER_ENDPOINT));
+
+		clock.advanceSeconds(20);
+		assertTrue(retryPolicy.allowRequest(ENDPOINT));
+		assertEquals(0, retryPolicy.getPauseSeconds(ENDPOINT));
+	}
+
+	@Test
+	public void testGetPauseSeconds_returnsPauseOfEndpoint() {
+		assertEquals(0, retryPolicy.getPauseSeconds(ENDPOINT));
+
+		retryPolicy.recordFailure(ENDPOINT, 30);
+		retryPolicy.recordFailure(OTHER_ENDPOINT, 90);
+		assertEquals(30, retryPolicy.getPauseSeconds(ENDPOINT));
+		assertEquals(90, retryPolicy.getPauseSeconds(OTHER_ENDPOINT));
+
+		retryPolicy.recordSuccess(OTHER_ENDPOINT);
+		assertEquals(30, retryPolicy.getPauseSeconds(ENDPOINT));
+		assertEquals(0, retryPolicy.getPauseSeconds(OTHER_ENDPOINT));
+	}
+
+	@Test
+	public void testRecordSuccess_resetsBackoff() {
+		random.pickMax = true;
+
+		assertEquals(5, retryPolicy.recordFailure(ENDPOINT, RetryResult.NO_SERVER_RETRY_INTERVAL));
+		assertEquals(15, retryPolicy.recordFailure(ENDPOINT, RetryResult.NO_SERVER_RETRY_INTERVAL));
+		retryPolicy.recordSuccess(ENDPOINT);
+
+		assertEquals(5, retryPolicy.recordFailure(ENDPOINT, RetryResult.NO_SERVER_RETRY_INTERVAL));
+	}
+
+	@Test
+	public void testCircuit_opensAfterConsecutiveFailures_thenProbesHalfOpen() {
+		retryPolicy.updateConfiguration(config(300, 3, 60));
+
+		retryPolicy.recordFailure(ENDPOINT, RetryResult.NO_SERVER_RETRY_INTERVAL);
+		clock.advanceSeconds(5);
+		retryPolicy.recordFailure(ENDPOINT, RetryResult.NO_SERVER_RETRY_INTERVAL);
+		assertFalse(retryPolicy.allowRequest(ENDPOINT));
+		clock.advanceSeconds(5);
+		assertTrue(retryPolicy.allowRequest(ENDPOINT));
+
+		// the third failure opens the circuit, the retry interval covers the open interval
+		assertEquals(60, retryPolicy.recordFailure(ENDPOINT, RetryResult.NO_SERVER_RETRY_INTERVAL));
+		assertFalse(retryPolicy.allowRequest(ENDPOINT));
+		assertTrue(retryPolicy.allowRequest(OTHER_ENDPOINT));
+
+		clock.advanceSeconds(59);
+		assertFalse(retryPolicy.allowRequest(ENDPOINT));
+		assertEquals(1, retryPolicy.getPauseSeconds(ENDPOINT));
+
+		// half-open, a single probe request is allowed
+		clock.advanceSeconds(1);
+		assertTrue(retryPolicy.allowRequest(ENDPOINT));
+		assertFalse(retryPolicy.allowRequest(ENDPOINT));
+		assertEquals(0, retryPolicy.getPauseSeconds(ENDPOINT));
+
+		// the probe succeeds and closes the circuit
+		retryPolicy.recordSuccess(ENDPOINT);
+		assertTrue(retryPolicy.allowRequest(ENDPOINT));
+		assertTrue(retryPolicy.allowRequest(ENDPOINT));
+	}
+
+	@Test
+	public void testCircuit_probeFails_reopensCircuit() {
+		retryPolicy.updateConfiguration(config(300, 1, 30));
+
+		assertEquals(30, retryPolicy.recordFailure(ENDPOINT, RetryResult.NO_SERVER_RETRY_INTERVAL));
+		clock.advanceSeconds(30);
+		assertTrue(retryPolicy.allowRequest(ENDPOINT));
+
+		assertEquals(30, retryPolicy.recordFailure(ENDPOINT, RetryResult.NO_SERVER_RETRY_INTERVAL));
+		assertFalse(retryPolicy.allowRequest(ENDPOINT));
+		clock.advanceSeconds(10);
+		assertEquals(20, retryPolicy.getPauseSeconds(ENDPOINT));
+	}
+
+	@Test
+	public void testUpdateConfiguration_invalidValues_useValidBounds() {
+		final Map<String, Object> config = new HashMap<>();
+		config.put(EdgeConstants.SharedState.Configuration.EDGE_RETRY_MAX_INTERVAL_SECONDS, 1);
+		config.put(EdgeConstants.SharedState.Configuration.EDGE_RETRY_FAILURE_THRESHOLD, 0);
+		config.put(EdgeConstants.SharedState.Configuration.EDGE_RETRY_OPEN_INTERVAL_SECONDS, "invalid");
+		retryPolicy.updateConfiguration(config);
+		random.pickMax = true;
+
+		// the failure threshold is at least one and the max interval at least the base interval
+		assertEquals(
+			EdgeConstants.Defaults.RETRY_OPEN_INTERVAL_SECONDS,
+			retryPolicy.recordFailure(ENDPOINT, RetryResult.NO_SERVER_RETRY_INTERVAL)
+		);
+		clock.advanceSeconds(EdgeConstants.Defaults.RETRY_OPEN_INTERVAL_SECONDS);
+		assertTrue(retryPolicy.allowRequest(ENDPOINT));
+		assertEquals(
+			EdgeConstants.Defaults.RETRY_OPEN_INTERVAL_SECONDS,
+			retryPolicy.recordFailure(ENDPOINT, RetryResult.NO_SERVER_RETRY_INTERVAL)
+		);
+	}
+
+	private static Map<String, Object> config(
+		final int maxIntervalSeconds,
+		final int failureThreshold,
+		final int openIntervalSeconds
+	) {
+		final Map<String, Object> config = new HashMap<>();
+		config.put(EdgeConstants.SharedState.Configuration.EDGE_RETRY_MAX_INTERVAL_SECONDS, maxIntervalSeconds);
+		config.put(EdgeConstants.SharedState.Configuration.EDGE_RETRY_FAILURE_THRESHOLD, failureThreshold);
+		config.put(EdgeConstants.SharedState.Configuration.EDGE_RETRY_OPEN_INTERVAL_SECONDS, openIntervalSeconds);
+		return config;
+	}
+
+	private static class FakeClock implements Clock {
+
+		private long currentTimeMillis = 1000000L;
+
+		@Override
+		public long currentTimeMillis() {
+			return currentTimeMillis;
+		}
+
+		void advanceSeconds(final int seconds) {
+			currentTimeMillis += seconds * 1000L;
+		}
+	}
+
+	private static class FixedRandom extends Random {
+
+		boolean pickMax = false;
+
+		@Override
+		public int nextInt(final int bound) {
+			return pickMax ? bound - 1 : 0;
+		}
+	}
+}
@@ -0,0 +1,166 @@
+/*
+  Copyright 2023 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SharedStateCacheTests {
+
+	private final List<String> resolvedStates = new ArrayList<>();
+	private final Map<String, SharedStateResult> sharedStates = new HashMap<>();
+	private SharedStateCache cache;
+
+	@Before
+	public void setup() {
+		resolvedStates.clear();
+		sharedStates.clear();
+		cache =
+			new SharedStateCache((stateOwner, event, xdm, barrier) -> {
+				resolvedStates.add(stateOwner + (xdm ? ":xdm" : "") + (barrier ? ":barrier" : ""));
+				return sharedStates.get(stateOwner);
+			});
+	}
+
+	@Test
+	public void testResolve_sameEvent_resolvesSetSharedStateOnce() {
+		final SharedStateResult configState = setSharedState("config", SharedStateStatus.SET, "edge.configId", "123");
+		final Event event = createEvent();
+
+		assertSame(configState, cache.resolve("config", event, false, false));
+		assertSame(configState, cache.resolve("config", event, false, false));
+		assertSame(configState, cache.resolve("config", event, false, false));
+
+		assertEquals(1, resolvedStates.size());
+	}
+
+	@Test
+	public void testResolve_sameEvent_differentRequests_resolvesEachRequest() {
+		setSharedState("identity", SharedStateStatus.SET, "identityMap", "value");
+		final Event event = createEvent();
+
+		cache.resolve("identity", event, true, false);
+		cache.resolve("identity", event, true, true);
+		cache.resolve("identity", event, false, false);
+		cache.resolve("identity", event, true, true);
+
+		assertEquals(3, resolvedStates.size());
+		assertEquals("identity:xdm", resolvedStates.get(0));
+		assertEquals("identity:xdm:barrier", resolvedStates.get(1));
+		assertEquals("identity", resolvedStates.get(2));
+	}
+
+	@Test
+	public void testResolve_pendingSharedState_isResolvedAgain() {
+		setSharedState("config", SharedStateStatus.PENDING, null, null);
+		final Event event = createEvent();
+
+		assertEquals(SharedStateStatus.PENDING, cache.resolve("config", event, false, false).getStatus());
+
+		final SharedStateResult configState = setSharedState("config", SharedStateStatus.SET, "edge.configId", "123");
+		assertSame(configState, cache.resolve("config", event, false, false));
+		assertSame(configState, cache.resolve("config", event, false, false));
+
+		assertEquals(2, resolvedStates.size());
+	}
+
+	@Test
+	public void testResolve_nullSharedState_isResolvedAgain() {
+		final Event event = createEvent();
+
+		cache.resolve("config", event, false, false);
+		cache.resolve("config", event, false, false);
+
+		assertEquals(2, resolvedStates.size());
+	}
+
+	@Test
+	public void testResolve_newEvent_clearsResolvedSharedStates() {
+		setSharedState("config", SharedStateStatus.SET, "edge.configId", "123");
+		final Event event1 = createEvent();
+		final Event event2 = createEvent();
+
+		cache.resolve("config", event1, false, false);
+		final SharedStateResult configState = setSharedState("config", SharedStateStatus.SET, "edge.configId", "456");
+		assertSame(configState, cache.resolve("config", event2, false, false));
+		// the shared states of the previous event are not kept
+		cache.resolve("config", event1, false, false);
+
+		assertEquals(3, resolvedStates.size());
+	}
+
+	@Test
+	public void testDerivedValue_samePayload_computesOnce() {
+		final List<Map<String, Object>> derivedStates = new ArrayList<>();
+		final SharedStateCache.DerivedValue<Object> derivedValue = new SharedStateCache.DerivedValue<>(state -> {
+			derivedStates.add(state);
+			return state == null ? "none" : state.get("key");
+		});
+		final Map<String, Object> state = new HashMap<>();
+		state.put("key", "value");
+
+		assertEquals("value", derivedValue.get(state));
+		assertEquals("value", derivedValue.get(state));
+
+		assertEquals(1, derivedStates.size());
+	}
+
+	@Test
+	public void testDerivedValue_newPayload_computesAgain() {
+		final List<Map<String, Object>> derivedStates = new ArrayList<>();
+		final SharedStateCache.DerivedValue<Object> derivedValue = new SharedStateCache.DerivedValue<>(state -> {
+			derivedStates.add(state);
+			return state == null ? "none" : state.get("key");
+		});
+		final Map<String, Object> state1 = new HashMap<>();
+		state1.put("key", "value1");
+		final Map<String, Object> state2 = new HashMap<>();
+		state2.put("key", "value2");
+
+		assertEquals("none", derivedValue.get(null));
+		assertEquals("none", derivedValue.get(null));
+		assertEquals("value1", derivedValue.get(state1));
+		assertEquals("value2", derivedValue.get(state2));
+		assertEquals("value1", derivedValue.get(state1));
+
+		assertEquals(4, derivedStates.size());
+	}
+
+	private SharedStateResult setSharedState(
+		final String stateOwner,
+		final SharedStateStatus status,
+		final String key,
+		final Object value
+	) {
+		Map<String, Object> state = null;
+
+		if (key != null) {
+			state = new HashMap<>();
+			state.put(key, value);
+		}
+
+		final SharedStateResult result = new SharedStateResult(status, state);
+		sharedStates.put(stateOwner, result);
+		return result;
+	}
+
+	private static Event createEvent() {
+		return new Event.Builder("test event", EventType.EDGE, EventSource.REQUEST_CONTENT).build();
+	}
+}
@@ -18,6 +18,7 @@ import static org.junit.Assert.assertNotNull;
 
 import com.adobe.marketing.mobile.util.FakeNamedCollection;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -58,6 +59,21 @@ public class StoreResponsePayloadManagerTests {
 		assertEquals(1, manager.getActiveStores().size());
 	}
 
+	@Test
+	public void getActiveStores_evictsExpiredKey_whenClockPassesExpiry() {
+		final long[] currentTimeMillis = { 1_000_000L };
+		StoreResponsePayloadManager manager = new StoreResponsePayloadManager(
+			fakeNamedCollection,
+			() -> currentTimeMillis[0]
+		);
+		manager.saveStorePayloads(buildStorePayloads());
+
+		currentTimeMillis[0] += 1999;
+		assertEquals(2, manager.getActiveStores().size());
+		currentTimeMillis[0] += 1;
+		assertEquals(1, manager.getActiveStores().size());
+	}
+
 	@Test
 	public void saveStorePayloads_noException_whenDataStoreIsNull() {
 		StoreResponsePayloadManager manager = new StoreResponsePayloadManager(null);
@@ -182,6 +198,138 @@ public class StoreResponsePayloadManagerTests {
 		new StoreResponsePayloadManager(null).deleteAllStorePayloads();
 	}
 
+	@Test
+	public void getActiveStores_sharedBetweenManagers_whenSameDataStore() {
+		new StoreResponsePayloadManager(fakeNamedCollection).saveStorePayloads(buildStorePayloads());
+
+		StoreResponsePayloadManager manager = new StoreResponsePayloadManager(fakeNamedCollection);
+		assertEquals(2, manager.getActiveStores().size());
+
+		ArrayList<String> toDelete = new ArrayList<>();
+		toDelete.add("kndctr_53A16ACB5CC1D3760A495C99_AdobeOrg_optout");
+		manager.deleteStoreResponses(toDelete);
+
+		assertEquals(1, new StoreResponsePayloadManager(fakeNamedCollection).getActiveStores().size());
+	}
+
+	@Test
+	public void getActiveStores_readsPersistedPayloads() {
+		Map<String, String> persistedPayloads = new HashMap<>();
+		persistedPayloads.put(
+			"kndctr_53A16ACB5CC1D3760A495C99_AdobeOrg_optout",
+			"{\"key\":\"kndctr_53A16ACB5CC1D3760A495C99_AdobeOrg_optout\",\"value\":\"general=true\",\"maxAge\":7200}"
+		);
+		persistedPayloads.put("invalid", "not json");
+		fakeNamedCollection.setMap(STORE_PAYLOADS, persistedPayloads);
+
+		Map<String, StoreResponsePayload> activeStores = new StoreResponsePayloadManager(fakeNamedCollection)
+			.getActiveStores();
+
+		assertEquals(1, activeStores.size());
+		assertEquals("general=true", activeStores.get("kndctr_53A16ACB5CC1D3760A495C99_AdobeOrg_optout").getValue());
+	}
+
+	@Test
+	public void getActiveStores_removesExpiredPayloadsFromDataStore_onNextSave() {
+		final long[] currentTimeMillis = { 1_000_000L };
+		StoreResponsePayloadManager manager = new StoreResponsePayloadManager(
+			fakeNamedCollection,
+			() -> currentTimeMillis[0]
+		);
+		manager.saveStorePayloads(buildStorePayloads());
+		assertEquals(2, fakeNamedCollection.getMap(STORE_PAYLOADS).size());
+
+		currentTimeMillis[0] += 2000;
+		assertEquals(1, manager.getActiveStores().size());
+		// the eviction is not written on read
+		assertEquals(2, fakeNamedCollection.getMap(STORE_PAYLOADS).size());
+
+		manager.saveStorePayloads(new ArrayList<Map<String, Object>>());
+
+		Map<String, String> persistedPayloads = fakeNamedCollection.getMap(STORE_PAYLOADS);
+		assertEquals(1, persistedPayloads.size());
+		assertTrue(persistedPayloads.containsKey("kndctr_53A16ACB5CC1D3760A495C99_AdobeOrg_optout"));
+	}
+
+	@Test
+	public void saveStorePayloads_withEvictedPayloads_writesDataStoreOnce() {
+		final long[] currentTimeMillis = { 1_000_000L };
+		final int[] writes = { 0 };
+		final FakeNamedCollection countingNamedCollection = new FakeNamedCollection() {
+			@Override
+			public void setMap(String key, Map<String, String> val) {
+				writes[0]++;
+				super.setMap(key, val);
+			}
+		};
+		StoreResponsePayloadManager manager = new StoreResponsePayloadManager(
+			countingNamedCollection,
+			() -> currentTimeMillis[0]
+		);
+		manager.saveStorePayloads(buildStorePayloads());
+
+		currentTimeMillis[0] += 2000;
+		manager.getActiveStores();
+		manager.getActiveStores();
+		assertEquals(1, writes[0]);
+
+		manager.saveStorePayloads(buildStorePayloads().subList(0, 1));
+		assertEquals(2, writes[0]);
+		assertEquals(1, countingNamedCollection.getMap(STORE_PAYLOADS).size());
+	}
+
+	@Test
+	public void saveStorePayloads_emptyList_keepsPersistedPayloads() {
+		new StoreResponsePayloadManager(fakeNamedCollection).saveStorePayloads(buildStorePayloads());
+		final FakeNamedCollection relaunchedNamedCollection = new FakeNamedCollection();
+		relaunchedNamedCollection.setMap(STORE_PAYLOADS, fakeNamedCollection.getMap(STORE_PAYLOADS));
+
+		StoreResponsePayloadManager manager = new StoreResponsePayloadManager(relaunchedNamedCollection);
+		manager.saveStorePayloads(new ArrayList<Map<String, Object>>());
+
+		assertEquals(2, relaunchedNamedCollection.getMap(STORE_PAYLOADS).size());
+	}
+
+	@Test
+	public void saveStorePayloads_deletesPayloads_whenMaxAgeNotPositive() {
+		StoreResponsePayloadManager manager = new StoreResponsePayloadManager(fakeNamedCollection);
+		List<Map<String, Object>> payloads = buildStorePayloads();
+		manager.saveStorePayloads(payloads);
+
+		payloads.get(0).put(EdgeJson.Response.EventHandle.Store.MAX_AGE, 0);
+		payloads.get(0).remove(EdgeJson.Response.EventHandle.Store.EXPIRY_DATE);
+		manager.saveStorePayloads(payloads.subList(0, 1));
+
+		assertEquals(1, manager.getActiveStores().size());
+		assertEquals(1, fakeNamedCollection.getMap(STORE_PAYLOADS).size());
+	}
+
+	@Test
+	public void saveStorePayloads_sameKeys_keepsOneExpiryEntryPerKey() {
+		StoreResponsePayloadManager manager = new StoreResponsePayloadManager(fakeNamedCollection);
+
+		for (int i = 0; i < 50; i++) {
+			manager.saveStorePayloads(buildStorePayloads());
+		}
+
+		assertEquals(2, manager.getExpiryQueueSize());
+		assertEquals(2, manager.getActiveStores().size());
+	}
+
+	@Test
+	public void deleteStoreResponses_removesExpiryEntries() {
+		StoreResponsePayloadManager manager = new StoreResponsePayloadManager(fakeNamedCollection);
+		manager.saveStorePayloads(buildStorePayloads());
+
+		manager.deleteStoreResponses(new ArrayList<>(Arrays.asList("kndctr_53A16ACB5CC1D3760A495C99_AdobeOrg_optin")));
+		assertEquals(1, manager.getExpiryQueueSize());
+
+		List<Map<String, Object>> payloads = buildStorePayloads();
+		payloads.get(0).put(EdgeJson.Response.EventHandle.Store.MAX_AGE, 0);
+		manager.saveStorePayloads(payloads.subList(0, 1));
+		assertEquals(0, manager.getExpiryQueueSize());
+	}
+
 	private List<Map<String, Object>> buildStorePayloads() {
 		List<Map<String, Object>> payloads = new ArrayList<>();
 
@@ -0,0 +1,196 @@
+/*
+  Copyright 2023 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+public class StreamingResponseSplitterTests {
+
+	private static final String RS = "\u0000";
+	private static final String LF = "\n";
+	private static final String RECORD =
+		"{\"requestId\":\"ded17427-c993-4182-8d94-2a169c1a23e2\",\"handle\":[{\"type\":\"state:store\",\"payload\":[{\"key\":\"kndctr_orgid_identity\",\"value\":\"CiY0Mjk4NTYwMjc4MDg5Mjk4MDUxOTA1NzAxMjUxNzM2MDkzMDkzNlIPCNDE6M\",\"maxAge\":34128000}]}]}";
+
+	@Test
+	public void testSplit_singleRecord() throws IOException {
+		List<String> records = split(RS, LF, RS + RECORD + LF, Integer.MAX_VALUE);
+
+		assertEquals(Collections.singletonList(RECORD), records);
+	}
+
+	@Test
+	public void testSplit_multipleRecords() throws IOException {
+		List<String> records = split(RS, LF, RS + "{\"a\":1}" + LF + RS + "{\"b\":2}" + LF, Integer.MAX_VALUE);
+
+		assertEquals(Arrays.asList("{\"a\":1}", "{\"b\":2}"), records);
+	}
+
+	@Test
+	public void testSplit_recordWithoutTrailingLineFeed_isReturned() throws IOException {
+		List<String> records = split(RS, LF, RS + "{\"a\":1}" + LF + RS + "{\"b\":2}", Integer.MAX_VALUE);
+
+		assertEquals(Arrays.asList("{\"a\":1}", "{\"b\":2}"), records);
+	}
+
+	@Test
+	public void testSplit_emptyRecordSeparator() throws IOException {
+		List<String> records = split("", LF, "{}", Integer.MAX_VALUE);
+
+		assertEquals(Collections.singletonList("{}"), records);
+	}
+
+	@Test
+	public void testSplit_emptyRecords_areIgnored() throws IOException {
+		List<String> records = split(RS, LF, LF + RS + "{}" + LF + LF + LF, Integer.MAX_VALUE);
+
+		assertEquals(Collections.singletonList("{}"), records);
+	}
+
+	@Test
+	public void testSplit_recordShorterThanRecordSeparator_isIgnored() throws IOException {
+		List<String> records = split("<RS>", "<LF>", "<RS>{}<LF>.", Integer.MAX_VALUE);
+
+		assertEquals(Collections.singletonList("{}"), records);
+	}
+
+	@Test
+	public void testSplit_multiCharacterDelimiters_splitAcrossReads() throws IOException {
+		String response = "<RS>{\"some\":\"thing\\n\"}<LF><RS>{\n  \"may\": \"include\"\n}<LF>";
+
+		List<String> records = split("<RS>", "<LF>", new OneByteInputStream(response), Integer.MAX_VALUE);
+
+		assertEquals(Arrays.asList("{\"some\":\"thing\\n\"}", "{\n  \"may\": \"include\"\n}"), records);
+	}
+
+	@Test
+	public void testSplit_multiByteCharacters_splitAcrossReads() throws IOException {
+		String response = "\u00A9{\"name\":\"caf\u00E9 \u2615\"}\u00F8\u00A9{\"name\":\"\uD83D\uDE00\"}\u00F8";
+
+		List<String> records = split("\u00A9", "\u00F8", new OneByteInputStream(response), Integer.MAX_VALUE);
+
+		assertEquals(Arrays.asList("{\"name\":\"caf\u00E9 \u2615\"}", "{\"name\":\"\uD83D\uDE00\"}"), records);
+	}
+
+	@Test
+	public void testSplit_multiMegabyteResponse_manyRecords() throws IOException {
+		int recordCount = 20000; // ~5 MB
+		StringBuilder response = new StringBuilder();
+
+		for (int i = 0; i < recordCount; i++) {
+			response.append(RS).append(RECORD).append(LF);
+		}
+
+		List<String> records = split(RS, LF, response.toString(), EdgeConstants.Defaults.STREAMING_MAX_RECORD_BYTES);
+
+		assertEquals(Collections.nCopies(recordCount, RECORD), records);
+	}
+
+	@Test
+	public void testSplit_multiMegabyteRecord_underMaxSize() throws IOException {
+		String largeRecord = buildRecord(3 * 1024 * 1024);
+
+		List<String> records = split(
+			RS,
+			LF,
+			RS + largeRecord + LF + RS + RECORD + LF,
+			EdgeConstants.Defaults.STREAMING_MAX_RECORD_BYTES
+		);
+
+		assertEquals(2, records.size());
+		assertEquals(largeRecord, records.get(0));
+		assertEquals(RECORD, records.get(1));
+	}
+
+	@Test
+	public void testSplit_recordOverMaxSize_isDropped_nextRecordsReturned() throws IOException {
+		String largeRecord = buildRecord(2 * 1024 * 1024);
+
+		List<String> records = split(RS, LF, RS + RECORD + LF + RS + largeRecord + LF + RS + RECORD + LF, 1024 * 1024);
+
+		assertEquals(Arrays.asList(RECORD, RECORD), records);
+	}
+
+	@Test
+	public void testSplit_lastRecordOverMaxSize_isDropped() throws IOException {
+		String largeRecord = buildRecord(64 * 1024);
+
+		List<String> records = split(RS, LF, RS + RECORD + LF + RS + largeRecord, 1024);
+
+		assertEquals(Collections.singletonList(RECORD), records);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructor_emptyLineFeed_throws() {
+		new StreamingResponseSplitter(RS, "", 1024);
+	}
+
+	private static String buildRecord(final int size) {
+		StringBuilder builder = new StringBuilder(size);
+		builder.append("{\"data\":\"");
+
+		while (builder.length() < size - 2) {
+			builder.append('x');
+		}
+
+		return builder.append("\"}").toString();
+	}
+
+	private static List<String> split(
+		final String recordSeparator,
+		final String lineFeed,
+		final String response,
+		final int maxRecordBytes
+	) throws IOException {
+		return split(
+			recordSeparator,
+			lineFeed,
+			new ByteArrayInputStream(response.getBytes(StandardCharsets.UTF_8)),
+			maxRecordBytes
+		);
+	}
+
+	private static List<String> split(
+		final String recordSeparator,
+		final String lineFeed,
+		final InputStream inputStream,
+		final int maxRecordBytes
+	) throws IOException {
+		final List<String> records = new ArrayList<>();
+		new StreamingResponseSplitter(recordSeparator, lineFeed, maxRecordBytes).split(inputStream, records::add);
+		return records;
+	}
+
+	/**
+	 * Input stream returning at most one byte per read, to exercise delimiters split across reads.
+	 */
+	private static class OneByteInputStream extends ByteArrayInputStream {
+
+		OneByteInputStream(final String content) {
+			super(content.getBytes(StandardCharsets.UTF_8));
+		}
+
+		@Override
+		public synchronized int read(final byte[] b, final int off, final int len) {
+			return super.read(b, off, Math.min(len, 1));
+		}
+	}
+}
@@ -0,0 +1,51 @@
+/*
+  Copyright 2023 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile;
+
+import static org.junit.Assert.assertEquals;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+import org.junit.Test;
+
+public class TimestampFormatterTests {
+
+	@Test
+	public void testFormatUtcMillis_epoch() {
+		assertEquals("1970-01-01T00:00:00.000Z", TimestampFormatter.formatUtcMillis(0));
+	}
+
+	@Test
+	public void testFormatUtcMillis_knownDates() {
+		assertEquals("2021-06-03T00:00:20.000Z", TimestampFormatter.formatUtcMillis(1622678420000L));
+		assertEquals("2000-02-29T23:59:59.999Z", TimestampFormatter.formatUtcMillis(951868799999L));
+		assertEquals("1969-12-31T23:59:59.999Z", TimestampFormatter.formatUtcMillis(-1L));
+	}
+
+	@Test
+	public void testFormatUtcMillis_matchesSimpleDateFormat() {
+		final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", Locale.US);
+		dateFormat.setTimeZone(TimeZone.getTimeZone("GMT"));
+		final Random random = new Random(42);
+		// 1900-01-01 to 2100-12-31
+		final long minMillis = -2208988800000L;
+		final long maxMillis = 4133980799999L;
+
+		for (int i = 0; i < 10000; i++) {
+			final long millis = minMillis + (long) (random.nextDouble() * (maxMillis - minMillis));
+			assertEquals(dateFormat.format(new Date(millis)), TimestampFormatter.formatUtcMillis(millis));
+		}
+	}
+}
@@ -0,0 +1,62 @@
+/*
+  Copyright 2023 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.util;
+
+import com.adobe.marketing.mobile.services.DataEntity;
+import com.adobe.marketing.mobile.services.DataQueue;
+import java.util.ArrayList;
+import java.util.List;
+
+public class FakeDataQueue implements DataQueue {
+
+	private final List<DataEntity> entities = new ArrayList<>();
+
+	@Override
+	public boolean add(DataEntity dataEntity) {
+		return entities.add(dataEntity);
+	}
+
+	@Override
+	public DataEntity peek() {
+		return entities.isEmpty() ? null : entities.get(0);
+	}
+
+	@Override
+	public List<DataEntity> peek(int n) {
+		return new ArrayList<>(entities.subList(0, Math.min(n, entities.size())));
+	}
+
+	@Override
+	public boolean remove() {
+		return remove(1);
+	}
+
+	@Override
+	public boolean remove(int n) {
+		entities.subList(0, Math.min(n, entities.size())).clear();
+		return true;
+	}
+
+	@Override
+	public boolean clear() {
+		entities.clear();
+		return true;
+	}
+
+	@Override
+	public int count() {
+		return entities.size();
+	}
+
+	@Override
+	public void close() {}
+}
@@ -34,13 +34,28 @@ public class MockConnection implements HttpConnecting {
 		mockGetResponsePropertyValues = headers;
 	}
 
+	public static MockConnection withResponseBytes(
+		final int responseCode,
+		final byte[] responseBody,
+		final Map<String, String> headers
+	) {
+		final MockConnection connection = new MockConnection(responseCode, null, null, headers);
+		connection.mockResponseBodyBytes = responseBody;
+		return connection;
+	}
+
 	public int getInputStreamCalledTimes = 0;
 	private String mockResponseBody;
+	private byte[] mockResponseBodyBytes;
 
 	@Override
 	public InputStream getInputStream() {
 		getInputStreamCalledTimes += 1;
 
+		if (mockResponseBodyBytes != null) {
+			return new ByteArrayInputStream(mockResponseBodyBytes);
+		}
+
 		if (mockResponseBody == null) {
 			return null;
 		}